@@ -1,3 +1,10 @@
 #!/bin/sh
+# Pass --profile as first argument to record a Java Flight Recorder file to ~/.exercise-submitter/recordings
+# All other arguments are passed to the submitter, e.g. to run the command line client
 cd "$(dirname "$0")"
-java --illegal-access=deny -jar ExerciseSubmitter.jar
+PROFILE=""
+if [ "$1" = "--profile" ]; then
+    PROFILE="-Dsubmitter.profile=true"
+    shift
+fi
+java --illegal-access=deny $PROFILE -jar ExerciseSubmitter.jar "$@"
@@ -1,3 +1,17 @@
-@echo off
-cd %~dp0%
-java --illegal-access=deny -jar ExerciseSubmitter.jar
+@echo off
+rem Pass --profile as first argument to record a Java Flight Recorder file to %USERPROFILE%\.exercise-submitter\recordings
+rem All other arguments are passed to the submitter, e.g. to run the command line client
+cd %~dp0%
+set PROFILE=
+if "%~1"=="--profile" (
+    set PROFILE=-Dsubmitter.profile=true
+    shift
+)
+set ARGS=
+:args
+if "%~1"=="" goto run
+set ARGS=%ARGS% %1
+shift
+goto args
+:run
+java --illegal-access=deny %PROFILE% -jar ExerciseSubmitter.jar %ARGS%
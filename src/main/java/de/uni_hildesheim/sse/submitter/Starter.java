@@ -2,24 +2,25 @@ package de.uni_hildesheim.sse.submitter;
 
 import java.io.IOException;
 
-import javax.swing.SwingUtilities;
-import javax.swing.UIManager;
-import javax.swing.UnsupportedLookAndFeelException;
-
 import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
+import de.uni_hildesheim.sse.submitter.cli.CommandLineSubmitter;
+import de.uni_hildesheim.sse.submitter.profiling.Profiling;
 import de.uni_hildesheim.sse.submitter.settings.SubmissionConfiguration;
 import de.uni_hildesheim.sse.submitter.settings.ToolConfiguration;
 import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
+import de.uni_hildesheim.sse.submitter.svn.SvnRequestProfiler;
 import de.uni_hildesheim.sse.submitter.svn.TestSubmitterProtocol;
-import de.uni_hildesheim.sse.submitter.ui.LoginDialog;
 import de.uni_hildesheim.sse.submitter.ui.StandaloneSubmitter;
 import de.uni_hildesheim.sse.submitter.ui.StandaloneSubmitterWindow;
 import net.ssehub.exercisesubmitter.protocol.frontend.SubmitterProtocol;
 
 /**
- * Entry point for the whole program.
+ * Entry point for the whole program. Starts the GUI, or the {@link CommandLineSubmitter} if arguments are given.
+ * <p>
+ * This class must not use any Swing or AWT classes, so that the command line mode also works on machines without a
+ * display.
+ * 
  * @author El-Sharkawy
  *
  */
@@ -36,24 +37,40 @@ public class Starter {
      * different errors and warnings. See SubmissionThread.createMockErrors().
      */
     public static final boolean DEBUG_NO_SUBMISSION = Boolean.getBoolean("submitter.debug.no_submission");
+    
+    /**
+     * Count the HTTP requests sent to the SVN server and log a summary after each operation. See
+     * {@link SvnRequestProfiler}.
+     */
+    public static final boolean DEBUG_SVN_REQUESTS = Boolean.getBoolean("submitter.debug.svn_requests");
 
-    private static final Logger LOGGER = LogManager.getLogger();
+    /**
+     * The system property that selects the log4j configuration file.
+     */
+    private static final String LOG_CONFIGURATION_PROPERTY = "log4j.configurationFile";
     
     /**
      * Starts the program.
-     * @param args Will be ignored.
+     * @param args Empty to start the GUI; otherwise a command for the {@link CommandLineSubmitter}, see
+     *      <code>help</code>.
      */
     public static void main(String[] args) {
-        try {
-            ToolSettings.INSTANCE.init();
-        } catch (IOException e) {
-            LOGGER.fatal("Could not load configuration", e);
+        boolean commandLine = args.length > 0;
+        if (commandLine && System.getProperty(LOG_CONFIGURATION_PROPERTY) == null) {
+            // the results are printed to stdout, don't mix log messages into them
+            // (must be set before the first logger is created, so this class has no LOGGER constant)
+            System.setProperty(LOG_CONFIGURATION_PROPERTY, "log4j2-cli.xml");
+        }
+        
+        Profiling.startIfEnabled();
+        if (DEBUG_SVN_REQUESTS) {
+            SvnRequestProfiler.install();
         }
         
         try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (ReflectiveOperationException | UnsupportedLookAndFeelException e) {
-            LOGGER.warn("Could not switch UI to native look and feel", e);
+            ToolSettings.INSTANCE.init();
+        } catch (IOException e) {
+            LogManager.getLogger().fatal("Could not load configuration", e);
         }
         
         ToolConfiguration tConf = ToolSettings.getConfig();
@@ -72,16 +89,11 @@ public class Starter {
         SubmissionConfiguration config = SubmissionConfiguration.load();
         StandaloneSubmitter model = new StandaloneSubmitter(config, protocol);
         
-        SwingUtilities.invokeLater(() -> {
-            StandaloneSubmitterWindow window = new StandaloneSubmitterWindow(model);
-            window.setLocationRelativeTo(null);
-            window.setVisible(true);
-            
-            LoginDialog dialog = new LoginDialog(window, model);
-            dialog.setVisible(true);
-            
-            window.afterLogin();
-        });
+        if (commandLine) {
+            System.exit(new CommandLineSubmitter(model, System.in, System.out, System.err).run(args));
+        } else {
+            StandaloneSubmitterWindow.start(model);
+        }
     }
 
 }
@@ -0,0 +1,717 @@
+package de.uni_hildesheim.sse.submitter.cli;
+
+import java.io.BufferedReader;
+import java.io.Console;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.svn.ISubmissionOutputHandler;
+import de.uni_hildesheim.sse.submitter.svn.RemoteRepository;
+import de.uni_hildesheim.sse.submitter.svn.Revision;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Severity;
+import de.uni_hildesheim.sse.submitter.ui.StandaloneSubmitter;
+import de.uni_hildesheim.sse.submitter.ui.SubmissionReport;
+import net.ssehub.exercisesubmitter.protocol.frontend.Assignment;
+
+/**
+ * Runs a single command of the submitter without a GUI, e.g. <code>submit --exercise Homework01 src</code>. Drives
+ * the {@link StandaloneSubmitter} directly and never loads Swing or AWT classes, so it also works on machines without
+ * a display.
+ * <p>
+ * The password is read from the console, or from the first line of stdin if there is no console. Results are printed
+ * to stdout, messages for the user to stdout and stderr. With <code>--json</code>, a single JSON object with the
+ * result, the messages and the problems reported by the SVN hook is printed to stdout instead. The outcome is
+ * returned as {@link ExitCode}.
+ *
+ * @author Adam Krafczyk
+ */
+public class CommandLineSubmitter implements ISubmissionOutputHandler {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int DEFAULT_HISTORY_LIMIT = 20;
+
+    private static final String USAGE_LINE = "  %-26s %s";
+
+    /**
+     * The commands and their arguments.
+     */
+    private enum Command {
+        LIST_ASSIGNMENTS("list-assignments", "", 0),
+        SUBMIT("submit", "[folder]", 0),
+        HISTORY("history", "", 0),
+        REPLAY("replay", "<revision> [folder]", 1),
+        REVIEW("review", "[folder]", 0),
+        HELP("help", "", 0);
+
+        private String commandName;
+
+        private String arguments;
+
+        private int requiredArguments;
+
+        /**
+         * Internal constructor.
+         *
+         * @param commandName The name on the command line.
+         * @param arguments The description of the arguments for the usage. Optional arguments are in brackets.
+         * @param requiredArguments The number of arguments that must be given.
+         */
+        private Command(String commandName, String arguments, int requiredArguments) {
+            this.commandName = commandName;
+            this.arguments = arguments;
+            this.requiredArguments = requiredArguments;
+        }
+
+        /**
+         * Returns the maximum number of arguments.
+         *
+         * @return The number of required and optional arguments.
+         */
+        private int getMaxArguments() {
+            return arguments.isEmpty() ? 0 : arguments.split(" ").length;
+        }
+
+        /**
+         * Returns the command with the given name.
+         *
+         * @param commandName The name on the command line.
+         *
+         * @return The command, or <code>null</code> if there is no command with this name.
+         */
+        private static Command byName(String commandName) {
+            Command result = null;
+            for (Command command : values()) {
+                if (command.commandName.equals(commandName)) {
+                    result = command;
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Thrown if the command line arguments are invalid.
+     */
+    private static class UsageException extends Exception {
+
+        private static final long serialVersionUID = -1652361268574823906L;
+
+        /**
+         * Creates an exception.
+         *
+         * @param message The message for the user.
+         */
+        private UsageException(String message) {
+            super(message);
+        }
+
+    }
+
+    private StandaloneSubmitter model;
+
+    private BufferedReader in;
+
+    private PrintStream out;
+
+    private PrintStream err;
+
+    /*
+     * Command line arguments
+     */
+    private Command command;
+    private List<String> arguments = new ArrayList<>();
+    private boolean json;
+    private String user;
+    private String exerciseName;
+    private int limit = DEFAULT_HISTORY_LIMIT;
+    private long revision;
+
+    /*
+     * Output
+     */
+    private JsonWriter jsonResult = new JsonWriter();
+    private List<String> infoMessages = new ArrayList<>();
+    private List<String> errorMessages = new ArrayList<>();
+
+    /**
+     * Creates a command line submitter.
+     *
+     * @param model The {@link StandaloneSubmitter} to use. Is shut down after the command.
+     * @param in The input to read the password from if there is no console.
+     * @param out The output for results and messages.
+     * @param err The output for error messages.
+     */
+    public CommandLineSubmitter(StandaloneSubmitter model, InputStream in, PrintStream out, PrintStream err) {
+        this.model = model;
+        this.in = new BufferedReader(new InputStreamReader(in));
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Runs the command given by the command line arguments.
+     *
+     * @param args The command line arguments, see <code>help</code>.
+     *
+     * @return The exit code, see {@link ExitCode}.
+     */
+    public int run(String[] args) {
+        ExitCode exitCode;
+        try {
+            parseArguments(args);
+            if (command == Command.HELP) {
+                printUsage(out);
+                exitCode = ExitCode.SUCCESS;
+            } else {
+                model.setOutputHandler(this);
+                jsonResult.beginObject().name("command").value(command.commandName);
+                exitCode = login();
+                if (exitCode == ExitCode.SUCCESS) {
+                    exitCode = execute();
+                }
+                if (json) {
+                    printJson(exitCode);
+                }
+            }
+        } catch (UsageException e) {
+            err.println(e.getMessage());
+            printUsage(err);
+            exitCode = ExitCode.USAGE;
+        } finally {
+            model.shutdown();
+        }
+        return exitCode.getCode();
+    }
+
+    /**
+     * Parses the command line arguments into the fields of this class.
+     *
+     * @param args The command line arguments.
+     *
+     * @throws UsageException If the arguments are invalid.
+     */
+    private void parseArguments(String[] args) throws UsageException {
+        Iterator<String> iterator = Arrays.asList(args).iterator();
+        String commandName = null;
+        while (iterator.hasNext()) {
+            String argument = iterator.next();
+            switch (argument) {
+            case "--json":
+                json = true;
+                break;
+            case "--user":
+                user = nextValue(iterator, argument);
+                break;
+            case "--exercise":
+                exerciseName = nextValue(iterator, argument);
+                break;
+            case "--limit":
+                limit = (int) parseNumber(nextValue(iterator, argument));
+                break;
+            default:
+                if (argument.startsWith("--")) {
+                    throw new UsageException(I18nProvider.getText("cli.error.unknown_option", argument));
+                } else if (commandName == null) {
+                    commandName = argument;
+                } else {
+                    arguments.add(argument);
+                }
+                break;
+            }
+        }
+
+        command = Command.byName(commandName);
+        if (commandName == null) {
+            throw new UsageException(I18nProvider.getText("cli.error.no_command"));
+        } else if (command == null) {
+            throw new UsageException(I18nProvider.getText("cli.error.unknown_command", commandName));
+        }
+        if (arguments.size() < command.requiredArguments || arguments.size() > command.getMaxArguments()) {
+            throw new UsageException(I18nProvider.getText("cli.error.wrong_arguments", commandName));
+        }
+        if (command == Command.REPLAY) {
+            revision = parseNumber(arguments.remove(0));
+        }
+    }
+
+    /**
+     * Returns the value of an option.
+     *
+     * @param iterator The iterator over the arguments, positioned after the option.
+     * @param option The name of the option.
+     *
+     * @return The value of the option.
+     *
+     * @throws UsageException If the option is the last argument.
+     */
+    private static String nextValue(Iterator<String> iterator, String option) throws UsageException {
+        if (!iterator.hasNext()) {
+            throw new UsageException(I18nProvider.getText("cli.error.missing_value", option));
+        }
+        return iterator.next();
+    }
+
+    /**
+     * Parses a positive number, e.g. a revision.
+     *
+     * @param value The argument to parse.
+     *
+     * @return The number.
+     *
+     * @throws UsageException If the argument is not a positive number.
+     */
+    private static long parseNumber(String value) throws UsageException {
+        long result;
+        try {
+            result = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            result = -1;
+        }
+        if (result <= 0 || result > Integer.MAX_VALUE) {
+            throw new UsageException(I18nProvider.getText("cli.error.invalid_number", value));
+        }
+        return result;
+    }
+
+    /**
+     * Prints the usage of the command line mode.
+     *
+     * @param target The output to print to.
+     */
+    private void printUsage(PrintStream target) {
+        target.println(I18nProvider.getText("cli.usage"));
+        target.println();
+        target.println(I18nProvider.getText("cli.usage.commands"));
+        for (Command available : Command.values()) {
+            target.println(String.format(USAGE_LINE, (available.commandName + " " + available.arguments).trim(),
+                    I18nProvider.getText("cli.command." + available.commandName)));
+        }
+        target.println();
+        target.println(I18nProvider.getText("cli.usage.options"));
+        target.println(String.format(USAGE_LINE, "--json", I18nProvider.getText("cli.option.json")));
+        target.println(String.format(USAGE_LINE, "--user <name>", I18nProvider.getText("cli.option.user")));
+        target.println(String.format(USAGE_LINE, "--exercise <name>", I18nProvider.getText("cli.option.exercise")));
+        target.println(String.format(USAGE_LINE, "--limit <n>",
+                I18nProvider.getText("cli.option.limit", DEFAULT_HISTORY_LIMIT)));
+        target.println();
+        target.println(I18nProvider.getText("cli.usage.exit_codes"));
+    }
+
+    /**
+     * Logs into the student management system and the SVN server.
+     *
+     * @return {@link ExitCode#SUCCESS} or {@link ExitCode#LOGIN_FAILED}.
+     *
+     * @throws UsageException If no user name is given.
+     */
+    private ExitCode login() throws UsageException {
+        String name = user != null ? user : model.getUser();
+        if (name == null || name.isEmpty()) {
+            throw new UsageException(I18nProvider.getText("cli.error.no_user"));
+        }
+        jsonResult.name("user").value(name);
+
+        ExitCode result = ExitCode.LOGIN_FAILED;
+        char[] password = readPassword(name);
+        if (password == null || password.length == 0) {
+            showErrorMessage(I18nProvider.getText("cli.error.no_password"));
+        } else {
+            model.setUser(name);
+            model.setPassword(password);
+            String errorMessage = model.loginAsync().join();
+            if (errorMessage == null) {
+                result = ExitCode.SUCCESS;
+            } else {
+                showErrorMessage(errorMessage);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the password from the console, or from the first line of the input if there is no console (e.g. in
+     * scripts).
+     *
+     * @param name The user name, shown in the prompt.
+     *
+     * @return The password, or <code>null</code> if the input is empty.
+     */
+    private char[] readPassword(String name) {
+        char[] result = null;
+        Console console = System.console();
+        if (console != null) {
+            result = console.readPassword("%s ", I18nProvider.getText("cli.password", name));
+        } else {
+            try {
+                String line = in.readLine();
+                if (line != null) {
+                    result = line.toCharArray();
+                }
+            } catch (IOException e) {
+                LOGGER.error("Could not read password", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs the command, after the login succeeded.
+     *
+     * @return The exit code.
+     */
+    private ExitCode execute() {
+        ExitCode result;
+        switch (command) {
+        case LIST_ASSIGNMENTS:
+            result = listAssignments();
+            break;
+        case SUBMIT:
+            result = submit();
+            break;
+        case HISTORY:
+            result = history();
+            break;
+        case REPLAY:
+            result = replay();
+            break;
+        case REVIEW:
+            result = review();
+            break;
+        default:
+            result = ExitCode.USAGE;
+            break;
+        }
+        return result;
+    }
+
+    /**
+     * Prints the exercises that are open for submission.
+     *
+     * @return The exit code.
+     */
+    private ExitCode listAssignments() {
+        ExitCode result = ExitCode.FAILED;
+        List<Assignment> assignments = model.getOpenAssignmentsAsync().join();
+        if (assignments != null) {
+            jsonResult.name("assignments").beginArray();
+            for (Assignment assignment : assignments) {
+                jsonResult.beginObject()
+                    .name("name").value(assignment.getName())
+                    .name("state").value(nameOf(assignment.getState()))
+                    .name("groupWork").value(assignment.isGroupWork())
+                    .endObject();
+                if (!json) {
+                    out.println(assignment.getName() + "\t" + assignment.getState());
+                }
+            }
+            jsonResult.endArray();
+            result = ExitCode.SUCCESS;
+        }
+        return result;
+    }
+
+    /**
+     * Submits the given folder.
+     *
+     * @return The exit code, depending on the outcome of the submission.
+     */
+    private ExitCode submit() {
+        ExitCode result = ExitCode.FAILED;
+        Assignment exercise = selectExercise(model.getOpenAssignmentsAsync().join());
+        File directory = getDirectory(0);
+        if (exercise != null && directory != null) {
+            writeTarget(exercise, directory);
+            try {
+                SubmissionReport report = model.submitAsync(exercise, directory).join();
+                model.showSubmissionReport(report);
+                writeReport(report);
+                result = ExitCode.of(report);
+            } catch (CompletionException e) {
+                LOGGER.error("Couldn't read submission folder", e.getCause());
+                showErrorMessage(I18nProvider.getText("gui.error.unexpected_error"));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Prints the newest submitted versions of the exercise.
+     *
+     * @return The exit code.
+     */
+    private ExitCode history() {
+        ExitCode result = ExitCode.FAILED;
+        Assignment exercise = selectExercise(model.getOpenAssignmentsAsync().join());
+        if (exercise != null) {
+            int errors = errorMessages.size();
+            jsonResult.name("exercise").value(exercise.getName()).name("revisions").beginArray();
+            model.getHistory(exercise, RemoteRepository.HEAD, limit, this::showRevision);
+            jsonResult.endArray();
+            if (errorMessages.size() == errors) {
+                result = ExitCode.SUCCESS;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replays the given version of the exercise into the given folder.
+     *
+     * @return The exit code.
+     */
+    private ExitCode replay() {
+        ExitCode result = ExitCode.FAILED;
+        Assignment exercise = selectExercise(model.getOpenAssignmentsAsync().join());
+        File directory = getDirectory(0);
+        if (exercise != null && directory != null) {
+            writeTarget(exercise, directory);
+            jsonResult.name("revision").value(revision);
+            int errors = errorMessages.size();
+            model.replaySubmission(exercise, revision, directory);
+            if (errorMessages.size() == errors) {
+                result = ExitCode.SUCCESS;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replays the correction of a reviewed exercise into the given folder.
+     *
+     * @return The exit code.
+     */
+    private ExitCode review() {
+        ExitCode result = ExitCode.FAILED;
+        Assignment exercise = selectExercise(model.getAssignmentsInReviewedState());
+        File directory = getDirectory(0);
+        if (exercise != null && directory != null) {
+            writeTarget(exercise, directory);
+            int errors = errorMessages.size();
+            model.replayCorrection(exercise, directory);
+            if (errorMessages.size() == errors) {
+                result = ExitCode.SUCCESS;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Selects the exercise given by <code>--exercise</code>. Without this option, the only exercise or the last used
+     * one is selected. Shows an error message if no exercise could be selected.
+     *
+     * @param exercises The exercises to select from. May be <code>null</code> if they could not be queried; then the
+     *      error has already been shown.
+     *
+     * @return The selected exercise, or <code>null</code>.
+     */
+    private Assignment selectExercise(List<Assignment> exercises) {
+        Assignment result = null;
+        if (exercises != null) {
+            String name = exerciseName;
+            if (name == null && exercises.size() != 1 && model.getSelectedExercise() != null) {
+                name = model.getSelectedExercise().getName();
+            }
+
+            if (name != null) {
+                for (Assignment exercise : exercises) {
+                    if (name.equals(exercise.getName())) {
+                        result = exercise;
+                    }
+                }
+            } else if (exercises.size() == 1) {
+                result = exercises.get(0);
+            }
+
+            if (result == null) {
+                String names = exercises.stream().map(Assignment::getName).collect(Collectors.joining(", "));
+                if (exercises.isEmpty()) {
+                    showErrorMessage(I18nProvider.getText("cli.error.no_exercises"));
+                } else if (exerciseName != null) {
+                    showErrorMessage(I18nProvider.getText("cli.error.unknown_exercise", exerciseName, names));
+                } else {
+                    showErrorMessage(I18nProvider.getText("cli.error.choose_exercise", names));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the folder given as argument, or the last used folder. Shows an error message if it is not a folder.
+     *
+     * @param index The index of the argument.
+     *
+     * @return The folder, or <code>null</code>.
+     */
+    private File getDirectory(int index) {
+        File result = arguments.size() > index ? new File(arguments.get(index)) : model.getDirectoryToSubmit();
+        if (result == null) {
+            showErrorMessage(I18nProvider.getText("gui.error.no_path_given"));
+        } else if (!result.isDirectory()) {
+            showErrorMessage(I18nProvider.getText("errors.messages.not_a_direcotry", result.getAbsolutePath()));
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Adds the exercise and folder of an operation to the JSON result.
+     *
+     * @param exercise The exercise.
+     * @param directory The local folder.
+     */
+    private void writeTarget(Assignment exercise, File directory) {
+        jsonResult.name("exercise").value(exercise.getName())
+            .name("directory").value(directory.getAbsolutePath());
+    }
+
+    /**
+     * Adds the outcome of a submission, including the problems reported by the SVN hook, to the JSON result.
+     *
+     * @param report The outcome of the submission.
+     */
+    private void writeReport(SubmissionReport report) {
+        jsonResult.name("accepted").value(report.isAccepted())
+            .name("revision").value(report.getRevision())
+            .name("errorType").value(nameOf(report.getErrorType()))
+            .name("submissionPath").value(report.getSubmissionPath())
+            .name("javaFiles").value(report.getNumJavaFiles());
+        if (report.getTimings() != null) {
+            jsonResult.name("millis").value(report.getTimings().getTotalMillis());
+        }
+
+        jsonResult.name("problems");
+        if (report.getHookErrors() == null) {
+            // the output of the hook could not be parsed
+            jsonResult.value((String) null);
+        } else {
+            jsonResult.beginArray();
+            for (ErrorDescription problem : report.getHookErrors()) {
+                jsonResult.beginObject()
+                    .name("tool").value(problem.getTool() != null ? problem.getTool().getToolName() : null)
+                    .name("severity").value(nameOf(problem.getSeverity()))
+                    .name("file").value(problem.getFile())
+                    .name("line").value(problem.getLine())
+                    .name("message").value(problem.getMessage())
+                    .endObject();
+            }
+            jsonResult.endArray();
+        }
+    }
+
+    /**
+     * Shows a single revision of the history.
+     *
+     * @param revision The revision.
+     */
+    private void showRevision(Revision revision) {
+        jsonResult.beginObject()
+            .name("revision").value(revision.getRevision())
+            .name("description").value(revision.toString())
+            .endObject();
+        if (!json) {
+            out.println(revision);
+        }
+    }
+
+    /**
+     * Prints the JSON result, including all messages.
+     *
+     * @param exitCode The exit code of the command.
+     */
+    private void printJson(ExitCode exitCode) {
+        jsonResult.name("exitCode").value(exitCode.getCode());
+        jsonResult.name("messages").beginArray();
+        for (String message : infoMessages) {
+            jsonResult.value(message);
+        }
+        jsonResult.endArray().name("errors").beginArray();
+        for (String message : errorMessages) {
+            jsonResult.value(message);
+        }
+        jsonResult.endArray().endObject();
+        out.println(jsonResult);
+    }
+
+    /**
+     * Formats a problem reported by the SVN hook as a single line, e.g.
+     * <code>Error [checkstyle] Main.java:12: Missing a Javadoc comment.</code>
+     *
+     * @param problem The problem.
+     *
+     * @return The formatted problem.
+     */
+    static String formatProblem(ErrorDescription problem) {
+        Severity severity = problem.getSeverity() != null ? problem.getSeverity() : Severity.UNKNOWN;
+        StringBuilder line = new StringBuilder();
+        line.append(I18nProvider.getText("gui.severity." + severity.name().toLowerCase(Locale.ROOT)));
+        if (problem.getTool() != null) {
+            line.append(" [").append(problem.getTool().getToolName()).append(']');
+        }
+        if (problem.getFile() != null) {
+            line.append(' ').append(problem.getFile());
+            if (problem.getLine() > 0) {
+                line.append(':').append(problem.getLine());
+            }
+            line.append(':');
+        }
+        line.append(' ').append(problem.getMessage());
+        return line.toString();
+    }
+
+    /**
+     * Returns the name of an enum literal for the JSON result.
+     *
+     * @param literal The literal, may be <code>null</code>.
+     *
+     * @return The name of the literal, or <code>null</code>.
+     */
+    private static String nameOf(Enum<?> literal) {
+        return literal != null ? literal.name() : null;
+    }
+
+    @Override
+    public void showInfoMessage(String message) {
+        infoMessages.add(message);
+        if (!json) {
+            out.println(message);
+        }
+    }
+
+    @Override
+    public void showErrorMessage(String message) {
+        errorMessages.add(message);
+        if (!json) {
+            err.println(message);
+        }
+    }
+
+    @Override
+    public void showInfoMessage(String message, ErrorDescription[] descriptions) {
+        showInfoMessage(message);
+        if (!json) {
+            // in JSON, the problems are part of the submission result
+            for (ErrorDescription description : descriptions) {
+                out.println("  " + formatProblem(description));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+package de.uni_hildesheim.sse.submitter.cli;
+
+import org.tmatesoft.svn.core.SVNCommitInfo;
+
+import de.uni_hildesheim.sse.submitter.svn.ErrorType;
+import de.uni_hildesheim.sse.submitter.ui.SubmissionReport;
+
+/**
+ * The exit codes of the {@link CommandLineSubmitter}. Failed submissions are mapped to a separate code for each
+ * {@link ErrorType}, so that scripts can react to the reason.
+ *
+ * @author Adam Krafczyk
+ */
+public enum ExitCode {
+
+    /**
+     * The operation succeeded; a submission was accepted without problems.
+     */
+    SUCCESS(0),
+
+    /**
+     * The command line arguments are invalid.
+     */
+    USAGE(1),
+
+    /**
+     * The login to the student management system or the SVN repository failed, e.g. because of wrong
+     * credentials.
+     */
+    LOGIN_FAILED(2),
+
+    /**
+     * The operation failed; the reason is printed as a message.
+     */
+    FAILED(3),
+
+    /**
+     * The pre-commit hook rejected the submission.
+     */
+    NOT_ACCEPTED(4),
+
+    /**
+     * The submission is stored, but the post-commit hook reported problems.
+     */
+    ERRORS_FOUND(5),
+
+    /**
+     * The SVN server is not reachable.
+     */
+    NO_REPOSITORY_FOUND(10),
+
+    /**
+     * No temporary folder for checking out the files from the server could be created.
+     */
+    COULD_NOT_CREATE_TEMP_DIR(11),
+
+    /**
+     * The SVN server is reachable, but the exercise was not found on it.
+     */
+    NO_EXERCISE_FOUND(12),
+
+    /**
+     * The SVN statuses of the files to submit could not be changed.
+     */
+    DO_STATUS_NOT_POSSIBLE(13),
+
+    /**
+     * The exercise was found, but the user has no right to submit into it.
+     */
+    CANNOT_COMMIT(14),
+
+    /**
+     * The student management system could not be queried for the information required to submit.
+     */
+    COULD_NOT_QUERY_MANAGEMENT_SYSTEM(15);
+
+    private int code;
+
+    /**
+     * Internal constructor.
+     *
+     * @param code The value returned to the operating system.
+     */
+    private ExitCode(int code) {
+        this.code = code;
+    }
+
+    /**
+     * Returns the value that is returned to the operating system.
+     *
+     * @return The exit code.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the exit code for a submission that failed before the commit reached the SVN server.
+     *
+     * @param errorType The reason of the failure. May be <code>null</code>.
+     *
+     * @return The exit code for the reason, {@link #FAILED} if it is not known.
+     */
+    public static ExitCode of(ErrorType errorType) {
+        ExitCode result = FAILED;
+        if (errorType != null) {
+            switch (errorType) {
+            case NO_REPOSITORY_FOUND:
+                result = NO_REPOSITORY_FOUND;
+                break;
+            case COULD_NOT_CREATE_TEMP_DIR:
+                result = COULD_NOT_CREATE_TEMP_DIR;
+                break;
+            case NO_EXERCISE_FOUND:
+                result = NO_EXERCISE_FOUND;
+                break;
+            case DO_STATUS_NOT_POSSIBLE:
+                result = DO_STATUS_NOT_POSSIBLE;
+                break;
+            case CANNOT_COMMIT:
+                result = CANNOT_COMMIT;
+                break;
+            case COULD_NOT_QUERY_MANAGEMENT_SYSTEM:
+                result = COULD_NOT_QUERY_MANAGEMENT_SYSTEM;
+                break;
+            default:
+                result = FAILED;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the exit code for the outcome of a submission.
+     *
+     * @param report The outcome of the submission.
+     *
+     * @return The exit code.
+     */
+    public static ExitCode of(SubmissionReport report) {
+        ExitCode result;
+        SVNCommitInfo commitInfo = report.getCommitInfo();
+        if (report.getFailure() != null) {
+            result = of(report.getErrorType());
+        } else if (!report.isAccepted()) {
+            result = NOT_ACCEPTED;
+        } else if (commitInfo.getErrorMessage() != null) {
+            result = ERRORS_FOUND;
+        } else {
+            result = SUCCESS;
+        }
+        return result;
+    }
+
+}
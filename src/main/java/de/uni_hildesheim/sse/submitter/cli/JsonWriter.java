@@ -0,0 +1,189 @@
+package de.uni_hildesheim.sse.submitter.cli;
+
+/**
+ * Writes JSON text for the output of the {@link CommandLineSubmitter}. Supports objects, arrays, strings, numbers,
+ * booleans and <code>null</code>; the caller is responsible for a valid nesting.
+ *
+ * @author Adam Krafczyk
+ */
+class JsonWriter {
+
+    private StringBuilder json = new StringBuilder();
+
+    private boolean separatorNeeded;
+
+    /**
+     * Starts an object.
+     *
+     * @return This writer.
+     */
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return This writer.
+     */
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    /**
+     * Starts an array.
+     *
+     * @return This writer.
+     */
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return This writer.
+     */
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name The name of the member.
+     *
+     * @return This writer.
+     */
+    public JsonWriter name(String name) {
+        value(name);
+        json.append(':');
+        separatorNeeded = false;
+        return this;
+    }
+
+    /**
+     * Writes a string.
+     *
+     * @param value The string, may be <code>null</code>.
+     *
+     * @return This writer.
+     */
+    public JsonWriter value(String value) {
+        separate();
+        if (value == null) {
+            json.append("null");
+        } else {
+            quote(value);
+        }
+        separatorNeeded = true;
+        return this;
+    }
+
+    /**
+     * Writes a number.
+     *
+     * @param value The number.
+     *
+     * @return This writer.
+     */
+    public JsonWriter value(long value) {
+        separate();
+        json.append(value);
+        separatorNeeded = true;
+        return this;
+    }
+
+    /**
+     * Writes a boolean.
+     *
+     * @param value The boolean.
+     *
+     * @return This writer.
+     */
+    public JsonWriter value(boolean value) {
+        separate();
+        json.append(value);
+        separatorNeeded = true;
+        return this;
+    }
+
+    /**
+     * Starts an object or array.
+     *
+     * @param bracket The opening bracket.
+     *
+     * @return This writer.
+     */
+    private JsonWriter open(char bracket) {
+        separate();
+        json.append(bracket);
+        separatorNeeded = false;
+        return this;
+    }
+
+    /**
+     * Ends an object or array.
+     *
+     * @param bracket The closing bracket.
+     *
+     * @return This writer.
+     */
+    private JsonWriter close(char bracket) {
+        json.append(bracket);
+        separatorNeeded = true;
+        return this;
+    }
+
+    /**
+     * Writes a comma if a value was written before at the current level.
+     */
+    private void separate() {
+        if (separatorNeeded) {
+            json.append(',');
+        }
+    }
+
+    /**
+     * Writes a string literal, escaping quotes, backslashes and control characters.
+     *
+     * @param value The string.
+     */
+    private void quote(String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            switch (character) {
+            case '"':
+                json.append("\\\"");
+                break;
+            case '\\':
+                json.append("\\\\");
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            case '\r':
+                json.append("\\r");
+                break;
+            case '\t':
+                json.append("\\t");
+                break;
+            default:
+                if (character < ' ') {
+                    json.append(String.format("\\u%04x", (int) character));
+                } else {
+                    json.append(character);
+                }
+                break;
+            }
+        }
+        json.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Command line mode of the submitter, which runs without Swing and AWT, e.g. on machines without a display.
+ */
+package de.uni_hildesheim.sse.submitter.cli;
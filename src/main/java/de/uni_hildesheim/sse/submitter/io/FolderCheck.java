@@ -1,9 +1,33 @@
 package de.uni_hildesheim.sse.submitter.io;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.uni_hildesheim.sse.submitter.profiling.FolderCheckEvent;
 
 /**
  * A class for checking a submission folder, e.g. size and number of files (recursively, including all sub-folders).
+ * <p>
+ * In bounded mode (see {@link #FolderCheck(File, int, long)}), the check stops as soon as a limit is exceeded. The
+ * results are then lower bounds ("at least N files"). Otherwise, the same walk also creates the
+ * {@link SubmissionManifest} of the folder, so that it does not need to be scanned a second time.
+ * <p>
+ * Symbolic links are followed, but each folder is walked only once, so that links pointing to one of their parent
+ * folders do not cause an endless walk. Broken links and special files like pipes or sockets are ignored.
  * 
  * @author Adam
  */
@@ -15,36 +39,245 @@ public class FolderCheck {
     
     private long totalSize;
     
+    private boolean limitExceeded;
+    
+    private SubmissionManifest manifest;
+    
+    /**
+     * Counters shared by all {@link ScanTask}s of a check.
+     */
+    private static class Counter {
+        
+        private AtomicInteger numFiles = new AtomicInteger();
+        
+        private AtomicInteger numJavaFiles = new AtomicInteger();
+        
+        private AtomicLong totalSize = new AtomicLong();
+        
+        private volatile boolean limitExceeded;
+        
+        private int maxFiles;
+        
+        private long maxSize;
+        
+        private Queue<SubmissionManifest.Entry> entries = new ConcurrentLinkedQueue<>();
+        
+        private Set<Path> visitedDirectories = ConcurrentHashMap.newKeySet();
+        
+        /**
+         * Creates a counter.
+         * 
+         * @param maxFiles The number of files above which the check stops.
+         * @param maxSize The total size in bytes above which the check stops.
+         */
+        Counter(int maxFiles, long maxSize) {
+            this.maxFiles = maxFiles;
+            this.maxSize = maxSize;
+        }
+        
+        /**
+         * Counts a single file and adds it to the entries of the manifest.
+         * 
+         * @param path The path of the file relative to the checked folder.
+         * @param file The file to count.
+         * @param attributes The attributes of the file.
+         */
+        void count(String path, File file, BasicFileAttributes attributes) {
+            long length = attributes.size();
+            entries.add(new SubmissionManifest.Entry(path, file, false, length,
+                    attributes.lastModifiedTime().toMillis()));
+            int files = numFiles.incrementAndGet();
+            long size = totalSize.addAndGet(length);
+            if (file.getName().endsWith(".java")) {
+                numJavaFiles.incrementAndGet();
+            }
+            if (files > maxFiles || size > maxSize) {
+                limitExceeded = true;
+            }
+        }
+        
+        /**
+         * Adds a folder to the entries of the manifest.
+         * 
+         * @param path The path of the folder relative to the checked folder.
+         * @param directory The folder.
+         * @param attributes The attributes of the folder.
+         */
+        void addDirectory(String path, File directory, BasicFileAttributes attributes) {
+            entries.add(new SubmissionManifest.Entry(path, directory, true, 0,
+                    attributes.lastModifiedTime().toMillis()));
+        }
+        
+        /**
+         * Marks a folder as walked.
+         * 
+         * @param directory The folder, possibly reached through a symbolic link.
+         * 
+         * @return <code>false</code> if the folder was already walked (e.g. it is a parent folder of a symbolic link
+         *      that points to it) or cannot be resolved; the folder must not be walked again then.
+         */
+        boolean visit(File directory) {
+            boolean firstVisit;
+            try {
+                firstVisit = visitedDirectories.add(directory.toPath().toRealPath());
+            } catch (IOException e) {
+                firstVisit = false;
+            }
+            return firstVisit;
+        }
+        
+        /**
+         * Whether the check should stop, because a limit is exceeded.
+         * 
+         * @return <code>true</code> if no more files should be counted.
+         */
+        boolean shouldStop() {
+            return limitExceeded;
+        }
+        
+    }
+    
+    /**
+     * Counts the files in a single directory and forks a sub-task for each sub-directory.
+     */
+    private static class ScanTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1420466361366513416L;
+        
+        private File directory;
+        
+        private String path;
+        
+        private transient Counter counter;
+        
+        /**
+         * Creates a task.
+         * 
+         * @param directory The directory to scan.
+         * @param path The path of the directory relative to the checked folder, empty for the checked folder itself.
+         * @param counter The counter to add the files to.
+         */
+        ScanTask(File directory, String path, Counter counter) {
+            this.directory = directory;
+            this.path = path;
+            this.counter = counter;
+        }
+        
+        @Override
+        protected void compute() {
+            File[] files = counter.shouldStop() ? null : directory.listFiles();
+            if (files != null) {
+                List<ScanTask> subTasks = new ArrayList<>();
+                for (int i = 0; i < files.length && !counter.shouldStop(); i++) {
+                    String filePath = path.isEmpty() ? files[i].getName() : path + "/" + files[i].getName();
+                    BasicFileAttributes attributes = readAttributes(files[i].toPath());
+                    if (attributes != null && attributes.isRegularFile()) {
+                        counter.count(filePath, files[i], attributes);
+                    } else if (attributes != null && attributes.isDirectory() && !files[i].getName().equals(".svn")
+                            && counter.visit(files[i])) {
+                        counter.addDirectory(filePath, files[i], attributes);
+                        subTasks.add(new ScanTask(files[i], filePath, counter));
+                    }
+                }
+                invokeAll(subTasks);
+            }
+        }
+        
+        /**
+         * Reads the attributes of a file or folder. Symbolic links are resolved.
+         * 
+         * @param path The file or folder.
+         * 
+         * @return The attributes of the file or of the target of the link, or <code>null</code> if the link is broken
+         *      or the attributes cannot be read.
+         */
+        private static BasicFileAttributes readAttributes(Path path) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                if (attributes.isSymbolicLink()) {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                }
+            } catch (IOException e) {
+                attributes = null;
+            }
+            return attributes;
+        }
+        
+    }
+    
     /**
      * Creates a {@link FolderCheck} for the given directory.
      * 
      * @param directory The folder to check.
      */
     public FolderCheck(File directory) {
-        init(directory);
+        FolderCheckEvent event = new FolderCheckEvent(directory.getPath(), false);
+        event.begin();
+        Counter counter = walk(directory, Integer.MAX_VALUE, Long.MAX_VALUE);
+        numFiles = counter.numFiles.get();
+        numJavaFiles = counter.numJavaFiles.get();
+        totalSize = counter.totalSize.get();
+        event.setFiles(numFiles, totalSize);
+        event.commit();
     }
     
     /**
-     * Initializes the data for the given folder. Results are stored in attributes of this object.
+     * Creates a bounded {@link FolderCheck} for the given directory. Sub-directories are scanned in parallel. The
+     * scan stops as soon as more than <code>maxFiles</code> files or more than <code>maxSize</code> bytes are found,
+     * see {@link #isLimitExceeded()}. <code>.svn</code> folders are not counted. If the scan finishes, the
+     * {@link SubmissionManifest} of the folder is available from {@link #getManifest()}.
      * 
      * @param directory The folder to check.
+     * @param maxFiles The number of files above which the check stops.
+     * @param maxSize The total size in bytes above which the check stops.
      */
-    private void init(File directory) {
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isFile()) {
-                    numFiles++;
-                    totalSize += file.length();
-                    if (file.getName().endsWith(".java")) {
-                        numJavaFiles++;
-                    }
-                    
-                } else {
-                    init(file);
-                }
-            }
+    public FolderCheck(File directory, int maxFiles, long maxSize) {
+        FolderCheckEvent event = new FolderCheckEvent(directory.getPath(), true);
+        event.begin();
+        Counter counter = walk(directory, maxFiles, maxSize);
+        
+        numFiles = counter.numFiles.get();
+        numJavaFiles = counter.numJavaFiles.get();
+        totalSize = counter.totalSize.get();
+        limitExceeded = counter.limitExceeded;
+        if (!limitExceeded) {
+            manifest = SubmissionManifest.of(directory, counter.entries);
+        }
+        
+        event.setFiles(numFiles, totalSize);
+        if (limitExceeded) {
+            event.setOutcome("limit_exceeded");
         }
+        event.commit();
+    }
+    
+    /**
+     * Creates a {@link FolderCheck} for an already scanned directory. Does not access the file system.
+     * 
+     * @param manifest The manifest of the folder to check.
+     */
+    public FolderCheck(SubmissionManifest manifest) {
+        numFiles = manifest.getNumFiles();
+        numJavaFiles = manifest.getNumJavaFiles();
+        totalSize = manifest.getTotalSize();
+        this.manifest = manifest;
+    }
+    
+    /**
+     * Walks the given folder, sub-directories are scanned in parallel.
+     * 
+     * @param directory The folder to check.
+     * @param maxFiles The number of files above which the walk stops.
+     * @param maxSize The total size in bytes above which the walk stops.
+     * 
+     * @return The counter with the results of the walk.
+     */
+    private static Counter walk(File directory, int maxFiles, long maxSize) {
+        Counter counter = new Counter(maxFiles, maxSize);
+        counter.visit(directory);
+        ForkJoinPool.commonPool().invoke(new ScanTask(directory, "", counter));
+        return counter;
     }
     
     /**
@@ -74,4 +307,25 @@ public class FolderCheck {
         return totalSize;
     }
     
+    /**
+     * Returns whether a bounded check stopped early because a limit was exceeded. In this case, the other results
+     * are lower bounds.
+     * 
+     * @return <code>true</code> if the folder contains at least {@link #getNumFiles()} files or at least
+     *      {@link #getTotalSize()} bytes, and more than allowed.
+     */
+    public boolean isLimitExceeded() {
+        return limitExceeded;
+    }
+    
+    /**
+     * Returns the manifest of the checked folder, created during the check.
+     * 
+     * @return The manifest, or <code>null</code> if the check was not bounded, or stopped early because a limit was
+     *      exceeded.
+     */
+    public SubmissionManifest getManifest() {
+        return manifest;
+    }
+    
 }
@@ -3,6 +3,7 @@ package de.uni_hildesheim.sse.submitter.io;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -22,6 +23,8 @@ public class FolderInitializer {
 
     private static final IOFileFilter NO_SVN_FILES_FILTER = FileFilterUtils.makeSVNAware(null);
     
+    private static final String SVN_FOLDER_NAME = ".svn";
+    
     private File sourceFolder;
     private File destFolder;
 
@@ -56,7 +59,151 @@ public class FolderInitializer {
         }
         
         FileUtils.copyDirectory(sourceFolder, destFolder, NO_SVN_FILES_FILTER);
-        createEclipseProjectFiles(projectName);
+        createEclipseProjectFiles(projectName, null, new StagedChanges());
+    }
+    
+    /**
+     * Prepares the destination folder for submission, like {@link #init(String)}, but only touches files that differ.
+     * <ul>
+     * <li>Copies files that are new or changed (compared by size, modification time and content hash)</li>
+     * <li>Removes files that no longer exist in the source folder</li>
+     * <li>Creates eclipse project settings, also if the source folder no longer contains its own ones</li>
+     * </ul>
+     * Unchanged files keep their content and modification time, so that a second run with the same source is cheap.
+     * 
+     * @param projectName
+     *            The name of the project, which shall be submitted
+     * @return The changes made to the destination folder.
+     * @throws IOException
+     *             If files could not be written to the destination folder.
+     */
+    public StagedChanges sync(String projectName) throws IOException {
+        return sync(SubmissionManifest.scan(sourceFolder), projectName);
+    }
+    
+    /**
+     * Prepares the destination folder for submission, like {@link #sync(String)}, but uses an existing manifest of
+     * the source folder instead of walking it again.
+     * 
+     * @param manifest
+     *            The manifest of the source folder.
+     * @param projectName
+     *            The name of the project, which shall be submitted
+     * @return The changes made to the destination folder.
+     * @throws IOException
+     *             If files could not be written to the destination folder.
+     */
+    public StagedChanges sync(SubmissionManifest manifest, String projectName) throws IOException {
+        StagedChanges changes = new StagedChanges();
+        removeDeleted(manifest, destFolder, "", changes);
+        
+        for (SubmissionManifest.Entry entry : manifest.getEntries()) {
+            File destFile = new File(destFolder, entry.getPath());
+            if (entry.isDirectory()) {
+                if (!destFile.exists()) {
+                    FileUtils.forceMkdir(destFile);
+                    addedOrReplaced(destFile, changes);
+                }
+                
+            } else if (!destFile.exists()) {
+                FileUtils.copyFile(entry.getFile(), destFile);
+                addedOrReplaced(destFile, changes);
+                
+            } else if (!isUnchanged(entry, destFile)) {
+                FileUtils.copyFile(entry.getFile(), destFile);
+                changes.modified(destFile);
+            }
+        }
+        
+        createEclipseProjectFiles(projectName, manifest, changes);
+        return changes;
+    }
+    
+    /**
+     * Records a newly created file or folder as added, unless it replaces an item of the other type that was removed
+     * by {@link #removeDeleted(SubmissionManifest, File, String, StagedChanges)}.
+     * 
+     * @param destFile The created file or folder.
+     * @param changes Collects the changes made to the destination.
+     */
+    private static void addedOrReplaced(File destFile, StagedChanges changes) {
+        if (!changes.getReplacedFiles().contains(destFile)) {
+            changes.added(destFile);
+        }
+    }
+    
+    /**
+     * Recursively removes all files and folders from a destination directory that are not part of the manifest, or
+     * that changed from file to folder or vice versa. The latter are recorded as replaced, not as deleted.
+     * 
+     * @param manifest The manifest of the source folder.
+     * @param dest A directory inside the {@link #destFolder}.
+     * @param path The path of <code>dest</code> relative to the {@link #destFolder}, ending with a <code>/</code>
+     *      unless empty.
+     * @param changes Collects the changes made to the destination.
+     * @throws IOException If files could not be deleted.
+     */
+    private void removeDeleted(SubmissionManifest manifest, File dest, String path, StagedChanges changes)
+            throws IOException {
+        
+        File[] destFiles = dest.listFiles();
+        if (destFiles != null) {
+            for (File destFile : destFiles) {
+                SubmissionManifest.Entry entry = manifest.getEntry(path + destFile.getName());
+                if (entry == null && !isGenerated(destFile, path.isEmpty())) {
+                    FileUtils.forceDelete(destFile);
+                    changes.deleted(destFile);
+                } else if (entry != null && entry.isDirectory() != destFile.isDirectory()) {
+                    FileUtils.forceDelete(destFile);
+                    changes.replaced(destFile);
+                } else if (entry != null && destFile.isDirectory()) {
+                    removeDeleted(manifest, destFile, path + destFile.getName() + "/", changes);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks whether a file in the destination folder is not part of the submission, but created by SVN or by
+     * {@link #createEclipseProjectFiles(String, SubmissionManifest, StagedChanges)}. Such files are never removed
+     * during a sync; if the source folder does not contain them, they are overwritten with the default content.
+     * 
+     * @param destFile A file in the destination folder.
+     * @param topLevel Whether the file is located directly in the {@link #destFolder}.
+     * @return <code>true</code> if the file must be kept.
+     */
+    private static boolean isGenerated(File destFile, boolean topLevel) {
+        String name = destFile.getName();
+        boolean svnFolder = destFile.isDirectory() && name.equalsIgnoreCase(SVN_FOLDER_NAME);
+        boolean projectFile = topLevel && (name.equals(CLASSPATH_FILE_NAME) || name.equals(PROJECT_FILE_NAME));
+        return svnFolder || projectFile;
+    }
+    
+    /**
+     * Checks whether the destination file already has the same content as the source file. Compares sizes first,
+     * then modification times, and only if the latter differ, content hashes. If the content is equal, the
+     * modification time of the destination is aligned so that the next comparison is cheap.
+     * 
+     * @param source The manifest entry of the source file.
+     * @param destFile The file in the destination folder.
+     * @return <code>true</code> if both files have the same content.
+     * @throws IOException If reading the files fails.
+     */
+    private static boolean isUnchanged(SubmissionManifest.Entry source, File destFile) throws IOException {
+        boolean unchanged = false;
+        if (source.getSize() == destFile.length()) {
+            if (source.getLastModified() == destFile.lastModified()) {
+                unchanged = true;
+            } else {
+                String sourceHash = source.getHash() != null ? source.getHash()
+                        : SubmissionManifest.hash(source.getFile());
+                if (sourceHash.equals(SubmissionManifest.hash(destFile))) {
+                    destFile.setLastModified(source.getLastModified());
+                    unchanged = true;
+                }
+            }
+        }
+        return unchanged;
     }
 
     /**
@@ -65,30 +212,91 @@ public class FolderInitializer {
      * <li>Creates the .classpath file (where to find java source files, libraries, ...)</li>
      * <li>Creates the .project (name of the project and natures/builders, ...)</li>
      * </ul>
+     * Files that the source folder contains itself are kept. All others get the default content, even if the
+     * destination folder still contains a custom file from an earlier submission.
      * 
      * @param projectName
      *            The name of the project, which shall be submitted
+     * @param manifest
+     *            The manifest of the source folder, or <code>null</code> to check the source folder itself.
+     * @param changes
+     *            Records the created files.
      * @throws IOException
      *             Will be thrown if one of the files could not be created.
      */
-    private void createEclipseProjectFiles(String projectName) throws IOException {
+    private void createEclipseProjectFiles(String projectName, SubmissionManifest manifest, StagedChanges changes)
+            throws IOException {
+        
         // Create classpath settings
-        File cpFile = new File(destFolder, CLASSPATH_FILE_NAME);
-        if (!cpFile.exists()) {
-            InputStream input = getClass().getResourceAsStream(
-                    "/de/uni_hildesheim/sse/submitter/io/" + CLASSPATH_FILE_NAME);
-            FileUtils.copyInputStreamToFile(input, cpFile);
+        if (!isInSource(CLASSPATH_FILE_NAME, manifest)) {
+            writeDefaultFile(new File(destFolder, CLASSPATH_FILE_NAME), createDefaultClasspath(), changes);
         }
 
         // Create Eclipse project settings
-        File projectFile = new File(destFolder, PROJECT_FILE_NAME);
-        if (!projectFile.exists()) {
-            InputStream input = getClass().getResourceAsStream(
-                    "/de/uni_hildesheim/sse/submitter/io/" + PROJECT_FILE_NAME);
+        if (!isInSource(PROJECT_FILE_NAME, manifest)) {
+            writeDefaultFile(new File(destFolder, PROJECT_FILE_NAME), createDefaultProject(projectName), changes);
+        }
+
+    }
+    
+    /**
+     * Checks whether the source folder contains a file on its top level.
+     * 
+     * @param name The name of the file.
+     * @param manifest The manifest of the source folder, or <code>null</code> to check the source folder itself.
+     * @return Whether the file is part of the submission.
+     */
+    private boolean isInSource(String name, SubmissionManifest manifest) {
+        return manifest != null ? manifest.getEntry(name) != null : new File(sourceFolder, name).exists();
+    }
+    
+    /**
+     * Writes a generated file to the destination folder, unless it already has the given content.
+     * 
+     * @param destFile The file in the destination folder.
+     * @param content The content of the generated file.
+     * @param changes Records whether the file was created or overwritten.
+     * @throws IOException If the file could not be read or written.
+     */
+    private static void writeDefaultFile(File destFile, byte[] content, StagedChanges changes) throws IOException {
+        if (!destFile.isFile()) {
+            FileUtils.writeByteArrayToFile(destFile, content);
+            changes.added(destFile);
+        } else if (!Arrays.equals(content, FileUtils.readFileToByteArray(destFile))) {
+            FileUtils.writeByteArrayToFile(destFile, content);
+            changes.modified(destFile);
+        }
+    }
+
+    /**
+     * Creates the content of the default .classpath file, which is used if the submission does not contain one.
+     * 
+     * @return The content of the .classpath file.
+     * @throws IOException
+     *             If the template could not be read.
+     */
+    public static byte[] createDefaultClasspath() throws IOException {
+        try (InputStream input = FolderInitializer.class.getResourceAsStream(
+                "/de/uni_hildesheim/sse/submitter/io/" + CLASSPATH_FILE_NAME)) {
+            return IOUtils.toByteArray(input);
+        }
+    }
+    
+    /**
+     * Creates the content of the default .project file, which is used if the submission does not contain one.
+     * 
+     * @param projectName
+     *            The name of the project, which shall be submitted
+     * @return The content of the .project file.
+     * @throws IOException
+     *             If the template could not be read.
+     */
+    public static byte[] createDefaultProject(String projectName) throws IOException {
+        try (InputStream input = FolderInitializer.class.getResourceAsStream(
+                "/de/uni_hildesheim/sse/submitter/io/" + PROJECT_FILE_NAME)) {
             String projectContents = IOUtils.toString(input);
             projectContents = projectContents.replaceAll("\\$projectName", projectName);
-            FileUtils.write(projectFile, projectContents);
+            return projectContents.getBytes();
         }
-
     }
 }
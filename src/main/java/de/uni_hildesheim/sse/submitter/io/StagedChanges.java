@@ -0,0 +1,110 @@
+package de.uni_hildesheim.sse.submitter.io;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes made to a destination folder by {@link FolderInitializer#sync(String)}. All files are located in the
+ * destination folder.
+ *
+ * @author Adam Krafczyk
+ */
+public class StagedChanges {
+
+    private List<File> addedFiles = new ArrayList<>();
+
+    private List<File> modifiedFiles = new ArrayList<>();
+
+    private List<File> deletedFiles = new ArrayList<>();
+
+    private List<File> replacedFiles = new ArrayList<>();
+
+    /**
+     * Files and folders that did not exist in the destination folder before. Parent folders are listed before their
+     * content. Files and folders that replaced an item of the other type are not listed here, see
+     * {@link #getReplacedFiles()}.
+     *
+     * @return The added files and folders, never <code>null</code>.
+     */
+    public List<File> getAddedFiles() {
+        return Collections.unmodifiableList(addedFiles);
+    }
+
+    /**
+     * Files that existed in the destination folder before, but have been overwritten with a different content.
+     *
+     * @return The modified files, never <code>null</code>.
+     */
+    public List<File> getModifiedFiles() {
+        return Collections.unmodifiableList(modifiedFiles);
+    }
+
+    /**
+     * Files and folders that have been removed from the destination folder. For removed folders, only the folder
+     * itself is listed, not its content.
+     *
+     * @return The deleted files and folders, never <code>null</code>.
+     */
+    public List<File> getDeletedFiles() {
+        return Collections.unmodifiableList(deletedFiles);
+    }
+
+    /**
+     * Files that have been replaced by a folder of the same name, and folders that have been replaced by a file of
+     * the same name. The destination folder already contains the new item. The content of a new folder is listed in
+     * {@link #getAddedFiles()}.
+     *
+     * @return The files and folders that changed their type, never <code>null</code>.
+     */
+    public List<File> getReplacedFiles() {
+        return Collections.unmodifiableList(replacedFiles);
+    }
+
+    /**
+     * Returns whether the destination folder has been changed at all.
+     *
+     * @return <code>true</code> if no file was added, modified, or deleted.
+     */
+    public boolean isEmpty() {
+        return addedFiles.isEmpty() && modifiedFiles.isEmpty() && deletedFiles.isEmpty() && replacedFiles.isEmpty();
+    }
+
+    /**
+     * Records an added file or folder.
+     *
+     * @param file The added file.
+     */
+    void added(File file) {
+        addedFiles.add(file);
+    }
+
+    /**
+     * Records a modified file.
+     *
+     * @param file The modified file.
+     */
+    void modified(File file) {
+        modifiedFiles.add(file);
+    }
+
+    /**
+     * Records a deleted file or folder.
+     *
+     * @param file The deleted file.
+     */
+    void deleted(File file) {
+        deletedFiles.add(file);
+    }
+
+    /**
+     * Records a file or folder that changed its type.
+     *
+     * @param file The replaced file.
+     */
+    void replaced(File file) {
+        replacedFiles.add(file);
+    }
+
+}
@@ -0,0 +1,389 @@
+package de.uni_hildesheim.sse.submitter.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An immutable snapshot of the content of a submission folder. The folder is walked only once, all later stages of a
+ * submission (checking, staging and committing) work on this snapshot instead of the file system.
+ * <p>
+ * Paths are relative to the submission folder and use <code>/</code> as separator. Entries are sorted by path, so
+ * that folders are listed before their content. <code>.svn</code> folders are not part of the manifest.
+ *
+ * @author Adam Krafczyk
+ */
+public final class SubmissionManifest {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final String SVN_FOLDER_NAME = ".svn";
+
+    private File root;
+
+    private SortedMap<String, Entry> entries;
+
+    private int numFiles;
+
+    private int numJavaFiles;
+
+    private long totalSize;
+
+    private boolean hashed;
+
+    /**
+     * A single file or folder in a {@link SubmissionManifest}.
+     */
+    public static final class Entry {
+
+        private String path;
+
+        private File file;
+
+        private boolean directory;
+
+        private long size;
+
+        private long lastModified;
+
+        private String hash;
+
+        /**
+         * Creates an entry without a content hash.
+         *
+         * @param path The path relative to the submission folder.
+         * @param file The location on disk.
+         * @param directory Whether this is a folder.
+         * @param size The size in bytes, 0 for folders.
+         * @param lastModified The modification time, in milliseconds since the epoch.
+         */
+        Entry(String path, File file, boolean directory, long size, long lastModified) {
+            this.path = path;
+            this.file = file;
+            this.directory = directory;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Creates a copy of the given entry with a content hash.
+         *
+         * @param other The entry to copy.
+         * @param hash The content hash, may be <code>null</code>.
+         */
+        private Entry(Entry other, String hash) {
+            this(other.path, other.file, other.directory, other.size, other.lastModified);
+            this.hash = hash;
+        }
+
+        /**
+         * Returns the path of this entry, relative to the submission folder.
+         *
+         * @return The path, using <code>/</code> as separator.
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the location of this entry on disk.
+         *
+         * @return The file or folder.
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Returns whether this entry is a folder.
+         *
+         * @return <code>true</code> for folders, <code>false</code> for files.
+         */
+        public boolean isDirectory() {
+            return directory;
+        }
+
+        /**
+         * Returns the size of this file at the time of the scan.
+         *
+         * @return The size in bytes, 0 for folders.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the modification time of this file at the time of the scan.
+         *
+         * @return The modification time, in milliseconds since the epoch.
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Returns the MD5 hash of the content of this file.
+         *
+         * @return The hash as a lower case hex string, or <code>null</code> for folders or if hashes were not
+         *      computed (see {@link SubmissionManifest#withHashes()}).
+         */
+        public String getHash() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * Creates a manifest.
+     *
+     * @param root The submission folder.
+     * @param entries The entries, sorted by path.
+     * @param hashed Whether the content hashes of all files are set.
+     */
+    private SubmissionManifest(File root, SortedMap<String, Entry> entries, boolean hashed) {
+        this.root = root;
+        this.entries = Collections.unmodifiableSortedMap(entries);
+        this.hashed = hashed;
+
+        for (Entry entry : entries.values()) {
+            if (!entry.isDirectory()) {
+                numFiles++;
+                totalSize += entry.getSize();
+                if (entry.getPath().endsWith(".java")) {
+                    numJavaFiles++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a manifest from entries collected by another walk of the submission folder, e.g. a bounded
+     * {@link FolderCheck}.
+     *
+     * @param folder The submission folder.
+     * @param entries The files and folders in the submission folder, in any order. <code>.svn</code> folders must
+     *      already be excluded.
+     *
+     * @return The manifest of the folder.
+     */
+    static SubmissionManifest of(File folder, Collection<Entry> entries) {
+        SortedMap<String, Entry> sorted = new TreeMap<>();
+        for (Entry entry : entries) {
+            sorted.put(entry.getPath(), entry);
+        }
+        return new SubmissionManifest(folder, sorted, false);
+    }
+
+    /**
+     * Walks the given submission folder once and creates a manifest of its content. Content hashes are not
+     * computed, see {@link #withHashes()}.
+     *
+     * @param folder The submission folder.
+     *
+     * @return The manifest of the folder.
+     *
+     * @throws IOException If the folder cannot be read.
+     */
+    public static SubmissionManifest scan(File folder) throws IOException {
+        SortedMap<String, Entry> entries = new TreeMap<>();
+        Path rootPath = folder.toPath();
+
+        Files.walkFileTree(rootPath, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    FileVisitResult result = FileVisitResult.CONTINUE;
+                    if (!dir.equals(rootPath)) {
+                        if (dir.getFileName().toString().equals(SVN_FOLDER_NAME)) {
+                            result = FileVisitResult.SKIP_SUBTREE;
+                        } else {
+                            add(dir, true, attrs);
+                        }
+                    }
+                    return result;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    add(file, false, attrs);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                    if (!(exc instanceof FileSystemLoopException)) {
+                        throw exc;
+                    }
+                    LOGGER.warn("Skipping symbolic link loop at {}", file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                /**
+                 * Adds an entry for the given file or folder.
+                 *
+                 * @param path The location of the file.
+                 * @param directory Whether this is a folder.
+                 * @param attrs The attributes of the file.
+                 */
+                private void add(Path path, boolean directory, BasicFileAttributes attrs) {
+                    StringBuilder relative = new StringBuilder();
+                    for (Path element : rootPath.relativize(path)) {
+                        if (relative.length() > 0) {
+                            relative.append('/');
+                        }
+                        relative.append(element.toString());
+                    }
+                    String relativePath = relative.toString();
+                    entries.put(relativePath, new Entry(relativePath, path.toFile(), directory,
+                            directory ? 0 : attrs.size(), attrs.lastModifiedTime().toMillis()));
+                }
+
+            });
+
+        return new SubmissionManifest(folder, entries, false);
+    }
+
+    /**
+     * Returns a copy of this manifest, with MD5 hashes for the content of all files. The hashes are computed in
+     * parallel. If this manifest already has hashes, it is returned as is.
+     *
+     * @return A manifest where {@link Entry#getHash()} is set for all files.
+     *
+     * @throws IOException If reading a file fails.
+     */
+    public SubmissionManifest withHashes() throws IOException {
+        SubmissionManifest result = this;
+        if (!hashed) {
+            Map<String, String> hashes;
+            try {
+                hashes = entries.values().parallelStream()
+                        .filter((entry) -> !entry.isDirectory())
+                        .collect(Collectors.toMap(Entry::getPath, (entry) -> {
+                            try {
+                                return hash(entry.getFile());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            SortedMap<String, Entry> hashedEntries = new TreeMap<>();
+            for (Entry entry : entries.values()) {
+                hashedEntries.put(entry.getPath(), new Entry(entry, hashes.get(entry.getPath())));
+            }
+            result = new SubmissionManifest(root, hashedEntries, true);
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the MD5 hash of the content of the given file. This is the same checksum that SVN uses.
+     *
+     * @param file The file to hash.
+     *
+     * @return The hash as a lower case hex string.
+     *
+     * @throws IOException If reading the file fails.
+     */
+    public static String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e); // cannot happen, MD5 is required by the Java platform
+        }
+        try (InputStream in = new DigestInputStream(FileUtils.openInputStream(file), digest)) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // only needed to update the digest
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the submission folder that this manifest was created for.
+     *
+     * @return The submission folder.
+     */
+    public File getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns all files and folders of the submission, sorted by path. Folders are listed before their content.
+     *
+     * @return The entries of this manifest.
+     */
+    public Collection<Entry> getEntries() {
+        return entries.values();
+    }
+
+    /**
+     * Returns the entry for the given path.
+     *
+     * @param path The path relative to the submission folder, using <code>/</code> as separator.
+     *
+     * @return The entry, or <code>null</code> if there is no file or folder with this path.
+     */
+    public Entry getEntry(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * Returns the number of files (not counting folders).
+     *
+     * @return The number of files.
+     */
+    public int getNumFiles() {
+        return numFiles;
+    }
+
+    /**
+     * Returns the number of Java source files (ending with <code>.java</code>).
+     *
+     * @return The number of Java source files.
+     */
+    public int getNumJavaFiles() {
+        return numJavaFiles;
+    }
+
+    /**
+     * Returns the sum of all file sizes.
+     *
+     * @return The total size, in bytes.
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+}
@@ -0,0 +1,46 @@
+package de.uni_hildesheim.sse.submitter.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for testing the connection and credentials of the SVN repository.
+ *
+ * @author Adam Krafczyk
+ */
+@Name(Profiling.EVENT_PREFIX + "ConnectionCheck")
+@Label("Connection Check")
+@Description("Test of the connection and credentials of the SVN repository")
+@Category({Profiling.CATEGORY, "SVN"})
+@StackTrace(false)
+public class ConnectionCheckEvent extends Event {
+
+    @Label("URL")
+    private String url;
+
+    @Label("Outcome")
+    private String outcome = Profiling.FAILURE;
+
+    /**
+     * Creates an event for checking the given repository.
+     *
+     * @param url The URL of the repository.
+     */
+    public ConnectionCheckEvent(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Sets the outcome of the check. Defaults to {@link Profiling#FAILURE}.
+     *
+     * @param outcome {@link Profiling#SUCCESS} or a short description of the failure.
+     */
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+}
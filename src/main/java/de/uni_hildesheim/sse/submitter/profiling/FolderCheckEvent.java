@@ -0,0 +1,72 @@
+package de.uni_hildesheim.sse.submitter.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for counting the files in a submission folder.
+ *
+ * @author Adam Krafczyk
+ */
+@Name(Profiling.EVENT_PREFIX + "FolderCheck")
+@Label("Folder Check")
+@Description("Counting the files in a submission folder")
+@Category({Profiling.CATEGORY, "File System"})
+@StackTrace(false)
+public class FolderCheckEvent extends Event {
+
+    @Label("Directory")
+    private String directory;
+
+    @Label("Bounded")
+    @Description("Whether the check stops when a limit is exceeded")
+    private boolean bounded;
+
+    @Label("Files")
+    private int files;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Outcome")
+    @Description("success or limit_exceeded")
+    private String outcome = Profiling.SUCCESS;
+
+    /**
+     * Creates an event for checking the given folder.
+     *
+     * @param directory The path of the checked folder.
+     * @param bounded Whether the check stops when a limit is exceeded.
+     */
+    public FolderCheckEvent(String directory, boolean bounded) {
+        this.directory = directory;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Sets the counted files.
+     *
+     * @param files The number of files.
+     * @param bytes The summed size of the files.
+     */
+    public void setFiles(int files, long bytes) {
+        this.files = files;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Sets the outcome of the check. Defaults to {@link Profiling#SUCCESS}.
+     *
+     * @param outcome <code>limit_exceeded</code>, if the check stopped early.
+     */
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+}
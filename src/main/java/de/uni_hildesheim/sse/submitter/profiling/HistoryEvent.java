@@ -0,0 +1,67 @@
+package de.uni_hildesheim.sse.submitter.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for fetching a single page of the revision history of an assignment.
+ *
+ * @author Adam Krafczyk
+ */
+@Name(Profiling.EVENT_PREFIX + "History")
+@Label("History")
+@Description("Fetching a page of the revision history of an assignment")
+@Category({Profiling.CATEGORY, "Replay"})
+@StackTrace(false)
+public class HistoryEvent extends Event {
+
+    @Label("Assignment")
+    private String assignment;
+
+    @Label("Start Revision")
+    private long startRevision;
+
+    @Label("Limit")
+    private int limit;
+
+    @Label("Revisions")
+    @Description("The number of revisions passed to the consumer")
+    private int revisions;
+
+    @Label("Outcome")
+    private String outcome = Profiling.FAILURE;
+
+    /**
+     * Creates an event for fetching a page of the history.
+     *
+     * @param assignment The name of the assignment.
+     * @param startRevision The newest requested revision.
+     * @param limit The maximum number of requested revisions.
+     */
+    public HistoryEvent(String assignment, long startRevision, int limit) {
+        this.assignment = assignment;
+        this.startRevision = startRevision;
+        this.limit = limit;
+    }
+
+    /**
+     * Counts a single received revision.
+     */
+    public void addRevision() {
+        revisions++;
+    }
+
+    /**
+     * Sets the outcome of fetching the history. Defaults to {@link Profiling#FAILURE}.
+     *
+     * @param outcome {@link Profiling#SUCCESS} or a short description of the failure.
+     */
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+}
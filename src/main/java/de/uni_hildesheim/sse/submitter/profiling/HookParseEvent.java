@@ -0,0 +1,44 @@
+package de.uni_hildesheim.sse.submitter.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for parsing the XML messages of the SVN hook.
+ *
+ * @author Adam Krafczyk
+ */
+@Name(Profiling.EVENT_PREFIX + "HookParse")
+@Label("Hook Parse")
+@Description("Parsing the XML messages of the SVN hook")
+@Category({Profiling.CATEGORY, "Submission"})
+@StackTrace(false)
+public class HookParseEvent extends Event {
+
+    @Label("Messages")
+    private int messages;
+
+    @Label("Outcome")
+    private String outcome = Profiling.FAILURE;
+
+    /**
+     * Counts a single parsed message.
+     */
+    public void addMessage() {
+        messages++;
+    }
+
+    /**
+     * Sets the outcome of parsing. Defaults to {@link Profiling#FAILURE}.
+     *
+     * @param outcome {@link Profiling#SUCCESS} or a short description of the failure.
+     */
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+}
@@ -0,0 +1,35 @@
+package de.uni_hildesheim.sse.submitter.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for logging into the student management system. The user name is not recorded, so that
+ * recordings can be shared.
+ *
+ * @author Adam Krafczyk
+ */
+@Name(Profiling.EVENT_PREFIX + "Login")
+@Label("Login")
+@Description("Login into the student management system")
+@Category({Profiling.CATEGORY, "Management System"})
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    @Label("Outcome")
+    private String outcome = Profiling.FAILURE;
+
+    /**
+     * Sets the outcome of the login. Defaults to {@link Profiling#FAILURE}.
+     *
+     * @param outcome {@link Profiling#SUCCESS} or a short description of the failure.
+     */
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+}
@@ -0,0 +1,137 @@
+package de.uni_hildesheim.sse.submitter.profiling;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Starts a flight recording of the whole program, if switched on with the system property {@value #PROPERTY} (e.g.
+ * by passing <code>--profile</code> to the launcher scripts). The recording uses the <code>profile</code> settings
+ * of the JDK, so that CPU, allocation and socket events are recorded together with the events of this package. It
+ * is written to a file when the program exits.
+ * <p>
+ * Without a recording, the events of this package cost hardly anything, so they are always created.
+ *
+ * @author Adam Krafczyk
+ */
+public class Profiling {
+
+    /**
+     * The system property that switches on the recording. Either <code>true</code> to record to a file in the home
+     * directory of the user, or the path of the recording file.
+     */
+    public static final String PROPERTY = "submitter.profile";
+
+    /**
+     * The {@link #outcome(boolean)} of a successful operation.
+     */
+    public static final String SUCCESS = "success";
+
+    /**
+     * The {@link #outcome(boolean)} of a failed operation.
+     */
+    public static final String FAILURE = "failure";
+
+    /**
+     * The prefix of the names of all events of this program.
+     */
+    static final String EVENT_PREFIX = "de.uni_hildesheim.sse.submitter.";
+
+    /**
+     * The category of all events of this program.
+     */
+    static final String CATEGORY = "Exercise Submitter";
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * No instances.
+     */
+    private Profiling() {
+    }
+
+    /**
+     * Returns the outcome for a boolean result.
+     *
+     * @param success Whether the operation succeeded.
+     *
+     * @return {@link #SUCCESS} or {@link #FAILURE}.
+     */
+    public static String outcome(boolean success) {
+        return success ? SUCCESS : FAILURE;
+    }
+
+    /**
+     * Returns the outcome for an operation that failed with an exception.
+     *
+     * @param exception The exception that ended the operation.
+     *
+     * @return The simple class name of the exception.
+     */
+    public static String outcome(Exception exception) {
+        return exception.getClass().getSimpleName();
+    }
+
+    /**
+     * Starts the recording, if switched on by the system property {@value #PROPERTY}.
+     *
+     * @return The started recording, or <code>null</code> if profiling is not switched on or the recording could not
+     *      be started.
+     */
+    public static Recording startIfEnabled() {
+        String value = System.getProperty(PROPERTY);
+        Recording result = null;
+        if (value != null && !value.isEmpty() && !value.equalsIgnoreCase("false")) {
+            File file;
+            if (value.equalsIgnoreCase("true")) {
+                file = new File(System.getProperty("user.home"), ".exercise-submitter/recordings/submitter-"
+                        + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+            } else {
+                file = new File(value);
+            }
+            result = start(file);
+        }
+        return result;
+    }
+
+    /**
+     * Starts a recording that is written to the given file when the program exits.
+     *
+     * @param file The file to write the recording to.
+     *
+     * @return The started recording, or <code>null</code> if the recording could not be started.
+     */
+    public static Recording start(File file) {
+        Recording recording = null;
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Could not create " + parent);
+            }
+            recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("ExerciseSubmitter");
+            recording.setToDisk(true);
+            recording.setDumpOnExit(true);
+            recording.setDestination(file.toPath());
+            recording.start();
+            LOGGER.info("Recording flight recorder events to {}", file.getAbsolutePath());
+            
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            LOGGER.warn("Could not start flight recording", e);
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+        }
+        return recording;
+    }
+
+}
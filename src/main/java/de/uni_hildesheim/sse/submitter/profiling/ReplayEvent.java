@@ -0,0 +1,65 @@
+package de.uni_hildesheim.sse.submitter.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for replaying a submission or its correction into the local folder.
+ *
+ * @author Adam Krafczyk
+ */
+@Name(Profiling.EVENT_PREFIX + "Replay")
+@Label("Replay")
+@Description("Replay of a submitted revision into the local folder")
+@Category({Profiling.CATEGORY, "Replay"})
+@StackTrace(false)
+public class ReplayEvent extends Event {
+
+    @Label("Assignment")
+    private String assignment;
+
+    @Label("Correction")
+    @Description("Whether the latest revision (the correction) was replayed")
+    private boolean correction;
+
+    @Label("Revision")
+    @Description("The replayed revision, or -1 if the replay failed")
+    private long revision = -1;
+
+    @Label("Outcome")
+    private String outcome = Profiling.FAILURE;
+
+    /**
+     * Creates an event for replaying the given assignment.
+     *
+     * @param assignment The name of the replayed assignment.
+     * @param correction Whether the correction is replayed instead of a selected revision.
+     */
+    public ReplayEvent(String assignment, boolean correction) {
+        this.assignment = assignment;
+        this.correction = correction;
+    }
+
+    /**
+     * Sets the replayed revision.
+     *
+     * @param revision The revision that was written to the local folder.
+     */
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    /**
+     * Sets the outcome of the replay. Defaults to {@link Profiling#FAILURE}.
+     *
+     * @param outcome {@link Profiling#SUCCESS} or a short description of the failure.
+     */
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+}
@@ -0,0 +1,84 @@
+package de.uni_hildesheim.sse.submitter.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a single submission, from resolving the submission target to the answer of the hook.
+ *
+ * @author Adam Krafczyk
+ */
+@Name(Profiling.EVENT_PREFIX + "Submit")
+@Label("Submit")
+@Description("Submission of a folder to the SVN repository")
+@Category({Profiling.CATEGORY, "Submission"})
+@StackTrace(false)
+public class SubmitEvent extends Event {
+
+    @Label("Assignment")
+    private String assignment;
+
+    @Label("Files")
+    private int files;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Direct Commit")
+    @Description("Whether the files were committed without a working copy")
+    private boolean directCommit;
+
+    @Label("Revision")
+    @Description("The committed revision, or -1 if nothing was committed")
+    private long revision = -1;
+
+    @Label("Outcome")
+    private String outcome = Profiling.FAILURE;
+
+    /**
+     * Creates an event for the submission of the given assignment.
+     *
+     * @param assignment The name of the submitted assignment.
+     * @param files The number of submitted files.
+     * @param bytes The summed size of the submitted files.
+     */
+    public SubmitEvent(String assignment, int files, long bytes) {
+        this.assignment = assignment;
+        this.files = files;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Sets whether the files were committed without a working copy.
+     *
+     * @param directCommit Whether the direct submitter was used.
+     */
+    public void setDirectCommit(boolean directCommit) {
+        this.directCommit = directCommit;
+    }
+
+    /**
+     * Sets the committed revision.
+     *
+     * @param revision The new revision created by the submission.
+     */
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    /**
+     * Sets the outcome of the submission. Defaults to {@link Profiling#FAILURE}.
+     *
+     * @param outcome {@link Profiling#SUCCESS} or a short description of the failure.
+     */
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+}
@@ -0,0 +1,5 @@
+/**
+ * Package for Java Flight Recorder events of the main operations, and for the recording that can be switched on
+ * from the launcher scripts.
+ */
+package de.uni_hildesheim.sse.submitter.profiling;
@@ -0,0 +1,145 @@
+package de.uni_hildesheim.sse.submitter.settings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Writes a configuration file in the background. Changes are collected until no further change was made for a short
+ * time, then only the latest content is written. The file is first written to a temporary file next to it, which
+ * then replaces the file, so that readers never see a partially written file.
+ * <p>
+ * Pending changes are written when {@link #flush()} or {@link #close()} is called and when the JVM shuts down.
+ *
+ * @author Adam Krafczyk
+ */
+public class ConfigurationPersister implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private Path file;
+
+    private long delayMillis;
+
+    private ScheduledExecutorService executor;
+
+    private Thread shutdownHook;
+
+    private Supplier<String> pending;
+
+    private ScheduledFuture<?> scheduledWrite;
+
+    private Object writeLock = new Object();
+
+    /**
+     * Creates a persister for the given file.
+     *
+     * @param file The file to write.
+     * @param delayMillis How long to wait for further changes before writing, in milliseconds.
+     */
+    public ConfigurationPersister(Path file, long delayMillis) {
+        this.file = file;
+        this.delayMillis = delayMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "ConfigurationPersister " + file.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.shutdownHook = new Thread(this::flush, "ConfigurationPersister shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Schedules writing the file. Replaces a previously scheduled content that is not written yet, and restarts the
+     * delay.
+     *
+     * @param content Creates the content of the file. Is called in the writing thread, right before the file is
+     *      written.
+     */
+    public synchronized void schedule(Supplier<String> content) {
+        pending = content;
+        if (scheduledWrite != null) {
+            scheduledWrite.cancel(false);
+        }
+        scheduledWrite = executor.schedule(this::writePending, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the pending content, if any, in the calling thread. Returns after the file has been written.
+     */
+    public void flush() {
+        writePending();
+    }
+
+    /**
+     * Writes the pending content, stops the background thread and removes the shutdown hook of this persister.
+     * Nothing must be scheduled afterwards.
+     */
+    @Override
+    public void close() {
+        writePending();
+        executor.shutdown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // the JVM is already shutting down, the hook has nothing left to write
+        }
+    }
+
+    /**
+     * Takes the pending content and writes it to the file.
+     */
+    private void writePending() {
+        synchronized (writeLock) {
+            Supplier<String> content;
+            synchronized (this) {
+                content = pending;
+                pending = null;
+                if (scheduledWrite != null) {
+                    scheduledWrite.cancel(false);
+                    scheduledWrite = null;
+                }
+            }
+            if (content != null) {
+                write(content.get());
+            }
+        }
+    }
+
+    /**
+     * Replaces the file with the given content.
+     *
+     * @param content The new content of the file.
+     */
+    private void write(String content) {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(tempFile, content, StandardCharsets.UTF_8);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error while saving " + file, e);
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e1) {
+                LOGGER.warn("Could not delete " + tempFile, e1);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package de.uni_hildesheim.sse.submitter.settings;
+
+import java.io.File;
+
+/**
+ * Holds settings for the local cache of revision logs, which is used to show the history of an exercise without
+ * fetching the whole log from the server each time.
+ *
+ * @author Adam Krafczyk
+ */
+public class HistoryCacheSettings {
+
+    private boolean enabled;
+
+    private String directory;
+
+    private long maxSize;
+
+    /**
+     * Whether revision logs should be cached at all. If disabled, the history is always fetched from the server.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether revision logs should be cached at all. If disabled, the history is always fetched from the server.
+     *
+     * @param enabled the enabled to set
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The directory where the cached revision logs are stored. If not set, a folder in the home directory of the
+     * user is used.
+     *
+     * @return the directory, never <code>null</code>
+     */
+    public File getDirectory() {
+        File result;
+        if (directory != null && !directory.isEmpty()) {
+            result = new File(directory);
+        } else {
+            result = new File(System.getProperty("user.home"), ".exercise-submitter/history");
+        }
+        return result;
+    }
+
+    /**
+     * The directory where the cached revision logs are stored.
+     *
+     * @param directory the directory to set, may be <code>null</code> to use the default location
+     */
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The maximum disk space used by all cached revision logs together, in bytes.
+     *
+     * @return the maxSize
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * The maximum disk space used by all cached revision logs together, in bytes.
+     *
+     * @param maxSize the maxSize to set
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+}
@@ -0,0 +1,70 @@
+package de.uni_hildesheim.sse.submitter.settings;
+
+/**
+ * Holds settings for the log shown in the main window.
+ *
+ * @author Adam Krafczyk
+ */
+public class LogSettings {
+
+    private int maxLines;
+
+    private long maxSize;
+
+    private boolean showSubmissionDetails;
+
+    /**
+     * The maximum number of lines kept in the log. If exceeded, the oldest lines are removed.
+     *
+     * @return the maxLines
+     */
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * The maximum number of lines kept in the log. If exceeded, the oldest lines are removed.
+     *
+     * @param maxLines the maxLines to set
+     */
+    public void setMaxLines(int maxLines) {
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * The maximum number of characters kept in the log. If exceeded, the oldest lines are removed.
+     *
+     * @return the maxSize
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * The maximum number of characters kept in the log. If exceeded, the oldest lines are removed.
+     *
+     * @param maxSize the maxSize to set
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Whether the durations of the phases of a submission are shown in the log after each submission.
+     *
+     * @return the showSubmissionDetails
+     */
+    public boolean isShowSubmissionDetails() {
+        return showSubmissionDetails;
+    }
+
+    /**
+     * Whether the durations of the phases of a submission are shown in the log after each submission.
+     *
+     * @param showSubmissionDetails the showSubmissionDetails to set
+     */
+    public void setShowSubmissionDetails(boolean showSubmissionDetails) {
+        this.showSubmissionDetails = showSubmissionDetails;
+    }
+
+}
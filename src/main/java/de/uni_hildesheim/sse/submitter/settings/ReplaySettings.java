@@ -0,0 +1,61 @@
+package de.uni_hildesheim.sse.submitter.settings;
+
+import java.io.File;
+
+/**
+ * Holds settings for replaying previous submissions into a local folder.
+ *
+ * @author Adam Krafczyk
+ */
+public class ReplaySettings {
+
+    private boolean incremental;
+
+    private String stateDirectory;
+
+    /**
+     * Whether a folder that was replayed before and has not been edited since is only updated with the changes to
+     * the requested revision, instead of downloading the whole submission again.
+     *
+     * @return the incremental
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Whether a folder that was replayed before and has not been edited since is only updated with the changes to
+     * the requested revision, instead of downloading the whole submission again.
+     *
+     * @param incremental the incremental to set
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * The directory where the revision and content of replayed folders is recorded. If not set, a folder in the home
+     * directory of the user is used.
+     *
+     * @return the stateDirectory, never <code>null</code>
+     */
+    public File getStateDirectory() {
+        File result;
+        if (stateDirectory != null && !stateDirectory.isEmpty()) {
+            result = new File(stateDirectory);
+        } else {
+            result = new File(System.getProperty("user.home"), ".exercise-submitter/replay");
+        }
+        return result;
+    }
+
+    /**
+     * The directory where the revision and content of replayed folders is recorded.
+     *
+     * @param stateDirectory the stateDirectory to set, may be <code>null</code> to use the default location
+     */
+    public void setStateDirectory(String stateDirectory) {
+        this.stateDirectory = stateDirectory;
+    }
+
+}
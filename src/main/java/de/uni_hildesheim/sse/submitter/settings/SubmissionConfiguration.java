@@ -1,7 +1,6 @@
 package de.uni_hildesheim.sse.submitter.settings;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 
@@ -23,8 +22,16 @@ public class SubmissionConfiguration {
 
     private static final Logger LOGGER = LogManager.getLogger();
     
+    /**
+     * How long to wait for further changes before saving, in milliseconds. Avoids writing the file for every
+     * character while the user types a folder.
+     */
+    private static final long SAVE_DELAY = 500;
+    
     private static JSON jsonParser = JsonUtils.createParser();
     
+    private static ConfigurationPersister persister;
+    
     private String user;
     /*
      * Transient avoids (de-)serialization of the password: https://stackoverflow.com/a/5889590
@@ -81,7 +88,7 @@ public class SubmissionConfiguration {
      * 
      * @param user the user
      */
-    public void setUser(String user) {
+    public synchronized void setUser(String user) {
         this.user = user;
         save();
     }
@@ -116,21 +123,47 @@ public class SubmissionConfiguration {
      * Stores the folder last time used to submit/replay exercises.
      * @param projectFolder the local project folder
      */
-    public void setProjectFolder(File projectFolder) {
+    public synchronized void setProjectFolder(File projectFolder) {
         this.projectFolder = projectFolder.getPath();
         save();
     }
     
     /**
-     * Writes user name and group to saveFile.
+     * Schedules writing user name and group to saveFile. The file is written in the background, after no further
+     * changes have been made for a short time.
+     * 
+     * @see #flush()
      */
     private void save() {
-        try (FileWriter writer = new FileWriter(CONFIG_FILE_NAME)) {
-            String serialized = jsonParser.serialize(this);
-            writer.write(serialized);
-        } catch (IOException e) {
-            LOGGER.error("Error while saving SubmissionConfiguration", e);
+        getPersister().schedule(this::serialize);
+    }
+    
+    /**
+     * Writes pending changes to the saveFile. Returns after the file has been written.
+     */
+    public void flush() {
+        getPersister().flush();
+    }
+    
+    /**
+     * Serializes this configuration.
+     * 
+     * @return The content of the saveFile.
+     */
+    private synchronized String serialize() {
+        return jsonParser.serialize(this);
+    }
+    
+    /**
+     * Returns the persister that writes the saveFile of all configurations.
+     * 
+     * @return The persister, created on first use.
+     */
+    private static synchronized ConfigurationPersister getPersister() {
+        if (persister == null) {
+            persister = new ConfigurationPersister(new File(CONFIG_FILE_NAME).toPath(), SAVE_DELAY);
         }
+        return persister;
     }
     
     /**
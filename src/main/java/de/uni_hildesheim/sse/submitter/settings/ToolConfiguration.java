@@ -23,7 +23,19 @@ public class ToolConfiguration {
     private UiColorSettings colorSettings;
     
     private FolderCheckSettings folderCheckSettings;
+
+    private WorkingCopyCacheSettings workingCopyCacheSettings;
+    
+    private HistoryCacheSettings historyCacheSettings;
+    
+    private ReplaySettings replaySettings;
+    
+    private LogSettings logSettings;
     
+    private WatchdogSettings watchdogSettings;
+    
+    private boolean directCommit;
+
     /**
      * Returns the name of the application.
      * @return the application.
@@ -169,7 +181,115 @@ public class ToolConfiguration {
     public void setFolderCheckSettings(FolderCheckSettings folderCheckSettings) {
         this.folderCheckSettings = folderCheckSettings;
     }
-    
+
+    /**
+     * Settings for caching SVN working copies between submissions.
+     *
+     * @return the workingCopyCacheSettings, may be <code>null</code> if not configured
+     */
+    public WorkingCopyCacheSettings getWorkingCopyCacheSettings() {
+        return workingCopyCacheSettings;
+    }
+
+    /**
+     * Settings for caching SVN working copies between submissions.
+     *
+     * @param workingCopyCacheSettings the workingCopyCacheSettings to set
+     */
+    public void setWorkingCopyCacheSettings(WorkingCopyCacheSettings workingCopyCacheSettings) {
+        this.workingCopyCacheSettings = workingCopyCacheSettings;
+    }
+
+    /**
+     * Settings for caching the revision logs of exercises.
+     *
+     * @return the historyCacheSettings, may be <code>null</code> if not configured
+     */
+    public HistoryCacheSettings getHistoryCacheSettings() {
+        return historyCacheSettings;
+    }
+
+    /**
+     * Settings for caching the revision logs of exercises.
+     *
+     * @param historyCacheSettings the historyCacheSettings to set
+     */
+    public void setHistoryCacheSettings(HistoryCacheSettings historyCacheSettings) {
+        this.historyCacheSettings = historyCacheSettings;
+    }
+
+    /**
+     * Settings for replaying previous submissions.
+     *
+     * @return the replaySettings, may be <code>null</code> if not configured
+     */
+    public ReplaySettings getReplaySettings() {
+        return replaySettings;
+    }
+
+    /**
+     * Settings for replaying previous submissions.
+     *
+     * @param replaySettings the replaySettings to set
+     */
+    public void setReplaySettings(ReplaySettings replaySettings) {
+        this.replaySettings = replaySettings;
+    }
+
+    /**
+     * Settings for the log shown in the main window.
+     *
+     * @return the logSettings, may be <code>null</code> if not configured
+     */
+    public LogSettings getLogSettings() {
+        return logSettings;
+    }
+
+    /**
+     * Settings for the log shown in the main window.
+     *
+     * @param logSettings the logSettings to set
+     */
+    public void setLogSettings(LogSettings logSettings) {
+        this.logSettings = logSettings;
+    }
+
+    /**
+     * Settings for detecting when the GUI does not respond.
+     *
+     * @return the watchdogSettings, may be <code>null</code> if not configured
+     */
+    public WatchdogSettings getWatchdogSettings() {
+        return watchdogSettings;
+    }
+
+    /**
+     * Settings for detecting when the GUI does not respond.
+     *
+     * @param watchdogSettings the watchdogSettings to set
+     */
+    public void setWatchdogSettings(WatchdogSettings watchdogSettings) {
+        this.watchdogSettings = watchdogSettings;
+    }
+
+    /**
+     * Whether submissions are committed directly to the repository, without a local working copy.
+     *
+     * @return the directCommit
+     */
+    public boolean isDirectCommit() {
+        return directCommit;
+    }
+
+    /**
+     * Whether submissions are committed directly to the repository, without a local working copy.
+     *
+     * @param directCommit the directCommit to set
+     */
+    public void setDirectCommit(boolean directCommit) {
+        this.directCommit = directCommit;
+    }
+
     
     
 }
@@ -0,0 +1,50 @@
+package de.uni_hildesheim.sse.submitter.settings;
+
+/**
+ * Holds settings for detecting when the GUI does not respond, because the event dispatch thread is blocked.
+ *
+ * @author Adam Krafczyk
+ */
+public class WatchdogSettings {
+
+    private boolean enabled;
+
+    private long thresholdMillis;
+
+    /**
+     * Whether long-running events in the event dispatch thread are detected and logged.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether long-running events in the event dispatch thread are detected and logged.
+     *
+     * @param enabled the enabled to set
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * How long a single event may block the event dispatch thread before it is logged as a stall, in milliseconds.
+     *
+     * @return the thresholdMillis
+     */
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    /**
+     * How long a single event may block the event dispatch thread before it is logged as a stall, in milliseconds.
+     *
+     * @param thresholdMillis the thresholdMillis to set
+     */
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+}
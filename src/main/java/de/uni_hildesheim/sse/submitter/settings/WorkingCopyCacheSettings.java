@@ -0,0 +1,99 @@
+package de.uni_hildesheim.sse.submitter.settings;
+
+import java.io.File;
+
+/**
+ * Holds settings for the local cache of SVN working copies, which are re-used between submissions.
+ *
+ * @author Adam Krafczyk
+ */
+public class WorkingCopyCacheSettings {
+
+    private boolean enabled;
+
+    private String directory;
+
+    private int maxWorkingCopies;
+
+    private long maxSize;
+
+    /**
+     * Whether working copies should be cached at all. If disabled, a fresh checkout is created for every submission.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether working copies should be cached at all. If disabled, a fresh checkout is created for every submission.
+     *
+     * @param enabled the enabled to set
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The directory where the cached working copies are stored. If not set, a folder in the home directory of the
+     * user is used.
+     *
+     * @return the directory, never <code>null</code>
+     */
+    public File getDirectory() {
+        File result;
+        if (directory != null && !directory.isEmpty()) {
+            result = new File(directory);
+        } else {
+            result = new File(System.getProperty("user.home"), ".exercise-submitter/working-copies");
+        }
+        return result;
+    }
+
+    /**
+     * The directory where the cached working copies are stored.
+     *
+     * @param directory the directory to set, may be <code>null</code> to use the default location
+     */
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The maximum number of working copies kept in the cache. The least recently used are evicted first.
+     *
+     * @return the maxWorkingCopies
+     */
+    public int getMaxWorkingCopies() {
+        return maxWorkingCopies;
+    }
+
+    /**
+     * The maximum number of working copies kept in the cache. The least recently used are evicted first.
+     *
+     * @param maxWorkingCopies the maxWorkingCopies to set
+     */
+    public void setMaxWorkingCopies(int maxWorkingCopies) {
+        this.maxWorkingCopies = maxWorkingCopies;
+    }
+
+    /**
+     * The maximum disk space used by all cached working copies together, in bytes.
+     *
+     * @return the maxSize
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * The maximum disk space used by all cached working copies together, in bytes.
+     *
+     * @param maxSize the maxSize to set
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+}
@@ -0,0 +1,84 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.tmatesoft.svn.core.SVNURL;
+
+/**
+ * Remembers the MD5 checksums of files in the repository, so that the {@link DirectSubmitter} does not need a
+ * separate request for each unchanged file. A file is identified by its URL and the revision it was last changed in;
+ * since committed revisions never change, a cached checksum never becomes stale.
+ * <p>
+ * The checksums are only kept in memory, for the lifetime of the application. The least recently used entries are
+ * evicted if more than the maximum number of checksums are stored.
+ *
+ * @author Adam Krafczyk
+ */
+public class ChecksumCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private Map<String, String> checksums;
+
+    /**
+     * Creates a cache with a default limit of entries.
+     */
+    public ChecksumCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache with the given limit of entries.
+     *
+     * @param maxEntries The maximum number of checksums to keep.
+     */
+    public ChecksumCache(int maxEntries) {
+        this.checksums = new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+
+        };
+    }
+
+    /**
+     * Returns the cached checksum of a file.
+     *
+     * @param url The URL of the file.
+     * @param revision The revision the file was last changed in.
+     *
+     * @return The checksum as a lower case hex string, or <code>null</code> if it is not cached.
+     */
+    public synchronized String get(SVNURL url, long revision) {
+        return checksums.get(createKey(url, revision));
+    }
+
+    /**
+     * Stores the checksum of a file.
+     *
+     * @param url The URL of the file.
+     * @param revision The revision the file was last changed in.
+     * @param checksum The checksum as a lower case hex string.
+     */
+    public synchronized void put(SVNURL url, long revision, String checksum) {
+        checksums.put(createKey(url, revision), checksum);
+    }
+
+    /**
+     * Creates the key for a file.
+     *
+     * @param url The URL of the file.
+     * @param revision The revision the file was last changed in.
+     *
+     * @return The key in the map of checksums.
+     */
+    private static String createKey(SVNURL url, long revision) {
+        return url.toString() + "@" + revision;
+    }
+
+}
@@ -0,0 +1,629 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNProperties;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.ISVNEditor;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.diff.SVNDeltaGenerator;
+
+import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.io.FolderInitializer;
+import de.uni_hildesheim.sse.submitter.io.SubmissionManifest;
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings.Phase;
+
+/**
+ * Submits a project without a local working copy. The remote tree of the submission URL is compared against the
+ * submission folder and only the differences are sent to the server with a single commit editor.
+ * <p>
+ * Files are considered unchanged if their size and MD5 checksum match the file in the repository. The checksum of
+ * a remote file is only needed if the sizes are equal; it is taken from the {@link ChecksumCache} if possible, and
+ * only requested from the server otherwise.
+ * <p>
+ * This is an opt-in path, used only if direct commits are enabled in the tool configuration (see
+ * {@link de.uni_hildesheim.sse.submitter.settings.ToolConfiguration#isDirectCommit()}); by default, the working copy
+ * based {@link Submitter} is used. Added and modified files are sent as their full text (a delta against an empty
+ * base), not as a delta against the file in the repository, since that would require downloading the old content
+ * first.
+ *
+ * @author Adam Krafczyk
+ */
+public class DirectSubmitter implements ISubmitter {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private SVNURL url;
+
+    private String user;
+
+    private String exerciseName;
+
+    private SvnSessionPool sessionPool;
+
+    private ChecksumCache checksumCache;
+
+    /**
+     * The kind of a single change sent to the commit editor.
+     */
+    private enum ChangeKind {
+        DELETE, ADD_DIR, ADD_FILE, MODIFY_FILE;
+    }
+
+    /**
+     * A single change sent to the commit editor.
+     */
+    private static class Change {
+
+        private String path;
+
+        private ChangeKind kind;
+
+        private LocalEntry local;
+
+        /**
+         * Creates a change.
+         *
+         * @param path The path relative to the submission URL.
+         * @param kind The kind of change.
+         * @param local The new local content, <code>null</code> for deletions.
+         */
+        Change(String path, ChangeKind kind, LocalEntry local) {
+            this.path = path;
+            this.kind = kind;
+            this.local = local;
+        }
+
+    }
+
+    /**
+     * A file or folder of the submission. Either backed by an entry of the {@link SubmissionManifest}, or by
+     * generated content.
+     */
+    private static class LocalEntry {
+
+        private SubmissionManifest.Entry entry;
+
+        private byte[] content;
+
+        /**
+         * Creates an entry for a file or folder on disk.
+         *
+         * @param entry The entry in the manifest.
+         */
+        LocalEntry(SubmissionManifest.Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Creates an entry for a generated file.
+         *
+         * @param content The content of the file.
+         */
+        LocalEntry(byte[] content) {
+            this.content = content;
+        }
+
+        /**
+         * Whether this entry is a folder.
+         *
+         * @return <code>true</code> if this is a folder.
+         */
+        boolean isDirectory() {
+            return entry != null && entry.isDirectory();
+        }
+
+        /**
+         * The size of this file.
+         *
+         * @return The size in bytes.
+         */
+        long getSize() {
+            return entry != null ? entry.getSize() : content.length;
+        }
+
+        /**
+         * Opens the content of this file.
+         *
+         * @return A stream to read the content from.
+         *
+         * @throws IOException If the file cannot be opened.
+         */
+        InputStream open() throws IOException {
+            return entry != null ? FileUtils.openInputStream(entry.getFile()) : new ByteArrayInputStream(content);
+        }
+
+        /**
+         * The MD5 checksum of this file, in the format used by SVN.
+         *
+         * @return The checksum as a lower case hex string.
+         *
+         * @throws IOException If reading the file fails.
+         */
+        String getHash() throws IOException {
+            String hash;
+            if (entry != null && entry.getHash() != null) {
+                hash = entry.getHash();
+            } else if (entry != null) {
+                hash = SubmissionManifest.hash(entry.getFile());
+            } else {
+                try {
+                    hash = String.format("%032x", new BigInteger(1, MessageDigest.getInstance("MD5").digest(content)));
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IOException(e); // cannot happen, MD5 is required by the Java platform
+                }
+            }
+            return hash;
+        }
+
+    }
+
+    /**
+     * Creates a submitter with the given parameters.
+     *
+     * @param url The URL to submit to. This must already contain the exercise and group elements where to submit.
+     * @param exerciseName The name of the exercise that is submitted.
+     * @param user The username to use for authentication to the SVN server.
+     * @param pw The password to use for authentication to the SVN server.
+     *
+     * @throws SubmitException If the given URl is invalid.
+     */
+    public DirectSubmitter(String url, String exerciseName, String user, char[] pw) throws SubmitException {
+        this(url, exerciseName, user, new SvnSessionPool(user, pw));
+    }
+
+    /**
+     * Creates a submitter that draws its session from the given pool.
+     *
+     * @param url The URL to submit to. This must already contain the exercise and group elements where to submit.
+     * @param exerciseName The name of the exercise that is submitted.
+     * @param user The username, used for the commit message.
+     * @param sessionPool The pool of sessions to the SVN server, which also holds the credentials to use.
+     *
+     * @throws SubmitException If the given URl is invalid.
+     */
+    public DirectSubmitter(String url, String exerciseName, String user, SvnSessionPool sessionPool)
+            throws SubmitException {
+        this.user = user;
+        this.exerciseName = exerciseName;
+
+        try {
+            this.url = SVNURL.parseURIEncoded(url);
+        } catch (SVNException e) {
+            LOGGER.error("Couldn't parse URL: " + url, e);
+            throw new SubmitException(ErrorType.NO_REPOSITORY_FOUND, url);
+        }
+
+        this.sessionPool = sessionPool;
+    }
+
+    /**
+     * Sets a cache for the checksums of remote files. If set, the checksums of unchanged files are only requested
+     * from the server once, and the checksums of committed files are never requested.
+     *
+     * @param checksumCache The cache to use, may be <code>null</code> to always request the checksums.
+     */
+    public void setChecksumCache(ChecksumCache checksumCache) {
+        this.checksumCache = checksumCache;
+    }
+
+    @Override
+    @SuppressWarnings("try")
+    public SubmitResult submit(SubmissionManifest manifest, SubmissionTimings timings) throws SubmitException {
+        Map<String, LocalEntry> local;
+        try (SubmissionTimings.Measurement measurement = timings.measure(Phase.READ_LOCAL)) {
+            local = readLocalTree(manifest.withHashes());
+            measurement.addFiles(manifest.getNumFiles(), manifest.getTotalSize());
+        } catch (IOException e) {
+            LOGGER.error("Couldn't read submission folder " + manifest.getRoot(), e);
+            throw new SubmitException(ErrorType.COULD_NOT_CREATE_TEMP_DIR, manifest.getRoot().getAbsolutePath());
+        }
+
+        SVNRepository repository = null;
+        SVNCommitInfo info = null;
+        try {
+            long revision;
+            Map<String, SVNDirEntry> remote = new TreeMap<>();
+            try (SubmissionTimings.Measurement measurement = timings.measure(Phase.READ_REMOTE);
+                    SvnRequestProfiler.Operation ignored = SvnRequestProfiler.start("status")) {
+                repository = sessionPool.acquireSession(url);
+                revision = repository.getLatestRevision();
+                readRemoteTree(repository, "", revision, remote);
+                measurement.addFiles(remote.size(), 0);
+            }
+
+            List<Change> changes;
+            try (SubmissionTimings.Measurement ignored = timings.measure(Phase.PREPARE)) {
+                changes = computeChanges(repository, revision, local, remote);
+            }
+
+            try (SubmissionTimings.Measurement measurement = timings.measure(Phase.COMMIT);
+                    SvnRequestProfiler.Operation ignored = SvnRequestProfiler.start("commit")) {
+                info = commit(repository, revision, changes);
+                for (Change change : changes) {
+                    if (change.kind == ChangeKind.ADD_FILE || change.kind == ChangeKind.MODIFY_FILE) {
+                        measurement.addFiles(1, change.local.getSize());
+                    }
+                }
+            }
+            cacheChecksums(info, changes);
+
+        } catch (SVNException e) {
+            LOGGER.error("Couldn't read SVN URL " + url, e);
+            throw new SubmitException(ErrorType.NO_EXERCISE_FOUND, url.toString());
+
+        } catch (IOException e) {
+            LOGGER.error("Couldn't read submission folder " + manifest.getRoot(), e);
+            throw new SubmitException(ErrorType.CANNOT_COMMIT, url.toString());
+
+        } finally {
+            if (repository != null) {
+                if (info != null) {
+                    sessionPool.releaseSession(repository);
+                } else {
+                    sessionPool.discardSession(repository);
+                }
+            }
+        }
+
+        return new SubmitResult(manifest.getNumJavaFiles(), info, timings);
+    }
+
+    /**
+     * Collects all files and folders of the submission, as they should be present in the repository after the
+     * commit. Like the {@link FolderInitializer}, this adds default eclipse project files if they are missing.
+     *
+     * @param manifest The manifest of the submission folder.
+     *
+     * @return All files and folders, by their path relative to the submission folder.
+     *
+     * @throws IOException If the default project files cannot be created.
+     */
+    private Map<String, LocalEntry> readLocalTree(SubmissionManifest manifest) throws IOException {
+        Map<String, LocalEntry> result = new TreeMap<>();
+        for (SubmissionManifest.Entry entry : manifest.getEntries()) {
+            result.put(entry.getPath(), new LocalEntry(entry));
+        }
+
+        if (!result.containsKey(FolderInitializer.CLASSPATH_FILE_NAME)) {
+            result.put(FolderInitializer.CLASSPATH_FILE_NAME,
+                    new LocalEntry(FolderInitializer.createDefaultClasspath()));
+        }
+        if (!result.containsKey(FolderInitializer.PROJECT_FILE_NAME)) {
+            result.put(FolderInitializer.PROJECT_FILE_NAME,
+                    new LocalEntry(FolderInitializer.createDefaultProject(exerciseName)));
+        }
+        return result;
+    }
+
+    /**
+     * Recursively collects the content of a folder in the repository.
+     *
+     * @param repository The repository to read from.
+     * @param path The path of the folder relative to the submission URL.
+     * @param revision The revision to read.
+     * @param result Collects the found files and folders, by their path relative to the submission URL.
+     *
+     * @throws SVNException If reading from the repository fails.
+     */
+    private static void readRemoteTree(SVNRepository repository, String path, long revision,
+            Map<String, SVNDirEntry> result) throws SVNException {
+
+        Collection<SVNDirEntry> entries = new ArrayList<>();
+        repository.getDir(path, revision, null, entries);
+        for (SVNDirEntry entry : entries) {
+            String entryPath = path.isEmpty() ? entry.getName() : path + "/" + entry.getName();
+            result.put(entryPath, entry);
+            if (entry.getKind() == SVNNodeKind.DIR) {
+                readRemoteTree(repository, entryPath, revision, result);
+            }
+        }
+    }
+
+    /**
+     * Compares the local and the remote tree.
+     *
+     * @param repository The repository to read checksums from.
+     * @param revision The revision of the remote tree.
+     * @param local The local files and folders.
+     * @param remote The remote files and folders.
+     *
+     * @return The changes to send, sorted by path. Changes in the same folder are adjacent, and deletions come before
+     *      additions of the same path.
+     *
+     * @throws SVNException If reading from the repository fails.
+     * @throws IOException If reading local files fails.
+     */
+    private List<Change> computeChanges(SVNRepository repository, long revision, Map<String, LocalEntry> local,
+            Map<String, SVNDirEntry> remote) throws SVNException, IOException {
+
+        List<Change> changes = new ArrayList<>();
+
+        for (Map.Entry<String, SVNDirEntry> entry : remote.entrySet()) {
+            String path = entry.getKey();
+            LocalEntry localEntry = local.get(path);
+            boolean remoteIsDir = entry.getValue().getKind() == SVNNodeKind.DIR;
+            if ((localEntry == null || localEntry.isDirectory() != remoteIsDir)
+                    && !isInsideDeletedFolder(path, changes)) {
+                changes.add(new Change(path, ChangeKind.DELETE, null));
+            }
+        }
+
+        for (Map.Entry<String, LocalEntry> entry : local.entrySet()) {
+            String path = entry.getKey();
+            LocalEntry localEntry = entry.getValue();
+            SVNDirEntry remoteEntry = remote.get(path);
+            boolean exists = remoteEntry != null
+                    && (remoteEntry.getKind() == SVNNodeKind.DIR) == localEntry.isDirectory()
+                    && !isInsideDeletedFolder(path, changes);
+
+            if (!exists) {
+                changes.add(new Change(path, localEntry.isDirectory() ? ChangeKind.ADD_DIR : ChangeKind.ADD_FILE,
+                        localEntry));
+            } else if (!localEntry.isDirectory() && isModified(repository, revision, path, localEntry, remoteEntry)) {
+                changes.add(new Change(path, ChangeKind.MODIFY_FILE, localEntry));
+            }
+        }
+
+        // stable sort, keeps deletions before additions of the same path
+        changes.sort((c1, c2) -> comparePaths(c1.path, c2.path));
+        return changes;
+    }
+
+    /**
+     * Compares two paths in depth-first order: all paths inside a folder come directly after the folder itself,
+     * before any sibling whose name starts with the folder name (e.g. <code>a</code>, <code>a/c</code>,
+     * <code>a-b</code>). A plain string comparison would sort <code>-</code> and <code>.</code> before
+     * <code>/</code>, which breaks the order in which the commit editor opens and closes folders.
+     *
+     * @param path1 The first path.
+     * @param path2 The second path.
+     *
+     * @return A negative number, zero or a positive number if the first path is sorted before, equal to or after the
+     *      second path.
+     */
+    static int comparePaths(String path1, String path2) {
+        // '\0' cannot appear in a path, so this makes '/' the lowest character
+        return path1.replace('/', '\0').compareTo(path2.replace('/', '\0'));
+    }
+
+    /**
+     * Checks whether the given path is located inside a folder that is deleted by one of the given changes.
+     *
+     * @param path The path to check.
+     * @param changes The changes computed so far.
+     *
+     * @return <code>true</code> if a parent folder of the path is deleted.
+     */
+    private static boolean isInsideDeletedFolder(String path, List<Change> changes) {
+        return changes.stream()
+                .anyMatch((change) -> change.kind == ChangeKind.DELETE && path.startsWith(change.path + "/"));
+    }
+
+    /**
+     * Checks whether a local file differs from the file in the repository.
+     *
+     * @param repository The repository to read the checksum from, if it is not cached.
+     * @param revision The revision of the remote file.
+     * @param path The path of the file relative to the submission URL.
+     * @param local The local file.
+     * @param remote The remote file.
+     *
+     * @return <code>true</code> if the content differs.
+     *
+     * @throws SVNException If reading the checksum fails.
+     * @throws IOException If reading the local file fails.
+     */
+    private boolean isModified(SVNRepository repository, long revision, String path, LocalEntry local,
+            SVNDirEntry remote) throws SVNException, IOException {
+
+        boolean modified = true;
+        if (local.getSize() == remote.getSize()) {
+            SVNURL fileUrl = url.appendPath(path, false);
+            String checksum = checksumCache != null ? checksumCache.get(fileUrl, remote.getRevision()) : null;
+            if (checksum == null) {
+                SVNProperties properties = new SVNProperties();
+                repository.getFile(path, revision, properties, null);
+                checksum = properties.getStringValue(SVNProperty.CHECKSUM);
+                if (checksumCache != null && checksum != null) {
+                    checksumCache.put(fileUrl, remote.getRevision(), checksum);
+                }
+            }
+            modified = !local.getHash().equals(checksum);
+        }
+        return modified;
+    }
+
+    /**
+     * Stores the checksums of all files sent by a successful commit in the {@link ChecksumCache}, so that the next
+     * submission does not need to request them.
+     *
+     * @param info The result of the commit.
+     * @param changes The changes that were sent.
+     *
+     * @throws SVNException If creating the URL of a file fails.
+     * @throws IOException If reading a local file fails.
+     */
+    private void cacheChecksums(SVNCommitInfo info, List<Change> changes) throws SVNException, IOException {
+        if (checksumCache != null && info.getNewRevision() > 0) {
+            for (Change change : changes) {
+                if (change.kind == ChangeKind.ADD_FILE || change.kind == ChangeKind.MODIFY_FILE) {
+                    checksumCache.put(url.appendPath(change.path, false), info.getNewRevision(),
+                            change.local.getHash());
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the given changes to the repository in a single commit.
+     *
+     * @param repository The repository to commit to.
+     * @param revision The revision that the changes are based on.
+     * @param changes The changes, as computed by {@link #computeChanges(SVNRepository, long, Map, Map)}.
+     *
+     * @return The result of the commit. If the commit was rejected by the hook, this contains the error message.
+     *      If there are no changes, this is {@link SVNCommitInfo#NULL}.
+     *
+     * @throws SubmitException If the commit fails for another reason than the hook.
+     * @throws IOException If reading local files fails.
+     */
+    private SVNCommitInfo commit(SVNRepository repository, long revision, List<Change> changes)
+            throws SubmitException, IOException {
+
+        SVNCommitInfo info = SVNCommitInfo.NULL;
+        if (!changes.isEmpty()) {
+            String commitMsg = I18nProvider.getText("submission.commit.exercise", user);
+            ISVNEditor editor = null;
+            try {
+                editor = repository.getCommitEditor(commitMsg, null, false, null);
+                sendChanges(editor, revision, changes);
+                info = editor.closeEdit();
+                editor = null;
+
+            } catch (SVNException e) {
+                SVNErrorMessage errorMsg = e.getErrorMessage();
+                if (errorMsg.getErrorCode() == SVNErrorCode.REPOS_HOOK_FAILURE
+                        || errorMsg.hasChildWithErrorCode(SVNErrorCode.REPOS_HOOK_FAILURE)) {
+                    info = new SVNCommitInfo(-1, user, new Date(), errorMsg);
+                } else {
+                    LOGGER.error("Exception while committing: ", e);
+                    throw new SubmitException(ErrorType.CANNOT_COMMIT, url.toString());
+                }
+
+            } finally {
+                abort(editor);
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Drives the commit editor. Folders are opened and closed as needed, so that each change is sent while its
+     * parent folder is open.
+     *
+     * @param editor The commit editor.
+     * @param revision The revision that the changes are based on.
+     * @param changes The changes, sorted by {@link #comparePaths(String, String)}.
+     *
+     * @throws SVNException If sending a change fails.
+     * @throws IOException If reading local files fails.
+     */
+    private static void sendChanges(ISVNEditor editor, long revision, List<Change> changes)
+            throws SVNException, IOException {
+
+        editor.openRoot(revision);
+        Deque<String> openFolders = new ArrayDeque<>();
+
+        for (Change change : changes) {
+            int slash = change.path.lastIndexOf('/');
+            String parent = slash >= 0 ? change.path.substring(0, slash) : "";
+
+            while (!openFolders.isEmpty() && !isSameOrParent(openFolders.peek(), parent)) {
+                editor.closeDir();
+                openFolders.pop();
+            }
+            String current = openFolders.isEmpty() ? "" : openFolders.peek();
+            while (!current.equals(parent)) {
+                int next = parent.indexOf('/', current.isEmpty() ? 0 : current.length() + 1);
+                current = next >= 0 ? parent.substring(0, next) : parent;
+                editor.openDir(current, revision);
+                openFolders.push(current);
+            }
+
+            switch (change.kind) {
+            case DELETE:
+                editor.deleteEntry(change.path, revision);
+                break;
+            case ADD_DIR:
+                editor.addDir(change.path, null, -1);
+                openFolders.push(change.path);
+                break;
+            case ADD_FILE:
+                editor.addFile(change.path, null, -1);
+                sendContent(editor, change);
+                break;
+            case MODIFY_FILE:
+                editor.openFile(change.path, revision);
+                sendContent(editor, change);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown change kind " + change.kind);
+            }
+        }
+
+        while (!openFolders.isEmpty()) {
+            editor.closeDir();
+            openFolders.pop();
+        }
+        editor.closeDir();
+    }
+
+    /**
+     * Checks whether <code>folder</code> is the same as or a parent of <code>path</code>.
+     *
+     * @param folder A folder path.
+     * @param path Another path.
+     *
+     * @return <code>true</code> if <code>path</code> is <code>folder</code> or located inside it.
+     */
+    private static boolean isSameOrParent(String folder, String path) {
+        return path.equals(folder) || path.startsWith(folder + "/");
+    }
+
+    /**
+     * Streams the full content of an opened file to the commit editor, as a delta against an empty base.
+     *
+     * @param editor The commit editor.
+     * @param change The added or modified file.
+     *
+     * @throws SVNException If sending the content fails.
+     * @throws IOException If reading the local file fails.
+     */
+    private static void sendContent(ISVNEditor editor, Change change) throws SVNException, IOException {
+        editor.applyTextDelta(change.path, null);
+        try (InputStream in = change.local.open()) {
+            String checksum = new SVNDeltaGenerator().sendDelta(change.path, in, editor, true);
+            editor.closeFile(change.path, checksum);
+        }
+    }
+
+    /**
+     * Aborts an unfinished commit.
+     *
+     * @param editor The commit editor, may be <code>null</code> if the commit was finished.
+     */
+    private static void abort(ISVNEditor editor) {
+        if (editor != null) {
+            try {
+                editor.abortEdit();
+            } catch (SVNException e) {
+                LOGGER.warn("Couldn't abort commit", e);
+            }
+        }
+    }
+
+}
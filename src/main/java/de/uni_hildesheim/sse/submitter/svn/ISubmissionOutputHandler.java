@@ -28,4 +28,11 @@ public interface ISubmissionOutputHandler {
      */
     public void showInfoMessage(String message, ErrorDescription[] descriptions);
     
+    /**
+     * Shows how long the phases of a finished submission took. Does nothing by default.
+     * @param timings The measured phases of the submission.
+     */
+    public default void showSubmissionDetails(SubmissionTimings timings) {
+    }
+    
 }
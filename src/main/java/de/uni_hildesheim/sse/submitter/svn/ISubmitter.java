@@ -0,0 +1,58 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+
+import de.uni_hildesheim.sse.submitter.io.SubmissionManifest;
+
+/**
+ * Submits a project folder to a single submission URL.
+ *
+ * @author Adam Krafczyk
+ *
+ * @see Submitter
+ * @see DirectSubmitter
+ */
+public interface ISubmitter {
+
+    /**
+     * Submits a user project to the submission server.
+     * @param folder A top level folder of a java project, which shall be submitted.
+     * @return A Info message about the submission.
+     * @throws SubmitException If an error occurred before the the server could run the hook script.
+     */
+    public default SubmitResult submitFolder(File folder) throws SubmitException {
+        SubmissionManifest manifest;
+        try {
+            manifest = SubmissionManifest.scan(folder);
+        } catch (IOException e) {
+            LogManager.getLogger().error("Couldn't read submission folder " + folder, e);
+            throw new SubmitException(ErrorType.COULD_NOT_CREATE_TEMP_DIR, folder.getAbsolutePath());
+        }
+        return submit(manifest);
+    }
+
+    /**
+     * Submits a user project to the submission server. The project folder is not walked again, all information is
+     * taken from the given manifest.
+     * @param manifest The manifest of the top level folder of a java project, which shall be submitted.
+     * @return A Info message about the submission.
+     * @throws SubmitException If an error occurred before the the server could run the hook script.
+     */
+    public default SubmitResult submit(SubmissionManifest manifest) throws SubmitException {
+        return submit(manifest, new SubmissionTimings());
+    }
+    
+    /**
+     * Submits a user project to the submission server, see {@link #submit(SubmissionManifest)}. Records the
+     * duration of each phase of the submission.
+     * @param manifest The manifest of the top level folder of a java project, which shall be submitted.
+     * @param timings Records the phases of the submission. May already contain phases measured by the caller.
+     * @return A Info message about the submission, containing the given timings.
+     * @throws SubmitException If an error occurred before the the server could run the hook script.
+     */
+    public SubmitResult submit(SubmissionManifest manifest, SubmissionTimings timings) throws SubmitException;
+
+}
@@ -2,22 +2,36 @@ package de.uni_hildesheim.sse.submitter.svn;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNLogEntry;
+import org.tmatesoft.svn.core.SVNNodeKind;
 import org.tmatesoft.svn.core.SVNURL;
-import org.tmatesoft.svn.core.auth.BasicAuthenticationManager;
 import org.tmatesoft.svn.core.io.SVNRepository;
 import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 
 import de.uni_hildesheim.sse.submitter.io.FolderInitializer;
+import de.uni_hildesheim.sse.submitter.profiling.ConnectionCheckEvent;
+import de.uni_hildesheim.sse.submitter.profiling.Profiling;
 
 /**
  * Contains methods to fetch information from the remote repository.
@@ -27,10 +41,37 @@ import de.uni_hildesheim.sse.submitter.io.FolderInitializer;
  */
 public class RemoteRepository {
 
+    /**
+     * Start revision for {@link #getHistory(String, long, int, Consumer)} to start at the newest revision.
+     */
+    public static final long HEAD = Long.MAX_VALUE;
+    
+    /**
+     * Returned by {@link #getHistory(String, long, int, Consumer)} if there are no older revisions.
+     */
+    public static final long NO_MORE_REVISIONS = -1;
+    
+    /**
+     * Names of files and folders that are not written when replaying a submission.
+     */
+    private static final Set<String> REPLAY_EXCLUDED_NAMES = Set.of(FolderInitializer.CLASSPATH_FILE_NAME,
+            FolderInitializer.PROJECT_FILE_NAME, ".settings", ".svn");
+    
+    /**
+     * Revision number for {@link #transfer(SVNURL, long, File, long)} to transfer the latest revision.
+     */
+    private static final long LATEST_REVISION = -1;
+    
     private static final Logger LOGGER = LogManager.getLogger();
     
     private SVNURL svnUrl;
-    private SVNClientManager clientManager;
+    private SvnSessionPool sessionPool;
+    
+    private RevisionLogCache revisionLogCache;
+    
+    private Map<String, RevisionLogCache.CachedLog> loadedLogs = new ConcurrentHashMap<>();
+    
+    private ReplayStateStore replayStateStore;
     
     /**
      * Creates a {@link RemoteRepository} for the given server with the given credentials.
@@ -42,6 +83,18 @@ public class RemoteRepository {
      * @throws ServerNotFoundException If the URL is malformed.
      */
     public RemoteRepository(String url, String user, char[] password) throws ServerNotFoundException {
+        this(url, new SvnSessionPool(user, password));
+    }
+    
+    /**
+     * Creates a {@link RemoteRepository} for the given server, which draws its connections from the given pool.
+     * 
+     * @param url The URL of the SVN server.
+     * @param sessionPool The pool of sessions to the SVN server, which also holds the credentials to use.
+     * 
+     * @throws ServerNotFoundException If the URL is malformed.
+     */
+    public RemoteRepository(String url, SvnSessionPool sessionPool) throws ServerNotFoundException {
         try {
             svnUrl = SVNURL.parseURIEncoded(url);
         } catch (SVNException e) {
@@ -49,8 +102,37 @@ public class RemoteRepository {
             throw new ServerNotFoundException(url);
         }
         
-        clientManager = SVNClientManager.newInstance(null,
-                BasicAuthenticationManager.newInstance(user, password));
+        this.sessionPool = sessionPool;
+    }
+    
+    /**
+     * Sets a cache for revision logs. If set, the paged {@link #getHistory(String, long, int, Consumer)} only fetches
+     * revisions from the server that are not cached yet. Logs read from the cache are kept in memory for the lifetime
+     * of this object.
+     * 
+     * @param revisionLogCache The cache to use, may be <code>null</code> to always fetch the log from the server.
+     */
+    public void setRevisionLogCache(RevisionLogCache revisionLogCache) {
+        this.revisionLogCache = revisionLogCache;
+    }
+    
+    /**
+     * Sets a store for the state of replayed directories. If set, replaying into a directory that still contains an
+     * earlier replay of the same submission only transfers the changes between the two revisions.
+     * 
+     * @param replayStateStore The store to use, may be <code>null</code> to always replay the whole submission.
+     */
+    public void setReplayStateStore(ReplayStateStore replayStateStore) {
+        this.replayStateStore = replayStateStore;
+    }
+    
+    /**
+     * Returns the pool that this repository draws its connections from.
+     * 
+     * @return The {@link SvnSessionPool}.
+     */
+    public SvnSessionPool getSessionPool() {
+        return sessionPool;
     }
     
     /**
@@ -62,109 +144,535 @@ public class RemoteRepository {
      * 
      * @throws SVNException if fetching the history information fails
      */
+    @SuppressWarnings("try")
     public List<Revision> getHistory(String remotePath) throws SVNException {
         List<Revision> result = new ArrayList<Revision>();
         
-        clientManager.getLogClient().doLog(svnUrl, new String[] {remotePath},
-                SVNRevision.HEAD, SVNRevision.create(0), SVNRevision.HEAD, false, false, Integer.MAX_VALUE,
-            (logEntry) -> {
-                result.add(new Revision(logEntry));
-            });
+        SVNClientManager clientManager = sessionPool.acquireClientManager();
+        try (SvnRequestProfiler.Operation ignored = SvnRequestProfiler.start("log")) {
+            clientManager.getLogClient().doLog(svnUrl, new String[] {remotePath},
+                    SVNRevision.HEAD, SVNRevision.create(0), SVNRevision.HEAD, false, false, Integer.MAX_VALUE,
+                (logEntry) -> {
+                    result.add(new Revision(logEntry));
+                });
+        } finally {
+            sessionPool.releaseClientManager(clientManager);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Streams a single page of the history of the repository, newest revision first. Unlike
+     * {@link #getHistory(String)}, only the requested number of revisions is fetched from the server, and each
+     * revision is passed to the consumer as soon as it is received.
+     * 
+     * @param remotePath The path on the server to get the history for.
+     * @param startRevision The newest revision to include, or {@link #HEAD} to start at the newest revision.
+     * @param limit The maximum number of revisions to fetch.
+     * @param consumer Receives the revisions, newest first. Called in the thread of the caller.
+     * 
+     * @return The start revision for the next (older) page, or {@link #NO_MORE_REVISIONS} if there are no older
+     *      revisions.
+     * 
+     * @throws SVNException if fetching the history information fails
+     */
+    @SuppressWarnings("try")
+    public long getHistory(String remotePath, long startRevision, int limit, Consumer<Revision> consumer)
+            throws SVNException {
+        long next;
+        
+        SVNRepository repository = sessionPool.acquireSession(svnUrl);
+        boolean successful = false;
+        try (SvnRequestProfiler.Operation ignored = SvnRequestProfiler.start("log")) {
+            long latest = repository.getLatestRevision();
+            long start = Math.min(startRevision, latest);
+            RevisionLogCache.CachedLog log = null;
+            if (revisionLogCache != null) {
+                log = updateCachedLog(repository, remotePath, latest);
+            }
+            
+            if (log != null && start >= log.getCompleteFrom() - 1) {
+                int served = servePage(log, start, limit, consumer);
+                if (served < limit && log.getCompleteFrom() > 0) {
+                    log = fetchOlderPage(repository, remotePath, log, limit - served, consumer);
+                }
+                next = getNextPage(log, start, limit);
+            } else {
+                // not cached, or not adjacent to the cached range of revisions
+                next = streamPage(repository, remotePath, start, limit, consumer);
+            }
+            successful = true;
+        } finally {
+            if (successful) {
+                sessionPool.releaseSession(repository);
+            } else {
+                sessionPool.discardSession(repository);
+            }
+        }
+        
+        return next;
+    }
+    
+    /**
+     * Fetches a single page of the history from the server.
+     * 
+     * @param repository The session to use.
+     * @param remotePath The path on the server to get the history for.
+     * @param start The newest revision to include.
+     * @param limit The maximum number of revisions to fetch.
+     * @param consumer Receives the revisions, newest first.
+     * 
+     * @return The start revision for the next (older) page, or {@link #NO_MORE_REVISIONS}.
+     * 
+     * @throws SVNException if fetching the history information fails
+     */
+    private static long streamPage(SVNRepository repository, String remotePath, long start, int limit,
+            Consumer<Revision> consumer) throws SVNException {
+        long[] oldest = {NO_MORE_REVISIONS};
+        int[] count = {0};
+        
+        repository.log(new String[] {remotePath}, start, 0, false, false, limit, (logEntry) -> {
+            oldest[0] = logEntry.getRevision();
+            count[0]++;
+            consumer.accept(new Revision(logEntry));
+        });
+        
+        long next = NO_MORE_REVISIONS;
+        if (count[0] >= limit && oldest[0] > 0) {
+            next = oldest[0] - 1;
+        }
+        return next;
+    }
+    
+    /**
+     * Brings the cached log of the given path up to date. Only revisions newer than the ones already checked are
+     * fetched from the server; if no revision was committed to the repository since, no log request is sent at all.
+     * If nothing is cached yet, no log request is sent either; the log is then filled page by page by
+     * {@link #fetchOlderPage(SVNRepository, String, RevisionLogCache.CachedLog, int, Consumer)}.
+     * 
+     * @param repository The session to use.
+     * @param remotePath The path on the server to get the history for.
+     * @param latest The newest revision of the repository.
+     * 
+     * @return The cached log of the path, complete from {@link RevisionLogCache.CachedLog#getCompleteFrom()} up to
+     *      <code>latest</code>.
+     * 
+     * @throws SVNException if fetching the history information fails
+     */
+    private RevisionLogCache.CachedLog updateCachedLog(SVNRepository repository, String remotePath, long latest)
+            throws SVNException {
+        String uuid = repository.getRepositoryUUID(true);
+        String path = repository.getRepositoryPath(remotePath);
+        
+        RevisionLogCache.CachedLog result = loadedLogs.get(uuid + '\n' + path);
+        if (result == null) {
+            result = revisionLogCache.load(uuid, path);
+        }
+        
+        if (result.getCheckedRevision() < 0) {
+            result = new RevisionLogCache.CachedLog(new ArrayList<>(), latest + 1, latest);
+            
+        } else if (latest > result.getCheckedRevision()) {
+            List<SVNLogEntry> entries = new ArrayList<>(result.getEntries());
+            repository.log(new String[] {remotePath}, result.getCheckedRevision() + 1, latest, false, false, 0,
+                    entries::add);
+            LOGGER.debug("Fetched {} new log entries for {} (revisions {} to {}), {} were cached", entries.size()
+                    - result.getEntries().size(), path, result.getCheckedRevision() + 1, latest,
+                    result.getEntries().size());
+            result = new RevisionLogCache.CachedLog(entries, result.getCompleteFrom(), latest);
+            revisionLogCache.store(uuid, path, result);
+        }
+        
+        loadedLogs.put(uuid + '\n' + path, result);
+        return result;
+    }
+    
+    /**
+     * Fetches the revisions right below the cached range of revisions from the server. The revisions are passed to
+     * the consumer as they are received, and added to the cache.
+     * 
+     * @param repository The session to use.
+     * @param remotePath The path on the server to get the history for.
+     * @param log The cached log of the path.
+     * @param limit The maximum number of revisions to fetch.
+     * @param consumer Receives the revisions, newest first.
+     * 
+     * @return The extended log.
+     * 
+     * @throws SVNException if fetching the history information fails
+     */
+    private RevisionLogCache.CachedLog fetchOlderPage(SVNRepository repository, String remotePath,
+            RevisionLogCache.CachedLog log, int limit, Consumer<Revision> consumer) throws SVNException {
+        
+        List<SVNLogEntry> fetched = new ArrayList<>();
+        repository.log(new String[] {remotePath}, log.getCompleteFrom() - 1, 0, false, false, limit, (logEntry) -> {
+            fetched.add(logEntry);
+            consumer.accept(new Revision(logEntry));
+        });
+        
+        // fewer revisions than requested means that the first revision of the path was reached
+        long completeFrom = 0;
+        if (fetched.size() >= limit) {
+            completeFrom = fetched.get(fetched.size() - 1).getRevision();
+        }
+        
+        List<SVNLogEntry> entries = new ArrayList<>(fetched.size() + log.getEntries().size());
+        for (int i = fetched.size() - 1; i >= 0; i--) {
+            entries.add(fetched.get(i));
+        }
+        entries.addAll(log.getEntries());
         
+        String uuid = repository.getRepositoryUUID(true);
+        String path = repository.getRepositoryPath(remotePath);
+        RevisionLogCache.CachedLog result = new RevisionLogCache.CachedLog(entries, completeFrom,
+                log.getCheckedRevision());
+        loadedLogs.put(uuid + '\n' + path, result);
+        revisionLogCache.store(uuid, path, result);
         return result;
     }
     
+    /**
+     * Passes the cached part of a single page of the given log to the consumer.
+     * 
+     * @param log The cached log.
+     * @param start The newest revision to include.
+     * @param limit The maximum number of revisions to pass.
+     * @param consumer Receives the revisions, newest first.
+     * 
+     * @return The number of revisions passed to the consumer. Less than <code>limit</code> if the cached entries
+     *      are exhausted.
+     */
+    private static int servePage(RevisionLogCache.CachedLog log, long start, int limit, Consumer<Revision> consumer) {
+        List<SVNLogEntry> entries = log.getEntries();
+        int index = entries.size() - 1;
+        while (index >= 0 && entries.get(index).getRevision() > start) {
+            index--;
+        }
+        
+        int count = 0;
+        while (index >= 0 && count < limit) {
+            consumer.accept(new Revision(entries.get(index)));
+            index--;
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Determines where the page after the given one starts.
+     * 
+     * @param log The cached log, which contains the complete given page.
+     * @param start The newest revision of the given page.
+     * @param limit The maximum number of revisions of the given page.
+     * 
+     * @return The start revision for the next (older) page, or {@link #NO_MORE_REVISIONS}.
+     */
+    private static long getNextPage(RevisionLogCache.CachedLog log, long start, int limit) {
+        List<SVNLogEntry> entries = log.getEntries();
+        int index = entries.size() - 1;
+        while (index >= 0 && entries.get(index).getRevision() > start) {
+            index--;
+        }
+        index -= limit;
+        
+        long next = NO_MORE_REVISIONS;
+        if (index >= 0) {
+            next = entries.get(index).getRevision();
+        } else if (log.getCompleteFrom() > 0) {
+            next = log.getCompleteFrom() - 1;
+        }
+        return next;
+    }
+    
     /**
      * Tests if a connection can be established to the specified repository server, which is used as submission server.
-     * Tests that the provided credentials are accepted by the server.
+     * Tests that the provided credentials are accepted by the server. On success, the connection is kept open in the
+     * {@link SvnSessionPool} for later operations.
      * 
      * @return <code>true</code> if the submission server can be access with the provided credentials,
      *      <code>false</code> otherwise.
      */
     public boolean checkConnection() {
         boolean connected = false;
+        ConnectionCheckEvent event = new ConnectionCheckEvent(svnUrl.toString());
+        event.begin();
         
         SVNRepository repository = null;
         try {
-            repository = clientManager.createRepository(svnUrl, false);
+            repository = sessionPool.acquireSession(svnUrl);
             repository.testConnection();
             connected = true;
         } catch (SVNException e) {
             LOGGER.error("Could not connect to sumbission server: " + svnUrl, e);
+            event.setOutcome(Profiling.outcome(e));
         } finally {
             if (repository != null) {
-                repository.closeSession();
+                if (connected) {
+                    sessionPool.releaseSession(repository);
+                } else {
+                    sessionPool.discardSession(repository);
+                }
+            }
+            if (connected) {
+                event.setOutcome(Profiling.SUCCESS);
             }
+            event.commit();
         }
         
         return connected;
     }
     
     /**
-     * Get the given revision of the given exercise directory and save it in the given directory.
+     * Get the current revision of the given exercise directory and save it in the given directory.
      * 
-     * @param revision The revision to check out.
      * @param targetDirectory the path to the directory where to create the checkout. Contents will be deleted.
      * @param remotePath The path of the submission to replay.
      * 
+     * @return The revision that was replayed.
+     * 
      * @throws SVNException if unable to get the current revision.
      * @throws IOException if writing the files fails.
      */
-    public void replay(long revision, File targetDirectory, String remotePath) throws SVNException, IOException {
-        replay(SVNRevision.create(revision), targetDirectory, remotePath);
+    public long replay(File targetDirectory, String remotePath) throws SVNException, IOException {
+        return replay(LATEST_REVISION, targetDirectory, remotePath);
     }
     
     /**
-     * Get the current revision of the given exercise directory and save it in the given directory.
+     * Get the given revision of the given exercise directory and save it in the given directory.
+     * <p>
+     * If a {@link ReplayStateStore} is set and the target directory still contains the unchanged result of a previous
+     * replay of the same submission, only the changes between the two revisions are transferred and applied to it.
+     * Otherwise, the content is exported into a staging directory next to the target directory, skipping
+     * {@link #REPLAY_EXCLUDED_NAMES} while it streams. Only if the export succeeded, the staging directory replaces
+     * the target directory by renaming it; a failed replay leaves the target directory untouched.
      * 
+     * @param revision The revision to check out.
      * @param targetDirectory the path to the directory where to create the checkout. Contents will be deleted.
      * @param remotePath The path of the submission to replay.
      * 
+     * @return The revision that was replayed.
+     * 
      * @throws SVNException if unable to get the current revision.
      * @throws IOException if writing the files fails.
      */
-    public void replay(File targetDirectory, String remotePath) throws SVNException, IOException {
-        replay(SVNRevision.HEAD, targetDirectory, remotePath);
+    @SuppressWarnings("try")
+    public long replay(long revision, File targetDirectory, String remotePath) throws SVNException, IOException {
+        try (SvnRequestProfiler.Operation ignored = SvnRequestProfiler.start("replay")) {
+            return replayRevision(revision, targetDirectory, remotePath);
+        }
     }
     
     /**
-     * Get the given revision of the given exercise directory and save it in the given directory.
+     * Replays the given revision, see {@link #replay(long, File, String)}.
      * 
      * @param revision The revision to check out.
      * @param targetDirectory the path to the directory where to create the checkout. Contents will be deleted.
      * @param remotePath The path of the submission to replay.
      * 
+     * @return The revision that was replayed.
+     * 
      * @throws SVNException if unable to get the current revision.
      * @throws IOException if writing the files fails.
      */
-    private void replay(SVNRevision revision, File targetDirectory, String remotePath)
+    private long replayRevision(long revision, File targetDirectory, String remotePath)
             throws SVNException, IOException {
+        if (targetDirectory.exists() && !targetDirectory.isDirectory()) {
+            throw new IOException(targetDirectory + " is a file");
+        }
         
-        if (!targetDirectory.exists()) {
-            if (!targetDirectory.mkdirs()) {
-                throw new IOException("Cannot create " + targetDirectory);
+        SVNURL url = SVNURL.parseURIEncoded(svnUrl.toString() + "/" + remotePath);
+        long replayedRevision = ReplayStateStore.NO_REVISION;
+        if (replayStateStore != null) {
+            long baseRevision = replayStateStore.getUnchangedRevision(url, targetDirectory);
+            if (baseRevision != ReplayStateStore.NO_REVISION) {
+                // the directory is modified in place, so its state is unknown until the update succeeded
+                replayStateStore.forget(url, targetDirectory);
+                try {
+                    replayedRevision = transfer(url, revision, targetDirectory, baseRevision);
+                    LOGGER.debug("Replayed {} incrementally from revision {}", url, baseRevision);
+                } catch (SVNException e) {
+                    LOGGER.warn("Incremental replay of " + url + " failed, falling back to full replay", e);
+                }
+            }
+        }
+        
+        if (replayedRevision == ReplayStateStore.NO_REVISION) {
+            replayedRevision = replayFully(url, revision, targetDirectory);
+        }
+        
+        if (replayStateStore != null) {
+            replayStateStore.record(url, targetDirectory, replayedRevision);
+        }
+        return replayedRevision;
+    }
+    
+    /**
+     * Exports the given revision into a staging directory and swaps it in place of the target directory.
+     * 
+     * @param url The URL of the submission to replay.
+     * @param revision The revision to replay, or {@link #LATEST_REVISION}.
+     * @param targetDirectory The directory to replace. May not exist.
+     * 
+     * @return The revision that was replayed.
+     * 
+     * @throws SVNException if the export fails.
+     * @throws IOException if writing the files fails.
+     */
+    private long replayFully(SVNURL url, long revision, File targetDirectory) throws SVNException, IOException {
+        File stagingDirectory = createStagingDirectory(targetDirectory);
+        boolean swapped = false;
+        long replayedRevision;
+        try {
+            replayedRevision = transfer(url, revision, stagingDirectory, ReplayStateStore.NO_REVISION);
+            swapIn(stagingDirectory, targetDirectory);
+            swapped = true;
+        } finally {
+            if (!swapped) {
+                FileUtils.deleteQuietly(stagingDirectory);
+            }
+        }
+        return replayedRevision;
+    }
+    
+    /**
+     * Creates an empty staging directory next to the target directory. Unlike a temporary directory, it is created
+     * with the default permissions of new folders; if the target directory exists, its POSIX permissions and group
+     * are copied, so that the replayed folder looks like before.
+     * 
+     * @param targetDirectory The directory that will be replaced by the staging directory. May not exist.
+     * 
+     * @return The created staging directory.
+     * 
+     * @throws IOException If the staging directory cannot be created.
+     */
+    private static File createStagingDirectory(File targetDirectory) throws IOException {
+        File parent = targetDirectory.getAbsoluteFile().getParentFile();
+        FileUtils.forceMkdir(parent);
+        Path staging = null;
+        for (int i = 0; staging == null; i++) {
+            try {
+                staging = Files.createDirectory(parent.toPath().resolve(
+                        "." + targetDirectory.getName() + ".replay" + i));
+            } catch (FileAlreadyExistsException e) {
+                // left over by an aborted replay, or used by a concurrent one; try the next name
             }
-        } else if (targetDirectory.isDirectory()) {
-            FileUtils.cleanDirectory(targetDirectory);
-        } else {
-            throw new IOException(targetDirectory + " is a file");
         }
         
-        File tmpDir = Files.createTempDirectory("abgabe").toFile();
+        PosixFileAttributeView targetView = Files.getFileAttributeView(targetDirectory.toPath(),
+                PosixFileAttributeView.class);
+        if (targetView != null && targetDirectory.isDirectory()) {
+            PosixFileAttributes targetAttributes = targetView.readAttributes();
+            Files.setPosixFilePermissions(staging, targetAttributes.permissions());
+            try {
+                Files.getFileAttributeView(staging, PosixFileAttributeView.class).setGroup(targetAttributes.group());
+            } catch (IOException e) {
+                LOGGER.debug("Could not copy the group of " + targetDirectory, e);
+            }
+        }
+        return staging.toFile();
+    }
+    
+    /**
+     * Transfers the given revision of a submission into a local directory, without any working copy metadata. The
+     * server is told which revision the directory currently contains, so that it only sends the differences.
+     * 
+     * @param url The URL of the submission to transfer.
+     * @param revision The revision to transfer, or {@link #LATEST_REVISION}.
+     * @param directory The directory to write into.
+     * @param baseRevision The revision that the directory currently contains, or
+     *      {@link ReplayStateStore#NO_REVISION} if it is empty.
+     * 
+     * @return The revision that was transferred.
+     * 
+     * @throws SVNException if the transfer fails, e.g. because the path does not exist in the revision.
+     */
+    private long transfer(SVNURL url, long revision, File directory, long baseRevision) throws SVNException {
+        SVNRepository repository = sessionPool.acquireSession(url);
+        boolean success = false;
+        long targetRevision;
         try {
-            SVNURL url = SVNURL.parseURIEncoded(svnUrl.toString() + "/" + remotePath);
-            clientManager.getUpdateClient().doCheckout(url, tmpDir, revision, revision, SVNDepth.INFINITY, true);
-            
-            FileUtils.copyDirectory(tmpDir, targetDirectory, (file) ->
-                    !file.getName().equals(FolderInitializer.CLASSPATH_FILE_NAME)
-                    && !file.getName().equals(FolderInitializer.PROJECT_FILE_NAME)
-                    && !file.getName().equals(".settings")
-                    && !file.getName().equals(".svn")
-            );
+            targetRevision = revision == LATEST_REVISION ? repository.getLatestRevision() : revision;
+            if (repository.checkPath("", targetRevision) == SVNNodeKind.NONE) {
+                throw new SVNException(SVNErrorMessage.create(SVNErrorCode.FS_NOT_FOUND,
+                        "''{0}'' does not exist in revision {1}", url, targetRevision));
+            }
             
+            if (baseRevision != targetRevision) {
+                boolean startEmpty = baseRevision == ReplayStateStore.NO_REVISION;
+                long reportedRevision = startEmpty ? targetRevision : baseRevision;
+                repository.update(targetRevision, null, SVNDepth.INFINITY, false, (reporter) -> {
+                    reporter.setPath("", null, reportedRevision, SVNDepth.INFINITY, startEmpty);
+                    reporter.finishReport();
+                }, new ReplayEditor(directory, REPLAY_EXCLUDED_NAMES));
+            }
+            success = true;
         } finally {
-            FileUtils.deleteQuietly(tmpDir);
+            if (success) {
+                sessionPool.releaseSession(repository);
+            } else {
+                sessionPool.discardSession(repository);
+            }
+        }
+        return targetRevision;
+    }
+    
+    /**
+     * Replaces the target directory with the staging directory. Both are renamed, so that the target directory is
+     * never in a half-written state. If the target directory cannot be moved (e.g. because another process has it
+     * opened on Windows), its content is replaced instead.
+     * 
+     * @param stagingDirectory The directory containing the new content. Is gone afterwards.
+     * @param targetDirectory The directory to replace. May not exist.
+     * 
+     * @throws IOException If the staging directory cannot be moved to the target location.
+     */
+    private static void swapIn(File stagingDirectory, File targetDirectory) throws IOException {
+        Path staging = stagingDirectory.toPath();
+        Path target = targetDirectory.toPath();
+        if (targetDirectory.exists()) {
+            Path old = staging.resolveSibling(staging.getFileName() + ".old");
+            boolean movedAside = false;
+            try {
+                Files.move(target, old, StandardCopyOption.ATOMIC_MOVE);
+                movedAside = true;
+            } catch (IOException e) {
+                LOGGER.warn("Could not move " + target + " aside, replacing its content instead", e);
+                replaceContent(stagingDirectory, targetDirectory);
+            }
+            
+            if (movedAside) {
+                try {
+                    Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    Files.move(old, target, StandardCopyOption.ATOMIC_MOVE);
+                    throw e;
+                }
+                FileUtils.deleteQuietly(old.toFile());
+            }
+        } else {
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+    
+    /**
+     * Fallback of {@link #swapIn(File, File)}: deletes the content of the target directory and moves the content of
+     * the staging directory into it.
+     * 
+     * @param stagingDirectory The directory containing the new content. Is gone afterwards.
+     * @param targetDirectory The directory to replace the content of.
+     * 
+     * @throws IOException If the content cannot be replaced.
+     */
+    private static void replaceContent(File stagingDirectory, File targetDirectory) throws IOException {
+        FileUtils.cleanDirectory(targetDirectory);
+        File[] children = stagingDirectory.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                Files.move(child.toPath(), new File(targetDirectory, child.getName()).toPath());
+            }
         }
+        FileUtils.deleteDirectory(stagingDirectory);
     }
     
 }
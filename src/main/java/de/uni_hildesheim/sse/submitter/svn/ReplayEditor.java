@@ -0,0 +1,267 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.internal.wc.SVNFileUtil;
+import org.tmatesoft.svn.core.io.ISVNEditor;
+import org.tmatesoft.svn.core.io.diff.SVNDeltaProcessor;
+import org.tmatesoft.svn.core.io.diff.SVNDiffWindow;
+
+/**
+ * An {@link ISVNEditor} that writes the content sent by the server directly into a plain local folder, without any
+ * working copy metadata. Files and folders with one of the excluded names (at any depth) are skipped while the
+ * content streams, so they are never written to disk.
+ * <p>
+ * If a file already exists in the folder, the received delta is applied against it, so the editor can be used both
+ * for a full export (reported with an empty start) and for updating a previous export.
+ *
+ * @author Adam Krafczyk
+ */
+class ReplayEditor implements ISVNEditor {
+
+    private File root;
+
+    private Set<String> excludedNames;
+
+    private SVNDeltaProcessor deltaProcessor = new SVNDeltaProcessor();
+
+    private File currentFile;
+
+    private File currentDeltaTarget;
+
+    private boolean currentExecutable;
+
+    private String currentChecksum;
+
+    /**
+     * Creates an editor.
+     *
+     * @param root The local folder that corresponds to the root of the edit.
+     * @param excludedNames The names of files and folders that are not written.
+     */
+    ReplayEditor(File root, Set<String> excludedNames) {
+        this.root = root;
+        this.excludedNames = excludedNames;
+    }
+
+    /**
+     * Checks whether the given path, or any of its parent folders, has an excluded name.
+     *
+     * @param path The path relative to the root of the edit.
+     *
+     * @return Whether the path must not be written.
+     */
+    private boolean isExcluded(String path) {
+        boolean excluded = false;
+        for (String segment : path.split("/")) {
+            excluded |= excludedNames.contains(segment);
+        }
+        return excluded;
+    }
+
+    /**
+     * Converts a path of the edit into a local file.
+     *
+     * @param path The path relative to the root of the edit.
+     *
+     * @return The local file.
+     */
+    private File toFile(String path) {
+        return new File(root, path);
+    }
+
+    @Override
+    public void targetRevision(long revision) {
+    }
+
+    @Override
+    public void openRoot(long revision) throws SVNException {
+        mkdirs(root);
+    }
+
+    @Override
+    public void deleteEntry(String path, long revision) {
+        if (!isExcluded(path)) {
+            FileUtils.deleteQuietly(toFile(path));
+        }
+    }
+
+    @Override
+    public void absentDir(String path) {
+    }
+
+    @Override
+    public void absentFile(String path) {
+    }
+
+    @Override
+    public void addDir(String path, String copyFromPath, long copyFromRevision) throws SVNException {
+        if (!isExcluded(path)) {
+            mkdirs(toFile(path));
+        }
+    }
+
+    @Override
+    public void openDir(String path, long revision) {
+    }
+
+    @Override
+    public void changeDirProperty(String name, SVNPropertyValue value) {
+    }
+
+    @Override
+    public void closeDir() {
+    }
+
+    @Override
+    public void addFile(String path, String copyFromPath, long copyFromRevision) {
+        openFile(path, copyFromRevision);
+    }
+
+    @Override
+    public void openFile(String path, long revision) {
+        currentFile = isExcluded(path) ? null : toFile(path);
+        currentDeltaTarget = null;
+        currentExecutable = false;
+        currentChecksum = null;
+    }
+
+    @Override
+    public void changeFileProperty(String path, String propertyName, SVNPropertyValue propertyValue) {
+        if (SVNProperty.EXECUTABLE.equals(propertyName)) {
+            currentExecutable = propertyValue != null;
+        }
+    }
+
+    @Override
+    public void applyTextDelta(String path, String baseChecksum) throws SVNException {
+        if (currentFile != null) {
+            File base = null;
+            currentDeltaTarget = currentFile;
+            if (currentFile.isFile()) {
+                // the delta is relative to the existing content, so the result has to go into a separate file first
+                base = currentFile;
+                currentDeltaTarget = new File(currentFile.getParentFile(), "." + currentFile.getName() + ".replay");
+            }
+            deltaProcessor.applyTextDelta(base, currentDeltaTarget, true);
+        }
+    }
+
+    @Override
+    public OutputStream textDeltaChunk(String path, SVNDiffWindow diffWindow) throws SVNException {
+        OutputStream result = SVNFileUtil.DUMMY_OUT;
+        if (currentDeltaTarget != null) {
+            result = deltaProcessor.textDeltaChunk(diffWindow);
+        }
+        return result;
+    }
+
+    @Override
+    public void textDeltaEnd(String path) {
+        if (currentDeltaTarget != null) {
+            currentChecksum = deltaProcessor.textDeltaEnd();
+        }
+    }
+
+    @Override
+    public void closeFile(String path, String textChecksum) throws SVNException {
+        if (currentFile != null) {
+            if (currentDeltaTarget == null && !currentFile.isFile()) {
+                // no content was sent, i.e. the file is empty
+                currentDeltaTarget = currentFile;
+                createEmptyFile(currentFile);
+            }
+            if (textChecksum != null && currentChecksum != null && !textChecksum.equals(currentChecksum)) {
+                FileUtils.deleteQuietly(currentDeltaTarget);
+                throw new SVNException(SVNErrorMessage.create(SVNErrorCode.CHECKSUM_MISMATCH,
+                        "Checksum mismatch for ''{0}''", path));
+            }
+            if (currentDeltaTarget != null && !currentDeltaTarget.equals(currentFile)) {
+                replace(currentDeltaTarget, currentFile);
+            }
+            if (currentExecutable) {
+                currentFile.setExecutable(true);
+            }
+            currentFile = null;
+        }
+    }
+
+    @Override
+    public SVNCommitInfo closeEdit() {
+        return null;
+    }
+
+    @Override
+    public void abortEdit() {
+    }
+
+    /**
+     * Creates the given folder and its parents, if they do not exist yet.
+     *
+     * @param directory The folder to create.
+     *
+     * @throws SVNException If the folder cannot be created.
+     */
+    private static void mkdirs(File directory) throws SVNException {
+        try {
+            FileUtils.forceMkdir(directory);
+        } catch (IOException e) {
+            throw ioError(e);
+        }
+    }
+
+    /**
+     * Creates an empty file.
+     *
+     * @param file The file to create.
+     *
+     * @throws SVNException If the file cannot be created.
+     */
+    private static void createEmptyFile(File file) throws SVNException {
+        try {
+            Files.createFile(file.toPath());
+        } catch (IOException e) {
+            throw ioError(e);
+        }
+    }
+
+    /**
+     * Replaces a file with a newly written one.
+     *
+     * @param source The newly written file.
+     * @param target The file to replace.
+     *
+     * @throws SVNException If the file cannot be moved.
+     */
+    private static void replace(File source, File target) throws SVNException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw ioError(e);
+        }
+    }
+
+    /**
+     * Wraps an {@link IOException} so that it can be thrown from the editor.
+     *
+     * @param e The exception to wrap.
+     *
+     * @return The wrapping exception.
+     */
+    private static SVNException ioError(IOException e) {
+        return new SVNException(SVNErrorMessage.create(SVNErrorCode.IO_ERROR, e.getMessage()), e);
+    }
+
+}
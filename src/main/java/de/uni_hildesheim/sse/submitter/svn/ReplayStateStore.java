@@ -0,0 +1,194 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.tmatesoft.svn.core.SVNURL;
+
+import de.uni_hildesheim.sse.submitter.io.SubmissionManifest;
+import de.uni_hildesheim.sse.submitter.settings.ReplaySettings;
+
+/**
+ * Records which revision a local folder was last replayed from, so that a later replay into the same folder only
+ * needs to transfer the changes between the two revisions.
+ * <p>
+ * For each replayed folder, a small file <code>&lt;key&gt;.state</code> stores the revision together with the path,
+ * size and modification time of every file and folder right after the replay. The recorded revision is only handed
+ * out again if the folder still looks exactly like that, i.e. the student did not edit it in the meantime. The files
+ * are stored outside of the replayed folder, so that they are never submitted.
+ *
+ * @author Adam Krafczyk
+ */
+public class ReplayStateStore {
+
+    /**
+     * Returned by {@link #getUnchangedRevision(SVNURL, File)} if the folder cannot be updated incrementally.
+     */
+    public static final long NO_REVISION = -1;
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final String SUFFIX = ".state";
+
+    private static final int MAGIC = 0x53525053;
+
+    private static final int VERSION = 1;
+
+    /**
+     * The minimum number of bytes of a recorded entry: the length of the string, which is never empty.
+     */
+    private static final int MIN_ENTRY_SIZE = 2 + 1;
+
+    private File directory;
+
+    /**
+     * Creates a store in the given directory.
+     *
+     * @param directory The directory where the states are stored. Will be created if it does not exist.
+     */
+    public ReplayStateStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a store based on the given settings.
+     *
+     * @param settings The settings to use, may be <code>null</code>.
+     *
+     * @return The configured store, or <code>null</code> if incremental replays are not configured or disabled.
+     */
+    public static ReplayStateStore fromSettings(ReplaySettings settings) {
+        ReplayStateStore result = null;
+        if (settings != null && settings.isIncremental()) {
+            result = new ReplayStateStore(settings.getStateDirectory());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the revision that the given folder was last replayed from, if the folder has not been changed since.
+     *
+     * @param url The URL of the replayed submission.
+     * @param folder The local folder.
+     *
+     * @return The revision, or {@link #NO_REVISION} if the folder was not replayed from this URL or has been changed.
+     */
+    public synchronized long getUnchangedRevision(SVNURL url, File folder) {
+        long result = NO_REVISION;
+        File file = getFile(url, folder);
+        if (file.isFile() && folder.isDirectory()) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+                if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                    throw new IOException("Unknown file format");
+                }
+                long revision = in.readLong();
+                int size = in.readInt();
+                if (size < 0 || size > file.length() / MIN_ENTRY_SIZE) {
+                    throw new IOException("Invalid number of entries: " + size);
+                }
+                List<String> recorded = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    recorded.add(in.readUTF());
+                }
+
+                if (recorded.equals(snapshot(folder))) {
+                    result = revision;
+                } else {
+                    LOGGER.debug("{} was changed since it was replayed", folder);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not read replay state " + file + ", discarding it", e);
+                FileUtils.deleteQuietly(file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records that the given folder now contains the given revision. Must be called right after the replay, before
+     * the folder can be changed.
+     *
+     * @param url The URL of the replayed submission.
+     * @param folder The local folder.
+     * @param revision The revision that was replayed.
+     */
+    public synchronized void record(SVNURL url, File folder, long revision) {
+        File file = getFile(url, folder);
+        File tempFile = new File(directory, file.getName() + ".tmp");
+        try {
+            List<String> snapshot = snapshot(folder);
+            FileUtils.forceMkdir(directory);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(revision);
+                out.writeInt(snapshot.size());
+                for (String entry : snapshot) {
+                    out.writeUTF(entry);
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write replay state " + file, e);
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * Removes the recorded state of the given folder, e.g. before its content is modified.
+     *
+     * @param url The URL of the replayed submission.
+     * @param folder The local folder.
+     */
+    public synchronized void forget(SVNURL url, File folder) {
+        FileUtils.deleteQuietly(getFile(url, folder));
+    }
+
+    /**
+     * Describes the current content of the given folder.
+     *
+     * @param folder The folder to describe.
+     *
+     * @return One line per file and folder, containing path, size and modification time, sorted by path.
+     *
+     * @throws IOException If the folder cannot be read.
+     */
+    private static List<String> snapshot(File folder) throws IOException {
+        List<String> result = new ArrayList<>();
+        for (SubmissionManifest.Entry entry : SubmissionManifest.scan(folder).getEntries()) {
+            if (entry.isDirectory()) {
+                result.add(entry.getPath() + "/");
+            } else {
+                result.add(entry.getPath() + '\t' + entry.getSize() + '\t' + entry.getLastModified());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the state file for the given folder.
+     *
+     * @param url The URL of the replayed submission.
+     * @param folder The local folder.
+     *
+     * @return The state file.
+     */
+    private File getFile(SVNURL url, File folder) {
+        return new File(directory, RevisionLogCache.createKey(url.toString(), folder.getAbsolutePath()) + SUFFIX);
+    }
+
+}
@@ -0,0 +1,354 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.tmatesoft.svn.core.SVNLogEntry;
+
+import de.uni_hildesheim.sse.submitter.settings.HistoryCacheSettings;
+
+/**
+ * A persistent cache of revision logs, one per repository and remote path. Revisions never change once they are
+ * committed, so only revisions newer than the newest cached one have to be fetched from the server. A cached log
+ * covers a contiguous range of revisions, which is extended page by page as older revisions are requested.
+ * <p>
+ * Each log is stored in a compact binary file <code>&lt;key&gt;.log</code>, containing the range of revisions of the
+ * repository that the log is complete for, and the revision number, author, date and message of each entry, sorted
+ * by revision. Changed paths are not stored, since the history view does not show them. Files are evicted in
+ * least-recently-used order, if all files together take up too much disk space.
+ *
+ * @author Adam Krafczyk
+ */
+public class RevisionLogCache {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final String SUFFIX = ".log";
+
+    private static final int MAGIC = 0x53524c43;
+
+    private static final int VERSION = 2;
+
+    /**
+     * The minimum number of bytes of a single entry: revision, date and the lengths of author and message.
+     */
+    private static final int MIN_ENTRY_SIZE = 8 + 4 + 8 + 4;
+
+    private File directory;
+
+    private long maxSize;
+
+    /**
+     * The cached log of a single path.
+     */
+    public static final class CachedLog {
+
+        private List<SVNLogEntry> entries;
+
+        private long completeFrom;
+
+        private long checkedRevision;
+
+        /**
+         * Creates a cached log that contains all revisions up to the given one.
+         *
+         * @param entries The log entries, sorted by revision (oldest first).
+         * @param checkedRevision The newest revision of the repository that the entries are complete up to.
+         */
+        public CachedLog(List<SVNLogEntry> entries, long checkedRevision) {
+            this(entries, 0, checkedRevision);
+        }
+
+        /**
+         * Creates a cached log that contains a range of revisions.
+         *
+         * @param entries The log entries, sorted by revision (oldest first).
+         * @param completeFrom The oldest revision of the repository that the entries are complete from. 0 if the log
+         *      contains all revisions up to <code>checkedRevision</code>.
+         * @param checkedRevision The newest revision of the repository that the entries are complete up to.
+         */
+        public CachedLog(List<SVNLogEntry> entries, long completeFrom, long checkedRevision) {
+            this.entries = entries;
+            this.completeFrom = completeFrom;
+            this.checkedRevision = checkedRevision;
+        }
+
+        /**
+         * Returns the log entries.
+         *
+         * @return The log entries, sorted by revision (oldest first).
+         */
+        public List<SVNLogEntry> getEntries() {
+            return entries;
+        }
+
+        /**
+         * Returns the newest revision of the repository that the entries are complete up to. Only newer revisions
+         * have to be fetched from the server.
+         *
+         * @return The revision number, or -1 if nothing is cached.
+         */
+        public long getCheckedRevision() {
+            return checkedRevision;
+        }
+
+        /**
+         * Returns the oldest revision of the repository that the entries are complete from. Older revisions may exist
+         * on the server, but are not cached yet.
+         *
+         * @return The revision number; 0 if all revisions up to {@link #getCheckedRevision()} are cached.
+         */
+        public long getCompleteFrom() {
+            return completeFrom;
+        }
+
+    }
+
+    /**
+     * Creates a cache in the given directory.
+     *
+     * @param directory The directory where the logs are stored. Will be created if it does not exist.
+     * @param maxSize The maximum total size of all cached logs, in bytes.
+     */
+    public RevisionLogCache(File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates a cache based on the given settings.
+     *
+     * @param settings The settings to use, may be <code>null</code>.
+     *
+     * @return The configured cache, or <code>null</code> if caching is not configured or disabled.
+     */
+    public static RevisionLogCache fromSettings(HistoryCacheSettings settings) {
+        RevisionLogCache result = null;
+        if (settings != null && settings.isEnabled()) {
+            result = new RevisionLogCache(settings.getDirectory(), settings.getMaxSize());
+        }
+        return result;
+    }
+
+    /**
+     * Reads the cached log of the given path.
+     *
+     * @param repositoryUuid The UUID of the repository.
+     * @param path The path inside the repository.
+     *
+     * @return The cached log. Empty if nothing is cached or the cached file cannot be read.
+     */
+    public synchronized CachedLog load(String repositoryUuid, String path) {
+        File file = getFile(repositoryUuid, path);
+        CachedLog result = new CachedLog(Collections.emptyList(), -1);
+        if (file.isFile()) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+                result = read(in, file.length());
+                file.setLastModified(System.currentTimeMillis());
+            } catch (IOException e) {
+                LOGGER.warn("Could not read cached revision log " + file + ", discarding it", e);
+                FileUtils.deleteQuietly(file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the cached log of the given path.
+     *
+     * @param repositoryUuid The UUID of the repository.
+     * @param path The path inside the repository.
+     * @param log The log to store.
+     */
+    public synchronized void store(String repositoryUuid, String path, CachedLog log) {
+        File file = getFile(repositoryUuid, path);
+        File tempFile = new File(directory, file.getName() + ".tmp");
+        try {
+            FileUtils.forceMkdir(directory);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                write(out, log);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write cached revision log " + file, e);
+            FileUtils.deleteQuietly(tempFile);
+        }
+        evict();
+    }
+
+    /**
+     * Evicts the least recently used logs until the limit for disk space is met.
+     */
+    synchronized void evict() {
+        File[] files = directory.listFiles((file) -> file.getName().endsWith(SUFFIX));
+        if (files != null) {
+            List<File> candidates = new ArrayList<>(List.of(files));
+            candidates.sort(Comparator.comparingLong(File::lastModified));
+
+            long totalSize = 0;
+            for (File file : candidates) {
+                totalSize += file.length();
+            }
+
+            while (!candidates.isEmpty() && totalSize > maxSize) {
+                File oldest = candidates.remove(0);
+                totalSize -= oldest.length();
+                LOGGER.debug("Evicting cached revision log {}", oldest);
+                FileUtils.deleteQuietly(oldest);
+            }
+        }
+    }
+
+    /**
+     * Writes the given entries in the binary cache format.
+     *
+     * @param out The stream to write to.
+     * @param log The log to write.
+     *
+     * @throws IOException If writing fails.
+     */
+    private static void write(DataOutputStream out, CachedLog log) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(log.getCompleteFrom());
+        out.writeLong(log.getCheckedRevision());
+        out.writeInt(log.getEntries().size());
+        for (SVNLogEntry entry : log.getEntries()) {
+            out.writeLong(entry.getRevision());
+            writeString(out, entry.getAuthor());
+            out.writeLong(entry.getDate() != null ? entry.getDate().getTime() : Long.MIN_VALUE);
+            writeString(out, entry.getMessage());
+        }
+    }
+
+    /**
+     * Reads entries in the binary cache format.
+     *
+     * @param in The stream to read from.
+     * @param fileSize The size of the file that is read. Counts and lengths read from the file are checked against
+     *      it, so that a corrupt file cannot cause huge allocations.
+     *
+     * @return The log read.
+     *
+     * @throws IOException If reading fails or the data is not in the expected format.
+     */
+    private static CachedLog read(DataInputStream in, long fileSize) throws IOException {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Unknown file format");
+        }
+        long completeFrom = in.readLong();
+        long checkedRevision = in.readLong();
+        int size = in.readInt();
+        if (size < 0 || size > fileSize / MIN_ENTRY_SIZE) {
+            throw new IOException("Invalid number of entries: " + size);
+        }
+        List<SVNLogEntry> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long revision = in.readLong();
+            String author = readString(in, fileSize);
+            long date = in.readLong();
+            String message = readString(in, fileSize);
+            result.add(new SVNLogEntry(null, revision, author, date != Long.MIN_VALUE ? new Date(date) : null,
+                    message));
+        }
+        return new CachedLog(result, completeFrom, checkedRevision);
+    }
+
+    /**
+     * Writes a string that may be <code>null</code> and longer than {@link DataOutputStream#writeUTF(String)}
+     * supports.
+     *
+     * @param out The stream to write to.
+     * @param value The string to write, may be <code>null</code>.
+     *
+     * @throws IOException If writing fails.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param in The stream to read from.
+     * @param fileSize The size of the file that is read, which the length of the string cannot exceed.
+     *
+     * @return The string read, may be <code>null</code>.
+     *
+     * @throws IOException If reading fails or the length is invalid.
+     */
+    private static String readString(DataInputStream in, long fileSize) throws IOException {
+        String result = null;
+        int length = in.readInt();
+        if (length < -1 || length > fileSize) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        if (length >= 0) {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            result = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cache file for the given path.
+     *
+     * @param repositoryUuid The UUID of the repository.
+     * @param path The path inside the repository.
+     *
+     * @return The cache file.
+     */
+    private File getFile(String repositoryUuid, String path) {
+        return new File(directory, createKey(repositoryUuid, path) + SUFFIX);
+    }
+
+    /**
+     * Creates the name of the cache entry for the given repository and path.
+     *
+     * @param repositoryUuid The UUID of the repository.
+     * @param path The path inside the repository.
+     *
+     * @return A file name that uniquely identifies the repository and path.
+     */
+    static String createKey(String repositoryUuid, String path) {
+        StringBuilder key = new StringBuilder();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((repositoryUuid + '\n' + path).getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < 16; i++) {
+                key.append(String.format("%02x", hash[i]));
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e); // cannot happen, SHA-256 is required by the Java platform
+        }
+        return key.toString();
+    }
+
+}
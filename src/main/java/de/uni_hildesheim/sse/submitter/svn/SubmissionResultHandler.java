@@ -1,5 +1,11 @@
 package de.uni_hildesheim.sse.submitter.svn;
 
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.input.CharSequenceReader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.tmatesoft.svn.core.SVNCommitInfo;
@@ -8,6 +14,7 @@ import org.tmatesoft.svn.core.SVNErrorMessage;
 
 import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
 import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
 import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorParser;
 import de.uni_hildesheim.sse.submitter.svn.hookErrors.InvalidErrorMessagesException;
 import net.ssehub.exercisesubmitter.protocol.frontend.Assignment;
@@ -112,6 +119,25 @@ public class SubmissionResultHandler {
      * @param info The result of a commit (maybe describing an error).
      */
     public void handleCommitResult(SVNCommitInfo info) {
+        List<ErrorDescription> errors = null;
+        if (null != info.getErrorMessage()) {
+            try {
+                errors = parseHookErrors(info.getErrorMessage());
+            } catch (InvalidErrorMessagesException e) {
+                LOGGER.error("Couldn't parse XML: " + info.getErrorMessage().getFullMessage(), e);
+            }
+        }
+        handleCommitResult(info, errors);
+    }
+    
+    /**
+     * Translates a {@link SVNCommitInfo} into a message, readable by the user. The output of the SVN hook has
+     * already been parsed by {@link #parseHookErrors(SVNErrorMessage)}.
+     * @param info The result of a commit (maybe describing an error).
+     * @param errors The errors reported by the SVN hook, or <code>null</code> if the error message contains no
+     *      valid output of the hook. Ignored if the commit succeeded.
+     */
+    public void handleCommitResult(SVNCommitInfo info, List<ErrorDescription> errors) {
         SVNErrorMessage errorMsg = info.getErrorMessage();
         if (null == errorMsg) {
             if (-1 == info.getNewRevision()) {
@@ -119,53 +145,65 @@ public class SubmissionResultHandler {
             } else {
                 handler.showInfoMessage(I18nProvider.getText("submission.result.success"));
             }
+        } else if (null == errors) {
+            handler.showErrorMessage(I18nProvider.getText("gui.error.unexpected_error"));
         } else {
-            String errorXml = errorsToString(errorMsg);
-            try {
-                ErrorParser parser = new ErrorParser();
-                parser.parse(errorXml);
-                String message;
-                if (errorMsg.getErrorCode().equals(SVNErrorCode.REPOS_POST_COMMIT_HOOK_FAILED)) {
-                    message = I18nProvider.getText("submission.error.errors_found");
-                } else {
-                    message = I18nProvider.getText("submission.error.project_not_accepted");
-                }
-                handler.showInfoMessage(message, parser.getErrors());
-                
-            } catch (InvalidErrorMessagesException e) {
-                LOGGER.error("Couldn't parse XML: " + errorXml, e);
-                handler.showErrorMessage(I18nProvider.getText("gui.error.unexpected_error"));
+            String message;
+            if (errorMsg.getErrorCode().equals(SVNErrorCode.REPOS_POST_COMMIT_HOOK_FAILED)) {
+                message = I18nProvider.getText("submission.error.errors_found");
+            } else {
+                message = I18nProvider.getText("submission.error.project_not_accepted");
             }
+            handler.showInfoMessage(message, errors.toArray(new ErrorDescription[errors.size()]));
         }
     }
+    
+    /**
+     * Parses the errors that the SVN hook reported for a commit.
+     * 
+     * @param errorMsg The {@link SVNErrorMessage} of the commit, see {@link SVNCommitInfo#getErrorMessage()}.
+     * 
+     * @return The errors reported by the hook, in the order of the output.
+     * 
+     * @throws InvalidErrorMessagesException If the output of the hook is not valid XML, or if the message does not
+     *      contain any output of the hook (e.g. because the commit failed for another reason).
+     */
+    public static List<ErrorDescription> parseHookErrors(SVNErrorMessage errorMsg)
+            throws InvalidErrorMessagesException {
+        List<ErrorDescription> errors = new ArrayList<>();
+        ErrorParser.parse(openHookOutput(errorMsg), errors::add);
+        return errors;
+    }
 
     /**
-     * Translates the given {@link SVNErrorMessage} into a XML text.
+     * Extracts the XML text written by the SVN hook from the given {@link SVNErrorMessage}. The text is not copied,
+     * the returned reader works directly on the message.
+     * 
      * @param errorMsg The {@link SVNErrorMessage} created by receiving the result from the SVN HOOK script.
-     * @return The extracted XML text.
+     * 
+     * @return A reader for the extracted XML text. Empty if the message does not contain the output of the hook.
      */
-    private String errorsToString(SVNErrorMessage errorMsg) {
-        String result = "";
+    private static Reader openHookOutput(SVNErrorMessage errorMsg) {
+        String output = "";
+        int start = 0;
         if (errorMsg.getErrorCode().equals(SVNErrorCode.REPOS_POST_COMMIT_HOOK_FAILED)) {
-            String messageString = errorMsg.getMessageTemplate();
-            int pos = messageString.indexOf('\n');
-            if (pos > 0) {
-                messageString = messageString.substring(pos);
-            }
-            result = messageString;
+            output = errorMsg.getMessageTemplate();
+            start = Math.max(output.indexOf('\n'), 0);
             
         } else {
-            do {
-                String messageString = errorMsg.getMessageTemplate();
+            boolean found = false;
+            SVNErrorMessage current = errorMsg;
+            while (!found && current != null) {
+                String messageString = current.getMessageTemplate();
                 if (messageString != null && messageString.startsWith(BLOCKED_BY_PRE_COMMIT_PREFIX)) {
-                    messageString = messageString.substring(BLOCKED_BY_PRE_COMMIT_PREFIX.length());
-                    result = messageString;
-                    break;
+                    output = messageString;
+                    start = BLOCKED_BY_PRE_COMMIT_PREFIX.length();
+                    found = true;
                 }
-                errorMsg = errorMsg.getChildErrorMessage();
-            } while (errorMsg != null);
+                current = current.getChildErrorMessage();
+            }
         }
-        return result;
+        return new CharSequenceReader(CharBuffer.wrap(output, start, output.length()));
     }
 
 }
@@ -0,0 +1,211 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records how long the phases of a single submission took, and how many files and bytes each phase handled. Allows
+ * to tell a slow hook on the server from a slow network or a slow disk.
+ * <p>
+ * Phases are measured with try-with-resources:
+ * <pre>
+ * try (SubmissionTimings.Measurement measurement = timings.measure(Phase.CHECKOUT)) {
+ *     ...
+ *     measurement.addFiles(1, size);
+ * }
+ * </pre>
+ *
+ * @author Adam Krafczyk
+ */
+public class SubmissionTimings {
+
+    /**
+     * The phases of a submission. Not every submission passes all phases.
+     */
+    public enum Phase {
+
+        /**
+         * Querying the submission URL from the student management system.
+         */
+        RESOLVE_TARGET,
+
+        /**
+         * Checking out (or reverting a cached) working copy.
+         */
+        CHECKOUT,
+
+        /**
+         * Reading and hashing the local submission folder.
+         */
+        READ_LOCAL,
+
+        /**
+         * Listing the files in the repository.
+         */
+        READ_REMOTE,
+
+        /**
+         * Copying the submission into the working copy, or comparing it with the repository.
+         */
+        PREPARE,
+
+        /**
+         * Marking added and deleted files in the working copy.
+         */
+        UPDATE_STATUS,
+
+        /**
+         * Sending the changes, including the time the hook on the server needs to check them.
+         */
+        COMMIT,
+
+        /**
+         * Deleting or releasing the working copy.
+         */
+        CLEANUP;
+
+    }
+
+    /**
+     * The figures of a single phase.
+     */
+    public static final class Measurement implements AutoCloseable {
+
+        private Phase phase;
+
+        private long start;
+
+        private long millis = -1;
+
+        private int files;
+
+        private long bytes;
+
+        /**
+         * Starts measuring a phase.
+         *
+         * @param phase The measured phase.
+         */
+        private Measurement(Phase phase) {
+            this.phase = phase;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Records files handled in this phase.
+         *
+         * @param files The number of files.
+         * @param bytes The summed size of the files, in bytes.
+         */
+        public void addFiles(int files, long bytes) {
+            this.files += files;
+            this.bytes += bytes;
+        }
+
+        /**
+         * Returns the measured phase.
+         *
+         * @return The phase.
+         */
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * Returns the wall time of this phase.
+         *
+         * @return The duration in milliseconds.
+         */
+        public long getMillis() {
+            return millis >= 0 ? millis : (System.nanoTime() - start) / 1000000;
+        }
+
+        /**
+         * Returns the number of files handled in this phase.
+         *
+         * @return The number of files.
+         */
+        public int getFiles() {
+            return files;
+        }
+
+        /**
+         * Returns the size of the files handled in this phase.
+         *
+         * @return The number of bytes.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Stops measuring this phase.
+         */
+        @Override
+        public void close() {
+            if (millis < 0) {
+                millis = (System.nanoTime() - start) / 1000000;
+            }
+        }
+
+    }
+
+    private List<Measurement> measurements = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Starts measuring a phase. The phase ends when the returned {@link Measurement} is closed.
+     *
+     * @param phase The phase to measure.
+     *
+     * @return The measurement of the phase.
+     */
+    public Measurement measure(Phase phase) {
+        Measurement result = new Measurement(phase);
+        measurements.add(result);
+        return result;
+    }
+
+    /**
+     * Returns the measured phases.
+     *
+     * @return The phases in the order they were started.
+     */
+    public List<Measurement> getMeasurements() {
+        synchronized (measurements) {
+            return new ArrayList<>(measurements);
+        }
+    }
+
+    /**
+     * Returns the summed wall time of all phases.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getTotalMillis() {
+        return getMeasurements().stream().mapToLong(Measurement::getMillis).sum();
+    }
+
+    /**
+     * Formats all figures as a single line of <code>key=value</code> pairs, e.g.
+     * <code>total_ms=1520 checkout_ms=310 prepare_ms=25 prepare_files=12 prepare_bytes=48213 commit_ms=1185</code>.
+     * The file and byte counts are left out for phases that did not handle any files.
+     *
+     * @return The formatted figures.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("total_ms=").append(getTotalMillis());
+        for (Measurement measurement : getMeasurements()) {
+            String name = measurement.phase.name().toLowerCase(Locale.ROOT);
+            result.append(' ').append(name).append("_ms=").append(measurement.getMillis());
+            if (measurement.files > 0) {
+                result.append(' ').append(name).append("_files=").append(measurement.files);
+                result.append(' ').append(name).append("_bytes=").append(measurement.bytes);
+            }
+        }
+        return result.toString();
+    }
+
+}
@@ -13,14 +13,27 @@ public class SubmitResult {
     
     private SVNCommitInfo commitInfo;
     
+    private SubmissionTimings timings;
+    
     /**
      * Creates a new submission result.
      * @param numJavaFiles The number of java files submitted.
      * @param commitInfo The {@link SVNCommitInfo} of the commit.
      */
     public SubmitResult(int numJavaFiles, SVNCommitInfo commitInfo) {
+        this(numJavaFiles, commitInfo, new SubmissionTimings());
+    }
+    
+    /**
+     * Creates a new submission result.
+     * @param numJavaFiles The number of java files submitted.
+     * @param commitInfo The {@link SVNCommitInfo} of the commit.
+     * @param timings The durations of the phases of the submission.
+     */
+    public SubmitResult(int numJavaFiles, SVNCommitInfo commitInfo, SubmissionTimings timings) {
         this.numJavaFiles = numJavaFiles;
         this.commitInfo = commitInfo;
+        this.timings = timings;
     }
     
     /**
@@ -39,4 +52,12 @@ public class SubmitResult {
         return commitInfo;
     }
     
+    /**
+     * Getter for the durations of the phases of the submission.
+     * @return The measured phases.
+     */
+    public SubmissionTimings getTimings() {
+        return timings;
+    }
+    
 }
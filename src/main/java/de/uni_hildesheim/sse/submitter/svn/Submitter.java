@@ -4,7 +4,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.attribute.FileAttribute;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
@@ -16,17 +18,17 @@ import org.tmatesoft.svn.core.SVNErrorCode;
 import org.tmatesoft.svn.core.SVNErrorMessage;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
-import org.tmatesoft.svn.core.auth.BasicAuthenticationManager;
 import org.tmatesoft.svn.core.wc.DefaultSVNCommitParameters;
 import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNCommitClient;
 import org.tmatesoft.svn.core.wc.SVNRevision;
-import org.tmatesoft.svn.core.wc.SVNStatusType;
-import org.tmatesoft.svn.core.wc.SVNUpdateClient;
 import org.tmatesoft.svn.core.wc.SVNWCClient;
 
 import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
 import de.uni_hildesheim.sse.submitter.io.FolderInitializer;
+import de.uni_hildesheim.sse.submitter.io.StagedChanges;
+import de.uni_hildesheim.sse.submitter.io.SubmissionManifest;
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings.Phase;
 
 /**
  * This class is responsible for submitting the whole project.
@@ -34,16 +36,30 @@ import de.uni_hildesheim.sse.submitter.io.FolderInitializer;
  * @author El-Sharkawy
  * 
  */
-public class Submitter {
+public class Submitter implements ISubmitter {
 
     private static final Logger LOGGER = LogManager.getLogger();
     
-    private SVNCommitClient client;
-    private SVNUpdateClient updateClient;
+    /**
+     * Deletes missing files and folders from the repository, instead of failing the commit.
+     */
+    private static final DefaultSVNCommitParameters COMMIT_PARAMETERS = new DefaultSVNCommitParameters() {
+        @Override
+        public Action onMissingFile(File file) {
+            return DELETE;
+        }
+
+        @Override
+        public Action onMissingDirectory(File file) {
+            return DELETE;
+        }
+    };
+    
     private SVNURL url;
-    private final SVNClientManager clientManager;
+    private final SvnSessionPool sessionPool;
     private String user;
     private String exerciseName;
+    private WorkingCopyCache workingCopyCache;
 
     /**
      * Creates a submitter with the given parameters.
@@ -56,6 +72,21 @@ public class Submitter {
      * @throws SubmitException If the given URl is invalid.
      */
     public Submitter(String url, String exerciseName, String user, char[] pw) throws SubmitException {
+        this(url, exerciseName, user, new SvnSessionPool(user, pw));
+    }
+    
+    /**
+     * Creates a submitter that draws its connections from the given pool.
+     * 
+     * @param url The URL to submit to. This must already contain the exercise and group elements where to submit.
+     * @param exerciseName The name of the exercise that is submitted.
+     * @param user The username, used for the commit message.
+     * @param sessionPool The pool of sessions to the SVN server, which also holds the credentials to use.
+     * 
+     * @throws SubmitException If the given URl is invalid.
+     */
+    public Submitter(String url, String exerciseName, String user, SvnSessionPool sessionPool)
+            throws SubmitException {
         this.user = user;
         this.exerciseName = exerciseName;
         
@@ -66,113 +97,194 @@ public class Submitter {
             throw new SubmitException(ErrorType.NO_REPOSITORY_FOUND, url);
         }
         
-        clientManager = SVNClientManager.newInstance(null,
-                BasicAuthenticationManager.newInstance(user, pw));
-        client = clientManager.getCommitClient();
-        client.setCommitParameters(new DefaultSVNCommitParameters() {
-            @Override
-            public Action onMissingFile(File file) {
-                return DELETE;
-            }
-
-            @Override
-            public Action onMissingDirectory(File file) {
-                return DELETE;
-            }
-        });
-        updateClient = clientManager.getUpdateClient();
+        this.sessionPool = sessionPool;
     }
     
     /**
-     * Submits a user project to the submission server.
-     * @param folder A top level folder of a java project, which shall be submitted.
-     * @return A Info message about the submission.
-     * @throws SubmitException If an error occurred before the the server could run the hook script.
+     * Sets a cache for working copies. If set, working copies are re-used between submissions instead of creating a
+     * fresh checkout each time.
+     * 
+     * @param workingCopyCache The cache to use, may be <code>null</code> to always use a fresh checkout.
      */
-    public SubmitResult submitFolder(File folder) throws SubmitException {
+    public void setWorkingCopyCache(WorkingCopyCache workingCopyCache) {
+        this.workingCopyCache = workingCopyCache;
+    }
+    
+    @Override
+    @SuppressWarnings("try")
+    public SubmitResult submit(SubmissionManifest manifest, SubmissionTimings timings) throws SubmitException {
         SVNCommitInfo info = null;
         int numJavaFiles = 0;
         
         File checkoutFolder = null;
+        SVNClientManager clientManager = sessionPool.acquireClientManager();
         try {
             // Checkout Exercise
-            checkoutFolder = checkOut();
+            try (SubmissionTimings.Measurement ignored = timings.measure(Phase.CHECKOUT);
+                    SvnRequestProfiler.Operation ignoredRequests = SvnRequestProfiler.start("checkout")) {
+                checkoutFolder = checkOut(clientManager);
+            }
 
             // Prepare Commit
-            numJavaFiles = prepareCommit(folder, checkoutFolder);
+            StagedChanges changes;
+            try (SubmissionTimings.Measurement measurement = timings.measure(Phase.PREPARE)) {
+                changes = prepareCommit(manifest, checkoutFolder);
+                measurement.addFiles(manifest.getNumFiles(), manifest.getTotalSize());
+            }
+            numJavaFiles = manifest.getNumJavaFiles();
             
             // tell SVN about our changes
-            updateSvnStatus(checkoutFolder);
+            try (SubmissionTimings.Measurement measurement = timings.measure(Phase.UPDATE_STATUS);
+                    SvnRequestProfiler.Operation ignored = SvnRequestProfiler.start("status")) {
+                updateSvnStatus(clientManager, changes);
+                measurement.addFiles(changes.getAddedFiles().size() + changes.getDeletedFiles().size()
+                        + changes.getReplacedFiles().size(), 0);
+            }
 
             // Commit exercise
-            String commitMsg = I18nProvider.getText("submission.commit.exercise", user);
-            try {
-                info = client.doCommit(new File[] {checkoutFolder}, false, commitMsg, null, null, false, false,
-                        SVNDepth.INFINITY);
-            } catch (SVNAuthenticationException e) {
-                LOGGER.error("Authentication exception while committing", e);
-                throw new SubmitException(ErrorType.CANNOT_COMMIT, url.toString());
-            } catch (SVNException e) {
-                SVNErrorMessage errorMsg = e.getErrorMessage();
-                if (errorMsg.hasChildWithErrorCode(SVNErrorCode.REPOS_HOOK_FAILURE)) {
-                    info = new SVNCommitInfo(-1, user, new Date(), errorMsg);
-                } else {
-                    LOGGER.error("Exception while committing: ", e);
-                    throw new SubmitException(ErrorType.CANNOT_COMMIT, url.toString());
-                }
+            try (SubmissionTimings.Measurement measurement = timings.measure(Phase.COMMIT);
+                    SvnRequestProfiler.Operation ignored = SvnRequestProfiler.start("commit")) {
+                info = commit(clientManager, checkoutFolder);
+                measurement.addFiles(changes.getAddedFiles().size() + changes.getModifiedFiles().size()
+                        + changes.getReplacedFiles().size(), sizeOf(changes.getAddedFiles())
+                        + sizeOf(changes.getModifiedFiles()) + sizeOf(changes.getReplacedFiles()));
             }
 
         // Cleanup
         } finally {
-            if (checkoutFolder != null) {
-                FileUtils.deleteQuietly(checkoutFolder);
+            try (SubmissionTimings.Measurement ignored = timings.measure(Phase.CLEANUP)) {
+                sessionPool.releaseClientManager(clientManager);
+                if (checkoutFolder != null) {
+                    releaseCheckout(checkoutFolder, info);
+                }
             }
         }
 
-        return new SubmitResult(numJavaFiles, info);
+        return new SubmitResult(numJavaFiles, info, timings);
+    }
+    
+    /**
+     * Commits the working copy. Part of the {@link #submit(SubmissionManifest)} method.
+     * 
+     * @param clientManager The client manager to use for the commit.
+     * @param checkoutFolder The working copy to commit.
+     * 
+     * @return The result of the commit. If the commit was rejected by the hook, this contains the error message.
+     * 
+     * @throws SubmitException If the commit fails for another reason than the hook.
+     */
+    private SVNCommitInfo commit(SVNClientManager clientManager, File checkoutFolder) throws SubmitException {
+        SVNCommitInfo info;
+        String commitMsg = I18nProvider.getText("submission.commit.exercise", user);
+        SVNCommitClient client = clientManager.getCommitClient();
+        client.setCommitParameters(COMMIT_PARAMETERS);
+        try {
+            info = client.doCommit(new File[] {checkoutFolder}, false, commitMsg, null, null, false, false,
+                    SVNDepth.INFINITY);
+        } catch (SVNAuthenticationException e) {
+            LOGGER.error("Authentication exception while committing", e);
+            throw new SubmitException(ErrorType.CANNOT_COMMIT, url.toString());
+        } catch (SVNException e) {
+            SVNErrorMessage errorMsg = e.getErrorMessage();
+            if (errorMsg.hasChildWithErrorCode(SVNErrorCode.REPOS_HOOK_FAILURE)) {
+                info = new SVNCommitInfo(-1, user, new Date(), errorMsg);
+            } else {
+                LOGGER.error("Exception while committing: ", e);
+                throw new SubmitException(ErrorType.CANNOT_COMMIT, url.toString());
+            }
+        }
+        return info;
+    }
+    
+    /**
+     * Sums up the size of the given files.
+     * 
+     * @param files The files, may contain folders.
+     * 
+     * @return The summed size of all files, in bytes. Folders are not counted.
+     */
+    private static long sizeOf(List<File> files) {
+        return files.stream().filter(File::isFile).mapToLong(File::length).sum();
     }
 
     /**
      * Checkouts the exercise folder from the server.
-     * Part of the {@link #submitFolder(File)} method. This is needed by SVN.
+     * Part of the {@link #submit(SubmissionManifest)} method. This is needed by SVN.
+     * 
+     * @param clientManager The client manager to use for the checkout.
      * 
      * @return The location where the SVN working copy was checked out.
      * 
      * @throws SubmitException If an error occurred before the the server could run the hook script.
      */
-    private File checkOut() throws SubmitException {
-        File checkoutLocation;
-        try {
-            checkoutLocation = Files.createTempDirectory(null, new FileAttribute<?>[] {}).toFile();
-            checkoutLocation.deleteOnExit();
-        } catch (IOException e) {
-            LOGGER.error("Couldn't create temporary directory", e);
-            throw new SubmitException(ErrorType.COULD_NOT_CREATE_TEMP_DIR, System.getProperty("java.io.tmpdir"));
+    private File checkOut(SVNClientManager clientManager) throws SubmitException {
+        File checkoutLocation = null;
+        if (workingCopyCache != null) {
+            try {
+                checkoutLocation = workingCopyCache.acquire(url, user, clientManager);
+            } catch (SVNException e) {
+                LOGGER.error("Couldn't checkout SVN URL " + url, e);
+                throw new SubmitException(ErrorType.NO_EXERCISE_FOUND, url.toString());
+            }
         }
-        try {
-            updateClient.doCheckout(url, checkoutLocation, SVNRevision.HEAD, SVNRevision.HEAD, SVNDepth.INFINITY, true);
-        } catch (SVNException e) {
-            LOGGER.error("Couldn't checkout SVN URL " + url, e);
-            throw new SubmitException(ErrorType.NO_EXERCISE_FOUND, url.toString());
+        
+        if (checkoutLocation == null) {
+            try {
+                checkoutLocation = Files.createTempDirectory(null, new FileAttribute<?>[] {}).toFile();
+                checkoutLocation.deleteOnExit();
+            } catch (IOException e) {
+                LOGGER.error("Couldn't create temporary directory", e);
+                throw new SubmitException(ErrorType.COULD_NOT_CREATE_TEMP_DIR, System.getProperty("java.io.tmpdir"));
+            }
+            try {
+                clientManager.getUpdateClient().doCheckout(url, checkoutLocation, SVNRevision.HEAD, SVNRevision.HEAD,
+                        SVNDepth.INFINITY, true);
+            } catch (SVNException e) {
+                LOGGER.error("Couldn't checkout SVN URL " + url, e);
+                FileUtils.deleteQuietly(checkoutLocation);
+                throw new SubmitException(ErrorType.NO_EXERCISE_FOUND, url.toString());
+            }
         }
         
         return checkoutLocation;
     }
+    
+    /**
+     * Cleans up the working copy after the commit. Cached working copies are returned to the {@link WorkingCopyCache},
+     * temporary checkouts are deleted.
+     * 
+     * @param checkoutFolder The working copy created by {@link #checkOut(SVNClientManager)}.
+     * @param info The result of the commit, <code>null</code> if the submission failed before or during the commit.
+     */
+    private void releaseCheckout(File checkoutFolder, SVNCommitInfo info) {
+        if (workingCopyCache != null && workingCopyCache.isInUse(checkoutFolder)) {
+            if (info == null) {
+                workingCopyCache.discard(checkoutFolder);
+            } else if (info.getErrorMessage() != null) {
+                workingCopyCache.releaseModified(checkoutFolder);
+            } else {
+                workingCopyCache.release(checkoutFolder);
+            }
+        } else {
+            FileUtils.deleteQuietly(checkoutFolder);
+        }
+    }
 
     /**
-     * Configures the {@link #tempFolder} for submission (copy files and so on).
+     * Copies the content of the submission folder into the SVN working copy. Only files that differ are touched.
+     * Part of the {@link #submit(SubmissionManifest)} method.
      * 
-     * @param sourceFolder A top level folder of a java project, which shall be submitted.
-     * @param targetFolder The target folder where the files should be placed.
+     * @param manifest The manifest of the folder to submit.
+     * @param targetFolder The SVN working copy.
      * 
-     * @return The number of java files in the sourceFolder.
-     * @throws SubmitException If an error occurred before the the server could run the hook script.
+     * @return The changes made to the working copy.
+     * 
+     * @throws SubmitException If the working copy could not be written.
      */
-    private int prepareCommit(File sourceFolder, File targetFolder) throws SubmitException {
-        FolderInitializer initilizer = new FolderInitializer(sourceFolder, targetFolder);
+    private StagedChanges prepareCommit(SubmissionManifest manifest, File targetFolder) throws SubmitException {
+        FolderInitializer initilizer = new FolderInitializer(manifest.getRoot(), targetFolder);
         try {
-            initilizer.init(exerciseName);
-            return FileUtils.listFiles(sourceFolder, new String[] {"java"}, true).size();
+            return initilizer.sync(manifest, exerciseName);
         } catch (IOException e) {
             LOGGER.error("Couldn't initalize temporary directory", e);
             throw new SubmitException(ErrorType.COULD_NOT_CREATE_TEMP_DIR, System.getProperty("java.io.tmpdir"));
@@ -180,30 +292,36 @@ public class Submitter {
     }
     
     /**
-     * Updates the SVN status of the given checkout folder. Marks newly added files as added and deleted/missing files
-     * as deleted.
+     * Updates the SVN status of the working copy based on the changes made by
+     * {@link #prepareCommit(SubmissionManifest, File)}. Marks newly added files as added and deleted files as deleted.
+     * Files that changed from file to folder or vice versa are removed from version control while the new local item
+     * is kept, and then added again. Modified files are detected by SVN itself. Since the working copy is clean before
+     * the changes are applied (either a fresh checkout or a reverted cached working copy), no status crawl over the
+     * whole working copy is necessary.
      * 
-     * @param checkoutFolder The SVN checkout location to update.
+     * @param clientManager The client manager to use for updating the working copy.
+     * @param changes The changes made to the SVN working copy.
      * 
      * @throws SubmitException If updating the status of the SVN checkout fails.
      */
-    private void updateSvnStatus(File checkoutFolder) throws SubmitException {
+    private void updateSvnStatus(SVNClientManager clientManager, StagedChanges changes) throws SubmitException {
         try {
             SVNWCClient wcClient = clientManager.getWCClient();
             
-            clientManager.getStatusClient().doStatus(checkoutFolder, SVNRevision.HEAD, SVNDepth.INFINITY,
-                    false, false, false, false,
-                (status) -> {
-                    SVNStatusType type = status.getNodeStatus();
-                    File file = status.getFile();
-
-                    if (type == SVNStatusType.STATUS_UNVERSIONED) {
-                        wcClient.doAdd(file, true, false, false, SVNDepth.EMPTY, false, false);
-                        
-                    } else if (type == SVNStatusType.STATUS_MISSING) {
-                        wcClient.doDelete(file, true, false, false);
-                    }
-                }, null);
+            for (File file : changes.getDeletedFiles()) {
+                wcClient.doDelete(file, true, false, false);
+            }
+            for (File file : changes.getReplacedFiles()) {
+                wcClient.doDelete(file, true, false, false);
+            }
+            
+            // replaced folders must be added before their content
+            List<File> added = new ArrayList<>(changes.getReplacedFiles());
+            added.addAll(changes.getAddedFiles());
+            if (!added.isEmpty()) {
+                wcClient.doAdd(added.toArray(new File[added.size()]), true, false, false, SVNDepth.EMPTY, false, false,
+                        true);
+            }
             
         } catch (SVNException e) {
             LOGGER.error("Couldn't update working copy", e);
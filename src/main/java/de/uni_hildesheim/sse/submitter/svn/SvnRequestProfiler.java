@@ -0,0 +1,514 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.tmatesoft.svn.util.ISVNDebugLog;
+import org.tmatesoft.svn.util.SVNDebugLog;
+import org.tmatesoft.svn.util.SVNLogType;
+
+/**
+ * Counts the HTTP requests that SVNKit sends for each high-level operation (e.g. checkout, commit or log), to tell
+ * latency caused by the number of round trips from latency caused by bandwidth. Installed as the default
+ * {@link ISVNDebugLog} of SVNKit by {@link #install()}; all log messages are still passed to the previous debug log.
+ * <p>
+ * SVNKit passes the streams of each HTTP connection through the debug log. The request lines of the sent data are
+ * counted per HTTP method, together with the sent and received bytes. The network time of a request lasts from
+ * sending its request line until the last byte of its response is read; the latency until the first byte of the
+ * response is tracked separately. Received bytes are counted after decoding the transfer and content encodings.
+ * <p>
+ * Requests are attributed to all {@link Operation}s started in the sending thread, since SVNKit sends and receives
+ * in the thread that calls it. Each operation logs a summary when it is closed, e.g.
+ * <code>submit: 47 requests (30 REPORT, 12 PROPFIND, 5 PUT), 3.10 s network, max latency 0.41 s, 12 KiB sent,
+ * 40 KiB received</code>. Only the HTTP based protocols (<code>http://</code> and <code>https://</code>) are
+ * counted.
+ * <p>
+ * Without {@link #install()}, {@link #start(String)} returns an inactive operation and nothing is counted.
+ *
+ * @author Adam Krafczyk
+ */
+public class SvnRequestProfiler implements ISVNDebugLog {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final Pattern REQUEST_LINE = Pattern.compile("([A-Z]+) \\S+ HTTP/1\\.[01]\r?");
+
+    /**
+     * The maximum length of a line that is checked for a request line. Longer lines are skipped.
+     */
+    private static final int MAX_REQUEST_LINE = 2048;
+
+    private static final ThreadLocal<ThreadState> STATE = ThreadLocal.withInitial(ThreadState::new);
+
+    private static final Operation INACTIVE = new Operation(null);
+
+    private static volatile boolean installed;
+
+    private ISVNDebugLog delegate;
+
+    /**
+     * The requests and operations of a single thread.
+     */
+    private static final class ThreadState {
+
+        private Deque<Operation> operations = new ArrayDeque<>();
+
+        private long requestStart = -1;
+
+        private long firstByte = -1;
+
+        private long lastByte = -1;
+
+        /**
+         * Adds the network time of the current request to all operations.
+         */
+        private void finishRequest() {
+            if (requestStart >= 0 && lastByte >= 0) {
+                for (Operation operation : operations) {
+                    operation.networkNanos += lastByte - requestStart;
+                }
+            }
+            requestStart = -1;
+            firstByte = -1;
+            lastByte = -1;
+        }
+
+    }
+
+    /**
+     * The requests counted for a single high-level operation. Must be closed in the thread that started it.
+     */
+    public static final class Operation implements AutoCloseable {
+
+        private String name;
+
+        private int requests;
+
+        private Map<String, Integer> methods = new TreeMap<>();
+
+        private long sentBytes;
+
+        private long receivedBytes;
+
+        private long networkNanos;
+
+        private long maxLatencyNanos;
+
+        /**
+         * Creates an operation.
+         *
+         * @param name The name of the operation, or <code>null</code> for an inactive operation.
+         */
+        private Operation(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the number of HTTP requests sent during this operation.
+         *
+         * @return The number of requests.
+         */
+        public int getRequests() {
+            return requests;
+        }
+
+        /**
+         * Returns the number of HTTP requests with the given method sent during this operation.
+         *
+         * @param method The HTTP method, e.g. <code>PROPFIND</code>.
+         *
+         * @return The number of requests.
+         */
+        public int getRequests(String method) {
+            return methods.getOrDefault(method, 0);
+        }
+
+        /**
+         * Returns the number of bytes sent during this operation.
+         *
+         * @return The number of bytes, including the HTTP headers.
+         */
+        public long getSentBytes() {
+            return sentBytes;
+        }
+
+        /**
+         * Returns the number of bytes received during this operation.
+         *
+         * @return The number of decoded bytes, including the HTTP headers.
+         */
+        public long getReceivedBytes() {
+            return receivedBytes;
+        }
+
+        /**
+         * Returns the summed network time of all requests of this operation.
+         *
+         * @return The duration in milliseconds.
+         */
+        public long getNetworkMillis() {
+            return networkNanos / 1000000;
+        }
+
+        /**
+         * Stops counting for this operation and logs its summary.
+         */
+        @Override
+        public void close() {
+            if (name != null) {
+                ThreadState state = STATE.get();
+                state.finishRequest();
+                state.operations.remove(this);
+                LOGGER.info("{}", this);
+            }
+        }
+
+        /**
+         * Formats the counted requests as a single line.
+         *
+         * @return A summary of this operation.
+         */
+        @Override
+        public String toString() {
+            List<Map.Entry<String, Integer>> sortedMethods = new ArrayList<>(methods.entrySet());
+            sortedMethods.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+            StringBuilder result = new StringBuilder().append(name).append(": ").append(requests).append(" requests");
+            if (!sortedMethods.isEmpty()) {
+                result.append(" (");
+                for (int i = 0; i < sortedMethods.size(); i++) {
+                    if (i > 0) {
+                        result.append(", ");
+                    }
+                    Map.Entry<String, Integer> method = sortedMethods.get(i);
+                    result.append(method.getValue()).append(' ').append(method.getKey());
+                }
+                result.append(')');
+            }
+            result.append(String.format(Locale.ROOT, ", %.2f s network, max latency %.2f s", networkNanos / 1e9,
+                    maxLatencyNanos / 1e9));
+            result.append(", ").append((sentBytes + 1023) / 1024).append(" KiB sent, ")
+                    .append((receivedBytes + 1023) / 1024).append(" KiB received");
+            return result.toString();
+        }
+
+    }
+
+    /**
+     * Detects and counts the request lines in the data sent over an HTTP connection.
+     */
+    private static final class RequestOutputStream extends FilterOutputStream {
+
+        private OutputStream logged;
+
+        private byte[] line = new byte[MAX_REQUEST_LINE];
+
+        private int lineLength;
+
+        private boolean atLineStart = true;
+
+        /**
+         * Creates a stream.
+         *
+         * @param logged The stream created by the previous debug log, which writes to the connection.
+         */
+        private RequestOutputStream(OutputStream logged) {
+            super(logged);
+            this.logged = logged;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            logged.write(value);
+            inspect(value);
+            recordSent(1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int off, int len) throws IOException {
+            logged.write(buffer, off, len);
+            for (int i = off; i < off + len; i++) {
+                inspect(buffer[i]);
+            }
+            recordSent(len);
+        }
+
+        /**
+         * Checks a single sent byte for the end of a request line.
+         *
+         * @param value The sent byte.
+         */
+        private void inspect(int value) {
+            if (value == '\n') {
+                if (atLineStart && lineLength > 0) {
+                    Matcher matcher = REQUEST_LINE.matcher(
+                            new String(line, 0, lineLength, StandardCharsets.ISO_8859_1));
+                    if (matcher.matches()) {
+                        recordRequest(matcher.group(1));
+                    }
+                }
+                lineLength = 0;
+                atLineStart = true;
+            } else if (atLineStart && lineLength < line.length) {
+                line[lineLength++] = (byte) value;
+            } else {
+                atLineStart = false;
+            }
+        }
+
+        /**
+         * Called when SVNKit finished writing a request. The next request starts at a new line.
+         */
+        private void requestFinished() {
+            lineLength = 0;
+            atLineStart = true;
+        }
+
+    }
+
+    /**
+     * Counts the data received over an HTTP connection.
+     */
+    private static final class ResponseInputStream extends FilterInputStream {
+
+        private InputStream logged;
+
+        /**
+         * Creates a stream.
+         *
+         * @param logged The stream created by the previous debug log, which reads from the connection.
+         */
+        private ResponseInputStream(InputStream logged) {
+            super(logged);
+            this.logged = logged;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result >= 0) {
+                recordReceived(1);
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int result = super.read(buffer, off, len);
+            if (result > 0) {
+                recordReceived(result);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Creates a profiler.
+     *
+     * @param delegate The previous debug log, which receives all log messages.
+     */
+    private SvnRequestProfiler(ISVNDebugLog delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Installs the profiler as the default debug log of SVNKit. Only affects sessions that do not have their own
+     * debug log. Has no effect if already installed.
+     */
+    public static synchronized void install() {
+        if (!installed) {
+            SVNDebugLog.setDefaultLog(new SvnRequestProfiler(SVNDebugLog.getDefaultLog()));
+            installed = true;
+            LOGGER.info("Counting SVN requests per operation");
+        }
+    }
+
+    /**
+     * Starts counting the requests of an operation in the calling thread. Operations may be nested; requests are
+     * counted for all operations that are not closed yet.
+     *
+     * @param name The name of the operation, shown in its summary.
+     *
+     * @return The operation, which must be closed in the calling thread. Inactive if the profiler is not installed.
+     */
+    public static Operation start(String name) {
+        Operation result = INACTIVE;
+        if (installed) {
+            result = new Operation(name);
+            ThreadState state = STATE.get();
+            state.finishRequest();
+            state.operations.addLast(result);
+        }
+        return result;
+    }
+
+    /**
+     * Counts a request sent in the calling thread.
+     *
+     * @param method The HTTP method of the request.
+     */
+    private static void recordRequest(String method) {
+        ThreadState state = STATE.get();
+        state.finishRequest();
+        state.requestStart = System.nanoTime();
+        for (Operation operation : state.operations) {
+            operation.requests++;
+            operation.methods.merge(method, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Counts bytes sent in the calling thread.
+     *
+     * @param bytes The number of bytes.
+     */
+    private static void recordSent(int bytes) {
+        for (Operation operation : STATE.get().operations) {
+            operation.sentBytes += bytes;
+        }
+    }
+
+    /**
+     * Counts bytes received in the calling thread.
+     *
+     * @param bytes The number of bytes.
+     */
+    private static void recordReceived(int bytes) {
+        ThreadState state = STATE.get();
+        if (state.requestStart >= 0) {
+            long now = System.nanoTime();
+            if (state.firstByte < 0) {
+                state.firstByte = now;
+                for (Operation operation : state.operations) {
+                    operation.maxLatencyNanos = Math.max(operation.maxLatencyNanos, now - state.requestStart);
+                }
+            }
+            state.lastByte = now;
+        }
+        for (Operation operation : state.operations) {
+            operation.receivedBytes += bytes;
+        }
+    }
+
+    @Override
+    public InputStream createLogStream(SVNLogType logType, InputStream is) {
+        InputStream result = delegate.createLogStream(logType, is);
+        if (logType == SVNLogType.NETWORK) {
+            result = new ResponseInputStream(result);
+        }
+        return result;
+    }
+
+    @Override
+    public OutputStream createLogStream(SVNLogType logType, OutputStream os) {
+        OutputStream result = delegate.createLogStream(logType, os);
+        if (logType == SVNLogType.NETWORK) {
+            result = new RequestOutputStream(result);
+        }
+        return result;
+    }
+
+    @Override
+    public void flushStream(Object stream) {
+        Object logged = stream;
+        if (stream instanceof RequestOutputStream) {
+            ((RequestOutputStream) stream).requestFinished();
+            logged = ((RequestOutputStream) stream).logged;
+        } else if (stream instanceof ResponseInputStream) {
+            logged = ((ResponseInputStream) stream).logged;
+        }
+        delegate.flushStream(logged);
+    }
+
+    @Override
+    public OutputStream createOutputLogStream() {
+        return delegate.createOutputLogStream();
+    }
+
+    @Override
+    public OutputStream createInputLogStream() {
+        return delegate.createInputLogStream();
+    }
+
+    @Override
+    public void logError(SVNLogType logType, String message) {
+        delegate.logError(logType, message);
+    }
+
+    @Override
+    public void logError(SVNLogType logType, Throwable th) {
+        delegate.logError(logType, th);
+    }
+
+    @Override
+    public void logSevere(SVNLogType logType, String message) {
+        delegate.logSevere(logType, message);
+    }
+
+    @Override
+    public void logSevere(SVNLogType logType, Throwable th) {
+        delegate.logSevere(logType, th);
+    }
+
+    @Override
+    public void logFine(SVNLogType logType, Throwable th) {
+        delegate.logFine(logType, th);
+    }
+
+    @Override
+    public void logFine(SVNLogType logType, String message) {
+        delegate.logFine(logType, message);
+    }
+
+    @Override
+    public void logFiner(SVNLogType logType, Throwable th) {
+        delegate.logFiner(logType, th);
+    }
+
+    @Override
+    public void logFiner(SVNLogType logType, String message) {
+        delegate.logFiner(logType, message);
+    }
+
+    @Override
+    public void logFinest(SVNLogType logType, Throwable th) {
+        delegate.logFinest(logType, th);
+    }
+
+    @Override
+    public void logFinest(SVNLogType logType, String message) {
+        delegate.logFinest(logType, message);
+    }
+
+    @Override
+    public void log(SVNLogType logType, Throwable th, Level logLevel) {
+        delegate.log(logType, th, logLevel);
+    }
+
+    @Override
+    public void log(SVNLogType logType, String message, Level logLevel) {
+        delegate.log(logType, message, logLevel);
+    }
+
+    @Override
+    public void log(SVNLogType logType, String message, byte[] data) {
+        delegate.log(logType, message, data);
+    }
+
+}
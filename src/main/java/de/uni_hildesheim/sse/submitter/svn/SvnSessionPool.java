@@ -0,0 +1,325 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.auth.BasicAuthenticationManager;
+import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
+import org.tmatesoft.svn.core.io.ISVNSession;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.wc.DefaultSVNRepositoryPool;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+/**
+ * A pool of SVN sessions and client managers that share the credentials of the logged-in user. Sessions are kept
+ * alive between operations, so that history, replay and submissions do not need to open a new connection (and
+ * authenticate again) each time.
+ * <p>
+ * Sessions and client managers are not thread-safe, thus they are handed out exclusively: each
+ * <code>acquire</code> must be followed by the matching <code>release</code> once the operation is done. Idle
+ * sessions and client managers are closed after the maximum idle time, and all of them are closed by
+ * {@link #close()}.
+ *
+ * @author Adam Krafczyk
+ */
+public class SvnSessionPool implements Closeable {
+
+    /**
+     * The default time after which unused sessions are closed, in milliseconds. Long enough that a session warmed up
+     * right after login or after selecting an exercise is still open when the user actually submits.
+     */
+    public static final long DEFAULT_MAX_IDLE_TIME = 15 * 60 * 1000;
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private ISVNAuthenticationManager authenticationManager;
+
+    private long maxIdleTime;
+
+    private Deque<IdleEntry<SVNRepository>> idleSessions = new ArrayDeque<>();
+
+    private Deque<IdleEntry<SVNClientManager>> idleClientManagers = new ArrayDeque<>();
+
+    private boolean closed;
+
+    /**
+     * An unused session or client manager, together with the time it was returned to the pool.
+     *
+     * @param <T> The type of the pooled object.
+     */
+    private static final class IdleEntry<T> {
+
+        private T value;
+
+        private long since;
+
+        /**
+         * Creates an entry.
+         *
+         * @param value The pooled object.
+         * @param since The time it was returned to the pool, see {@link System#currentTimeMillis()}.
+         */
+        private IdleEntry(T value, long since) {
+            this.value = value;
+            this.since = since;
+        }
+
+    }
+
+    /**
+     * Creates a pool with the {@link #DEFAULT_MAX_IDLE_TIME}.
+     *
+     * @param user The username to use for authentication to the SVN server.
+     * @param password The password to use for authentication to the SVN server.
+     */
+    public SvnSessionPool(String user, char[] password) {
+        this(user, password, DEFAULT_MAX_IDLE_TIME);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param user The username to use for authentication to the SVN server.
+     * @param password The password to use for authentication to the SVN server.
+     * @param maxIdleTime The time after which unused sessions are closed, in milliseconds.
+     */
+    public SvnSessionPool(String user, char[] password, long maxIdleTime) {
+        this.authenticationManager = BasicAuthenticationManager.newInstance(user, password);
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    /**
+     * Hands out a session for the given URL. An idle session to the same server is re-used if possible, otherwise a
+     * new session is created. Must be returned with {@link #releaseSession(SVNRepository)} or
+     * {@link #discardSession(SVNRepository)}.
+     *
+     * @param url The location that the session should point to.
+     *
+     * @return A session, exclusively usable by the caller until it is released.
+     *
+     * @throws SVNException If the session cannot be created.
+     */
+    public SVNRepository acquireSession(SVNURL url) throws SVNException {
+        SVNRepository session = null;
+        synchronized (this) {
+            evictIdle(System.currentTimeMillis());
+            Iterator<IdleEntry<SVNRepository>> iterator = idleSessions.iterator();
+            while (session == null && iterator.hasNext()) {
+                SVNRepository candidate = iterator.next().value;
+                if (isSameServer(candidate.getLocation(), url)) {
+                    iterator.remove();
+                    session = candidate;
+                }
+            }
+        }
+
+        if (session != null) {
+            session.setLocation(url, false);
+        } else {
+            session = SVNRepositoryFactory.create(url, ISVNSession.KEEP_ALIVE);
+            session.setAuthenticationManager(authenticationManager);
+        }
+        return session;
+    }
+
+    /**
+     * Returns a session to the pool, so that its connection can be re-used by later operations.
+     *
+     * @param session A session previously acquired by {@link #acquireSession(SVNURL)}.
+     */
+    public void releaseSession(SVNRepository session) {
+        boolean keep;
+        synchronized (this) {
+            keep = !closed;
+            if (keep) {
+                long now = System.currentTimeMillis();
+                idleSessions.push(new IdleEntry<>(session, now));
+                evictIdle(now);
+            }
+        }
+        if (!keep) {
+            session.closeSession();
+        }
+    }
+
+    /**
+     * Closes a session instead of returning it to the pool. Should be used if an operation failed and the connection
+     * may be in an undefined state.
+     *
+     * @param session A session previously acquired by {@link #acquireSession(SVNURL)}.
+     */
+    public void discardSession(SVNRepository session) {
+        session.closeSession();
+    }
+
+    /**
+     * Opens a session to the given URL and returns it to the pool, so that a later {@link #acquireSession(SVNURL)}
+     * for the same server finds an established and authenticated connection.
+     *
+     * @param url The location that will be used later.
+     *
+     * @throws SVNException If the connection cannot be established.
+     */
+    public void warmUpSession(SVNURL url) throws SVNException {
+        SVNRepository session = acquireSession(url);
+        boolean connected = false;
+        try {
+            session.testConnection();
+            connected = true;
+        } finally {
+            if (connected) {
+                releaseSession(session);
+            } else {
+                discardSession(session);
+            }
+        }
+    }
+
+    /**
+     * Lets a pooled client manager open a connection to the given URL, so that a later
+     * {@link #acquireClientManager()} finds an established and authenticated connection to the same server.
+     *
+     * @param url The location that will be used later.
+     *
+     * @throws SVNException If the connection cannot be established.
+     */
+    public void warmUpClientManager(SVNURL url) throws SVNException {
+        SVNClientManager clientManager = acquireClientManager();
+        try {
+            clientManager.createRepository(url, true).testConnection();
+        } finally {
+            releaseClientManager(clientManager);
+        }
+    }
+
+    /**
+     * Checks whether an idle session to the server of the given URL is available, e.g. one opened by
+     * {@link #warmUpSession(SVNURL)}. Sessions that were idle longer than the maximum idle time are closed first.
+     *
+     * @param url The location that will be used.
+     *
+     * @return Whether {@link #acquireSession(SVNURL)} would re-use an established connection.
+     */
+    public synchronized boolean hasIdleSession(SVNURL url) {
+        evictIdle(System.currentTimeMillis());
+        boolean result = false;
+        for (IdleEntry<SVNRepository> entry : idleSessions) {
+            result |= isSameServer(entry.value.getLocation(), url);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether an idle client manager is available, e.g. one used by {@link #warmUpClientManager(SVNURL)}.
+     * Client managers that were idle longer than the maximum idle time are closed first.
+     *
+     * @return Whether {@link #acquireClientManager()} would re-use a client manager with established connections.
+     */
+    public synchronized boolean hasIdleClientManager() {
+        evictIdle(System.currentTimeMillis());
+        return !idleClientManagers.isEmpty();
+    }
+
+    /**
+     * Hands out a client manager that uses the credentials of this pool and keeps its connections alive. Must be
+     * returned with {@link #releaseClientManager(SVNClientManager)}.
+     *
+     * @return A client manager, exclusively usable by the caller until it is released.
+     */
+    public SVNClientManager acquireClientManager() {
+        SVNClientManager clientManager = null;
+        synchronized (this) {
+            evictIdle(System.currentTimeMillis());
+            if (!idleClientManagers.isEmpty()) {
+                clientManager = idleClientManagers.pop().value;
+            }
+        }
+
+        if (clientManager == null) {
+            clientManager = SVNClientManager.newInstance(null,
+                    new DefaultSVNRepositoryPool(authenticationManager, null, maxIdleTime, true));
+        }
+        return clientManager;
+    }
+
+    /**
+     * Returns a client manager to the pool, so that it can be re-used by later operations.
+     *
+     * @param clientManager A client manager previously acquired by {@link #acquireClientManager()}.
+     */
+    public void releaseClientManager(SVNClientManager clientManager) {
+        boolean keep;
+        synchronized (this) {
+            keep = !closed;
+            if (keep) {
+                long now = System.currentTimeMillis();
+                idleClientManagers.push(new IdleEntry<>(clientManager, now));
+                evictIdle(now);
+            }
+        }
+        if (!keep) {
+            clientManager.dispose();
+        }
+    }
+
+    /**
+     * Closes all idle sessions and client managers. Sessions and client managers that are currently in use are closed
+     * when they are released.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            evictIdle(Long.MAX_VALUE);
+        }
+        LOGGER.debug("Closed SVN session pool");
+    }
+
+    /**
+     * Closes all sessions and client managers that were idle longer than the maximum idle time.
+     *
+     * @param now The current time, see {@link System#currentTimeMillis()}.
+     */
+    private synchronized void evictIdle(long now) {
+        evict(idleSessions, now, SVNRepository::closeSession);
+        evict(idleClientManagers, now, SVNClientManager::dispose);
+    }
+
+    /**
+     * Closes and removes all entries of the given queue that were idle longer than the maximum idle time. The queue
+     * is ordered by the time the entries were returned, most recent first.
+     *
+     * @param <T> The type of the pooled objects.
+     * @param idle The queue of idle entries.
+     * @param now The current time, see {@link System#currentTimeMillis()}.
+     * @param closer Closes a single pooled object.
+     */
+    private <T> void evict(Deque<IdleEntry<T>> idle, long now, Consumer<T> closer) {
+        while (!idle.isEmpty() && (now == Long.MAX_VALUE || now - idle.peekLast().since > maxIdleTime)) {
+            closer.accept(idle.removeLast().value);
+        }
+    }
+
+    /**
+     * Checks whether two URLs point to the same server, so that a connection to one can be re-used for the other.
+     *
+     * @param first The first URL.
+     * @param second The second URL.
+     *
+     * @return Whether protocol, host and port are equal.
+     */
+    private static boolean isSameServer(SVNURL first, SVNURL second) {
+        return first.getProtocol().equals(second.getProtocol())
+                && first.getHost().equals(second.getHost())
+                && first.getPort() == second.getPort();
+    }
+
+}
@@ -0,0 +1,342 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNStatusType;
+
+import de.uni_hildesheim.sse.submitter.settings.WorkingCopyCacheSettings;
+
+/**
+ * A persistent cache of SVN working copies, one per user and submission URL. Instead of creating a fresh checkout
+ * for each submission, a previously used working copy is updated to HEAD.
+ * <p>
+ * Each cache entry consists of the working copy folder and two marker files next to it:
+ * <ul>
+ *  <li><code>&lt;key&gt;.lock</code> exists while a working copy is in use. Entries with a lock are never handed out
+ *  or evicted, unless the lock is older than {@link #STALE_LOCK_MS}.</li>
+ *  <li><code>&lt;key&gt;.modified</code> exists if the last commit was rejected and the working copy still contains
+ *  local modifications. These are reverted before the working copy is handed out again.</li>
+ * </ul>
+ * Entries are evicted in least-recently-used order, if there are too many or if they take up too much disk space.
+ *
+ * @author Adam Krafczyk
+ */
+public class WorkingCopyCache {
+
+    /**
+     * Locks older than this are considered to be left over by a crashed process.
+     */
+    static final long STALE_LOCK_MS = 60 * 60 * 1000;
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final String LOCK_SUFFIX = ".lock";
+
+    private static final String MODIFIED_SUFFIX = ".modified";
+
+    private File directory;
+
+    private int maxWorkingCopies;
+
+    private long maxSize;
+
+    private Set<File> inUse = new HashSet<>();
+
+    /**
+     * Creates a cache in the given directory.
+     *
+     * @param directory The directory where the working copies are stored. Will be created if it does not exist.
+     * @param maxWorkingCopies The maximum number of cached working copies.
+     * @param maxSize The maximum total size of all cached working copies, in bytes.
+     */
+    public WorkingCopyCache(File directory, int maxWorkingCopies, long maxSize) {
+        this.directory = directory;
+        this.maxWorkingCopies = maxWorkingCopies;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates a cache based on the given settings.
+     *
+     * @param settings The settings to use, may be <code>null</code>.
+     *
+     * @return The configured cache, or <code>null</code> if caching is not configured or disabled.
+     */
+    public static WorkingCopyCache fromSettings(WorkingCopyCacheSettings settings) {
+        WorkingCopyCache result = null;
+        if (settings != null && settings.isEnabled()) {
+            result = new WorkingCopyCache(settings.getDirectory(), settings.getMaxWorkingCopies(),
+                    settings.getMaxSize());
+        }
+        return result;
+    }
+
+    /**
+     * Returns an up-to-date working copy of the given URL for the given user. If a cached working copy exists, it is
+     * updated to HEAD. If it cannot be updated (e.g. because it is corrupt), it is replaced by a fresh checkout.
+     *
+     * @param url The URL to get a working copy for.
+     * @param user The name of the user, working copies are not shared between different users.
+     * @param clientManager The client manager used for SVN operations.
+     *
+     * @return The location of the working copy, or <code>null</code> if the cache cannot provide one (e.g. because
+     *      it is currently locked by another process). Must be passed to one of {@link #release(File)},
+     *      {@link #releaseModified(File)}, or {@link #discard(File)} after use.
+     *
+     * @throws SVNException If a fresh checkout fails.
+     */
+    public File acquire(SVNURL url, String user, SVNClientManager clientManager) throws SVNException {
+        String key = createKey(url, user);
+        File workingCopy = new File(directory, key);
+
+        File result = null;
+        if (lock(workingCopy)) {
+            boolean success = false;
+            try {
+                if (!workingCopy.isDirectory() || !refresh(workingCopy, clientManager)) {
+                    FileUtils.deleteQuietly(workingCopy);
+                    LOGGER.debug("Creating new cached working copy {}", workingCopy);
+                    clientManager.getUpdateClient().doCheckout(url, workingCopy, SVNRevision.HEAD, SVNRevision.HEAD,
+                            SVNDepth.INFINITY, true);
+                }
+                getMarker(workingCopy, MODIFIED_SUFFIX).delete();
+                result = workingCopy;
+                success = true;
+            } finally {
+                if (!success) {
+                    discard(workingCopy);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the given folder is a working copy handed out by this cache.
+     *
+     * @param workingCopy The folder to check.
+     *
+     * @return <code>true</code> if the folder is currently in use and managed by this cache.
+     */
+    public synchronized boolean isInUse(File workingCopy) {
+        return inUse.contains(workingCopy);
+    }
+
+    /**
+     * Releases a working copy without local modifications, i.e. after a successful commit.
+     *
+     * @param workingCopy The working copy returned by {@link #acquire(SVNURL, String, SVNClientManager)}.
+     */
+    public void release(File workingCopy) {
+        unlock(workingCopy);
+        evict();
+    }
+
+    /**
+     * Releases a working copy that still contains local modifications, e.g. because the commit was rejected by the
+     * hook. The modifications will be reverted before the working copy is used again.
+     *
+     * @param workingCopy The working copy returned by {@link #acquire(SVNURL, String, SVNClientManager)}.
+     */
+    public void releaseModified(File workingCopy) {
+        try {
+            getMarker(workingCopy, MODIFIED_SUFFIX).createNewFile();
+            unlock(workingCopy);
+        } catch (IOException e) {
+            LOGGER.warn("Could not mark working copy as modified, discarding it", e);
+            discard(workingCopy);
+        }
+        evict();
+    }
+
+    /**
+     * Removes a working copy from the cache, e.g. because it is in an unknown state after a failed operation.
+     *
+     * @param workingCopy The working copy returned by {@link #acquire(SVNURL, String, SVNClientManager)}.
+     */
+    public void discard(File workingCopy) {
+        FileUtils.deleteQuietly(workingCopy);
+        getMarker(workingCopy, MODIFIED_SUFFIX).delete();
+        unlock(workingCopy);
+    }
+
+    /**
+     * Brings an existing cached working copy to HEAD. Reverts local modifications left over by a rejected commit.
+     *
+     * @param workingCopy The cached working copy.
+     * @param clientManager The client manager used for SVN operations.
+     *
+     * @return Whether the working copy could be updated. If <code>false</code>, the working copy is corrupt or locked
+     *      by SVN and must be replaced.
+     */
+    private boolean refresh(File workingCopy, SVNClientManager clientManager) {
+        boolean success = false;
+        try {
+            if (getMarker(workingCopy, MODIFIED_SUFFIX).exists()) {
+                LOGGER.debug("Reverting local modifications in {}", workingCopy);
+                clientManager.getWCClient().doRevert(new File[] {workingCopy}, SVNDepth.INFINITY, null);
+                removeUnversioned(workingCopy, clientManager);
+            }
+            clientManager.getUpdateClient().doUpdate(workingCopy, SVNRevision.HEAD, SVNDepth.INFINITY, false, false);
+            success = true;
+
+        } catch (SVNException e) {
+            LOGGER.warn("Could not update cached working copy " + workingCopy + ", creating a fresh checkout", e);
+        }
+        return success;
+    }
+
+    /**
+     * Deletes all unversioned files from the given working copy. Reverting a scheduled addition leaves the file as
+     * an unversioned file on disk.
+     *
+     * @param workingCopy The working copy to clean.
+     * @param clientManager The client manager used for SVN operations.
+     *
+     * @throws SVNException If retrieving the status fails.
+     */
+    private void removeUnversioned(File workingCopy, SVNClientManager clientManager) throws SVNException {
+        List<File> unversioned = new ArrayList<>();
+        clientManager.getStatusClient().doStatus(workingCopy, SVNRevision.HEAD, SVNDepth.INFINITY,
+                false, false, true, false,
+            (status) -> {
+                SVNStatusType type = status.getNodeStatus();
+                if (type == SVNStatusType.STATUS_UNVERSIONED || type == SVNStatusType.STATUS_IGNORED) {
+                    unversioned.add(status.getFile());
+                }
+            }, null);
+
+        for (File file : unversioned) {
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Marks the given working copy as in use. Fails if it is already in use by this or another process.
+     *
+     * @param workingCopy The working copy to lock.
+     *
+     * @return Whether the working copy was locked successfully.
+     */
+    private synchronized boolean lock(File workingCopy) {
+        boolean locked = false;
+        if (!inUse.contains(workingCopy)) {
+            File lockFile = getMarker(workingCopy, LOCK_SUFFIX);
+            try {
+                FileUtils.forceMkdir(directory);
+
+                if (lockFile.exists() && System.currentTimeMillis() - lockFile.lastModified() > STALE_LOCK_MS) {
+                    LOGGER.warn("Removing stale lock {}", lockFile);
+                    FileUtils.deleteQuietly(workingCopy);
+                    lockFile.delete();
+                }
+                locked = lockFile.createNewFile();
+
+            } catch (IOException e) {
+                LOGGER.warn("Could not lock cached working copy " + workingCopy, e);
+            }
+
+            if (locked) {
+                inUse.add(workingCopy);
+            } else {
+                LOGGER.info("Cached working copy {} is locked, not using the cache", workingCopy);
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * Marks the given working copy as not used anymore and as recently used for the LRU eviction.
+     *
+     * @param workingCopy The working copy to unlock.
+     */
+    private synchronized void unlock(File workingCopy) {
+        if (inUse.remove(workingCopy)) {
+            workingCopy.setLastModified(System.currentTimeMillis());
+            getMarker(workingCopy, LOCK_SUFFIX).delete();
+        }
+    }
+
+    /**
+     * Evicts the least recently used working copies until the limits for number of entries and disk space are met.
+     * Working copies that are currently locked are neither considered nor evicted.
+     */
+    synchronized void evict() {
+        File[] entries = directory.listFiles((file) -> file.isDirectory() && !getMarker(file, LOCK_SUFFIX).exists());
+        if (entries != null) {
+            List<File> candidates = new ArrayList<>(List.of(entries));
+            candidates.sort(Comparator.comparingLong(File::lastModified));
+
+            Map<File, Long> sizes = new HashMap<>();
+            long totalSize = 0;
+            for (File entry : candidates) {
+                long size = FileUtils.sizeOfDirectory(entry);
+                sizes.put(entry, size);
+                totalSize += size;
+            }
+
+            while (!candidates.isEmpty() && (candidates.size() > maxWorkingCopies || totalSize > maxSize)) {
+                File oldest = candidates.remove(0);
+                totalSize -= sizes.get(oldest);
+                LOGGER.debug("Evicting cached working copy {}", oldest);
+                FileUtils.deleteQuietly(oldest);
+                getMarker(oldest, MODIFIED_SUFFIX).delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the marker file with the given suffix for the given working copy.
+     *
+     * @param workingCopy The working copy folder.
+     * @param suffix The suffix of the marker file.
+     *
+     * @return The marker file, located next to the working copy.
+     */
+    private static File getMarker(File workingCopy, String suffix) {
+        return new File(workingCopy.getParentFile(), workingCopy.getName() + suffix);
+    }
+
+    /**
+     * Creates the name of the cache entry for the given URL and user.
+     *
+     * @param url The URL of the working copy.
+     * @param user The user that owns the working copy.
+     *
+     * @return A file name that uniquely identifies the URL and user.
+     */
+    static String createKey(SVNURL url, String user) {
+        StringBuilder key = new StringBuilder();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((user + '\n' + url.toString()).getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < 16; i++) {
+                key.append(String.format("%02x", hash[i]));
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e); // cannot happen, SHA-256 is required by the Java platform
+        }
+        return key.toString();
+    }
+
+}
@@ -0,0 +1,56 @@
+package de.uni_hildesheim.sse.submitter.svn.hookErrors;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Groups {@link ErrorDescription}s by tool, severity, message and file. The result table groups the descriptions of a
+ * submission with {@link #aggregate(ErrorDescription[])} when they are shown, which takes a single pass over the
+ * descriptions.
+ * 
+ * @author Adam Krafczyk
+ */
+public class ErrorAggregator implements Consumer<ErrorDescription> {
+
+    private Map<List<Object>, ErrorGroup> groups = new LinkedHashMap<>();
+    
+    /**
+     * Groups the given descriptions.
+     * 
+     * @param descriptions The descriptions to group.
+     * 
+     * @return The groups, in the order their first description appears in the given descriptions.
+     */
+    public static ErrorGroup[] aggregate(ErrorDescription[] descriptions) {
+        ErrorAggregator aggregator = new ErrorAggregator();
+        for (ErrorDescription description : descriptions) {
+            aggregator.accept(description);
+        }
+        return aggregator.getGroups();
+    }
+    
+    @Override
+    public void accept(ErrorDescription description) {
+        List<Object> key = Arrays.asList(description.getTool(), description.getSeverity(), description.getMessage(),
+                description.getFile());
+        ErrorGroup group = groups.get(key);
+        if (group == null) {
+            groups.put(key, new ErrorGroup(description));
+        } else {
+            group.add(description);
+        }
+    }
+    
+    /**
+     * Returns the groups of all descriptions passed to this aggregator so far.
+     * 
+     * @return The groups, in the order their first description was passed to this aggregator.
+     */
+    public ErrorGroup[] getGroups() {
+        return groups.values().toArray(new ErrorGroup[groups.size()]);
+    }
+    
+}
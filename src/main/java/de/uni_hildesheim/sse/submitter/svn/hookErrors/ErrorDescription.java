@@ -93,12 +93,32 @@ public class ErrorDescription {
      * @param message The "message" attribute of the hook error message.
      */
     public void setMessage(String message) {
+        this.message = translate(message);
+    }
+    
+    /**
+     * Sets the message describing this error without translating it.
+     * 
+     * @param message The already translated message, see {@link #translate(String)}.
+     */
+    void setTranslatedMessage(String message) {
+        this.message = message;
+    }
+    
+    /**
+     * Translates a "message" attribute of the hook error message, if a translation is configured for it.
+     * 
+     * @param message The "message" attribute of the hook error message.
+     * 
+     * @return The localized message, or the message itself if there is no translation.
+     */
+    public static String translate(String message) {
+        String result = message;
         String translationKey = ToolSettings.getConfig().getMessageTranslations().get(message);
         if (translationKey != null) {
-            this.message = I18nProvider.getText(translationKey);
-        } else {
-            this.message = message;
+            result = I18nProvider.getText(translationKey);
         }
+        return result;
     }
 
     /**
@@ -0,0 +1,99 @@
+package de.uni_hildesheim.sse.submitter.svn.hookErrors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A group of {@link ErrorDescription}s that only differ in their line, e.g. the same Checkstyle rule violated on
+ * several lines of a file. Created by an {@link ErrorAggregator}.
+ * 
+ * @author Adam Krafczyk
+ */
+public class ErrorGroup {
+
+    private List<ErrorDescription> descriptions = new ArrayList<>(1);
+    
+    /**
+     * Creates a group.
+     * 
+     * @param first The first description of this group.
+     */
+    ErrorGroup(ErrorDescription first) {
+        descriptions.add(first);
+    }
+    
+    /**
+     * Adds a description to this group.
+     * 
+     * @param description A description with the same tool, severity, message and file as the other descriptions.
+     */
+    void add(ErrorDescription description) {
+        descriptions.add(description);
+    }
+    
+    /**
+     * Returns the first description of this group, which represents the tool, severity, message and file of all
+     * descriptions in this group.
+     * 
+     * @return The first description.
+     */
+    public ErrorDescription getFirst() {
+        return descriptions.get(0);
+    }
+    
+    /**
+     * Returns the tool that reported the descriptions of this group.
+     * 
+     * @return The tool.
+     */
+    public Tool getTool() {
+        return getFirst().getTool();
+    }
+    
+    /**
+     * Returns the severity of the descriptions of this group.
+     * 
+     * @return The severity.
+     */
+    public Severity getSeverity() {
+        return getFirst().getSeverity();
+    }
+    
+    /**
+     * Returns the message of the descriptions of this group.
+     * 
+     * @return The (maybe localized) message.
+     */
+    public String getMessage() {
+        return getFirst().getMessage();
+    }
+    
+    /**
+     * Returns the file of the descriptions of this group.
+     * 
+     * @return The file, may be <code>null</code>.
+     */
+    public String getFile() {
+        return getFirst().getFile();
+    }
+    
+    /**
+     * Returns how many descriptions are in this group.
+     * 
+     * @return The number of descriptions, at least 1.
+     */
+    public int getCount() {
+        return descriptions.size();
+    }
+    
+    /**
+     * Returns all descriptions of this group.
+     * 
+     * @return The descriptions in the order they were reported.
+     */
+    public List<ErrorDescription> getDescriptions() {
+        return Collections.unmodifiableList(descriptions);
+    }
+    
+}
@@ -1,22 +1,25 @@
 package de.uni_hildesheim.sse.submitter.svn.hookErrors;
 
-import java.io.IOException;
-import java.util.LinkedList;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
-import org.apache.commons.io.IOUtils;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import de.uni_hildesheim.sse.submitter.profiling.HookParseEvent;
+import de.uni_hildesheim.sse.submitter.profiling.Profiling;
 
 /**
- * XML parser for the messages created by the SVN hook.
+ * XML parser for the messages created by the SVN hook. The messages are read one by one with a streaming parser, so
+ * that even very large outputs of the hook never have to be held in memory as a whole document. Each distinct message
+ * text is only translated once per parsed document, and all descriptions with the same text share a single string.
  * 
  * @author Adam
  */
@@ -30,8 +33,10 @@ public class ErrorParser {
     private static final String ATTRIBUTE_TYPE = "tool";
     private static final String ATTRIBUTE_MESSAGE = "message";
     // private static final String NESTED_NODE_CODE = "example";
+    
+    private static final XMLInputFactory FACTORY = createFactory();
 
-    private List<ErrorDescription> errorDescriptions = new LinkedList<>();
+    private List<ErrorDescription> errorDescriptions = new ArrayList<>();
     
     /**
      * Parses the given XML response from the hook.
@@ -51,75 +56,119 @@ public class ErrorParser {
      * @throws InvalidErrorMessagesException If the XML message is invalid.
      */
     public void parse(String xmlInput) throws InvalidErrorMessagesException {
+        List<ErrorDescription> result = new ArrayList<>();
+        parse(new StringReader(xmlInput), result::add);
+        errorDescriptions.addAll(result);
+    }
+    
+    /**
+     * Parses the XML response from the hook, see {@link #parse(String)} for the expected format. Each message is
+     * passed to the consumer as soon as it is read, the input is never held in memory as a whole.
+     * <p>
+     * The validation is the same as for {@link #parse(String)}. Since the input is validated while it is read, the
+     * consumer may already have received some messages when an {@link InvalidErrorMessagesException} is thrown.
+     * 
+     * @param input The error message to parse. Is not closed by this method.
+     * @param consumer Receives the {@link ErrorDescription} of each message, in document order.
+     * 
+     * @throws InvalidErrorMessagesException If the XML message is invalid.
+     */
+    public static void parse(Reader input, Consumer<ErrorDescription> consumer) throws InvalidErrorMessagesException {
+        HookParseEvent parseEvent = new HookParseEvent();
+        parseEvent.begin();
+        XMLStreamReader reader = null;
         try {
-            Document document = parseXml(xmlInput);
+            synchronized (FACTORY) {
+                reader = FACTORY.createXMLStreamReader(input);
+            }
             
-            Node root = document.getDocumentElement();
+            int event = reader.getEventType();
+            while (event != XMLStreamConstants.START_ELEMENT && reader.hasNext()) {
+                event = reader.next();
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                throw new InvalidErrorMessagesException("No root element");
+            }
+            if (!reader.getLocalName().equals(ROOT_NODENAME)) {
+                throw new InvalidErrorMessagesException("Invalid root element: " + reader.getLocalName());
+            }
             
+            readMessages(reader, (description) -> {
+                parseEvent.addMessage();
+                consumer.accept(description);
+            }, new HashMap<>());
             
-            if (!root.getNodeName().equals(ROOT_NODENAME)) {
-                throw new InvalidErrorMessagesException("Invalid root element: " + root.getNodeName());
+            while (reader.hasNext()) {
+                // check that the rest of the document is well-formed
+                reader.next();
             }
+            parseEvent.setOutcome(Profiling.SUCCESS);
             
-            readMessages(root);
-            
-        } catch (SAXException e) {
+        } catch (XMLStreamException e) {
             throw new InvalidErrorMessagesException("Invalid XML", e);
+        } finally {
+            close(reader);
+            parseEvent.commit();
         }
     }
     
     /**
-     * Reads the message elements from a given submitResults root node. Fills {@link #errorDescriptions}.
+     * Reads the message elements from a given submitResults root element, until the end of the root element.
      * 
-     * @param root The submitResults root node.
+     * @param reader The reader, positioned at the start of the submitResults root element.
+     * @param consumer Receives an {@link ErrorDescription} for each message element.
+     * @param translations The message texts translated so far, mapped to their translation.
      * 
      * @throws InvalidErrorMessagesException If any invalid elements are encountered.
+     * @throws XMLStreamException If the XML is not well-formed.
      */
-    private void readMessages(Node root) throws InvalidErrorMessagesException {
-        NodeList children = root.getChildNodes();
-        for (int i = 0; i < children.getLength(); i++) {
-            Node messageNode = children.item(i);
-            if (messageNode.getNodeType() != Node.ELEMENT_NODE) {
-                continue;
-            }
-            
-            if (!messageNode.getNodeName().equals(MESSAGE_NODENAME)) {
-                throw new InvalidErrorMessagesException("Invalid node found: " + messageNode.getNodeName());
+    private static void readMessages(XMLStreamReader reader, Consumer<ErrorDescription> consumer,
+            Map<String, String> translations) throws InvalidErrorMessagesException, XMLStreamException {
+        
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (!reader.getLocalName().equals(MESSAGE_NODENAME)) {
+                    throw new InvalidErrorMessagesException("Invalid node found: " + reader.getLocalName());
+                }
+                
+                consumer.accept(convertMessageElement(reader, translations));
+                skipElement(reader);
             }
-            
-            ErrorDescription error = convertMessageNode(messageNode);
-            this.errorDescriptions.add(error);
+            event = reader.next();
         }
     }
     
     /**
-     * Converts a single message node into an {@link ErrorDescription}.
+     * Converts the attributes of the current message element into an {@link ErrorDescription}.
      * 
-     * @param messageNode The XML message node to convert.
+     * @param reader The reader, positioned at the start of a message element.
+     * @param translations The message texts translated so far, mapped to their translation. The text of this element
+     *      is added, if it is not yet contained.
      * 
-     * @return The {@link ErrorDescription} created from the message node.
+     * @return The {@link ErrorDescription} created from the message element.
      * 
-     * @throws InvalidErrorMessagesException If the XML node is malformed.
+     * @throws InvalidErrorMessagesException If the XML element is malformed.
      */
-    private ErrorDescription convertMessageNode(Node messageNode) throws InvalidErrorMessagesException {
-        NamedNodeMap attributes = messageNode.getAttributes();
+    private static ErrorDescription convertMessageElement(XMLStreamReader reader, Map<String, String> translations)
+            throws InvalidErrorMessagesException {
         
-        Tool type = Tool.getByToolName(getRequiredAttribute(attributes, ATTRIBUTE_TYPE));
+        Tool type = Tool.getByToolName(getRequiredAttribute(reader, ATTRIBUTE_TYPE));
         if (type == null) {
             type = Tool.UNKNOWN;
         }
         
-        Severity severity = Severity.getByName(getRequiredAttribute(attributes, ATTRIBUTE_SEVERITY));
+        Severity severity = Severity.getByName(getRequiredAttribute(reader, ATTRIBUTE_SEVERITY));
         
-        String message = getRequiredAttribute(attributes, ATTRIBUTE_MESSAGE);
+        String message = getRequiredAttribute(reader, ATTRIBUTE_MESSAGE);
         
         ErrorDescription result = new ErrorDescription();
         result.setTool(type);
         result.setSeverity(severity);
-        result.setMessage(message);
-        result.setFile(getAttribute(attributes, ATTRIBUTE_FILE));
+        result.setTranslatedMessage(translations.computeIfAbsent(message, ErrorDescription::translate));
+        result.setFile(reader.getAttributeValue(null, ATTRIBUTE_FILE));
         
-        String lineAttribute = getAttribute(attributes, ATTRIBUTE_LINE);
+        String lineAttribute = reader.getAttributeValue(null, ATTRIBUTE_LINE);
         if (lineAttribute != null) {
             try {
                 result.setLine(Integer.parseInt(lineAttribute));
@@ -132,31 +181,22 @@ public class ErrorParser {
     }
     
     /**
-     * Parses the given XML string.
-     * 
-     * @param xml The XML string to parse.
+     * Skips the current element including all nested content, e.g. the examples of a message.
      * 
-     * @return The parsed XML {@link Document}.
+     * @param reader The reader, positioned at the start of an element. Will be positioned at its end afterwards.
      * 
-     * @throws SAXException If the XML parsing failed.
+     * @throws XMLStreamException If the XML is not well-formed.
      */
-    public static Document parseXml(String xml) throws SAXException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newDefaultInstance();
-        DocumentBuilder parser;
-        try {
-            parser = factory.newDocumentBuilder();
-        } catch (ParserConfigurationException e) {
-            throw new RuntimeException(e); // cannot happen
-        }
-        parser.setErrorHandler(null);
-        Document result;
-        try {
-            result = parser.parse(IOUtils.toInputStream(xml));
-        } catch (IOException e) {
-            throw new SAXException(e);
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
         }
-        result.normalize();
-        return result;
     }
 
     /**
@@ -169,18 +209,19 @@ public class ErrorParser {
     }
 
     /**
-     * Returns the value of an attribute of the given XML tag attributes.
+     * Returns the value of an attribute of the current XML element.
      * 
-     * @param attributes The attributes of the current XML tag.
+     * @param reader The reader, positioned at the start of an element.
      * @param attributeName The name of one of the attributes.
      * 
      * @return The value of the given attribute, never <code>null</code>.
      * 
-     * @throws InvalidErrorMessagesException If the given attribute name does not appear in the attributes of the node.
+     * @throws InvalidErrorMessagesException If the given attribute name does not appear in the attributes of the
+     *      element.
      */
-    private static String getRequiredAttribute(NamedNodeMap attributes, String attributeName)
+    private static String getRequiredAttribute(XMLStreamReader reader, String attributeName)
             throws InvalidErrorMessagesException {
-        String value = getAttribute(attributes, attributeName);
+        String value = reader.getAttributeValue(null, attributeName);
         if (value == null) {
             throw new InvalidErrorMessagesException("Missing attribute " + attributeName);
         }
@@ -188,21 +229,33 @@ public class ErrorParser {
     }
     
     /**
-     * Returns the value of an attribute of the given XML tag attributes.
+     * Closes the given reader, if it has been created.
      * 
-     * @param attributes The attributes of the current XML tag.
-     * @param attributeName The name of one of the attributes.
+     * @param reader The reader to close, may be <code>null</code>.
      * 
-     * @return The value of the given attribute or <code>null</code> if not found.
+     * @throws InvalidErrorMessagesException If closing fails.
      */
-    private static String getAttribute(NamedNodeMap attributes, String attributeName) {
-        String result = null;
-        Node attrNode = attributes.getNamedItem(attributeName);
-        if (null != attrNode) {
-            result = attrNode.getNodeValue();
+    private static void close(XMLStreamReader reader) throws InvalidErrorMessagesException {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                throw new InvalidErrorMessagesException("Invalid XML", e);
+            }
         }
-
-        return result;
+    }
+    
+    /**
+     * Creates the factory that is shared by all parsers. Since the hook output is never expected to contain a DTD,
+     * DTDs and external entities are not processed.
+     * 
+     * @return The configured factory.
+     */
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
     }
     
 }
@@ -3,7 +3,13 @@ package de.uni_hildesheim.sse.submitter.ui;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 import javax.swing.JButton;
 import javax.swing.JFileChooser;
@@ -16,9 +22,9 @@ import org.apache.logging.log4j.Logger;
 
 import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
 import de.uni_hildesheim.sse.submitter.io.FolderCheck;
+import de.uni_hildesheim.sse.submitter.io.SubmissionManifest;
 import de.uni_hildesheim.sse.submitter.settings.FolderCheckSettings;
 import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
-import de.uni_hildesheim.sse.submitter.svn.Revision;
 import net.ssehub.exercisesubmitter.protocol.frontend.Assignment;
 
 /**
@@ -38,10 +44,38 @@ class ButtonListener implements ActionListener {
     
     private static final Logger LOGGER = LogManager.getLogger();
     
+    /**
+     * Runs the callbacks of background operations in the event dispatch thread.
+     */
+    private static final Executor EDT = SwingUtilities::invokeLater;
+    
     private StandaloneSubmitterWindow parent;
     
     private StandaloneSubmitter model;
     
+    /**
+     * The result of checking and scanning the submission folder.
+     */
+    private static final class ScannedFolder {
+        
+        private FolderCheck checker;
+        
+        private SubmissionManifest manifest;
+        
+        /**
+         * Creates a result.
+         * 
+         * @param checker The result of checking the folder.
+         * @param manifest The manifest of the folder, or <code>null</code> if the folder was not scanned, because
+         *      it exceeded the limits.
+         */
+        private ScannedFolder(FolderCheck checker, SubmissionManifest manifest) {
+            this.checker = checker;
+            this.manifest = manifest;
+        }
+        
+    }
+    
     /**
      * Creates this listener.
      * 
@@ -73,30 +107,11 @@ class ButtonListener implements ActionListener {
             parent.toggleButtons(false);
             parent.addProgressAnimator((JButton) evt.getSource());
             
-            new Thread(() -> {
-                List<Revision> history = model.getHistoryOfCurrentExercise();
-                if (history != null) {
-                    SwingUtilities.invokeLater(() -> parent.showHistory(history));
-                }
-                SwingUtilities.invokeLater(() -> parent.toggleButtons(true));
-            }).start();
+            parent.showHistory(() -> parent.toggleButtons(true));
             break;
             
         case ACTION_REVIEW:
-            parent.clearLog();
-            if (model.getDirectoryToSubmit() == null) { // TODO
-                parent.showErrorMessage(I18nProvider.getText("gui.error.no_path_given"));
-            } else {
-                if (checkFolderEmptyForReplay(model.getDirectoryToSubmit())) {
-                    List<Assignment> assignments = model.getAssignmentsInReviewedState();
-                    if (assignments == null || assignments.size() == 0) {
-                        parent.showInfoMessage(I18nProvider.getText("gui.error.no_review_repos"));
-                    } else {
-                        new ReviewDialog(parent, model, assignments);
-                    }
-                }
-                    
-            }
+            review(evt);
             break;
             
         default:
@@ -106,97 +121,193 @@ class ButtonListener implements ActionListener {
     }
     
     /**
-     * Checks that the submission folder seems sane (e.g. number of files and total size). Asks the user for
-     * confirmation if the folder seems unusual.
+     * Checks that the submission folder seems sane (e.g. number of files and total size).
      * 
-     * @param folder The folder to be submitted that should be checked.
+     * @param checker The result of checking the folder to be submitted.
      * 
-     * @return <code>true</code> if the folder seems sane or if the user explicitly confirmed the selection.
+     * @return A warning to show to the user, or <code>null</code> if the folder seems sane.
      */
-    private boolean checkSubmissionFolder(File folder) {
-        boolean submit = true;
-        
-        FolderCheck checker = new FolderCheck(folder);
-        
+    private String createSubmissionFolderWarning(FolderCheck checker) {
         String warningMessage = null;
         
         FolderCheckSettings settings = ToolSettings.getConfig().getFolderCheckSettings();
         if (checker.getTotalSize() > settings.getMaxSize()) {
-            warningMessage = I18nProvider.getText("warnings.folder_too_large",
-                    FileUtils.byteCountToDisplaySize(checker.getTotalSize()));
+            warningMessage = I18nProvider.getText(checker.isLimitExceeded() ? "warnings.folder_too_large_at_least"
+                    : "warnings.folder_too_large", FileUtils.byteCountToDisplaySize(checker.getTotalSize()));
+            
+        } else if (checker.getNumFiles() > settings.getMaxFiles()) {
+            warningMessage = I18nProvider.getText(checker.isLimitExceeded() ? "warnings.file_count_at_least"
+                    : "warnings.file_count", checker.getNumFiles());
             
         } else if (checker.getNumJavaFiles() < settings.getMinJavaFiles()) {
             warningMessage = I18nProvider.getText("warnings.too_few_java_files", checker.getNumJavaFiles());
             
-        } else if (checker.getNumFiles() < settings.getMinFiles()
-                || checker.getNumFiles() > settings.getMaxFiles()) {
+        } else if (checker.getNumFiles() < settings.getMinFiles()) {
             warningMessage = I18nProvider.getText("warnings.file_count", checker.getNumFiles());
         }
         
-        if (warningMessage != null) {
-            warningMessage += "\n" + I18nProvider.getText("warnings.submit.are_you_sure");
-            submit = JOptionPane.YES_OPTION == JOptionPane.showConfirmDialog(parent, warningMessage,
-                    I18nProvider.getText("warnings.title"), JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE);
-        }
-            
-        return submit;
+        return warningMessage;
     }
     
     /**
-     * Handles the submit button being pressed.
+     * Handles the submit button being pressed. The submission folder is checked in the background, using a
+     * bounded {@link FolderCheck} so that accidentally selecting a huge folder does not block. If the folder is
+     * within the limits, it is scanned into a {@link SubmissionManifest} that is re-used for the submission.
      * 
      * @param evt The event of the button-press.
      */
     private void submit(ActionEvent evt) {
         parent.clearLog();
         
-        if (model.getDirectoryToSubmit() == null) { // TODO
+        File folder = model.getDirectoryToSubmit();
+        if (folder == null) { // TODO
             parent.showErrorMessage(I18nProvider.getText("gui.error.no_path_given"));
+        } else if (!folder.isDirectory()) {
+            parent.showErrorMessage(I18nProvider.getText("errors.messages.not_a_direcotry",
+                    folder.getAbsolutePath()));
         } else {
             parent.toggleButtons(false);
             parent.addProgressAnimator((JButton) evt.getSource());
             
-            if (checkSubmissionFolder(model.getDirectoryToSubmit())) {
-                parent.showInfoMessage(I18nProvider.getText("gui.log.submitting"));
-                
-                new Thread(() -> {
-                    model.submit();
-                    SwingUtilities.invokeLater(() -> parent.toggleButtons(true));
-                }).start();
-            } else {
-                parent.toggleButtons(true);
+            model.supplyAsync("FolderCheck", () -> scanSubmissionFolder(folder))
+                .whenCompleteAsync(this::confirmAndSubmit, EDT);
+        }
+    }
+    
+    /**
+     * Checks the submission folder and, if it is within the limits, creates its manifest in the same walk. Runs in
+     * the background.
+     * 
+     * @param folder The folder to submit.
+     * 
+     * @return The result of checking and scanning the folder.
+     */
+    private ScannedFolder scanSubmissionFolder(File folder) {
+        FolderCheckSettings settings = ToolSettings.getConfig().getFolderCheckSettings();
+        FolderCheck checker = new FolderCheck(folder, settings.getMaxFiles(), settings.getMaxSize());
+        return new ScannedFolder(checker, checker.getManifest());
+    }
+    
+    /**
+     * Second part of {@link #submit(ActionEvent)}, runs in the EDT after the folder was checked. Asks the user for
+     * confirmation if the folder seems unusual, then starts the submission.
+     * 
+     * @param scanned The result of checking and scanning the folder, or <code>null</code> if reading failed.
+     * @param exception The exception if reading the folder failed, otherwise <code>null</code>.
+     */
+    private void confirmAndSubmit(ScannedFolder scanned, Throwable exception) {
+        boolean readable = exception == null;
+        boolean submit = readable;
+        
+        if (!readable) {
+            LOGGER.error("Couldn't read submission folder", exception);
+            parent.showErrorMessage(I18nProvider.getText("gui.error.unexpected_error"));
+        } else {
+            String warningMessage = createSubmissionFolderWarning(scanned.checker);
+            if (warningMessage != null) {
+                warningMessage += "\n" + I18nProvider.getText("warnings.submit.are_you_sure");
+                submit = JOptionPane.YES_OPTION == JOptionPane.showConfirmDialog(parent, warningMessage,
+                        I18nProvider.getText("warnings.title"), JOptionPane.YES_NO_OPTION,
+                        JOptionPane.ERROR_MESSAGE);
             }
         }
         
+        if (submit) {
+            parent.showInfoMessage(I18nProvider.getText("gui.log.submitting"));
+            
+            SubmissionManifest manifest = scanned.manifest;
+            Runnable submission = () -> {
+                if (manifest != null) {
+                    model.submit(manifest);
+                } else {
+                    // limits were exceeded, but the user confirmed; scan the complete folder now
+                    model.submit();
+                }
+            };
+            model.runAsync("Submit", submission).whenCompleteAsync(this::submitted, EDT);
+        } else {
+            parent.toggleButtons(true);
+        }
+    }
+    
+    /**
+     * Last part of {@link #submit(ActionEvent)}, runs in the EDT after the submission finished.
+     * 
+     * @param ignored The result of the submission, always <code>null</code>.
+     * @param exception An unexpected exception that aborted the submission, or <code>null</code>.
+     */
+    private void submitted(Void ignored, Throwable exception) {
+        if (exception != null) {
+            LOGGER.error("Unexpected error during submission", exception);
+            parent.showErrorMessage(I18nProvider.getText("gui.error.unexpected_error"));
+        }
+        parent.toggleButtons(true);
+    }
+    
+    /**
+     * Checks in the background that the given folder is empty, so that a replay (or review) can be checked into it.
+     * If the folder is not empty, asks the user to confirm that the contents will be deleted.
+     * 
+     * @param folder The folder to check.
+     * 
+     * @return Completes in the EDT with <code>true</code> if the folder is empty or the user explicitly confirmed the
+     *      deletion. Never completes exceptionally.
+     */
+    private CompletableFuture<Boolean> checkFolderEmptyForReplay(File folder) {
+        return model.supplyAsync("FolderCheck", () -> isEmpty(folder))
+            .handleAsync(this::confirmOverride, EDT);
     }
     
     /**
-     * Checks that the given folder is empty, so that a replay (or review) can be checked into it. If the folder is not
-     * empty, asks the user to confirm that the contents will be deleted.
+     * Checks whether the given folder is empty. Only reads the first entry of the folder, instead of walking all
+     * of its content.
      * 
      * @param folder The folder to check.
      * 
+     * @return <code>true</code> if the folder does not exist or contains neither files nor sub-folders.
+     * 
+     * @throws IOException If the content of the folder cannot be listed.
+     */
+    private static boolean isEmpty(File folder) throws IOException {
+        boolean empty = true;
+        if (folder.isDirectory()) {
+            try (Stream<Path> content = Files.list(folder.toPath())) {
+                empty = !content.findAny().isPresent();
+            }
+        }
+        return empty;
+    }
+    
+    /**
+     * Second part of {@link #checkFolderEmptyForReplay(File)}, runs in the EDT after the folder was checked.
+     * 
+     * @param empty Whether the folder is empty.
+     * @param exception The exception if checking the folder failed, otherwise <code>null</code>.
+     * 
      * @return <code>true</code> if the folder is empty or the user explicitly confirmed the deletion.
      */
-    private boolean checkFolderEmptyForReplay(File folder) {
+    private boolean confirmOverride(Boolean empty, Throwable exception) {
         boolean allowed = true;
         
-        FolderCheck checker = new FolderCheck(folder);
-        
-        if (checker.getNumFiles() > 0) {
-            String warningMessage = I18nProvider.getText("warnings.checkout.overrides_non_empty_folder",
-                    checker.getNumFiles()) + "\n" + I18nProvider.getText("warnings.checkout.are_you_sure");
+        if (exception != null) {
+            LOGGER.error("Couldn't check folder for replay", exception);
+            parent.showErrorMessage(I18nProvider.getText("gui.error.unexpected_error"));
+            allowed = false;
+            
+        } else if (!empty) {
+            String warningMessage = I18nProvider.getText("warnings.checkout.overrides_non_empty_folder")
+                    + "\n" + I18nProvider.getText("warnings.checkout.are_you_sure");
             
             allowed = JOptionPane.YES_OPTION == JOptionPane.showConfirmDialog(parent, warningMessage,
                     I18nProvider.getText("warnings.title"), JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         }
-            
         
         return allowed;
     }
 
     /**
-     * Creates and handles the replay previous version dialog.
+     * Creates and handles the replay previous version dialog. The buttons stay disabled until the selected replay
+     * finished.
      * 
      * @param evt The event that caused this dialog to open.
      */
@@ -208,12 +319,73 @@ class ButtonListener implements ActionListener {
             parent.toggleButtons(false);
             parent.addProgressAnimator((JButton) evt.getSource());
             
-            if (checkFolderEmptyForReplay(model.getDirectoryToSubmit())) {
-                new ReplayDialog(parent, model);
-            }
+            checkFolderEmptyForReplay(model.getDirectoryToSubmit()).thenAcceptAsync(this::showReplayDialog, EDT);
+        }
+    }
+    
+    /**
+     * Second part of {@link #openReplayDialog(ActionEvent)}, runs in the EDT after the folder was checked.
+     * 
+     * @param allowed Whether the folder may be overridden by the replay.
+     */
+    private void showReplayDialog(boolean allowed) {
+        CompletableFuture<Void> replay = CompletableFuture.completedFuture(null);
+        if (allowed) {
+            replay = new ReplayDialog(parent, model).getReplay();
+        }
+        replay.whenCompleteAsync((ignored, exception) -> parent.toggleButtons(true), EDT);
+    }
+    
+    /**
+     * Handles the review button being pressed. Checks the folder and fetches the reviewed assignments in the
+     * background, then lets the user select the review to replay.
+     * 
+     * @param evt The event of the button-press.
+     */
+    private void review(ActionEvent evt) {
+        parent.clearLog();
+        if (model.getDirectoryToSubmit() == null) { // TODO
+            parent.showErrorMessage(I18nProvider.getText("gui.error.no_path_given"));
+        } else {
+            parent.toggleButtons(false);
+            parent.addProgressAnimator((JButton) evt.getSource());
+            
+            checkFolderEmptyForReplay(model.getDirectoryToSubmit())
+                .thenAcceptAsync(this::fetchReviewedAssignments, EDT);
+        }
+    }
+    
+    /**
+     * Second part of {@link #review(ActionEvent)}, runs in the EDT after the folder was checked.
+     * 
+     * @param allowed Whether the folder may be overridden by the review.
+     */
+    private void fetchReviewedAssignments(boolean allowed) {
+        if (allowed) {
+            model.supplyAsync("ReviewedAssignments", model::getAssignmentsInReviewedState)
+                .whenCompleteAsync(this::showReviewDialog, EDT);
+        } else {
             parent.toggleButtons(true);
         }
     }
+    
+    /**
+     * Last part of {@link #review(ActionEvent)}, runs in the EDT after the reviewed assignments were fetched.
+     * 
+     * @param assignments The reviewed assignments, or <code>null</code> in case of an error.
+     * @param exception An unexpected exception while fetching the assignments, or <code>null</code>.
+     */
+    private void showReviewDialog(List<Assignment> assignments, Throwable exception) {
+        parent.toggleButtons(true);
+        if (exception != null) {
+            LOGGER.error("Unexpected error while getting reviewed assignments", exception);
+            parent.showErrorMessage(I18nProvider.getText("gui.error.unexpected_error"));
+        } else if (assignments == null || assignments.isEmpty()) {
+            parent.showInfoMessage(I18nProvider.getText("gui.error.no_review_repos"));
+        } else {
+            new ReviewDialog(parent, model, assignments);
+        }
+    }
 
     /**
      * Creates and handles a FileChooser to select a local folder for submission / replaying.
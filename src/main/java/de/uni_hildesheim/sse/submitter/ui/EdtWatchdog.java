@@ -0,0 +1,216 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.InputEvent;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.swing.AbstractButton;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Detects events that block the event dispatch thread for longer than a threshold, so that the GUI does not
+ * respond. Replaces the system event queue and measures the dispatch of each event. A background thread samples the
+ * stack trace of the event dispatch thread as soon as a dispatch exceeds the threshold; when the dispatch ends, the
+ * stall is logged with its duration and the sampled stack trace.
+ * <p>
+ * Stalls are counted per action: for events of buttons (e.g. clicking or pressing a key on them) the action command
+ * of the button, otherwise the type of the event. While a modal dialog runs its own event loop inside a dispatch,
+ * the waiting for events does not count as stall.
+ *
+ * @author Adam Krafczyk
+ */
+public class EdtWatchdog extends EventQueue {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private long thresholdNanos;
+
+    private ScheduledExecutorService monitor;
+
+    private Deque<Dispatch> dispatches = new ArrayDeque<>();
+
+    private volatile Dispatch busy;
+
+    private Map<String, LongAdder> stalls = new ConcurrentHashMap<>();
+
+    /**
+     * The dispatch of a single event. The time is measured in segments; a new segment starts when a nested event
+     * loop (e.g. of a modal dialog) returns.
+     */
+    private static final class Dispatch {
+
+        private String action;
+
+        private Thread thread;
+
+        private volatile long segmentStart;
+
+        private volatile StackTraceElement[] sampledStack;
+
+        /**
+         * Starts a dispatch in the calling thread.
+         *
+         * @param action The action that the event belongs to.
+         */
+        private Dispatch(String action) {
+            this.action = action;
+            this.thread = Thread.currentThread();
+            this.segmentStart = System.nanoTime();
+        }
+
+    }
+
+    /**
+     * Creates a watchdog. Call {@link #install(long)} to create an active watchdog.
+     *
+     * @param thresholdMillis The duration after which a dispatch is considered a stall, in milliseconds.
+     */
+    EdtWatchdog(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * Creates a watchdog and installs it as the system event queue.
+     *
+     * @param thresholdMillis The duration after which a dispatch is considered a stall, in milliseconds.
+     *
+     * @return The installed watchdog.
+     */
+    public static EdtWatchdog install(long thresholdMillis) {
+        EdtWatchdog watchdog = new EdtWatchdog(thresholdMillis);
+        watchdog.monitor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "EdtWatchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, thresholdMillis / 4);
+        watchdog.monitor.scheduleAtFixedRate(watchdog::sample, period, period, TimeUnit.MILLISECONDS);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog);
+        LOGGER.debug("Reporting event dispatches longer than {} ms", thresholdMillis);
+        return watchdog;
+    }
+
+    /**
+     * Removes this watchdog from the system event queue and stops sampling.
+     */
+    public void uninstall() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+        pop();
+    }
+
+    /**
+     * Returns the number of stalls detected so far.
+     *
+     * @return The number of stalls per action, sorted by action.
+     */
+    public Map<String, Long> getStallCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        stalls.forEach((action, count) -> result.put(action, count.sum()));
+        return result;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        Dispatch dispatch = new Dispatch(describe(event));
+        dispatches.push(dispatch);
+        busy = dispatch;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            dispatches.pop();
+            endSegment(dispatch);
+
+            // an enclosing dispatch continues after its nested event loop returned
+            Dispatch outer = dispatches.peek();
+            if (outer != null) {
+                outer.segmentStart = System.nanoTime();
+                outer.sampledStack = null;
+            }
+            busy = outer;
+        }
+    }
+
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        // called by a nested event loop while a dispatch is running: waiting for events is not a stall
+        Dispatch waiting = busy;
+        if (waiting != null && waiting.thread == Thread.currentThread()) {
+            busy = null;
+            endSegment(waiting);
+        }
+        return super.getNextEvent();
+    }
+
+    /**
+     * Describes the action that an event belongs to.
+     *
+     * @param event The dispatched event.
+     *
+     * @return The action command of the button that is the source of the event, or the type of the event.
+     */
+    static String describe(AWTEvent event) {
+        String result;
+        if (event instanceof InputEvent && event.getSource() instanceof AbstractButton) {
+            result = ((AbstractButton) event.getSource()).getActionCommand();
+        } else {
+            result = event.getClass().getSimpleName();
+        }
+        return result;
+    }
+
+    /**
+     * Samples the stack trace of the event dispatch thread if the current dispatch exceeds the threshold. Called
+     * periodically by the monitor thread.
+     */
+    private void sample() {
+        Dispatch dispatch = busy;
+        if (dispatch != null && dispatch.sampledStack == null
+                && System.nanoTime() - dispatch.segmentStart >= thresholdNanos) {
+            StackTraceElement[] stack = dispatch.thread.getStackTrace();
+            // only keep the sample if the dispatch is still running, otherwise it shows an unrelated event
+            if (busy == dispatch) {
+                dispatch.sampledStack = stack;
+            }
+        }
+    }
+
+    /**
+     * Ends the current time segment of a dispatch and logs it if it exceeded the threshold.
+     *
+     * @param dispatch The dispatch, either finished or continuing in a nested event loop.
+     */
+    private void endSegment(Dispatch dispatch) {
+        long duration = System.nanoTime() - dispatch.segmentStart;
+        if (duration >= thresholdNanos) {
+            LongAdder count = stalls.computeIfAbsent(dispatch.action, (action) -> new LongAdder());
+            count.increment();
+
+            StringBuilder message = new StringBuilder("Event dispatch thread blocked for ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(duration)).append(" ms by ").append(dispatch.action)
+                    .append(" (stall #").append(count.sum()).append(" of this action)");
+            StackTraceElement[] stack = dispatch.sampledStack;
+            if (stack != null) {
+                message.append(", sampled stack trace:");
+                for (StackTraceElement element : stack) {
+                    message.append("\n\tat ").append(element);
+                }
+            }
+            LOGGER.warn(message);
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import java.awt.event.AdjustmentListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JScrollBar;
+import javax.swing.SwingUtilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.uni_hildesheim.sse.submitter.svn.RemoteRepository;
+import de.uni_hildesheim.sse.submitter.svn.Revision;
+import net.ssehub.exercisesubmitter.protocol.frontend.Assignment;
+
+/**
+ * A list model of the revision history of an exercise, newest revision first. The history is loaded page by page in
+ * the background by the {@link StandaloneSubmitter}; revisions are added to the model as soon as they are received.
+ * Older pages are loaded when the user scrolls to the end of the list, see {@link #loadOnScroll(JScrollBar)}.
+ * <p>
+ * All methods must be called in the event dispatch thread.
+ *
+ * @author Adam Krafczyk
+ */
+class HistoryListModel extends AbstractListModel<Revision> {
+
+    /**
+     * The number of revisions fetched from the server at once.
+     */
+    static final int PAGE_SIZE = 50;
+
+    private static final long serialVersionUID = 8061338512958817304L;
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The number of pixels before the end of the scroll area at which the next page is loaded.
+     */
+    private static final int SCROLL_THRESHOLD = 50;
+
+    private StandaloneSubmitter model;
+
+    private Assignment exercise;
+
+    private List<Revision> revisions = new ArrayList<>();
+
+    private long nextStart = RemoteRepository.HEAD;
+
+    private CompletableFuture<Long> loading;
+
+    private boolean detached;
+
+    private Runnable pageListener;
+
+    private JScrollBar scrollBar;
+
+    private AdjustmentListener scrollListener;
+
+    /**
+     * Creates an empty model for the history of the given exercise. Call {@link #loadNextPage()} to start loading.
+     *
+     * @param model The model to fetch the history from.
+     * @param exercise The exercise to show the history of.
+     */
+    HistoryListModel(StandaloneSubmitter model, Assignment exercise) {
+        this.model = model;
+        this.exercise = exercise;
+    }
+
+    /**
+     * Sets a listener that is called each time loading a page has finished, successfully or not.
+     *
+     * @param pageListener The listener, called in the event dispatch thread. May be <code>null</code>.
+     */
+    void setPageListener(Runnable pageListener) {
+        this.pageListener = pageListener;
+    }
+
+    /**
+     * Loads the next (older) page of revisions in the background. Does nothing if a page is currently loading or if
+     * all revisions are loaded.
+     */
+    void loadNextPage() {
+        if (loading == null && !detached && !isComplete()) {
+            long start = nextStart;
+            loading = model.supplyAsync("History", () -> model.getHistory(exercise, start, PAGE_SIZE,
+                (revision) -> SwingUtilities.invokeLater(() -> add(revision))));
+            loading.whenCompleteAsync(this::pageLoaded, SwingUtilities::invokeLater);
+        }
+    }
+
+    /**
+     * Returns whether all revisions have been loaded.
+     *
+     * @return <code>true</code> if there are no older revisions on the server.
+     */
+    boolean isComplete() {
+        return nextStart == RemoteRepository.NO_MORE_REVISIONS;
+    }
+
+    /**
+     * Loads the next page whenever the given scroll bar is moved near its end, or if the loaded revisions don't fill
+     * the scroll area yet.
+     *
+     * @param scrollBar The vertical scroll bar of the component that displays this model.
+     */
+    void loadOnScroll(JScrollBar scrollBar) {
+        this.scrollBar = scrollBar;
+        this.scrollListener = (event) -> {
+            if (!event.getValueIsAdjusting() && isNearEnd()) {
+                loadNextPage();
+            }
+        };
+        scrollBar.addAdjustmentListener(scrollListener);
+    }
+
+    /**
+     * Stops loading further pages, e.g. because the component that displays this model is no longer visible.
+     * A page that is currently loading is cancelled.
+     */
+    void detach() {
+        detached = true;
+        if (loading != null) {
+            loading.cancel(true);
+        }
+        if (scrollBar != null) {
+            scrollBar.removeAdjustmentListener(scrollListener);
+            scrollBar = null;
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return revisions.size();
+    }
+
+    @Override
+    public Revision getElementAt(int index) {
+        return revisions.get(index);
+    }
+
+    /**
+     * Adds a single revision that was received from the server.
+     *
+     * @param revision The revision to add at the end of the list.
+     */
+    private void add(Revision revision) {
+        if (!detached) {
+            revisions.add(revision);
+            fireIntervalAdded(this, revisions.size() - 1, revisions.size() - 1);
+        }
+    }
+
+    /**
+     * Called when loading a page has finished.
+     *
+     * @param next The start revision of the next page, as returned by the server.
+     * @param exception The exception if loading failed or was cancelled, otherwise <code>null</code>.
+     */
+    private void pageLoaded(Long next, Throwable exception) {
+        loading = null;
+        if (!detached) {
+            if (exception != null) {
+                LOGGER.error("Could not load history of " + exercise.getName(), exception);
+            } else {
+                nextStart = next;
+                // wait for the layout of the new elements before checking whether the scroll area is filled
+                SwingUtilities.invokeLater(() -> {
+                    if (scrollBar != null && isNearEnd()) {
+                        loadNextPage();
+                    }
+                });
+            }
+            if (pageListener != null) {
+                pageListener.run();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the scroll bar is at (or near) its end, or the content doesn't need scrolling at all.
+     *
+     * @return Whether more revisions should be displayed.
+     */
+    private boolean isNearEnd() {
+        return scrollBar.getValue() + scrollBar.getVisibleAmount() >= scrollBar.getMaximum() - SCROLL_THRESHOLD;
+    }
+
+}
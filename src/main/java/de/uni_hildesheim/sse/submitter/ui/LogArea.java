@@ -3,23 +3,36 @@ package de.uni_hildesheim.sse.submitter.ui;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.JPanel;
+import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextPane;
+import javax.swing.SwingUtilities;
+import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
-import javax.swing.text.Style;
+import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
-import javax.swing.text.StyleContext;
 import javax.swing.text.StyledDocument;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import de.uni_hildesheim.sse.submitter.settings.LogSettings;
 import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
 
 /**
  * Text Area for logging messages.
+ * <p>
+ * The shown text is bounded by a {@link LogBuffer}: if more lines or characters than configured in the
+ * {@link LogSettings} are appended, the oldest lines are removed. Appended messages are collected and inserted into
+ * the document once per event dispatch thread cycle, so that many short messages do not cause many layouts.
+ * All methods must be called in the event dispatch thread.
+ * 
  * @author Jonathan Lechner
  *
  */
@@ -28,15 +41,58 @@ public class LogArea extends JPanel {
 
     private static final long serialVersionUID = -7516986866802637007L;
     
+    private static final int DEFAULT_MAX_LINES = 5000;
+    
+    private static final long DEFAULT_MAX_SIZE = 1024 * 1024;
+    
     private JTextPane textPane;
     private JScrollPane scrollPane;
     private StyledDocument document;
-    private Style style;
+    
+    private Map<String, AttributeSet> styles = new HashMap<>();
+    
+    private LogBuffer buffer;
+    private List<PendingMessage> pending = new ArrayList<>();
+    private boolean flushScheduled;
     
     /**
-     * Constructor sets the content of this Pane.
+     * A message that is not yet inserted into the document.
+     */
+    private static final class PendingMessage {
+        
+        private String text;
+        
+        private AttributeSet style;
+        
+        /**
+         * Creates a pending message.
+         * 
+         * @param text The text of the message.
+         * @param style The style of the text.
+         */
+        private PendingMessage(String text, AttributeSet style) {
+            this.text = text;
+            this.style = style;
+        }
+        
+    }
+    
+    /**
+     * Constructor sets the content of this Pane. The size of the log is limited as configured in the
+     * {@link LogSettings}.
      */
     public LogArea() {
+        this(getMaxLines(), getMaxSize());
+    }
+    
+    /**
+     * Constructor sets the content of this Pane.
+     * 
+     * @param maxLines The maximum number of lines to show.
+     * @param maxSize The maximum number of characters to show.
+     */
+    public LogArea(int maxLines, long maxSize) {
+        buffer = new LogBuffer(maxLines, maxSize);
         textPane = new JTextPane();
         
         scrollPane = new JScrollPane();
@@ -48,7 +104,6 @@ public class LogArea extends JPanel {
         
         textPane.setPreferredSize(new Dimension(500, 500));
         document = textPane.getStyledDocument();
-        style = StyleContext.getDefaultStyleContext().getStyle(StyleContext.DEFAULT_STYLE);
         
         this.add(scrollPane, BorderLayout.CENTER);
     }
@@ -58,15 +113,7 @@ public class LogArea extends JPanel {
      * @param message text that should get appended.
      */
     public void append(String message) {
-        
-        // gets default Style
-        getStyle("", false);
-        
-        try {
-            document.insertString(document.getLength(), message, style);
-        } catch (BadLocationException exc) {
-            LOGGER.error("Could not append log message at the end of the text", exc);
-        }
+        append(message, "", false);
     }
     
     /**
@@ -76,33 +123,95 @@ public class LogArea extends JPanel {
      * @param bold true if text should displayed bold.
      */
     public void append(String message, String color, boolean bold) {
-        
-        getStyle(color, bold);
-        
-        try {
-            document.insertString(document.getLength(), message, style);
-        } catch (BadLocationException exc) {
-            LOGGER.error("Could not append log message at the end of the text", exc);
+        if (!message.isEmpty()) {
+            pending.add(new PendingMessage(message, getStyle(color, bold)));
+            if (!flushScheduled) {
+                flushScheduled = true;
+                SwingUtilities.invokeLater(this::flush);
+            }
         }
     }
     
+    /**
+     * Returns the vertical scroll bar of this area.
+     * 
+     * @return The vertical scroll bar.
+     */
+    JScrollBar getVerticalScrollBar() {
+        return scrollPane.getVerticalScrollBar();
+    }
+    
+    /**
+     * Returns an estimate of the memory used by the shown log.
+     * 
+     * @return The estimated memory use in bytes.
+     */
+    public long getMemoryUsage() {
+        return buffer.getMemoryUsage();
+    }
+    
     /**
      * Empty the TextArea.
      */
     public void clear() {
+        pending.clear();
+        buffer.clear();
         textPane.setText("");
     }
     
+    /**
+     * Inserts all pending messages into the document and removes the lines evicted from the {@link LogBuffer}.
+     */
+    private void flush() {
+        flushScheduled = false;
+        int evicted = 0;
+        try {
+            for (PendingMessage message : pending) {
+                document.insertString(document.getLength(), message.text, message.style);
+                evicted += buffer.add(message.text);
+            }
+            if (evicted > 0) {
+                document.remove(0, Math.min(evicted, document.getLength()));
+            }
+        } catch (BadLocationException exc) {
+            LOGGER.error("Could not append log message at the end of the text", exc);
+        }
+        pending.clear();
+    }
+    
     /**
      * Returns Style for message type.
      * @param color color that should get applied.
      * @param bold true if text should displayed bold.
+     * @return The style, shared by all messages with the same color and weight.
      */
-    private void getStyle(String color, boolean bold) {
-        if (color.equals("")) {
-            color = ToolSettings.getConfig().getColorSettings().getDefaultColor();
-        }
-        StyleConstants.setForeground(style, Color.decode(color));
-        StyleConstants.setBold(style, bold);
+    private AttributeSet getStyle(String color, boolean bold) {
+        String foreground = color.equals("") ? ToolSettings.getConfig().getColorSettings().getDefaultColor() : color;
+        return styles.computeIfAbsent(foreground + (bold ? ";bold" : ""), (key) -> {
+            SimpleAttributeSet style = new SimpleAttributeSet();
+            StyleConstants.setForeground(style, Color.decode(foreground));
+            StyleConstants.setBold(style, bold);
+            return style;
+        });
+    }
+    
+    /**
+     * Reads the configured maximum number of lines.
+     * 
+     * @return The configured limit, or a default if not configured.
+     */
+    private static int getMaxLines() {
+        LogSettings settings = ToolSettings.getConfig().getLogSettings();
+        return settings != null && settings.getMaxLines() > 0 ? settings.getMaxLines() : DEFAULT_MAX_LINES;
+    }
+    
+    /**
+     * Reads the configured maximum number of characters.
+     * 
+     * @return The configured limit, or a default if not configured.
+     */
+    private static long getMaxSize() {
+        LogSettings settings = ToolSettings.getConfig().getLogSettings();
+        return settings != null && settings.getMaxSize() > 0 ? settings.getMaxSize() : DEFAULT_MAX_SIZE;
     }
 }
@@ -0,0 +1,153 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Keeps track of the text fragments shown in a {@link LogArea}. The sizes of the fragments are kept in a ring buffer
+ * in the order they were appended; if the log holds more lines or characters than allowed, the oldest lines are
+ * evicted.
+ * <p>
+ * The buffer does not hold the text itself, which is only stored in the displayed document. It only records the
+ * lengths and line breaks of the fragments, to know how many characters have to be removed from the start of the
+ * document when the oldest lines are evicted.
+ *
+ * @author Adam Krafczyk
+ */
+class LogBuffer {
+
+    /**
+     * Rough estimate of the memory used per fragment besides its characters, in bytes: the fragment object in the
+     * buffer and the element structure of the styled document.
+     */
+    private static final int FRAGMENT_OVERHEAD = 128;
+
+    private int maxLines;
+
+    private long maxChars;
+
+    private Deque<Fragment> fragments = new ArrayDeque<>();
+
+    private int lines;
+
+    private long chars;
+
+    /**
+     * The size of a single appended text. The text itself is only held by the displayed document.
+     */
+    private static final class Fragment {
+
+        private int length;
+
+        private int newlines;
+
+        private boolean endsWithNewline;
+
+        /**
+         * Creates a fragment.
+         *
+         * @param text The appended text.
+         */
+        private Fragment(String text) {
+            this.length = text.length();
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    newlines++;
+                }
+            }
+            this.endsWithNewline = text.endsWith("\n");
+        }
+
+    }
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param maxLines The maximum number of lines to keep.
+     * @param maxChars The maximum number of characters to keep.
+     */
+    LogBuffer(int maxLines, long maxChars) {
+        this.maxLines = maxLines;
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Appends a text fragment and evicts the oldest lines, if the buffer is full. The newest fragment is never
+     * evicted.
+     *
+     * @param text The appended text.
+     *
+     * @return The number of characters that were evicted from the start of the buffer.
+     */
+    int add(String text) {
+        Fragment fragment = new Fragment(text);
+        fragments.addLast(fragment);
+        lines += fragment.newlines;
+        chars += fragment.length;
+
+        int evicted = 0;
+        boolean atLineStart = true;
+        while (fragments.size() > 1 && (lines > maxLines || chars > maxChars)) {
+            Fragment oldest = evictOldest();
+            evicted += oldest.length;
+            atLineStart = oldest.endsWithNewline;
+        }
+        // don't leave the rest of a partially evicted line at the top
+        while (fragments.size() > 1 && !atLineStart) {
+            Fragment oldest = evictOldest();
+            evicted += oldest.length;
+            atLineStart = oldest.endsWithNewline;
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes all fragments.
+     */
+    void clear() {
+        fragments.clear();
+        lines = 0;
+        chars = 0;
+    }
+
+    /**
+     * Returns the number of complete lines in this buffer.
+     *
+     * @return The number of line breaks.
+     */
+    int getLineCount() {
+        return lines;
+    }
+
+    /**
+     * Returns the number of characters in this buffer.
+     *
+     * @return The number of characters.
+     */
+    long getCharCount() {
+        return chars;
+    }
+
+    /**
+     * Returns an estimate of the memory used by the buffered text, including the document that displays it.
+     *
+     * @return The estimated memory use in bytes.
+     */
+    long getMemoryUsage() {
+        // the document stores the text as UTF-16 characters
+        return chars * Character.BYTES + (long) fragments.size() * FRAGMENT_OVERHEAD;
+    }
+
+    /**
+     * Removes the oldest fragment.
+     *
+     * @return The removed fragment.
+     */
+    private Fragment evictOldest() {
+        Fragment oldest = fragments.removeFirst();
+        lines -= oldest.newlines;
+        chars -= oldest.length;
+        return oldest;
+    }
+
+}
@@ -30,13 +30,7 @@ import javax.swing.PopupFactory;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
 import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
-import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
-import de.uni_hildesheim.sse.submitter.svn.ServerNotFoundException;
-import net.ssehub.exercisesubmitter.protocol.backend.UnknownCredentialsException;
 
 /**
  * A dialog where group name, name and password can be specified.
@@ -48,8 +42,6 @@ public class LoginDialog extends JDialog implements ActionListener {
 
     private static final long serialVersionUID = 365531812487797101L;
     
-    private static final Logger LOGGER = LogManager.getLogger();
-    
     private StandaloneSubmitter model;
     
     private JFrame parent;
@@ -208,49 +200,18 @@ public class LoginDialog extends JDialog implements ActionListener {
         ButtonProgressAnimator animator = new ButtonProgressAnimator(loginButton);
         animator.start();
         
-        new Thread(() -> {
-            String errorMessage = null;
-            try {
-                // First check: Check that credentials are supported by REST servers
-                if (model.logIntoStudentManagementSystem()) {
-                    try {
-                        // Second check: log into the SVN repository
-                        if (!model.createSvnRepository(ToolSettings.getConfig().getRepositoryURL())) {
-                            errorMessage = I18nProvider.getText("gui.error.login_wrong_repository",
-                                    ToolSettings.getConfig().getCourse().getTeamName(),
-                                    ToolSettings.getConfig().getCourse().getTeamMail());
-                        }
-                    } catch (ServerNotFoundException e) {
-                        LOGGER.error("Could not create RemoteRepository", e);
-                        errorMessage = I18nProvider.getText("gui.error.server_not_found") + " " + e.getAddress();
-                    }
-                } else {
-                    errorMessage = I18nProvider.getText("gui.error.unknown_error");
-                }
-            } catch (UnknownCredentialsException e) {
-                LOGGER.error("Could not login", e);
-                errorMessage = I18nProvider.getText("gui.error.unknown_credentials");
-            } catch (net.ssehub.exercisesubmitter.protocol.backend.ServerNotFoundException e) {
-                LOGGER.error("Could not login", e);
-                errorMessage = I18nProvider.getText("gui.error.system_unreachable");
-                
-            } finally {
-                String result = errorMessage;
-                SwingUtilities.invokeLater(() -> {
-                    animator.stop();
-                    loginButton.setEnabled(true);
-                    
-                    if (result == null) {
-                        dispose();
-                    } else {
-                        errorMessageLabel.setText(result);
-                        pack();
-                        setLocationRelativeTo(parent);
-                    }
-                });
-            }
+        model.loginAsync().thenAcceptAsync((errorMessage) -> {
+            animator.stop();
+            loginButton.setEnabled(true);
             
-        }).start();
+            if (errorMessage == null) {
+                dispose();
+            } else {
+                errorMessageLabel.setText(errorMessage);
+                pack();
+                setLocationRelativeTo(parent);
+            }
+        }, SwingUtilities::invokeLater);
     }
     
     /**
@@ -2,12 +2,14 @@ package de.uni_hildesheim.sse.submitter.ui;
 
 import java.awt.BorderLayout;
 import java.awt.Container;
+import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CompletableFuture;
 
-import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JList;
@@ -37,8 +39,10 @@ class ReplayDialog extends JDialog implements ActionListener {
     /*
      * GUI-Elements
      */
-    private JList<String> list;
-    private List<Revision> revisions;
+    private JList<Revision> list;
+    private HistoryListModel revisions;
+    
+    private CompletableFuture<Void> replay = CompletableFuture.completedFuture(null);
     
     /**
      * Creates a {@link ReplayDialog} with the given parent.
@@ -63,25 +67,30 @@ class ReplayDialog extends JDialog implements ActionListener {
         bottomPanel.add(okButton);
         bottomPanel.add(cancelButton);
         
-        revisions = model.getHistoryOfCurrentExercise();
-        if (revisions == null) {
-            return;
-        }
-        DefaultListModel<String> listModel = new DefaultListModel<String>();
-        for (int i = 0; i < revisions.size(); i++) {
-            listModel.add(i, revisions.get(i).toString());
-        }
-        list = new JList<String>(listModel);
+        // the history is filled in the background, newest first; older revisions are loaded when scrolling down
+        revisions = new HistoryListModel(model, model.getSelectedExercise());
+        list = new JList<Revision>(revisions);
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setPreferredSize(new Dimension(500, 250));
+        revisions.loadOnScroll(scrollPane.getVerticalScrollBar());
+        revisions.loadNextPage();
         
         Container contentPane = getContentPane();
         contentPane.setLayout(new BorderLayout());
         contentPane.add(bottomPanel, BorderLayout.SOUTH);
-        contentPane.add(new JScrollPane(list), BorderLayout.CENTER);
+        contentPane.add(scrollPane, BorderLayout.CENTER);
         
         pack();
         setLocationRelativeTo(parent);
         setTitle(I18nProvider.getText("gui.elements.select_replay"));
         setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent event) {
+                // stop loading the history, however the dialog was closed
+                revisions.detach();
+            }
+        });
         setModal(true);
         setVisible(true);
     }
@@ -91,12 +100,21 @@ class ReplayDialog extends JDialog implements ActionListener {
         if (evt.getActionCommand().equals(CANCEL_COMMAND)) {
             dispose();
         } else if (evt.getActionCommand().equals(OK_COMMAND) && !list.isSelectionEmpty()) {
-            long revision = revisions.get(list.getSelectedIndex()).getRevision();
+            long revision = list.getSelectedValue().getRevision();
             parent.clearLog();
             parent.showInfoMessage(I18nProvider.getText("gui.log.replaying"));
-            model.replaySubmission(revision);
+            replay = model.runAsync("Replay", () -> model.replaySubmission(revision));
             dispose();
         }
     }
     
+    /**
+     * Returns the replay that was started by this dialog. Must be called after the dialog was closed.
+     * 
+     * @return The replay running in the background, or a completed future if the user cancelled the dialog.
+     */
+    CompletableFuture<Void> getReplay() {
+        return replay;
+    }
+    
 }
@@ -0,0 +1,155 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableCellRenderer;
+
+import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.settings.UiColorSettings;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Severity;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Tool;
+
+/**
+ * Renders the cells of a {@link ResultTableModel}. Colors and texts for each {@link Tool} and {@link Severity} are
+ * computed once when the renderer is created, so that rendering a cell does not parse any settings. Rows of
+ * grouped descriptions are marked with an arrow, which shows whether the group is expanded.
+ *
+ * @author Adam Krafczyk
+ */
+class ResultCellRenderer extends DefaultTableCellRenderer {
+
+    private static final long serialVersionUID = 2291566046373370471L;
+
+    private static final String COLLAPSED = "\u25B8 ";
+
+    private static final String EXPANDED = "\u25BE ";
+
+    private Color defaultColor;
+
+    private Map<Tool, Color> toolColors = new EnumMap<>(Tool.class);
+
+    private Map<Tool, String> toolNames = new EnumMap<>(Tool.class);
+
+    private Map<Severity, Color> severityColors = new EnumMap<>(Severity.class);
+
+    private Map<Severity, String> severityNames = new EnumMap<>(Severity.class);
+
+    private String unspecifiedFile;
+
+    private Font plainFont;
+
+    private Font boldFont;
+
+    /**
+     * Creates a renderer.
+     *
+     * @param colors The color settings to use.
+     */
+    ResultCellRenderer(UiColorSettings colors) {
+        defaultColor = Color.decode(colors.getDefaultColor());
+        for (Tool tool : Tool.values()) {
+            toolColors.put(tool, Color.decode(colors.getColor(tool)));
+            toolNames.put(tool, getToolName(tool));
+        }
+        for (Severity severity : Severity.values()) {
+            severityNames.put(severity, getSeverityName(severity));
+        }
+        severityColors.put(Severity.ERROR, Color.decode(colors.getErrorColor()));
+        severityColors.put(Severity.WARNING, Color.decode(colors.getWarningColor()));
+        severityColors.put(Severity.UNKNOWN, defaultColor);
+        unspecifiedFile = I18nProvider.getText("gui.log.unspecified_files");
+    }
+
+    /**
+     * Returns the display name of the given tool.
+     *
+     * @param tool The tool.
+     *
+     * @return The localized name.
+     */
+    static String getToolName(Tool tool) {
+        return I18nProvider.getText("gui.tool." + tool.getToolName());
+    }
+
+    /**
+     * Returns the display name of the given severity.
+     *
+     * @param severity The severity.
+     *
+     * @return The localized name.
+     */
+    static String getSeverityName(Severity severity) {
+        return I18nProvider.getText("gui.severity." + severity.name().toLowerCase());
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus,
+            int row, int column) {
+
+        super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+        if (plainFont != table.getFont()) {
+            plainFont = table.getFont();
+            boldFont = plainFont.deriveFont(Font.BOLD);
+        }
+
+        int modelColumn = table.convertColumnIndexToModel(column);
+        Color foreground = defaultColor;
+        Font font = plainFont;
+        switch (modelColumn) {
+        case ResultTableModel.COLUMN_TOOL:
+            if (value != null) {
+                setText(toolNames.get(value));
+                foreground = toolColors.get(value);
+            }
+            font = boldFont;
+            break;
+        case ResultTableModel.COLUMN_SEVERITY:
+            if (value != null) {
+                setText(severityNames.get(value));
+                foreground = severityColors.get(value);
+            }
+            break;
+        case ResultTableModel.COLUMN_FILE:
+            if (value == null) {
+                setText(unspecifiedFile);
+            }
+            break;
+        default:
+            break;
+        }
+
+        setFont(font);
+        if (!isSelected) {
+            setForeground(foreground);
+        }
+        setToolTipText(modelColumn == ResultTableModel.COLUMN_MESSAGE ? getText() : null);
+        if (table.getModel() instanceof ResultTableModel) {
+            showGrouping((ResultTableModel) table.getModel(), table.convertRowIndexToModel(row), modelColumn);
+        }
+        return this;
+    }
+
+    /**
+     * Marks group rows with an arrow in the message column and leaves all cells of the group members empty, except
+     * their line.
+     *
+     * @param model The rendered model.
+     * @param modelRow The rendered row in the model.
+     * @param modelColumn The rendered column in the model.
+     */
+    private void showGrouping(ResultTableModel model, int modelRow, int modelColumn) {
+        if (model.isGroupMember(modelRow)) {
+            if (modelColumn != ResultTableModel.COLUMN_LINE) {
+                setText("");
+            }
+        } else if (model.isGroup(modelRow) && modelColumn == ResultTableModel.COLUMN_MESSAGE) {
+            setText((model.isExpanded(modelRow) ? EXPANDED : COLLAPSED) + getText());
+        }
+    }
+
+}
@@ -0,0 +1,335 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.swing.table.AbstractTableModel;
+
+import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorAggregator;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorGroup;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Severity;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Tool;
+
+/**
+ * A table model of the {@link ErrorDescription}s reported by the hook for a single submission. All descriptions are
+ * set as one batch, so that the table is only updated once.
+ * <p>
+ * Descriptions that only differ in their line are grouped into a single row (see {@link ErrorAggregator}). Such a
+ * group row can be expanded to show one row per description below it.
+ *
+ * @author Adam Krafczyk
+ */
+class ResultTableModel extends AbstractTableModel {
+
+    static final int COLUMN_TOOL = 0;
+
+    static final int COLUMN_SEVERITY = 1;
+
+    static final int COLUMN_FILE = 2;
+
+    static final int COLUMN_LINE = 3;
+
+    static final int COLUMN_MESSAGE = 4;
+
+    private static final long serialVersionUID = -3619232780946287512L;
+
+    private static final String[] COLUMN_KEYS = {
+        "gui.results.tool", "gui.results.severity", "gui.results.file", "gui.results.line", "gui.results.message"
+    };
+
+    private static final Class<?>[] COLUMN_CLASSES = {
+        Tool.class, Severity.class, String.class, Line.class, String.class
+    };
+
+    private String[] columnNames = new String[COLUMN_KEYS.length];
+
+    private List<Row> rows = new ArrayList<>();
+
+    private Set<ErrorGroup> expanded = new HashSet<>();
+
+    private int totalCount;
+
+    /**
+     * A row of this model.
+     */
+    private static final class Row {
+
+        private ErrorGroup group;
+
+        private ErrorDescription description;
+
+        private String message;
+
+        private Line line;
+
+        /**
+         * Creates a row.
+         *
+         * @param group The group of the shown description.
+         * @param description The description shown in this row, or <code>null</code> for a group row.
+         * @param message The text of the message column.
+         * @param line The value of the line column.
+         */
+        private Row(ErrorGroup group, ErrorDescription description, String message, Line line) {
+            this.group = group;
+            this.description = description;
+            this.message = message;
+            this.line = line;
+        }
+
+    }
+
+    /**
+     * The value of the line column. Besides the shown line, it knows the group of its row, so that sorting by line
+     * sorts the groups by their first line and keeps the members of an expanded group together below their group row.
+     */
+    static final class Line {
+
+        private int groupLine;
+
+        private int groupIndex;
+
+        private int line;
+
+        private boolean member;
+
+        /**
+         * Creates a line value.
+         *
+         * @param group The group of the row.
+         * @param groupIndex The position of the group in the reported results.
+         * @param line The shown line, or a value &lt;= 0 if the line is unspecified.
+         * @param member Whether the row is a member of an expanded group.
+         */
+        private Line(ErrorGroup group, int groupIndex, int line, boolean member) {
+            this.groupLine = group.getFirst().getLine();
+            this.groupIndex = groupIndex;
+            this.line = line;
+            this.member = member;
+        }
+
+        /**
+         * Compares this value to the value of another row.
+         *
+         * @param other The value of the other row.
+         * @param descending Whether the table is sorted by line in descending order. The sorter reverses the result
+         *     in that case, thus the order between a group row and its members has to be reversed here to keep the
+         *     group row on top.
+         *
+         * @return A negative number, zero or a positive number if this row is sorted before, together with or after
+         *     the other row in ascending order.
+         */
+        int compareTo(Line other, boolean descending) {
+            int result = Integer.compare(groupLine, other.groupLine);
+            if (result == 0) {
+                result = Integer.compare(groupIndex, other.groupIndex);
+            }
+            if (result == 0 && member != other.member) {
+                result = member != descending ? 1 : -1;
+            } else if (result == 0) {
+                result = Integer.compare(line, other.line);
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return line > 0 ? Integer.toString(line) : "";
+        }
+
+    }
+
+    /**
+     * Creates an empty model.
+     */
+    ResultTableModel() {
+        for (int i = 0; i < COLUMN_KEYS.length; i++) {
+            columnNames[i] = I18nProvider.getText(COLUMN_KEYS[i]);
+        }
+    }
+
+    /**
+     * Replaces the content of this model. All groups are collapsed.
+     *
+     * @param descriptions The descriptions to show, in the order reported by the hook.
+     */
+    void setResults(ErrorDescription[] descriptions) {
+        ErrorGroup[] groups = ErrorAggregator.aggregate(descriptions);
+        rows = new ArrayList<>(groups.length);
+        for (int i = 0; i < groups.length; i++) {
+            ErrorGroup group = groups[i];
+            Line line = new Line(group, i, group.getFirst().getLine(), false);
+            if (group.getCount() == 1) {
+                rows.add(new Row(group, group.getFirst(), group.getMessage(), line));
+            } else {
+                rows.add(new Row(group, null,
+                        I18nProvider.getText("gui.results.group", group.getMessage(), group.getCount()), line));
+            }
+        }
+        expanded.clear();
+        totalCount = descriptions.length;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Removes all descriptions from this model.
+     */
+    void clear() {
+        rows = new ArrayList<>();
+        expanded.clear();
+        totalCount = 0;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Returns the description shown in the given row. For a group row, this is the first description of the group.
+     *
+     * @param row The row index in this model (not in a sorted view).
+     *
+     * @return The description.
+     */
+    ErrorDescription getResult(int row) {
+        Row result = rows.get(row);
+        return result.description != null ? result.description : result.group.getFirst();
+    }
+
+    /**
+     * Checks whether the given row shows a group of several descriptions.
+     *
+     * @param row The row index in this model.
+     *
+     * @return Whether the row can be expanded or collapsed with {@link #toggle(int)}.
+     */
+    boolean isGroup(int row) {
+        return rows.get(row).description == null;
+    }
+
+    /**
+     * Checks whether the given row shows an expanded group.
+     *
+     * @param row The row index in this model.
+     *
+     * @return Whether the members of the group are shown below the row.
+     */
+    boolean isExpanded(int row) {
+        return isGroup(row) && expanded.contains(rows.get(row).group);
+    }
+
+    /**
+     * Checks whether the given row shows a single description of an expanded group.
+     *
+     * @param row The row index in this model.
+     *
+     * @return Whether the row belongs to a group row.
+     */
+    boolean isGroupMember(int row) {
+        Row result = rows.get(row);
+        return result.description != null && result.group.getCount() > 1;
+    }
+
+    /**
+     * Returns how many descriptions the given row stands for.
+     *
+     * @param row The row index in this model.
+     *
+     * @return The number of descriptions of a group row, 0 for the members of an expanded group and 1 otherwise.
+     */
+    int getMessageCount(int row) {
+        int result;
+        if (isGroup(row)) {
+            result = rows.get(row).group.getCount();
+        } else if (isGroupMember(row)) {
+            result = 0;
+        } else {
+            result = 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of descriptions in this model.
+     *
+     * @return The number of descriptions, including all members of groups.
+     */
+    int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Expands a collapsed group row or collapses an expanded one. Does nothing for other rows.
+     *
+     * @param row The row index in this model.
+     */
+    void toggle(int row) {
+        if (isGroup(row)) {
+            Row groupRow = rows.get(row);
+            ErrorGroup group = groupRow.group;
+            List<ErrorDescription> members = group.getDescriptions();
+            if (expanded.remove(group)) {
+                rows.subList(row + 1, row + 1 + members.size()).clear();
+                fireTableRowsDeleted(row + 1, row + members.size());
+            } else {
+                expanded.add(group);
+                List<Row> memberRows = new ArrayList<>(members.size());
+                for (ErrorDescription member : members) {
+                    // same values as the group row in all other columns, so that the stable sort keeps the members
+                    // right below it; the line column is sorted by group first (see Line)
+                    memberRows.add(new Row(group, member, groupRow.message,
+                            new Line(group, groupRow.line.groupIndex, member.getLine(), true)));
+                }
+                rows.addAll(row + 1, memberRows);
+                fireTableRowsInserted(row + 1, row + members.size());
+            }
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_CLASSES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Row result = rows.get(row);
+        Object value;
+        switch (column) {
+        case COLUMN_TOOL:
+            value = result.group.getTool();
+            break;
+        case COLUMN_SEVERITY:
+            value = result.group.getSeverity();
+            break;
+        case COLUMN_FILE:
+            value = result.group.getFile();
+            break;
+        case COLUMN_LINE:
+            value = result.line;
+            break;
+        default:
+            value = result.message;
+            break;
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,285 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Comparator;
+import java.util.Locale;
+
+import javax.swing.AbstractAction;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.RowFilter;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.TableColumnModel;
+import javax.swing.table.TableRowSorter;
+
+import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.settings.UiColorSettings;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Severity;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Tool;
+
+/**
+ * Shows the {@link ErrorDescription}s of a submission in a table, which can be sorted by clicking on the column
+ * headers and filtered by tool, severity and file. The table only lays out the rows that are visible, so even
+ * thousands of messages are shown without delay. Messages that only differ in their line are shown as a single group
+ * row, which is expanded or collapsed by double-clicking it or pressing enter.
+ * <p>
+ * All methods must be called in the event dispatch thread.
+ *
+ * @author Adam Krafczyk
+ */
+class ResultView extends JPanel {
+
+    private static final long serialVersionUID = -1519741286437470963L;
+
+    private static final String TOGGLE_ACTION = "toggleGroup";
+
+    private ResultTableModel model = new ResultTableModel();
+
+    private TableRowSorter<ResultTableModel> sorter = new TableRowSorter<>(model);
+
+    private JTable table;
+
+    private JComboBox<String> toolFilter;
+
+    private JComboBox<String> severityFilter;
+
+    private JTextField fileFilter;
+
+    private JLabel countLabel = new JLabel();
+
+    /**
+     * Filters the rows of a {@link ResultTableModel} by tool, severity and file.
+     */
+    private static final class ResultFilter extends RowFilter<ResultTableModel, Integer> {
+
+        private Tool tool;
+
+        private Severity severity;
+
+        private String file;
+
+        /**
+         * Creates a filter.
+         *
+         * @param tool The tool to show, or <code>null</code> for all tools.
+         * @param severity The severity to show, or <code>null</code> for all severities.
+         * @param file A lower-case part of the file path to show, or an empty string for all files.
+         */
+        private ResultFilter(Tool tool, Severity severity, String file) {
+            this.tool = tool;
+            this.severity = severity;
+            this.file = file;
+        }
+
+        @Override
+        public boolean include(Entry<? extends ResultTableModel, ? extends Integer> entry) {
+            ErrorDescription result = entry.getModel().getResult(entry.getIdentifier());
+            boolean matchesTool = tool == null || tool == result.getTool();
+            boolean matchesSeverity = severity == null || severity == result.getSeverity();
+            return matchesTool && matchesSeverity && matchesFile(result.getFile());
+        }
+
+        /**
+         * Checks whether the given file path passes this filter.
+         *
+         * @param path The file path of a description, may be <code>null</code>.
+         *
+         * @return Whether the path contains the filter text.
+         */
+        private boolean matchesFile(String path) {
+            boolean result = file.isEmpty();
+            if (!result && path != null) {
+                result = path.toLowerCase(Locale.ROOT).contains(file);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Creates an empty view.
+     *
+     * @param colors The color settings to render the messages with.
+     */
+    ResultView(UiColorSettings colors) {
+        super(new BorderLayout());
+
+        table = new JTable(model);
+        table.setName("resultTable");
+        table.setRowSorter(sorter);
+        Comparator<ResultTableModel.Line> lineOrder = (line1, line2) -> line1.compareTo(line2,
+                isSortedDescending(ResultTableModel.COLUMN_LINE));
+        sorter.setComparator(ResultTableModel.COLUMN_LINE, lineOrder);
+        table.setFillsViewportHeight(true);
+        table.setDefaultRenderer(Object.class, new ResultCellRenderer(colors));
+        TableColumnModel columns = table.getColumnModel();
+        columns.getColumn(ResultTableModel.COLUMN_TOOL).setPreferredWidth(90);
+        columns.getColumn(ResultTableModel.COLUMN_SEVERITY).setPreferredWidth(60);
+        columns.getColumn(ResultTableModel.COLUMN_FILE).setPreferredWidth(140);
+        columns.getColumn(ResultTableModel.COLUMN_LINE).setPreferredWidth(40);
+        columns.getColumn(ResultTableModel.COLUMN_MESSAGE).setPreferredWidth(300);
+
+        String all = I18nProvider.getText("gui.results.all");
+        toolFilter = new JComboBox<>();
+        toolFilter.addItem(all);
+        for (Tool tool : Tool.values()) {
+            toolFilter.addItem(ResultCellRenderer.getToolName(tool));
+        }
+        severityFilter = new JComboBox<>();
+        severityFilter.addItem(all);
+        for (Severity severity : Severity.values()) {
+            severityFilter.addItem(ResultCellRenderer.getSeverityName(severity));
+        }
+        fileFilter = new JTextField(12);
+
+        installGroupToggle();
+
+        toolFilter.addActionListener((event) -> updateFilter());
+        severityFilter.addActionListener((event) -> updateFilter());
+        fileFilter.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent event) {
+                updateFilter();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent event) {
+                updateFilter();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent event) {
+                updateFilter();
+            }
+        });
+
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterPanel.add(new JLabel(I18nProvider.getText("gui.results.tool") + ":"));
+        filterPanel.add(toolFilter);
+        filterPanel.add(new JLabel(I18nProvider.getText("gui.results.severity") + ":"));
+        filterPanel.add(severityFilter);
+        filterPanel.add(new JLabel(I18nProvider.getText("gui.results.file") + ":"));
+        filterPanel.add(fileFilter);
+        filterPanel.add(countLabel);
+
+        add(filterPanel, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+    }
+
+    /**
+     * Shows the given descriptions, replacing the previously shown ones. Sorting and filters are kept.
+     *
+     * @param descriptions The descriptions reported by the hook.
+     */
+    void showResults(ErrorDescription[] descriptions) {
+        model.setResults(descriptions);
+        updateCount();
+    }
+
+    /**
+     * Removes all shown descriptions.
+     */
+    void clear() {
+        model.clear();
+        updateCount();
+    }
+
+    /**
+     * Lets the user expand and collapse group rows by double-clicking them or pressing enter.
+     */
+    private void installGroupToggle() {
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent event) {
+                int row = table.rowAtPoint(event.getPoint());
+                if (event.getClickCount() == 2 && row >= 0) {
+                    model.toggle(table.convertRowIndexToModel(row));
+                }
+            }
+        });
+        table.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), TOGGLE_ACTION);
+        table.getActionMap().put(TOGGLE_ACTION, new AbstractAction() {
+            private static final long serialVersionUID = -6185466093366327463L;
+
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                int row = table.getSelectedRow();
+                if (row >= 0) {
+                    model.toggle(table.convertRowIndexToModel(row));
+                }
+            }
+        });
+    }
+
+    /**
+     * Checks whether the table is sorted by the given column in descending order.
+     *
+     * @param column The column index in the model.
+     *
+     * @return Whether the sort keys contain the column with a descending order.
+     */
+    private boolean isSortedDescending(int column) {
+        boolean result = false;
+        for (RowSorter.SortKey key : sorter.getSortKeys()) {
+            if (key.getColumn() == column) {
+                result = key.getSortOrder() == SortOrder.DESCENDING;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of descriptions that pass the current filter.
+     *
+     * @return The number of descriptions in the visible rows, including all descriptions of collapsed groups.
+     */
+    int getShownCount() {
+        int result = 0;
+        for (int row = 0; row < table.getRowCount(); row++) {
+            result += model.getMessageCount(table.convertRowIndexToModel(row));
+        }
+        return result;
+    }
+
+    /**
+     * Applies the current values of the filter controls to the table.
+     */
+    private void updateFilter() {
+        int toolIndex = toolFilter.getSelectedIndex();
+        int severityIndex = severityFilter.getSelectedIndex();
+        Tool tool = toolIndex > 0 ? Tool.values()[toolIndex - 1] : null;
+        Severity severity = severityIndex > 0 ? Severity.values()[severityIndex - 1] : null;
+        String file = fileFilter.getText().trim().toLowerCase(Locale.ROOT);
+
+        if (tool == null && severity == null && file.isEmpty()) {
+            sorter.setRowFilter(null);
+        } else {
+            sorter.setRowFilter(new ResultFilter(tool, severity, file));
+        }
+        updateCount();
+    }
+
+    /**
+     * Updates the label showing how many of the descriptions pass the filter.
+     */
+    private void updateCount() {
+        countLabel.setText(I18nProvider.getText("gui.results.count", getShownCount(), model.getTotalCount()));
+    }
+
+}
@@ -3,7 +3,9 @@ package de.uni_hildesheim.sse.submitter.ui;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -80,25 +82,18 @@ class ReviewDialog extends JDialog implements ActionListener {
     public void actionPerformed(ActionEvent evt) {
         dispose();
         if (evt.getActionCommand().equals(ACTION_OK)) {
-            Assignment previousExercise = model.getSelectedExercise();
             Assignment exerciseToReplay = (Assignment) assessmentsBox.getSelectedItem();
+            File directory = model.getDirectoryToSubmit();
             
             parent.toggleButtons(false);
             parent.addProgressAnimatorToReviewButton();
             parent.clearLog();
             parent.showInfoMessage(I18nProvider.getText("gui.log.replaying"));
             
-            new Thread(() -> {
-                model.setSelectedExercise(exerciseToReplay);
-                model.replayCorrection();
-                model.setSelectedExercise(previousExercise);
-                
-                SwingUtilities.invokeLater(() -> {
-                    parent.toggleButtons(true);
-                });
-                
-            }).start();
-                
+            CompletableFuture<Void> replay = model.runAsync("ReplayCorrection",
+                () -> model.replayCorrection(exerciseToReplay, directory));
+            replay.whenCompleteAsync((ignored, exception) -> parent.toggleButtons(true), SwingUtilities::invokeLater);
+
         }
     }
     
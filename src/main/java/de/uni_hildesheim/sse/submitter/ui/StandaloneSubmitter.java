@@ -2,24 +2,52 @@ package de.uni_hildesheim.sse.submitter.ui;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNErrorCode;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
 
 import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.io.SubmissionManifest;
+import de.uni_hildesheim.sse.submitter.profiling.HistoryEvent;
+import de.uni_hildesheim.sse.submitter.profiling.LoginEvent;
+import de.uni_hildesheim.sse.submitter.profiling.Profiling;
+import de.uni_hildesheim.sse.submitter.profiling.ReplayEvent;
+import de.uni_hildesheim.sse.submitter.profiling.SubmitEvent;
 import de.uni_hildesheim.sse.submitter.settings.SubmissionConfiguration;
 import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
+import de.uni_hildesheim.sse.submitter.svn.ChecksumCache;
+import de.uni_hildesheim.sse.submitter.svn.DirectSubmitter;
 import de.uni_hildesheim.sse.submitter.svn.ErrorType;
 import de.uni_hildesheim.sse.submitter.svn.ISubmissionOutputHandler;
+import de.uni_hildesheim.sse.submitter.svn.ISubmitter;
 import de.uni_hildesheim.sse.submitter.svn.RemoteRepository;
+import de.uni_hildesheim.sse.submitter.svn.ReplayStateStore;
 import de.uni_hildesheim.sse.submitter.svn.Revision;
+import de.uni_hildesheim.sse.submitter.svn.RevisionLogCache;
 import de.uni_hildesheim.sse.submitter.svn.ServerNotFoundException;
 import de.uni_hildesheim.sse.submitter.svn.SubmissionResultHandler;
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings;
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings.Phase;
 import de.uni_hildesheim.sse.submitter.svn.SubmitException;
 import de.uni_hildesheim.sse.submitter.svn.SubmitResult;
 import de.uni_hildesheim.sse.submitter.svn.Submitter;
+import de.uni_hildesheim.sse.submitter.svn.SvnRequestProfiler;
+import de.uni_hildesheim.sse.submitter.svn.SvnSessionPool;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.InvalidErrorMessagesException;
+import de.uni_hildesheim.sse.submitter.svn.WorkingCopyCache;
 import net.ssehub.exercisesubmitter.protocol.backend.NetworkException;
 import net.ssehub.exercisesubmitter.protocol.backend.UnknownCredentialsException;
 import net.ssehub.exercisesubmitter.protocol.frontend.Assignment;
@@ -36,18 +64,72 @@ public class StandaloneSubmitter {
 
     private static final Logger LOGGER = LogManager.getLogger();
     
+    /**
+     * The maximum number of operations that run in the background at the same time.
+     */
+    private static final int BACKGROUND_THREADS = 4;
+    
+    /**
+     * The maximum number of operations that wait for a free background thread.
+     */
+    private static final int BACKGROUND_QUEUE = 32;
+    
+    private TaskExecutor executor = new TaskExecutor("Submitter", BACKGROUND_THREADS, BACKGROUND_QUEUE);
+    
     private SubmissionConfiguration submissionConfiguration;
     
     private SubmitterProtocol managementSystem;
     
-    private RemoteRepository svnRepository;
+    private volatile RemoteRepository svnRepository;
+    
+    private volatile SvnSessionPool sessionPool;
+    
+    private Map<String, SubmissionTarget> submissionTargets = new ConcurrentHashMap<>();
     
-    private boolean loggedIn;
+    private Map<String, WarmUp> warmUps = new ConcurrentHashMap<>();
+    
+    private CompletableFuture<List<Assignment>> prefetchedOpenAssignments;
+    
+    private WorkingCopyCache workingCopyCache;
+    
+    private RevisionLogCache revisionLogCache;
+    
+    private ReplayStateStore replayStateStore;
+    
+    private ChecksumCache checksumCache = new ChecksumCache();
+    
+    private volatile CompletableFuture<Boolean> managementLogin = CompletableFuture.completedFuture(false);
     
     private ISubmissionOutputHandler outputHandler; // TODO: replace with modelListener
     
     private IStandaloneSubmitterListener modelListener;
 
+    /**
+     * The setup times measured by a warm-up, i.e. what the first submission would take without it.
+     */
+    private static final class WarmUp {
+        
+        private SVNURL url;
+        
+        private long resolveMillis;
+        
+        private long connectMillis;
+        
+        /**
+         * Creates a warm-up result.
+         * 
+         * @param url The submission URL that was connected to.
+         * @param resolveMillis How long resolving the submission target took.
+         * @param connectMillis How long connecting to the submission URL took.
+         */
+        private WarmUp(SVNURL url, long resolveMillis, long connectMillis) {
+            this.url = url;
+            this.resolveMillis = resolveMillis;
+            this.connectMillis = connectMillis;
+        }
+        
+    }
+
     /**
      * Creates a {@link StandaloneSubmitter}.
      * 
@@ -112,8 +194,9 @@ public class StandaloneSubmitter {
      * 
      * @param svnRepository The {@link RemoteRepository} to use.
      */
-    public void setSvnRepository(RemoteRepository svnRepository) {
+    public synchronized void setSvnRepository(RemoteRepository svnRepository) {
         this.svnRepository = svnRepository;
+        this.sessionPool = svnRepository.getSessionPool();
     }
     
     /**
@@ -130,7 +213,8 @@ public class StandaloneSubmitter {
     
     /**
      * Creates a {@link RemoteRepository}, tests the connection, and uses it for future operations. Alternative to
-     * {@link #setSvnRepository(RemoteRepository)}.
+     * {@link #setSvnRepository(RemoteRepository)}. The connection is kept open in a {@link SvnSessionPool}, which is
+     * shared by all later history, replay and submit operations until {@link #close()} is called.
      * 
      * @param url The URL of the SVN repository.
      * 
@@ -142,15 +226,98 @@ public class StandaloneSubmitter {
      * @see #setPassword(char[])
      */
     public boolean createSvnRepository(String url) throws ServerNotFoundException {
-        RemoteRepository repository = new RemoteRepository(url,
-                this.submissionConfiguration.getUser(), this.submissionConfiguration.getPW());
+        SvnSessionPool pool = new SvnSessionPool(this.submissionConfiguration.getUser(),
+                this.submissionConfiguration.getPW());
+        RemoteRepository repository = new RemoteRepository(url, pool);
+        repository.setRevisionLogCache(getRevisionLogCache());
+        repository.setReplayStateStore(getReplayStateStore());
         boolean success = repository.checkConnection();
         if (success) {
-            this.svnRepository = repository;
+            SvnSessionPool oldPool;
+            synchronized (this) {
+                oldPool = this.sessionPool;
+                submissionTargets.clear();
+                warmUps.clear();
+                this.svnRepository = repository;
+                this.sessionPool = pool;
+            }
+            // the configuration is saved by its persister, only the old connections have to be closed
+            if (oldPool != null) {
+                oldPool.close();
+            }
+        } else {
+            pool.close();
         }
         return success;
     }
     
+    /**
+     * Closes all connections to the SVN server and saves pending changes of the {@link SubmissionConfiguration}.
+     * Should be called when the user logs out or the program exits.
+     */
+    public void close() {
+        submissionConfiguration.flush();
+        SvnSessionPool pool;
+        synchronized (this) {
+            pool = sessionPool;
+            sessionPool = null;
+        }
+        if (pool != null) {
+            pool.close();
+        }
+    }
+    
+    /**
+     * Closes all connections like {@link #close()}, and stops all operations that run in the background. Should be
+     * called when the program exits; afterwards, no operations can be run in the background.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        close();
+    }
+    
+    /**
+     * Runs an operation of this model in the background. All blocking network and disk operations that are
+     * triggered by the GUI should be run with this method (or {@link #supplyAsync(String, Callable)}), so that they
+     * don't block the event dispatch thread.
+     * 
+     * @param name A short name of the operation, for log messages and thread names.
+     * @param operation The operation to run.
+     * 
+     * @return Completes when the operation is finished. Can be cancelled, which interrupts the operation.
+     */
+    public CompletableFuture<Void> runAsync(String name, Runnable operation) {
+        return executor.run(name, operation);
+    }
+    
+    /**
+     * Runs an operation of this model with a result in the background.
+     * 
+     * @param <T> The type of the result.
+     * @param name A short name of the operation, for log messages and thread names.
+     * @param operation The operation to run.
+     * 
+     * @return The result of the operation. Can be cancelled, which interrupts the operation.
+     * 
+     * @see #runAsync(String, Runnable)
+     */
+    public <T> CompletableFuture<T> supplyAsync(String name, Callable<T> operation) {
+        return executor.supply(name, operation);
+    }
+    
+    /**
+     * Returns the pool of connections to the SVN server. If no pool was created by
+     * {@link #createSvnRepository(String)}, a new one is created with the current credentials.
+     * 
+     * @return The {@link SvnSessionPool} to use for SVN operations.
+     */
+    private synchronized SvnSessionPool getSessionPool() {
+        if (sessionPool == null) {
+            sessionPool = new SvnSessionPool(submissionConfiguration.getUser(), submissionConfiguration.getPW());
+        }
+        return sessionPool;
+    }
+    
     /**
      * Logs into the user management system.
      * 
@@ -165,33 +332,184 @@ public class StandaloneSubmitter {
      */
     public boolean logIntoStudentManagementSystem() throws UnknownCredentialsException,
             net.ssehub.exercisesubmitter.protocol.backend.ServerNotFoundException {
-        this.loggedIn = false;
-        this.loggedIn = managementSystem.login(this.submissionConfiguration.getUser(),
-                new String(this.submissionConfiguration.getPW()));
-        return this.loggedIn;
+        CompletableFuture<Boolean> login = new CompletableFuture<>();
+        this.managementLogin = login;
+        boolean success;
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        try {
+            success = managementSystem.login(this.submissionConfiguration.getUser(),
+                    new String(this.submissionConfiguration.getPW()));
+            event.setOutcome(Profiling.outcome(success));
+            login.complete(success);
+        } catch (UnknownCredentialsException
+                | net.ssehub.exercisesubmitter.protocol.backend.ServerNotFoundException e) {
+            event.setOutcome(Profiling.outcome(e));
+            login.completeExceptionally(e);
+            throw e;
+        } finally {
+            event.commit();
+        }
+        return success;
     }
     
     /**
      * Returns whether logged into the student management system.
      * 
-     * @return Whether the last login succeeded.
+     * @return Whether the last login has completed and succeeded.
      * 
      * @see #logIntoStudentManagementSystem()
      */
     public boolean isLoggedIn() {
-        return loggedIn;
+        CompletableFuture<Boolean> login = this.managementLogin;
+        return login.isDone() && !login.isCompletedExceptionally() && login.join();
     }
     
     /**
-     * Returns the path for the remote SVN repository of the currently selected exercise.
+     * Logs into the student management system and connects to the SVN repository in the background. The open
+     * assignments are prefetched as soon as the login to the student management system succeeded. If that login
+     * fails, the SVN check is cancelled, since its result is not used.
      * 
-     * @return The remote path of the current exercise.
+     * @return Completes with the error message to show to the user, or with <code>null</code> if both logins
+     *      succeeded. Does not complete exceptionally. When it completes, the prefetch of the open assignments is
+     *      already started.
      * 
-     * @throws NetworkException If the group name could not be queried from the student management system.
+     * @see #setUser(String)
+     * @see #setPassword(char[])
      */
-    private String getRemotePathOfCurrentExercise() throws NetworkException {
-        Assignment currentExercise = submissionConfiguration.getExercise();
-        return managementSystem.getPathToSubmission(currentExercise).getAbsolutePathInRepository();
+    public CompletableFuture<String> loginAsync() {
+        // The student management system and the SVN repository are independent servers, check both concurrently
+        CompletableFuture<Boolean> managementLogin = supplyAsync("ManagementLogin",
+                this::logIntoStudentManagementSystem);
+        CompletableFuture<Boolean> svnLogin = supplyAsync("SvnLogin",
+            () -> createSvnRepository(ToolSettings.getConfig().getRepositoryURL()));
+        
+        // the assignments are needed right after the login; don't wait for the SVN check to fetch them
+        CompletableFuture<Void> prefetch = managementLogin.handle((success, exception) -> {
+            if (exception == null && success) {
+                prefetchOpenAssignments();
+            } else {
+                svnLogin.cancel(true);
+            }
+            return null;
+        });
+        
+        return CompletableFuture.allOf(prefetch, svnLogin)
+            .handle((ignored, exception) -> getLoginErrorMessage(managementLogin, svnLogin));
+    }
+    
+    /**
+     * Creates the error message to display for the result of a login attempt. Errors of the student management
+     * system take precedence over errors of the SVN repository.
+     * 
+     * @param managementLogin The completed login to the student management system.
+     * @param svnLogin The completed connection test to the SVN repository.
+     * 
+     * @return The error message to display, or <code>null</code> if both logins succeeded.
+     */
+    private static String getLoginErrorMessage(CompletableFuture<Boolean> managementLogin,
+            CompletableFuture<Boolean> svnLogin) {
+        String errorMessage = null;
+        try {
+            // First check: Check that credentials are supported by REST servers
+            if (!managementLogin.join()) {
+                errorMessage = I18nProvider.getText("gui.error.unknown_error");
+            
+            // Second check: log into the SVN repository
+            } else if (!svnLogin.join()) {
+                errorMessage = I18nProvider.getText("gui.error.login_wrong_repository",
+                        ToolSettings.getConfig().getCourse().getTeamName(),
+                        ToolSettings.getConfig().getCourse().getTeamMail());
+            }
+        
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UnknownCredentialsException) {
+                LOGGER.error("Could not login", cause);
+                errorMessage = I18nProvider.getText("gui.error.unknown_credentials");
+            
+            } else if (cause instanceof net.ssehub.exercisesubmitter.protocol.backend.ServerNotFoundException) {
+                LOGGER.error("Could not login", cause);
+                errorMessage = I18nProvider.getText("gui.error.system_unreachable");
+            
+            } else if (cause instanceof ServerNotFoundException) {
+                LOGGER.error("Could not create RemoteRepository", cause);
+                errorMessage = I18nProvider.getText("gui.error.server_not_found") + " "
+                        + ((ServerNotFoundException) cause).getAddress();
+            
+            } else {
+                LOGGER.error("Unexpected error during login", cause);
+                errorMessage = I18nProvider.getText("gui.error.unknown_error");
+            }
+        }
+        return errorMessage;
+    }
+    
+    /**
+     * Returns the location where the given exercise is submitted to. The result is queried from the student
+     * management system once and then cached until the next login.
+     * 
+     * @param exercise The exercise to get the submission location for.
+     * 
+     * @return The submission location of the exercise.
+     * 
+     * @throws NetworkException If the location could not be queried from the student management system.
+     */
+    private SubmissionTarget getSubmissionTarget(Assignment exercise) throws NetworkException {
+        SubmissionTarget target = submissionTargets.get(exercise.getName());
+        if (target == null) {
+            target = managementSystem.getPathToSubmission(exercise);
+            submissionTargets.put(exercise.getName(), target);
+        }
+        return target;
+    }
+    
+    /**
+     * Prepares a submission of the currently selected exercise in the background: resolves its
+     * {@link SubmissionTarget} and opens an authenticated connection to its submission URL. Thus, the first
+     * {@link #submit()} does not have to wait for these network round trips. Does nothing if not connected to the SVN
+     * server yet.
+     * 
+     * @see #createSvnRepository(String)
+     * @see #setSelectedExercise(Assignment)
+     */
+    public void warmUpSubmission() {
+        Assignment exercise = submissionConfiguration.getExercise();
+        SvnSessionPool pool = this.sessionPool;
+        if (exercise != null && pool != null) {
+            runAsync("SubmissionWarmUp", () -> warmUpSubmission(exercise, pool));
+        }
+    }
+    
+    /**
+     * Resolves the {@link SubmissionTarget} of the given exercise and opens a connection to its submission URL.
+     * Logs how long this took and keeps the times, so that the first submission of the exercise can log how much of
+     * it was saved.
+     * 
+     * @param exercise The exercise that will probably be submitted.
+     * @param pool The pool to open the connection in.
+     */
+    private void warmUpSubmission(Assignment exercise, SvnSessionPool pool) {
+        long start = System.currentTimeMillis();
+        try {
+            SubmissionTarget target = getSubmissionTarget(exercise);
+            long resolved = System.currentTimeMillis();
+            
+            SVNURL url = SVNURL.parseURIEncoded(target.getSubmissionURL());
+            if (ToolSettings.getConfig().isDirectCommit()) {
+                pool.warmUpSession(url);
+            } else {
+                pool.warmUpClientManager(url);
+            }
+            long connected = System.currentTimeMillis();
+            
+            LOGGER.info("Warmed up submission of {} in {} ms: resolving target took {} ms, connecting to {} took {} ms",
+                    exercise.getName(), connected - start, resolved - start, url, connected - resolved);
+            warmUps.put(exercise.getName(), new WarmUp(url, resolved - start, connected - resolved));
+            
+        } catch (NetworkException | SVNException e) {
+            LOGGER.warn("Could not warm up submission of " + exercise.getName(), e);
+        }
     }
     
     /**
@@ -212,20 +530,77 @@ public class StandaloneSubmitter {
     }
     
     /**
-     * Returns a list of {@link Assignment}s that are currently in the submission state.
+     * Queries the list of {@link Assignment}s that are currently in the reviewed state in the background.
+     * 
+     * @return The {@link Assignment}s that were reviewed. Completes exceptionally with a {@link NetworkException} if
+     *      the student management system could not be queried.
+     */
+    public CompletableFuture<List<Assignment>> reviewedAssignmentsAsync() {
+        return supplyAsync("ReviewedAssignments", managementSystem::getReviewedAssignments);
+    }
+    
+    /**
+     * Starts fetching the list of {@link Assignment}s that are currently in the submission state in the background.
+     * The next call to {@link #getOpenAssignmentsAsync()} or {@link #openAssignmentsAsync()} returns the result of this
+     * operation, instead of querying the student management system again. Should be called as soon as the login to
+     * the student management system succeeded.
+     * 
+     * @return The pending result, as it will be returned by {@link #openAssignmentsAsync()}.
+     */
+    public synchronized CompletableFuture<List<Assignment>> prefetchOpenAssignments() {
+        prefetchedOpenAssignments = supplyAsync("OpenAssignments", managementSystem::getOpenAssignments);
+        return prefetchedOpenAssignments;
+    }
+    
+    /**
+     * Returns a list of {@link Assignment}s that are currently in the submission state. If
+     * {@link #prefetchOpenAssignments()} was called before, its result is used.
      * 
      * @return List of {@link Assignment}s that are open, or <code>null</code> in case of an error.
+     * 
+     * @deprecated Blocks until the student management system answered, so it must not be called from the event
+     *      dispatch thread. Use {@link #getOpenAssignmentsAsync()} instead.
      */
+    @Deprecated
     public List<Assignment> getOpenAssignments() {
-        List<Assignment> result = null;
-        try {
-            result = this.managementSystem.getOpenAssignments();
-        } catch (NetworkException e) {
-            LOGGER.error("Could not get open assignments", e);
+        return getOpenAssignmentsAsync().join();
+    }
+    
+    /**
+     * Returns the list of {@link Assignment}s that are currently in the submission state without blocking, like
+     * {@link #openAssignmentsAsync()}. Errors are shown to the user.
+     * 
+     * @return The pending list of {@link Assignment}s that are open; the list is <code>null</code> in case of an
+     *      error.
+     * 
+     * @see #setOutputHandler(ISubmissionOutputHandler)
+     */
+    public CompletableFuture<List<Assignment>> getOpenAssignmentsAsync() {
+        return openAssignmentsAsync().exceptionally((exception) -> {
+            LOGGER.error("Could not get open assignments", exception);
             String course = ToolSettings.getConfig().getCourse().getCourse() + " - "
                 + ToolSettings.getConfig().getCourse().getSemester();
             outputHandler.showErrorMessage(I18nProvider.getText("gui.error.no_assignments_found", course));
-            result = null;
+            return null;
+        });
+    }
+    
+    /**
+     * Queries the list of {@link Assignment}s that are currently in the submission state in the background. If
+     * {@link #prefetchOpenAssignments()} was called before, its pending result is returned instead.
+     * 
+     * @return The {@link Assignment}s that are open. Completes exceptionally with a {@link NetworkException} if the
+     *      student management system could not be queried.
+     */
+    public CompletableFuture<List<Assignment>> openAssignmentsAsync() {
+        CompletableFuture<List<Assignment>> result;
+        synchronized (this) {
+            result = prefetchedOpenAssignments;
+            prefetchedOpenAssignments = null;
+        }
+        
+        if (result == null) {
+            result = supplyAsync("OpenAssignments", managementSystem::getOpenAssignments);
         }
         return result;
     }
@@ -287,59 +662,324 @@ public class StandaloneSubmitter {
                     submissionConfiguration.getProjectFolder().getAbsolutePath()));
             
         } else {
-            SubmissionResultHandler resultHandler = new SubmissionResultHandler(outputHandler);
+            try {
+                submit(SubmissionManifest.scan(submissionConfiguration.getProjectFolder()));
+            } catch (IOException e) {
+                LOGGER.error("Couldn't read submission folder", e);
+                outputHandler.showErrorMessage(I18nProvider.getText("gui.error.unexpected_error"));
+            }
+        }
+    }
+    
+    /**
+     * Submits an already scanned directory as the currently selected exercise to the current SVN repository. The
+     * directory is not walked again. Notifies the {@link ISubmissionOutputHandler} accordingly. The durations of
+     * the phases of the submission are logged as a single line and passed to
+     * {@link ISubmissionOutputHandler#showSubmissionDetails(SubmissionTimings)}.
+     * 
+     * @param manifest The manifest of the directory to submit, see {@link SubmissionManifest#scan(File)}.
+     * 
+     * @see #submit()
+     */
+    public void submit(SubmissionManifest manifest) {
+        showSubmissionReport(submit(submissionConfiguration.getExercise(), manifest));
+    }
+    
+    /**
+     * Translates the outcome of a submission into messages for the {@link ISubmissionOutputHandler}, in the same
+     * way as {@link #submit(SubmissionManifest)} does.
+     * 
+     * @param report The outcome of a submission, see {@link #submitAsync(Assignment, File)}.
+     * 
+     * @see #setOutputHandler(ISubmissionOutputHandler)
+     */
+    public void showSubmissionReport(SubmissionReport report) {
+        SubmissionResultHandler resultHandler = new SubmissionResultHandler(outputHandler);
+        
+        if (report.getFailure() != null) {
+            resultHandler.handleCommitException(report.getFailure(), report.getExercise(),
+                    report.getSubmissionPath());
+        } else {
+            resultHandler.handleCommitResult(report.getCommitInfo(), report.getHookErrors());
+            if (report.getNumJavaFiles() <= 0) {
+                outputHandler.showErrorMessage(I18nProvider.getText("submission.error.no_java_files"));
+            }
+            outputHandler.showSubmissionDetails(report.getTimings());
+        }
+    }
+    
+    /**
+     * Scans and submits the given directory as the given exercise to the current SVN repository in the background.
+     * Does not notify the {@link ISubmissionOutputHandler}; several submissions may run at the same time.
+     * 
+     * @param exercise The exercise to submit.
+     * @param directory The directory to submit.
+     * 
+     * @return The outcome of the submission. Completes exceptionally with an {@link IOException} if the directory
+     *      could not be read.
+     */
+    public CompletableFuture<SubmissionReport> submitAsync(Assignment exercise, File directory) {
+        return supplyAsync("Submit", () -> submit(exercise, SubmissionManifest.scan(directory)));
+    }
+    
+    /**
+     * Submits an already scanned directory as the given exercise to the current SVN repository in the background.
+     * Does not notify the {@link ISubmissionOutputHandler}; several submissions may run at the same time.
+     * 
+     * @param exercise The exercise to submit.
+     * @param manifest The manifest of the directory to submit, see {@link SubmissionManifest#scan(File)}.
+     * 
+     * @return The outcome of the submission.
+     */
+    public CompletableFuture<SubmissionReport> submitAsync(Assignment exercise, SubmissionManifest manifest) {
+        return supplyAsync("Submit", () -> submit(exercise, manifest));
+    }
+    
+    /**
+     * Submits an already scanned directory as the given exercise to the current SVN repository. All state of the
+     * submission is kept in the returned report. The durations of the phases are logged as a single line.
+     * 
+     * @param exercise The exercise to submit.
+     * @param manifest The manifest of the directory to submit.
+     * 
+     * @return The outcome of the submission.
+     */
+    @SuppressWarnings("try")
+    private SubmissionReport submit(Assignment exercise, SubmissionManifest manifest) {
+        SubmissionReport report;
+        SubmissionTarget submissionTarget = null;
+        SubmissionTimings timings = new SubmissionTimings();
+        SubmitEvent event = new SubmitEvent(exercise.getName(), manifest.getNumFiles(), manifest.getTotalSize());
+        event.begin();
+        event.setDirectCommit(ToolSettings.getConfig().isDirectCommit());
+        
+        try (SvnRequestProfiler.Operation ignoredRequests = SvnRequestProfiler.start("submit")) {
+            SubmissionTimings.Measurement resolve = timings.measure(Phase.RESOLVE_TARGET);
+            try (resolve) {
+                submissionTarget = getSubmissionTarget(exercise);
+            }
+            logWarmUpSavings(exercise, resolve.getMillis());
+            ISubmitter submitter = createSubmitter(submissionTarget.getSubmissionURL(), exercise.getName());
+            SubmitResult result = submitter.submit(manifest, timings);
+            SVNCommitInfo info = result.getCommitInfo();
+            event.setRevision(info.getNewRevision());
+            event.setOutcome(info.getErrorMessage() == null ? Profiling.SUCCESS : "hook_messages");
             
-            Assignment exerciseToSubmit = submissionConfiguration.getExercise();
-            SubmissionTarget submissionTarget = null;
+            List<ErrorDescription> hookErrors = Collections.emptyList();
+            if (info.getErrorMessage() != null) {
+                hookErrors = parseHookErrors(info);
+            }
+            report = new SubmissionReport(exercise, submissionTarget.getSubmissionPath(), result, hookErrors);
             
-            try {
-                submissionTarget = managementSystem.getPathToSubmission(exerciseToSubmit);
-                Submitter submitter = new Submitter(submissionTarget.getSubmissionURL(), exerciseToSubmit.getName(),
-                        submissionConfiguration.getUser(), submissionConfiguration.getPW());
-                SubmitResult result = submitter.submitFolder(submissionConfiguration.getProjectFolder());
-                resultHandler.handleCommitResult(result.getCommitInfo());
-                if (result.getNumJavFiles() <= 0) {
-                    outputHandler.showErrorMessage(I18nProvider.getText("submission.error.no_java_files"));
-                }
-                
-            } catch (NetworkException e) {
-                LOGGER.error("Couldn't get submission path", e);
-                resultHandler.handleCommitException(
-                        new SubmitException(ErrorType.COULD_NOT_QUERY_MANAGEMENT_SYSTEM, exerciseToSubmit.getName()),
-                        null, null);
-                
-            } catch (SubmitException e) {
-                String submissionPath = null;
-                if (submissionTarget != null) {
-                    submissionPath = submissionTarget.getSubmissionPath();
-                }
-                resultHandler.handleCommitException(e, exerciseToSubmit, submissionPath);
+        } catch (NetworkException e) {
+            LOGGER.error("Couldn't get submission path", e);
+            event.setOutcome(ErrorType.COULD_NOT_QUERY_MANAGEMENT_SYSTEM.name());
+            report = new SubmissionReport(exercise, null,
+                    new SubmitException(ErrorType.COULD_NOT_QUERY_MANAGEMENT_SYSTEM, exercise.getName()), timings);
+            
+        } catch (SubmitException e) {
+            event.setOutcome(e.getErrorCode().name());
+            String submissionPath = null;
+            if (submissionTarget != null) {
+                submissionPath = submissionTarget.getSubmissionPath();
             }
+            report = new SubmissionReport(exercise, submissionPath, e, timings);
+            
+        } finally {
+            event.commit();
+            LOGGER.info("Submission of {} took {}", exercise.getName(), timings);
         }
+        return report;
     }
     
     /**
-     * Retrieves the revision history of the currently selected exercise. Notifies the {@link ISubmissionOutputHandler}
-     * in case of an error.
+     * Logs how much setup time a warm-up saved on the first submission of the given exercise after it: the
+     * difference of resolving the submission target, and the connection time of the warm-up if its connection is
+     * still open. Does nothing if the exercise was not warmed up, or was already submitted since.
      * 
-     * @return The revision history, or <code>null</code> in case of an error.
+     * @param exercise The exercise that is submitted.
+     * @param resolveMillis How long resolving the submission target took for this submission.
+     */
+    private void logWarmUpSavings(Assignment exercise, long resolveMillis) {
+        WarmUp warmUp = warmUps.remove(exercise.getName());
+        SvnSessionPool pool = this.sessionPool;
+        if (warmUp != null && pool != null) {
+            boolean connected;
+            if (ToolSettings.getConfig().isDirectCommit()) {
+                connected = pool.hasIdleSession(warmUp.url);
+            } else {
+                connected = pool.hasIdleClientManager();
+            }
+            long saved = warmUp.resolveMillis - resolveMillis + (connected ? warmUp.connectMillis : 0);
+            LOGGER.info("Warm-up saved {} ms on the first submission of {}: resolving target took {} ms instead of "
+                    + "{} ms, connection set up in {} ms is {}", saved, exercise.getName(), resolveMillis,
+                    warmUp.resolveMillis, warmUp.connectMillis, connected ? "re-used" : "already closed");
+        }
+    }
+    
+    /**
+     * Parses the errors that the SVN hook reported for a commit.
+     * 
+     * @param info The result of the commit, with an error message.
+     * 
+     * @return The errors reported by the hook, or <code>null</code> if the error message contains no valid output
+     *      of the hook.
+     */
+    private static List<ErrorDescription> parseHookErrors(SVNCommitInfo info) {
+        List<ErrorDescription> result;
+        try {
+            result = SubmissionResultHandler.parseHookErrors(info.getErrorMessage());
+        } catch (InvalidErrorMessagesException e) {
+            LOGGER.error("Couldn't parse XML: " + info.getErrorMessage().getFullMessage(), e);
+            result = null;
+        }
+        return result;
+    }
+    
+    /**
+     * Creates the {@link ISubmitter} for a single submission, as configured in the {@link ToolSettings}.
+     * 
+     * @param url The URL to submit to.
+     * @param exerciseName The name of the exercise that is submitted.
+     * 
+     * @return A {@link DirectSubmitter} if direct commits are enabled, otherwise a working copy based
+     *      {@link Submitter}.
+     * 
+     * @throws SubmitException If the given URL is invalid.
+     */
+    private ISubmitter createSubmitter(String url, String exerciseName) throws SubmitException {
+        ISubmitter result;
+        if (ToolSettings.getConfig().isDirectCommit()) {
+            DirectSubmitter submitter = new DirectSubmitter(url, exerciseName, submissionConfiguration.getUser(),
+                    getSessionPool());
+            submitter.setChecksumCache(checksumCache);
+            result = submitter;
+        } else {
+            Submitter submitter = new Submitter(url, exerciseName, submissionConfiguration.getUser(),
+                    getSessionPool());
+            submitter.setWorkingCopyCache(getWorkingCopyCache());
+            result = submitter;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the cache for working copies used by submissions. Created lazily from the {@link ToolSettings}.
+     * 
+     * @return The {@link WorkingCopyCache}, or <code>null</code> if caching is disabled.
+     */
+    private synchronized WorkingCopyCache getWorkingCopyCache() {
+        if (workingCopyCache == null) {
+            workingCopyCache = WorkingCopyCache.fromSettings(ToolSettings.getConfig().getWorkingCopyCacheSettings());
+        }
+        return workingCopyCache;
+    }
+    
+    /**
+     * Returns the cache for revision logs used by the history. Created lazily from the {@link ToolSettings}.
+     * 
+     * @return The {@link RevisionLogCache}, or <code>null</code> if caching is disabled.
+     */
+    private synchronized RevisionLogCache getRevisionLogCache() {
+        if (revisionLogCache == null) {
+            revisionLogCache = RevisionLogCache.fromSettings(ToolSettings.getConfig().getHistoryCacheSettings());
+        }
+        return revisionLogCache;
+    }
+    
+    /**
+     * Returns the store for the state of replayed folders. Created lazily from the {@link ToolSettings}.
+     * 
+     * @return The {@link ReplayStateStore}, or <code>null</code> if incremental replays are disabled.
+     */
+    private synchronized ReplayStateStore getReplayStateStore() {
+        if (replayStateStore == null) {
+            replayStateStore = ReplayStateStore.fromSettings(ToolSettings.getConfig().getReplaySettings());
+        }
+        return replayStateStore;
+    }
+    
+    /**
+     * Streams a single page of the revision history of the given exercise, newest revision first. Notifies the
+     * {@link ISubmissionOutputHandler} in case of an error.
+     * 
+     * @param exercise The exercise to get the history for, typically the {@link #getSelectedExercise()}.
+     * @param startRevision The newest revision to include, or {@link RemoteRepository#HEAD} to start at the newest
+     *      revision.
+     * @param limit The maximum number of revisions to fetch.
+     * @param consumer Receives the revisions, newest first. Called in the thread of the caller.
+     * 
+     * @return The start revision for the next (older) page, or {@link RemoteRepository#NO_MORE_REVISIONS} if there
+     *      are no older revisions or in case of an error.
      * 
      * @see #setOutputHandler(ISubmissionOutputHandler)
-     * @see #setSelectedExercise(Assignment)
      */
-    public List<Revision> getHistoryOfCurrentExercise() {
-        List<Revision> result;
+    public long getHistory(Assignment exercise, long startRevision, int limit, Consumer<Revision> consumer) {
+        long result;
         try {
-            result = svnRepository.getHistory(getRemotePathOfCurrentExercise());
-            
+            result = fetchHistory(exercise, startRevision, limit, consumer);
         } catch (SVNException | NetworkException e) {
             LOGGER.error("Could not get history", e);
             outputHandler.showErrorMessage(I18nProvider.getText("gui.error.unknown_error"));
-            result = null;
+            result = RemoteRepository.NO_MORE_REVISIONS;
         }
         return result;
     }
     
+    /**
+     * Streams a single page of the revision history of the given exercise in the background, newest revision first.
+     * Does not notify the {@link ISubmissionOutputHandler}.
+     * 
+     * @param exercise The exercise to get the history for.
+     * @param startRevision The newest revision to include, or {@link RemoteRepository#HEAD} to start at the newest
+     *      revision.
+     * @param limit The maximum number of revisions to fetch.
+     * @param consumer Receives the revisions, newest first. Called in the background thread.
+     * 
+     * @return The start revision for the next (older) page, or {@link RemoteRepository#NO_MORE_REVISIONS} if there
+     *      are no older revisions. Completes exceptionally with an {@link SVNException} or {@link NetworkException}
+     *      if the history could not be fetched.
+     */
+    public CompletableFuture<Long> historyAsync(Assignment exercise, long startRevision, int limit,
+            Consumer<Revision> consumer) {
+        return supplyAsync("History", () -> fetchHistory(exercise, startRevision, limit, consumer));
+    }
+    
+    /**
+     * Streams a single page of the revision history of the given exercise, newest revision first.
+     * 
+     * @param exercise The exercise to get the history for.
+     * @param startRevision The newest revision to include, or {@link RemoteRepository#HEAD}.
+     * @param limit The maximum number of revisions to fetch.
+     * @param consumer Receives the revisions, newest first.
+     * 
+     * @return The start revision for the next (older) page, or {@link RemoteRepository#NO_MORE_REVISIONS}.
+     * 
+     * @throws SVNException If the history could not be fetched from the SVN server.
+     * @throws NetworkException If the location of the submission could not be queried.
+     */
+    private long fetchHistory(Assignment exercise, long startRevision, int limit, Consumer<Revision> consumer)
+            throws SVNException, NetworkException {
+        HistoryEvent event = new HistoryEvent(exercise.getName(), startRevision, limit);
+        event.begin();
+        Consumer<Revision> countingConsumer = (revision) -> {
+            event.addRevision();
+            consumer.accept(revision);
+        };
+        try {
+            long result = svnRepository.getHistory(getSubmissionTarget(exercise).getAbsolutePathInRepository(),
+                    startRevision, limit, countingConsumer);
+            event.setOutcome(Profiling.SUCCESS);
+            return result;
+            
+        } catch (SVNException | NetworkException e) {
+            event.setOutcome(Profiling.outcome(e));
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+    
     /**
      * Replays the given revision of the currently selected exercise into the currently selected directory.
      * Notifies the {@link ISubmissionOutputHandler} accordingly.
@@ -352,8 +992,22 @@ public class StandaloneSubmitter {
      * @see #setOutputHandler(ISubmissionOutputHandler)
      */
     public void replaySubmission(long revision) {
+        replaySubmission(getSelectedExercise(), revision, getDirectoryToSubmit());
+    }
+    
+    /**
+     * Replays the given revision of the given exercise into the given directory. Notifies the
+     * {@link ISubmissionOutputHandler} accordingly. Does not change the selected exercise or directory.
+     * 
+     * @param exercise The exercise to replay.
+     * @param revision The revision number to replay.
+     * @param directory The directory to write the files to. Its contents will be deleted.
+     * 
+     * @see #setOutputHandler(ISubmissionOutputHandler)
+     */
+    public void replaySubmission(Assignment exercise, long revision, File directory) {
         try {
-            svnRepository.replay(revision, getDirectoryToSubmit(), getRemotePathOfCurrentExercise());
+            replay(exercise, directory, revision, false);
             outputHandler.showInfoMessage(I18nProvider.getText("gui.log.replaying_successful"));
         } catch (SVNException | IOException | NetworkException e) {
             LOGGER.error("Could not replay submission from server", e);
@@ -361,6 +1015,21 @@ public class StandaloneSubmitter {
         }
     }
     
+    /**
+     * Replays the given revision of the given exercise into the given directory in the background. Does not notify
+     * the {@link ISubmissionOutputHandler}.
+     * 
+     * @param exercise The exercise to replay.
+     * @param revision The revision number to replay.
+     * @param directory The directory to write the files to. Its contents will be deleted.
+     * 
+     * @return The replayed revision. Completes exceptionally with an {@link SVNException}, {@link IOException} or
+     *      {@link NetworkException} if the replay failed.
+     */
+    public CompletableFuture<Long> replayAsync(Assignment exercise, long revision, File directory) {
+        return supplyAsync("Replay", () -> replay(exercise, directory, revision, false));
+    }
+    
     /**
      * Replays the correction (i.e. last revision) of the currently selected exercise into the currently selected
      * directory. Notifies the {@link ISubmissionOutputHandler} accordingly.
@@ -371,15 +1040,28 @@ public class StandaloneSubmitter {
      * @see #setOutputHandler(ISubmissionOutputHandler)
      */
     public void replayCorrection() {
+        replayCorrection(getSelectedExercise(), getDirectoryToSubmit());
+    }
+    
+    /**
+     * Replays the correction (i.e. last revision) of the given exercise into the given directory. Notifies the
+     * {@link ISubmissionOutputHandler} accordingly. Does not change the selected exercise or directory.
+     * 
+     * @param exercise The exercise to replay the correction of.
+     * @param directory The directory to write the files to. Its contents will be deleted.
+     * 
+     * @see #setOutputHandler(ISubmissionOutputHandler)
+     */
+    public void replayCorrection(Assignment exercise, File directory) {
         try {
-            svnRepository.replay(getDirectoryToSubmit(), getRemotePathOfCurrentExercise());
-            
+            replay(exercise, directory, RemoteRepository.HEAD, true);
             outputHandler.showInfoMessage(I18nProvider.getText("gui.log.replaying_successful"));
             
         } catch (SVNException e) {
-            if (e.getMessage().contains("404 Not Found")) {
+            if (e.getErrorMessage().getErrorCode() == SVNErrorCode.FS_NOT_FOUND
+                    || e.getMessage().contains("404 Not Found")) {
                 try {
-                    SubmissionTarget dest = managementSystem.getPathToSubmission(submissionConfiguration.getExercise());
+                    SubmissionTarget dest = managementSystem.getPathToSubmission(exercise);
                     outputHandler.showErrorMessage(I18nProvider.getText("gui.error.replay.no_submission_error",
                             dest.getAssignmentName(), dest.getSubmissionPath(),
                             ToolSettings.getConfig().getCourse().getTeamMail()));
@@ -397,4 +1079,56 @@ public class StandaloneSubmitter {
         }
     }
     
+    /**
+     * Replays the correction (i.e. last revision) of the given exercise into the given directory in the background.
+     * Does not notify the {@link ISubmissionOutputHandler}.
+     * 
+     * @param exercise The exercise to replay the correction of.
+     * @param directory The directory to write the files to. Its contents will be deleted.
+     * 
+     * @return The replayed revision. Completes exceptionally with an {@link SVNException}, {@link IOException} or
+     *      {@link NetworkException} if the replay failed.
+     */
+    public CompletableFuture<Long> replayCorrectionAsync(Assignment exercise, File directory) {
+        return supplyAsync("ReplayCorrection", () -> replay(exercise, directory, RemoteRepository.HEAD, true));
+    }
+    
+    /**
+     * Replays a revision of the given exercise into the given directory.
+     * 
+     * @param exercise The exercise to replay.
+     * @param directory The directory to write the files to. Its contents will be deleted.
+     * @param revision The revision number to replay. Ignored for a correction.
+     * @param correction Whether to replay the correction, i.e. the last revision.
+     * 
+     * @return The replayed revision.
+     * 
+     * @throws SVNException If the revision could not be fetched from the SVN server.
+     * @throws IOException If writing the files failed.
+     * @throws NetworkException If the location of the submission could not be queried.
+     */
+    private long replay(Assignment exercise, File directory, long revision, boolean correction)
+            throws SVNException, IOException, NetworkException {
+        ReplayEvent event = new ReplayEvent(exercise.getName(), correction);
+        event.begin();
+        try {
+            String remotePath = getSubmissionTarget(exercise).getAbsolutePathInRepository();
+            long result;
+            if (correction) {
+                result = svnRepository.replay(directory, remotePath);
+            } else {
+                result = svnRepository.replay(revision, directory, remotePath);
+            }
+            event.setRevision(result);
+            event.setOutcome(Profiling.SUCCESS);
+            return result;
+            
+        } catch (SVNException | IOException | NetworkException e) {
+            event.setOutcome(Profiling.outcome(e));
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+    
 }
@@ -5,6 +5,8 @@ import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 import java.util.List;
 
@@ -14,21 +16,31 @@ import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JSplitPane;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
 import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
 import de.uni_hildesheim.sse.submitter.settings.UiColorSettings;
+import de.uni_hildesheim.sse.submitter.settings.WatchdogSettings;
 import de.uni_hildesheim.sse.submitter.svn.ISubmissionOutputHandler;
-import de.uni_hildesheim.sse.submitter.svn.Revision;
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings;
 import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
 import net.ssehub.exercisesubmitter.protocol.frontend.Assignment;
 
 /**
- * Main window for the submitter.
+ * Main window for the submitter. All messages and events, from the {@link StandaloneSubmitter} as well as from the
+ * other GUI classes, are shown through a {@link UiEventDispatcher}, so they may be passed in from any thread.
  * 
  * @author Adam Krafczyk
  */
@@ -39,6 +51,13 @@ public class StandaloneSubmitterWindow extends JFrame
      * serialVersionUID.
      */
     private static final long serialVersionUID = 3655318432262797101L;
+    
+    private static final Logger LOGGER = LogManager.getLogger();
+    
+    /**
+     * The share of the height that the log keeps when the results of a submission are shown below it.
+     */
+    private static final double RESULT_VIEW_DIVIDER_LOCATION = 0.3;
 
     /*
      * GUI elements
@@ -46,6 +65,8 @@ public class StandaloneSubmitterWindow extends JFrame
     private JTextField sourceDirectoryField;
     private DocumentListener sourceDirectoryFieldListener;
     private LogArea logArea;
+    private ResultView resultView;
+    private JSplitPane logSplitPane;
     private JComboBox<Assignment> assignmentBox;
     private JButton submitBtn;
     private JButton historyBtn;
@@ -55,8 +76,12 @@ public class StandaloneSubmitterWindow extends JFrame
     
     private ButtonProgressAnimator progressAnimator;
     
+    private HistoryListModel shownHistory;
+    
     private StandaloneSubmitter model;
     
+    private UiEventDispatcher dispatcher = new UiEventDispatcher(new DispatcherTarget());
+    
     /**
      * Sole constructor for this class.
      * 
@@ -64,8 +89,8 @@ public class StandaloneSubmitterWindow extends JFrame
      */
     public StandaloneSubmitterWindow(StandaloneSubmitter model) {
         this.model = model;
-        this.model.setOutputHandler(this);
-        this.model.setModelListener(this);
+        this.model.setOutputHandler(dispatcher);
+        this.model.setModelListener(dispatcher);
         
         // Initialize components
         initComponents();
@@ -79,6 +104,12 @@ public class StandaloneSubmitterWindow extends JFrame
         }
         setTitle(title);
         setDefaultCloseOperation(EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent event) {
+                model.shutdown();
+            }
+        });
         setSize(600, 500);
         
         setVisible(true);
@@ -86,14 +117,46 @@ public class StandaloneSubmitterWindow extends JFrame
     }
     
     /**
-     * Call this after the {@link StandaloneSubmitter} has been initialized with login data.
+     * Starts the GUI: switches to the native look and feel, shows the main window and the {@link LoginDialog}, and
+     * shows the open assignments after the login.
+     * 
+     * @param model The {@link StandaloneSubmitter} to use.
+     */
+    public static void start(StandaloneSubmitter model) {
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (ReflectiveOperationException | UnsupportedLookAndFeelException e) {
+            LOGGER.warn("Could not switch UI to native look and feel", e);
+        }
+        
+        WatchdogSettings watchdogSettings = ToolSettings.getConfig().getWatchdogSettings();
+        if (watchdogSettings != null && watchdogSettings.isEnabled()) {
+            EdtWatchdog.install(watchdogSettings.getThresholdMillis());
+        }
+        
+        SwingUtilities.invokeLater(() -> {
+            StandaloneSubmitterWindow window = new StandaloneSubmitterWindow(model);
+            window.setLocationRelativeTo(null);
+            window.setVisible(true);
+            
+            LoginDialog dialog = new LoginDialog(window, model);
+            dialog.setVisible(true);
+            
+            window.afterLogin();
+        });
+    }
+    
+    /**
+     * Call this after the {@link StandaloneSubmitter} has been initialized with login data. The open assignments are
+     * shown as soon as they are received.
      */
     public void afterLogin() {
         if (this.model.isLoggedIn()) {
-            List<Assignment> openAssignments = this.model.getOpenAssignments();
-            if (openAssignments != null) {
-                setAssignmentMenu(openAssignments);
-            }
+            this.model.getOpenAssignmentsAsync().thenAcceptAsync((openAssignments) -> {
+                if (openAssignments != null) {
+                    setAssignmentMenu(openAssignments);
+                }
+            }, SwingUtilities::invokeLater);
             
             if (this.model.getDirectoryToSubmit() != null) {
                 updateSourceDirectoryFieldText(model.getDirectoryToSubmit().getAbsolutePath());
@@ -126,6 +189,7 @@ public class StandaloneSubmitterWindow extends JFrame
         assignments.stream()
             .forEach(a -> assignmentBox.addItem(a));
         model.setSelectedExercise((Assignment) assignmentBox.getSelectedItem());
+        model.warmUpSubmission();
     }
     
     /**
@@ -164,6 +228,8 @@ public class StandaloneSubmitterWindow extends JFrame
         sourceDirectoryField.getDocument().addDocumentListener(sourceDirectoryFieldListener);
         
         logArea = new LogArea();
+        resultView = new ResultView(colors());
+        resultView.setVisible(false);
         assignmentBox = new JComboBox<>();
         assignmentBox.setRenderer(new AssignmentComboxRenderer());
         
@@ -171,6 +237,7 @@ public class StandaloneSubmitterWindow extends JFrame
             @Override
             public void actionPerformed(ActionEvent evt) {
                 model.setSelectedExercise((Assignment) assignmentBox.getSelectedItem());
+                model.warmUpSubmission();
             }
         });
         
@@ -227,7 +294,10 @@ public class StandaloneSubmitterWindow extends JFrame
         contentPane.setLayout(new BorderLayout());
         contentPane.add(topPanel, BorderLayout.NORTH);
  //       contentPane.add(scrollPane, BorderLayout.CENTER);
-        contentPane.add(logArea, BorderLayout.CENTER);
+        logSplitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, logArea, resultView);
+        logSplitPane.setResizeWeight(RESULT_VIEW_DIVIDER_LOCATION);
+        logSplitPane.setBorder(null);
+        contentPane.add(logSplitPane, BorderLayout.CENTER);
         setContentPane(contentPane);
     }
 
@@ -281,22 +351,50 @@ public class StandaloneSubmitterWindow extends JFrame
     }
     
     /**
-     * Shows the history to the user.
-     * @param history list with lines of history; each line should be one entry
+     * Shows the history of the currently selected exercise to the user. The revisions are appended to the log as
+     * soon as they are received, newest first; older revisions are loaded when the log is scrolled down.
+     * 
+     * @param firstPageLoaded Called in the event dispatch thread once the first page of revisions is shown.
      */
-    void showHistory(List<Revision> history) {
+    void showHistory(Runnable firstPageLoaded) {
         clearLog();
         showInfoMessage(I18nProvider.getText("gui.log.history"));
-        for (Revision line : history) {
-            showInfoMessage(line.toString());
-        }
+        
+        HistoryListModel revisions = new HistoryListModel(model, model.getSelectedExercise());
+        revisions.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent event) {
+                for (int i = event.getIndex0(); i <= event.getIndex1(); i++) {
+                    showInfoMessage(revisions.getElementAt(i).toString());
+                }
+            }
+            
+            @Override
+            public void intervalRemoved(ListDataEvent event) {
+            }
+            
+            @Override
+            public void contentsChanged(ListDataEvent event) {
+            }
+        });
+        revisions.setPageListener(() -> {
+            revisions.setPageListener(null);
+            firstPageLoaded.run();
+        });
+        revisions.loadOnScroll(logArea.getVerticalScrollBar());
+        revisions.loadNextPage();
+        shownHistory = revisions;
     }
     
     /**
-     * Clears the log.
+     * Clears the log and the shown errors, once all messages passed in before are shown.
      */
     void clearLog() {
-        logArea.clear();
+        if (shownHistory != null) {
+            shownHistory.detach();
+            shownHistory = null;
+        }
+        dispatcher.clearLog();
     }
     
     /**
@@ -309,69 +407,61 @@ public class StandaloneSubmitterWindow extends JFrame
     
     @Override
     public void onSubmissionDirectoryChanged(File newFolder) {
-        SwingUtilities.invokeLater(() -> {
-            updateSourceDirectoryFieldText(model.getDirectoryToSubmit().getAbsolutePath());
-        });
+        dispatcher.onSubmissionDirectoryChanged(newFolder);
     }
     
     @Override
     public void showErrorMessage(String message) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append(I18nProvider.getText("errors.messages.error") + ": " + message,
-                    colors().getErrorColor(), true);
-        });
+        dispatcher.showErrorMessage(message);
     }
 
     @Override
     public void showInfoMessage(String message) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append(message);
-            logArea.append("\n");
-        });
+        dispatcher.showInfoMessage(message);
     }
 
     @Override
     public void showInfoMessage(String message, ErrorDescription[] descriptions) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append(message);
-            logArea.append("\n");
-            for (ErrorDescription description : descriptions) {
-                if (null != description.getTool()) {
-                    
-                    logArea.append(I18nProvider.getText("gui.tool." + description.getTool().getToolName()) + " ",
-                            colors().getColor(description.getTool()), true);
-                    
-                }
-                if (null != description.getSeverity()) {
-                    switch (description.getSeverity()) {
-                    case ERROR:
-                        logArea.append(I18nProvider.getText("gui.log.error_in") + " ",
-                                colors().getErrorColor(), false);
-                        break;
-                    case WARNING:
-                        logArea.append(I18nProvider.getText("gui.log.warning_in") + " ",
-                                colors().getWarningColor(), false);
-                        break;
-                    default:
-                        logArea.append(I18nProvider.getText("gui.log.prolem_in") + " ");
-                        break;
-                    }
-                }
-                if (null != description.getFile()) {
-                    logArea.append(description.getFile() + " ");
-                } else {
-                    logArea.append(I18nProvider.getText("gui.log.unspecified_files") + " ");
-                }
-                if (description.getLine() > 0) {
-                    logArea.append(I18nProvider.getText("gui.log.line", description.getLine()) + ":");
-                }
-                logArea.append("\n");
-                if (null != description.getMessage()) {
-                    logArea.append(" -> " + I18nProvider.getText("gui.log.cause") + ": " + description.getMessage());
-                    logArea.append("\n");
-                }
+        dispatcher.showInfoMessage(message, descriptions);
+    }
+    
+    @Override
+    public void showSubmissionDetails(SubmissionTimings timings) {
+        dispatcher.showSubmissionDetails(timings);
+    }
+    
+    /**
+     * Shows the events passed through the {@link UiEventDispatcher} in this window.
+     */
+    private class DispatcherTarget implements UiEventDispatcher.Target {
+
+        @Override
+        public void appendLog(String text, String color, boolean bold) {
+            logArea.append(text, color, bold);
+        }
+
+        @Override
+        public void showResults(ErrorDescription[] descriptions) {
+            resultView.showResults(descriptions);
+            if (!resultView.isVisible()) {
+                resultView.setVisible(true);
+                logSplitPane.validate();
+                logSplitPane.setDividerLocation(RESULT_VIEW_DIVIDER_LOCATION);
             }
-        });
+        }
+
+        @Override
+        public void clearLog() {
+            logArea.clear();
+            resultView.clear();
+            resultView.setVisible(false);
+        }
+
+        @Override
+        public void showSubmissionDirectory(File newFolder) {
+            updateSourceDirectoryFieldText(model.getDirectoryToSubmit().getAbsolutePath());
+        }
+        
     }
     
 }
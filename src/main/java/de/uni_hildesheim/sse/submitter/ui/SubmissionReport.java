@@ -0,0 +1,170 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNErrorCode;
+
+import de.uni_hildesheim.sse.submitter.svn.ErrorType;
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings;
+import de.uni_hildesheim.sse.submitter.svn.SubmitException;
+import de.uni_hildesheim.sse.submitter.svn.SubmitResult;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+import net.ssehub.exercisesubmitter.protocol.frontend.Assignment;
+
+/**
+ * The outcome of a single submission, as returned by
+ * {@link StandaloneSubmitter#submitAsync(Assignment, de.uni_hildesheim.sse.submitter.io.SubmissionManifest)}.
+ * Either the commit reached the SVN server, then the {@link SVNCommitInfo} and the errors reported by the hook are
+ * available; or the submission failed before, then the {@link SubmitException} is available.
+ *
+ * @author Adam Krafczyk
+ */
+public class SubmissionReport {
+
+    private Assignment exercise;
+
+    private String submissionPath;
+
+    private SVNCommitInfo commitInfo;
+
+    private List<ErrorDescription> hookErrors;
+
+    private SubmitException failure;
+
+    private int numJavaFiles;
+
+    private SubmissionTimings timings;
+
+    /**
+     * Creates a report for a commit that reached the SVN server.
+     *
+     * @param exercise The submitted exercise.
+     * @param submissionPath The folder on the server that was submitted to.
+     * @param result The result of the commit.
+     * @param hookErrors The errors reported by the SVN hook, or <code>null</code> if its output could not be parsed.
+     */
+    public SubmissionReport(Assignment exercise, String submissionPath, SubmitResult result,
+            List<ErrorDescription> hookErrors) {
+        this.exercise = exercise;
+        this.submissionPath = submissionPath;
+        this.commitInfo = result.getCommitInfo();
+        this.hookErrors = hookErrors;
+        this.numJavaFiles = result.getNumJavFiles();
+        this.timings = result.getTimings();
+    }
+
+    /**
+     * Creates a report for a submission that failed before the commit was accepted by the SVN server.
+     *
+     * @param exercise The exercise that should have been submitted.
+     * @param submissionPath The folder on the server that should have been submitted to, or <code>null</code> if
+     *      not known.
+     * @param failure The reason of the failure.
+     * @param timings The phases that were measured until the failure.
+     */
+    public SubmissionReport(Assignment exercise, String submissionPath, SubmitException failure,
+            SubmissionTimings timings) {
+        this.exercise = exercise;
+        this.submissionPath = submissionPath;
+        this.failure = failure;
+        this.hookErrors = Collections.emptyList();
+        this.timings = timings;
+    }
+
+    /**
+     * Returns the submitted exercise.
+     *
+     * @return The exercise.
+     */
+    public Assignment getExercise() {
+        return exercise;
+    }
+
+    /**
+     * Returns the folder on the server that was submitted to. Usually this is the group name for group assignments
+     * or the user-name for single assignments.
+     *
+     * @return The submission folder, or <code>null</code> if not known.
+     */
+    public String getSubmissionPath() {
+        return submissionPath;
+    }
+
+    /**
+     * Returns the result of the commit.
+     *
+     * @return The {@link SVNCommitInfo}, or <code>null</code> if the submission failed before.
+     */
+    public SVNCommitInfo getCommitInfo() {
+        return commitInfo;
+    }
+
+    /**
+     * Returns the revision that was created by the submission.
+     *
+     * @return The new revision, or -1 if no revision was created, e.g. because nothing changed.
+     */
+    public long getRevision() {
+        return commitInfo != null ? commitInfo.getNewRevision() : -1;
+    }
+
+    /**
+     * Returns the errors and warnings that the SVN hook reported.
+     *
+     * @return The reported errors; empty if the hook did not report any. <code>null</code> if the output of the hook
+     *      could not be parsed.
+     */
+    public List<ErrorDescription> getHookErrors() {
+        return hookErrors;
+    }
+
+    /**
+     * Returns the reason if the submission failed before the commit reached the SVN server.
+     *
+     * @return The failure, or <code>null</code> if the commit reached the server.
+     */
+    public SubmitException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns the type of the failure, see {@link #getFailure()}.
+     *
+     * @return The {@link ErrorType}, or <code>null</code> if the commit reached the server.
+     */
+    public ErrorType getErrorType() {
+        return failure != null ? failure.getErrorCode() : null;
+    }
+
+    /**
+     * Returns whether the submission is stored on the server. This is also the case if the post-commit hook
+     * reported errors, but not if the pre-commit hook rejected the submission.
+     *
+     * @return Whether the submission was accepted.
+     */
+    public boolean isAccepted() {
+        return commitInfo != null && (commitInfo.getErrorMessage() == null
+                || commitInfo.getErrorMessage().getErrorCode().equals(SVNErrorCode.REPOS_POST_COMMIT_HOOK_FAILED));
+    }
+
+    /**
+     * Returns the number of Java files that were submitted.
+     *
+     * @return The number of Java files; 0 if the submission failed before the commit.
+     */
+    public int getNumJavaFiles() {
+        return numJavaFiles;
+    }
+
+    /**
+     * Returns the durations of the phases of the submission.
+     *
+     * @return The measured phases.
+     */
+    public SubmissionTimings getTimings() {
+        return timings;
+    }
+
+}
@@ -0,0 +1,200 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs the blocking network and disk operations of the {@link StandaloneSubmitter} in the background. The number of
+ * threads and the number of waiting tasks are bounded; idle threads terminate after a short time. Each task is
+ * represented by a {@link CompletableFuture}; cancelling it removes a waiting task, or interrupts the thread of a
+ * running task.
+ * <p>
+ * The threads are named after the executor, and while a task runs, after the task as well. All threads are created
+ * by {@link #newThread(Runnable)}, so that this is the only place to change when switching to virtual threads.
+ * <p>
+ * Results are passed to the GUI by completing the futures with the event dispatch thread as executor, e.g.
+ * <code>future.whenCompleteAsync(callback, SwingUtilities::invokeLater)</code>.
+ *
+ * @author Adam Krafczyk
+ */
+public class TaskExecutor {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private String name;
+
+    private ThreadPoolExecutor pool;
+
+    private AtomicInteger threadNumber = new AtomicInteger();
+
+    /**
+     * A single task. Is executed by the pool, and is the future that is returned to the caller.
+     *
+     * @param <T> The type of the result of the task.
+     */
+    private final class Task<T> extends CompletableFuture<T> implements Runnable {
+
+        private String taskName;
+
+        private Callable<T> callable;
+
+        private Thread runner;
+
+        /**
+         * Creates a task.
+         *
+         * @param taskName The name of the task, shown in the name of the thread while it runs.
+         * @param callable The operation to run.
+         */
+        private Task(String taskName, Callable<T> callable) {
+            this.taskName = taskName;
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            if (start()) {
+                Thread thread = Thread.currentThread();
+                String threadName = thread.getName();
+                thread.setName(threadName + " (" + taskName + ")");
+                // checkstyle: stop exception type check
+                try {
+                    complete(callable.call());
+                } catch (Exception | Error e) {
+                    // any failure is passed to the caller, otherwise the future would never complete
+                    LOGGER.debug("Task {} failed", taskName, e);
+                    completeExceptionally(e);
+                } finally {
+                    finish();
+                    thread.setName(threadName);
+                }
+                // checkstyle: resume exception type check
+            }
+        }
+
+        /**
+         * Marks this task as running in the current thread.
+         *
+         * @return Whether the task should run, i.e. it was not cancelled while waiting.
+         */
+        private synchronized boolean start() {
+            boolean result = !isDone();
+            if (result) {
+                runner = Thread.currentThread();
+            }
+            return result;
+        }
+
+        /**
+         * Marks this task as finished. Clears an interrupt caused by a late {@link #cancel(boolean)}, so that it does
+         * not affect the next task of the thread.
+         */
+        private synchronized void finish() {
+            runner = null;
+            Thread.interrupted();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                pool.remove(this);
+                synchronized (this) {
+                    if (runner != null) {
+                        runner.interrupt();
+                    }
+                }
+            }
+            return cancelled;
+        }
+
+    }
+
+    /**
+     * Creates an executor. Threads are started on demand.
+     *
+     * @param name The name of the executor, used for the names of the threads.
+     * @param threads The maximum number of tasks that run at the same time.
+     * @param capacity The maximum number of tasks that wait for a free thread.
+     */
+    public TaskExecutor(String name, int threads, int capacity) {
+        this.name = name;
+        this.pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity), this::newThread);
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs an operation in the background.
+     *
+     * @param <T> The type of the result of the operation.
+     * @param taskName A short name of the operation, for log messages and thread names.
+     * @param operation The operation to run.
+     *
+     * @return The result of the operation. Completes exceptionally if the operation throws an exception, or if the
+     *      executor is overloaded or shut down.
+     */
+    public <T> CompletableFuture<T> supply(String taskName, Callable<T> operation) {
+        Task<T> task = new Task<>(taskName, operation);
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Rejected task {}, {} tasks are waiting", taskName, pool.getQueue().size());
+            task.completeExceptionally(e);
+        }
+        return task;
+    }
+
+    /**
+     * Runs an operation without result in the background.
+     *
+     * @param taskName A short name of the operation, for log messages and thread names.
+     * @param operation The operation to run.
+     *
+     * @return Completes when the operation is finished. Completes exceptionally if the operation throws an exception,
+     *      or if the executor is overloaded or shut down.
+     */
+    public CompletableFuture<Void> run(String taskName, Runnable operation) {
+        return supply(taskName, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stops this executor. Waiting tasks are cancelled, running tasks are interrupted. Does not wait for running
+     * tasks to finish. Further tasks are rejected.
+     */
+    public void shutdown() {
+        List<Runnable> waiting = pool.shutdownNow();
+        for (Runnable task : waiting) {
+            ((Task<?>) task).cancel(false);
+        }
+        LOGGER.debug("Shut down {}, cancelled {} waiting tasks", name, waiting.size());
+    }
+
+    /**
+     * Creates a thread of the pool. Platform threads are used for now; virtual threads require a newer Java release.
+     *
+     * @param runnable The runnable of the pool that the thread executes.
+     *
+     * @return The new, not yet started, thread.
+     */
+    private Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+}
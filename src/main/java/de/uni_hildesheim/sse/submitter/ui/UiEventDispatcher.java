@@ -0,0 +1,250 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+
+import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.settings.LogSettings;
+import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
+import de.uni_hildesheim.sse.submitter.svn.ISubmissionOutputHandler;
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+
+/**
+ * Passes the events of the {@link StandaloneSubmitter} to the GUI. The events may be created in any thread; they are
+ * put into a lock-free queue, which is drained by a single task in the event dispatch thread. While draining, all
+ * consecutive log messages with the same style are merged into a single append, and only the latest change of the
+ * submission directory is shown. Clearing the log goes through the same queue, so that it only removes the messages
+ * that were passed in before.
+ *
+ * @author Adam Krafczyk
+ */
+class UiEventDispatcher implements ISubmissionOutputHandler, IStandaloneSubmitterListener {
+
+    private Target target;
+
+    private Queue<Event> queue = new ConcurrentLinkedQueue<>();
+
+    private AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    /**
+     * The GUI that shows the events. All methods are called in the event dispatch thread.
+     */
+    interface Target {
+
+        /**
+         * Appends text to the log.
+         *
+         * @param text The text to append.
+         * @param color The color of the text, or an empty string for the default color.
+         * @param bold Whether the text is shown bold.
+         */
+        void appendLog(String text, String color, boolean bold);
+
+        /**
+         * Shows the errors detected by the SVN hook.
+         *
+         * @param descriptions The errors, not empty.
+         */
+        void showResults(ErrorDescription[] descriptions);
+
+        /**
+         * Shows a changed submission directory.
+         *
+         * @param newFolder The new directory that will be submitted.
+         */
+        void showSubmissionDirectory(File newFolder);
+
+        /**
+         * Clears the log and the shown errors.
+         */
+        void clearLog();
+
+    }
+
+    /**
+     * A single queued event. Exactly one of the fields <code>text</code>, <code>descriptions</code> or
+     * <code>folder</code> is set, or <code>clear</code> is <code>true</code>.
+     */
+    private static final class Event {
+
+        private String text;
+
+        private String color;
+
+        private boolean bold;
+
+        private ErrorDescription[] descriptions;
+
+        private File folder;
+
+        private boolean clear;
+
+    }
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param target The GUI that shows the events.
+     */
+    UiEventDispatcher(Target target) {
+        this.target = target;
+    }
+
+    @Override
+    public void showInfoMessage(String message) {
+        enqueueLog(message + "\n", "", false);
+        scheduleDrain();
+    }
+
+    @Override
+    public void showErrorMessage(String message) {
+        enqueueLog(I18nProvider.getText("errors.messages.error") + ": " + message,
+                ToolSettings.getConfig().getColorSettings().getErrorColor(), true);
+        scheduleDrain();
+    }
+
+    @Override
+    public void showInfoMessage(String message, ErrorDescription[] descriptions) {
+        enqueueLog(message + "\n", "", false);
+        if (descriptions.length > 0) {
+            Event event = new Event();
+            event.descriptions = descriptions;
+            queue.add(event);
+        }
+        scheduleDrain();
+    }
+
+    @Override
+    public void showSubmissionDetails(SubmissionTimings timings) {
+        LogSettings settings = ToolSettings.getConfig().getLogSettings();
+        if (settings != null && settings.isShowSubmissionDetails()) {
+            enqueueLog(formatDetails(timings) + "\n", "", false);
+            scheduleDrain();
+        }
+    }
+
+    @Override
+    public void onSubmissionDirectoryChanged(File newFolder) {
+        Event event = new Event();
+        event.folder = newFolder;
+        queue.add(event);
+        scheduleDrain();
+    }
+
+    /**
+     * Clears the log after all previously passed messages are shown.
+     */
+    void clearLog() {
+        Event event = new Event();
+        event.clear = true;
+        queue.add(event);
+        scheduleDrain();
+    }
+
+    /**
+     * Formats the durations of the phases of a submission for the log.
+     *
+     * @param timings The measured phases.
+     *
+     * @return A single line listing all phases.
+     */
+    static String formatDetails(SubmissionTimings timings) {
+        StringJoiner phases = new StringJoiner(", ");
+        for (SubmissionTimings.Measurement measurement : timings.getMeasurements()) {
+            String name = I18nProvider.getText("gui.phase." + measurement.getPhase().name().toLowerCase(Locale.ROOT));
+            double seconds = measurement.getMillis() / 1000.0;
+            if (measurement.getFiles() > 0) {
+                phases.add(I18nProvider.getText("gui.log.phase_files", name, seconds, measurement.getFiles(),
+                        (measurement.getBytes() + 1023) / 1024));
+            } else {
+                phases.add(I18nProvider.getText("gui.log.phase", name, seconds));
+            }
+        }
+        return I18nProvider.getText("gui.log.submission_details", phases.toString());
+    }
+
+    /**
+     * Adds a log message to the queue.
+     *
+     * @param text The text to append to the log.
+     * @param color The color of the text, or an empty string for the default color.
+     * @param bold Whether the text is shown bold.
+     */
+    private void enqueueLog(String text, String color, boolean bold) {
+        Event event = new Event();
+        event.text = text;
+        event.color = color;
+        event.bold = bold;
+        queue.add(event);
+    }
+
+    /**
+     * Schedules {@link #drain()} in the event dispatch thread, unless it is already scheduled.
+     */
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drain);
+        }
+    }
+
+    /**
+     * Passes all queued events to the {@link Target}. Must be called in the event dispatch thread.
+     */
+    void drain() {
+        // events added from now on schedule a new drain
+        drainScheduled.set(false);
+
+        StringBuilder text = new StringBuilder();
+        Event style = null;
+        File folder = null;
+        boolean folderChanged = false;
+
+        Event event = queue.poll();
+        while (event != null) {
+            if (event.text != null) {
+                if (style != null && (!style.color.equals(event.color) || style.bold != event.bold)) {
+                    flushLog(text, style);
+                }
+                style = event;
+                text.append(event.text);
+            } else if (event.descriptions != null) {
+                flushLog(text, style);
+                target.showResults(event.descriptions);
+            } else if (event.clear) {
+                // the pending text would be removed right away
+                text.setLength(0);
+                target.clearLog();
+            } else {
+                folder = event.folder;
+                folderChanged = true;
+            }
+            event = queue.poll();
+        }
+        flushLog(text, style);
+
+        if (folderChanged) {
+            target.showSubmissionDirectory(folder);
+        }
+    }
+
+    /**
+     * Appends the collected log text to the {@link Target}.
+     *
+     * @param text The collected text. Is emptied by this method.
+     * @param style The last collected event, which defines the style of the text.
+     */
+    private void flushLog(StringBuilder text, Event style) {
+        if (text.length() > 0) {
+            target.appendLog(text.toString(), style.color, style.bold);
+            text.setLength(0);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package de.uni_hildesheim.sse.submitter.cli;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.settings.SubmissionConfiguration;
+import de.uni_hildesheim.sse.submitter.svn.ErrorType;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Severity;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Tool;
+import de.uni_hildesheim.sse.submitter.ui.StandaloneSubmitter;
+import net.ssehub.exercisesubmitter.protocol.frontend.SubmitterProtocol;
+
+public class CommandLineSubmitterTest {
+
+    private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    @DisplayName("prints the usage for help without logging in")
+    public void help() {
+        int exitCode = run("", "help");
+
+        assertAll(
+            () -> assertEquals(ExitCode.SUCCESS.getCode(), exitCode),
+            () -> assertTrue(out.toString().contains("list-assignments")),
+            () -> assertEquals("", err.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("rejects invalid arguments with the usage exit code")
+    public void invalidArguments() {
+        assertAll(
+            () -> assertEquals(ExitCode.USAGE.getCode(), run("", "submit", "--unknown")),
+            () -> assertEquals(ExitCode.USAGE.getCode(), run("", "replay")),
+            () -> assertEquals(ExitCode.USAGE.getCode(), run("", "replay", "abc")),
+            () -> assertEquals(ExitCode.USAGE.getCode(), run("", "history", "--limit")),
+            () -> assertEquals(ExitCode.USAGE.getCode(), run("", "deploy")),
+            () -> assertEquals("", out.toString(), "usage errors should not be printed to stdout")
+        );
+    }
+
+    @Test
+    @DisplayName("prints the failed login as JSON")
+    public void noPassword() {
+        int exitCode = run("", "list-assignments", "--json", "--user", "student1");
+
+        assertAll(
+            () -> assertEquals(ExitCode.LOGIN_FAILED.getCode(), exitCode),
+            () -> assertEquals("{\"command\":\"list-assignments\",\"user\":\"student1\",\"exitCode\":2,"
+                    + "\"messages\":[],\"errors\":[\"" + I18nProvider.getText("cli.error.no_password") + "\"]}",
+                    out.toString().trim()),
+            () -> assertEquals("", err.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("maps every ErrorType to its own exit code")
+    public void exitCodes() {
+        Set<Integer> codes = new HashSet<>();
+        for (ErrorType errorType : ErrorType.values()) {
+            codes.add(ExitCode.of(errorType).getCode());
+        }
+
+        assertAll(
+            () -> assertEquals(ErrorType.values().length, codes.size()),
+            () -> assertTrue(codes.stream().allMatch((code) -> code >= 10)),
+            () -> assertEquals(ExitCode.FAILED, ExitCode.of((ErrorType) null))
+        );
+    }
+
+    @Test
+    @DisplayName("formats problems of the hook with severity, tool and location")
+    public void formatProblem() {
+        ErrorDescription problem = new ErrorDescription();
+        problem.setSeverity(Severity.ERROR);
+        problem.setTool(Tool.CHECKSTYLE);
+        problem.setFile("Main.java");
+        problem.setLine(12);
+        problem.setMessage("Missing a Javadoc comment.");
+
+        assertEquals(I18nProvider.getText("gui.severity.error") + " [checkstyle] Main.java:12: Missing a Javadoc "
+                + "comment.",
+                CommandLineSubmitter.formatProblem(problem));
+    }
+
+    private int run(String input, String... args) {
+        StandaloneSubmitter model = new StandaloneSubmitter(new SubmissionConfiguration("", new char[0], null),
+                new SubmitterProtocol(null, null, null, null));
+        return new CommandLineSubmitter(model, new ByteArrayInputStream(input.getBytes()), new PrintStream(out),
+                new PrintStream(err)).run(args);
+    }
+
+}
@@ -0,0 +1,37 @@
+package de.uni_hildesheim.sse.submitter.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class JsonWriterTest {
+
+    @Test
+    @DisplayName("separates nested objects and arrays")
+    public void nesting() {
+        JsonWriter writer = new JsonWriter();
+        writer.beginObject()
+            .name("revision").value(42)
+            .name("accepted").value(true)
+            .name("problems").beginArray()
+                .beginObject().name("file").value((String) null).endObject()
+                .beginObject().name("line").value(-1).endObject()
+            .endArray()
+            .name("messages").beginArray().endArray()
+            .endObject();
+
+        assertEquals("{\"revision\":42,\"accepted\":true,\"problems\":[{\"file\":null},{\"line\":-1}],"
+                + "\"messages\":[]}", writer.toString());
+    }
+
+    @Test
+    @DisplayName("escapes quotes, backslashes and control characters")
+    public void escaping() {
+        JsonWriter writer = new JsonWriter();
+        writer.value("\"C:\\Temp\"\n\t\u00fc\u0001");
+
+        assertEquals("\"\\\"C:\\\\Temp\\\"\\n\\t\u00fc\\u0001\"", writer.toString());
+    }
+
+}
@@ -0,0 +1,145 @@
+package de.uni_hildesheim.sse.submitter.io;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FolderCheckTest {
+
+    private Set<File> temporaryDirectories = new HashSet<>();
+
+    @Test
+    @DisplayName("bounded check within limits counts everything")
+    public void boundedWithinLimits() throws IOException {
+        File folder = createTemporaryDirectory();
+        FileUtils.write(new File(folder, "Main.java"), "main\n");
+        FileUtils.write(new File(folder, "pkg/Util.java"), "util\n");
+        FileUtils.write(new File(folder, "pkg/sub/readme.txt"), "readme\n");
+        FileUtils.write(new File(folder, ".svn/entries"), "svn data\n");
+
+        FolderCheck checker = new FolderCheck(folder, 10, 1024);
+
+        assertAll(
+            () -> assertEquals(3, checker.getNumFiles(), "should count all files outside of .svn"),
+            () -> assertEquals(2, checker.getNumJavaFiles(), "should count Java files"),
+            () -> assertEquals(17, checker.getTotalSize(), "should sum up file sizes"),
+            () -> assertFalse(checker.isLimitExceeded(), "limits should not be exceeded")
+        );
+    }
+
+    @Test
+    @DisplayName("bounded check within limits creates the manifest in the same walk")
+    public void boundedCreatesManifest() throws IOException {
+        File folder = createTemporaryDirectory();
+        FileUtils.write(new File(folder, "Main.java"), "main\n");
+        FileUtils.write(new File(folder, "pkg/Util.java"), "util\n");
+        FileUtils.write(new File(folder, ".svn/entries"), "svn data\n");
+
+        SubmissionManifest manifest = new FolderCheck(folder, 10, 1024).getManifest();
+
+        assertAll(
+            () -> assertEquals(Arrays.asList("Main.java", "pkg", "pkg/Util.java"),
+                    manifest.getEntries().stream().map(SubmissionManifest.Entry::getPath)
+                    .collect(Collectors.toList()), "should list all files and folders outside of .svn, sorted"),
+            () -> assertTrue(manifest.getEntry("pkg").isDirectory(), "should mark folders"),
+            () -> assertEquals(5, manifest.getEntry("pkg/Util.java").getSize(), "should record the file size"),
+            () -> assertEquals(folder, manifest.getRoot())
+        );
+    }
+
+    @Test
+    @DisplayName("bounded check stops when too many files are found")
+    public void boundedTooManyFiles() throws IOException {
+        File folder = createTemporaryDirectory();
+        for (int i = 0; i < 200; i++) {
+            FileUtils.write(new File(folder, "dir" + (i % 10) + "/File" + i + ".java"), "x");
+        }
+
+        FolderCheck checker = new FolderCheck(folder, 5, Long.MAX_VALUE);
+
+        assertAll(
+            () -> assertTrue(checker.isLimitExceeded(), "limit should be exceeded"),
+            () -> assertTrue(checker.getNumFiles() > 5, "should report at least the maximum number of files"),
+            () -> assertTrue(checker.getNumFiles() < 200, "should stop before counting all files"),
+            () -> assertNull(checker.getManifest(), "should not create an incomplete manifest")
+        );
+    }
+
+    @Test
+    @DisplayName("bounded check stops when folder is too large")
+    public void boundedTooLarge() throws IOException {
+        File folder = createTemporaryDirectory();
+        FileUtils.write(new File(folder, "big.txt"), "0123456789");
+
+        FolderCheck checker = new FolderCheck(folder, 10, 5);
+
+        assertAll(
+            () -> assertTrue(checker.isLimitExceeded(), "limit should be exceeded"),
+            () -> assertEquals(10, checker.getTotalSize(), "should report the size found so far")
+        );
+    }
+
+    @Test
+    @DisplayName("bounded check follows symbolic links, but walks each folder only once")
+    public void boundedSymbolicLinks() throws IOException {
+        File folder = createTemporaryDirectory();
+        FileUtils.write(new File(folder, "pkg/Util.java"), "util\n");
+        Files.createSymbolicLink(new File(folder, "pkg/parent").toPath(), folder.toPath());
+        Files.createSymbolicLink(new File(folder, "Link.java").toPath(), new File(folder, "pkg/Util.java").toPath());
+        Files.createSymbolicLink(new File(folder, "broken").toPath(), new File(folder, "missing").toPath());
+
+        FolderCheck checker = new FolderCheck(folder, 10, 1024);
+
+        assertAll(
+            () -> assertEquals(2, checker.getNumFiles(), "should count linked files, but not the broken link"),
+            () -> assertEquals(Arrays.asList("Link.java", "pkg", "pkg/Util.java"),
+                    checker.getManifest().getEntries().stream().map(SubmissionManifest.Entry::getPath)
+                    .collect(Collectors.toList()), "should not walk the link to the parent folder")
+        );
+    }
+
+    private File createTemporaryDirectory() {
+        return assertDoesNotThrow(() -> {
+
+            File tempfile = File.createTempFile("FolderCheckTest", null);
+            tempfile.delete();
+
+            File tempdir = tempfile;
+            tempdir.mkdir();
+
+            assertTrue(tempdir.isDirectory(), "Precondition: temporary directory is created");
+
+            temporaryDirectories.add(tempdir);
+
+            return tempdir;
+        });
+    }
+
+    @AfterEach
+    public void cleanupTemporaryDirectories() {
+        for (File directory : temporaryDirectories) {
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+}
@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -210,6 +211,146 @@ public class FolderInitializerTest {
         );
     }
     
+    @Test
+    @DisplayName("sync copies new files and reports them as added")
+    public void syncAddsNewFiles() throws IOException {
+        File source = createTemporaryDirectory();
+        File target = createTemporaryDirectory();
+        
+        FileUtils.write(new File(source, "Main.java"), "main\n");
+        FileUtils.write(new File(source, "pkg/Util.java"), "util\n");
+        
+        FolderInitializer initializer = new FolderInitializer(source, target);
+        StagedChanges changes = assertDoesNotThrow(() -> initializer.sync("Something"));
+        
+        assertAll(
+            () -> assertEquals("main\n", FileUtils.readFileToString(new File(target, "Main.java")), "Main.java should be copied"),
+            () -> assertEquals("util\n", FileUtils.readFileToString(new File(target, "pkg/Util.java")), "pkg/Util.java should be copied"),
+            () -> assertEquals(Arrays.asList(new File(target, "Main.java"), new File(target, "pkg"),
+                    new File(target, "pkg/Util.java"), new File(target, ".classpath"), new File(target, ".project")),
+                    changes.getAddedFiles(), "all files should be reported as added, parents before their content"),
+            () -> assertTrue(changes.getModifiedFiles().isEmpty(), "no files should be reported as modified"),
+            () -> assertTrue(changes.getDeletedFiles().isEmpty(), "no files should be reported as deleted")
+        );
+    }
+    
+    @Test
+    @DisplayName("sync leaves unchanged files untouched")
+    public void syncUnchanged() throws IOException {
+        File source = createTemporaryDirectory();
+        File target = createTemporaryDirectory();
+        
+        FileUtils.write(new File(source, "Main.java"), "main\n");
+        FolderInitializer initializer = new FolderInitializer(source, target);
+        assertDoesNotThrow(() -> initializer.sync("Something"));
+        
+        // same content, but different modification time
+        File targetFile = new File(target, "Main.java");
+        targetFile.setLastModified(targetFile.lastModified() - 10000);
+        long lastModified = targetFile.lastModified();
+        
+        StagedChanges changes = assertDoesNotThrow(() -> initializer.sync("Something"));
+        
+        assertAll(
+            () -> assertTrue(changes.isEmpty(), "no changes should be reported"),
+            () -> assertEquals("main\n", FileUtils.readFileToString(targetFile), "Main.java should keep its content"),
+            () -> assertFalse(lastModified == targetFile.lastModified(), "modification time should be aligned to source")
+        );
+    }
+    
+    @Test
+    @DisplayName("sync overwrites modified files and removes deleted files")
+    public void syncModifiedAndDeleted() throws IOException {
+        File source = createTemporaryDirectory();
+        File target = createTemporaryDirectory();
+        
+        FileUtils.write(new File(source, "Main.java"), "main\n");
+        FileUtils.write(new File(source, "Old.java"), "old\n");
+        FileUtils.write(new File(source, "pkg/Util.java"), "util\n");
+        FolderInitializer initializer = new FolderInitializer(source, target);
+        assertDoesNotThrow(() -> initializer.sync("Something"));
+        
+        File svnFile = new File(target, ".svn/entries");
+        FileUtils.write(svnFile, "svn data\n");
+        
+        FileUtils.write(new File(source, "Main.java"), "main changed\n");
+        new File(source, "Old.java").delete();
+        FileUtils.deleteDirectory(new File(source, "pkg"));
+        
+        StagedChanges changes = assertDoesNotThrow(() -> initializer.sync("Something"));
+        
+        assertAll(
+            () -> assertEquals("main changed\n", FileUtils.readFileToString(new File(target, "Main.java")), "Main.java should be overwritten"),
+            () -> assertFalse(new File(target, "Old.java").exists(), "Old.java should be removed"),
+            () -> assertFalse(new File(target, "pkg").exists(), "pkg should be removed"),
+            () -> assertTrue(svnFile.isFile(), "files in .svn folder should not be removed"),
+            () -> assertTrue(new File(target, ".project").isFile(), "target should still contain .project file"),
+            () -> assertTrue(changes.getAddedFiles().isEmpty(), "no files should be reported as added"),
+            () -> assertEquals(Arrays.asList(new File(target, "Main.java")), changes.getModifiedFiles(), "Main.java should be reported as modified"),
+            () -> assertEquals(new HashSet<>(Arrays.asList(new File(target, "Old.java"), new File(target, "pkg"))),
+                    new HashSet<>(changes.getDeletedFiles()), "Old.java and pkg should be reported as deleted")
+        );
+    }
+    
+    @Test
+    @DisplayName("sync restores the default .project and .classpath when they are deleted from source")
+    public void syncDeletedProjectAndClasspath() throws IOException {
+        File source = createTemporaryDirectory();
+        File target = createTemporaryDirectory();
+        
+        FileUtils.write(new File(source, ".project"), "some project data\n");
+        FileUtils.write(new File(source, ".classpath"), "classpath content\n");
+        FolderInitializer initializer = new FolderInitializer(source, target);
+        assertDoesNotThrow(() -> initializer.sync("Something"));
+        
+        new File(source, ".project").delete();
+        new File(source, ".classpath").delete();
+        StagedChanges changes = assertDoesNotThrow(() -> initializer.sync("Something"));
+        
+        File targetProject = new File(target, ".project");
+        File targetClasspath = new File(target, ".classpath");
+        assertAll(
+            () -> assertEquals(new String(FolderInitializer.createDefaultProject("Something")),
+                    FileUtils.readFileToString(targetProject), "target .project should contain the default content"),
+            () -> assertEquals(new String(FolderInitializer.createDefaultClasspath()),
+                    FileUtils.readFileToString(targetClasspath), "target .classpath should contain the default content"),
+            () -> assertEquals(new HashSet<>(Arrays.asList(targetProject, targetClasspath)),
+                    new HashSet<>(changes.getModifiedFiles()), "both files should be reported as modified"),
+            () -> assertTrue(changes.getDeletedFiles().isEmpty(), "no files should be reported as deleted")
+        );
+        
+        StagedChanges secondChanges = assertDoesNotThrow(() -> initializer.sync("Something"));
+        assertTrue(secondChanges.isEmpty(), "default files should not be rewritten again");
+    }
+    
+    @Test
+    @DisplayName("sync reports files that changed to folders and vice versa as replaced")
+    public void syncTypeChange() throws IOException {
+        File source = createTemporaryDirectory();
+        File target = createTemporaryDirectory();
+        
+        FileUtils.write(new File(source, "pkg"), "file\n");
+        FileUtils.write(new File(source, "util/Util.java"), "util\n");
+        FolderInitializer initializer = new FolderInitializer(source, target);
+        assertDoesNotThrow(() -> initializer.sync("Something"));
+        
+        new File(source, "pkg").delete();
+        FileUtils.write(new File(source, "pkg/Helper.java"), "helper\n");
+        FileUtils.deleteDirectory(new File(source, "util"));
+        FileUtils.write(new File(source, "util"), "file\n");
+        
+        StagedChanges changes = assertDoesNotThrow(() -> initializer.sync("Something"));
+        
+        assertAll(
+            () -> assertEquals("helper\n", FileUtils.readFileToString(new File(target, "pkg/Helper.java")), "pkg should be a folder"),
+            () -> assertEquals("file\n", FileUtils.readFileToString(new File(target, "util")), "util should be a file"),
+            () -> assertEquals(new HashSet<>(Arrays.asList(new File(target, "pkg"), new File(target, "util"))),
+                    new HashSet<>(changes.getReplacedFiles()), "pkg and util should be reported as replaced"),
+            () -> assertEquals(Arrays.asList(new File(target, "pkg/Helper.java")), changes.getAddedFiles(), "only the content of pkg should be reported as added"),
+            () -> assertTrue(changes.getDeletedFiles().isEmpty(), "no files should be reported as deleted")
+        );
+    }
+    
     private File createTemporaryDirectory() {
         return assertDoesNotThrow(() -> {
             
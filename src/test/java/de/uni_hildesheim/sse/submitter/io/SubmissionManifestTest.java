@@ -0,0 +1,99 @@
+package de.uni_hildesheim.sse.submitter.io;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SubmissionManifestTest {
+
+    private Set<File> temporaryDirectories = new HashSet<>();
+
+    @Test
+    @DisplayName("scan lists all files and folders sorted by path")
+    public void scanEntries() throws IOException {
+        File folder = createTemporaryDirectory();
+        FileUtils.write(new File(folder, "Main.java"), "main\n");
+        FileUtils.write(new File(folder, "pkg/Util.java"), "util\n");
+        FileUtils.write(new File(folder, "pkg/readme.txt"), "readme\n");
+        FileUtils.write(new File(folder, ".svn/entries"), "svn data\n");
+
+        SubmissionManifest manifest = SubmissionManifest.scan(folder);
+
+        assertAll(
+            () -> assertEquals(Arrays.asList("Main.java", "pkg", "pkg/Util.java", "pkg/readme.txt"),
+                    manifest.getEntries().stream().map(SubmissionManifest.Entry::getPath).collect(Collectors.toList()),
+                    "should contain all entries except .svn folders, sorted by path"),
+            () -> assertEquals(3, manifest.getNumFiles(), "should count files"),
+            () -> assertEquals(2, manifest.getNumJavaFiles(), "should count Java files"),
+            () -> assertEquals(17, manifest.getTotalSize(), "should sum up file sizes"),
+            () -> assertTrue(manifest.getEntry("pkg").isDirectory(), "pkg should be a folder"),
+            () -> assertFalse(manifest.getEntry("pkg/Util.java").isDirectory(), "pkg/Util.java should be a file"),
+            () -> assertEquals(new File(folder, "pkg/Util.java").lastModified(),
+                    manifest.getEntry("pkg/Util.java").getLastModified(), "should store modification time"),
+            () -> assertNull(manifest.getEntry("pkg/Util.java").getHash(), "should not compute hashes")
+        );
+    }
+
+    @Test
+    @DisplayName("withHashes computes MD5 hashes of all files")
+    public void withHashes() throws IOException {
+        File folder = createTemporaryDirectory();
+        FileUtils.write(new File(folder, "a.txt"), "a");
+        FileUtils.write(new File(folder, "sub/b.txt"), "");
+
+        SubmissionManifest manifest = SubmissionManifest.scan(folder).withHashes();
+
+        assertAll(
+            () -> assertEquals("0cc175b9c0f1b6a831c399e269772661", manifest.getEntry("a.txt").getHash(),
+                    "hash of a.txt should be correct"),
+            () -> assertEquals("d41d8cd98f00b204e9800998ecf8427e", manifest.getEntry("sub/b.txt").getHash(),
+                    "hash of empty file should be correct"),
+            () -> assertNull(manifest.getEntry("sub").getHash(), "folders should have no hash"),
+            () -> assertEquals(2, manifest.getNumFiles(), "should keep counts")
+        );
+    }
+
+    private File createTemporaryDirectory() {
+        return assertDoesNotThrow(() -> {
+
+            File tempfile = File.createTempFile("SubmissionManifestTest", null);
+            tempfile.delete();
+
+            File tempdir = tempfile;
+            tempdir.mkdir();
+
+            assertTrue(tempdir.isDirectory(), "Precondition: temporary directory is created");
+
+            temporaryDirectories.add(tempdir);
+
+            return tempdir;
+        });
+    }
+
+    @AfterEach
+    public void cleanupTemporaryDirectories() {
+        for (File directory : temporaryDirectories) {
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+}
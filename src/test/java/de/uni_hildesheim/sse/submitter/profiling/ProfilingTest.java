@@ -0,0 +1,98 @@
+package de.uni_hildesheim.sse.submitter.profiling;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.uni_hildesheim.sse.submitter.io.FolderCheck;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class ProfilingTest {
+
+    private Set<File> temporaryDirectories = new HashSet<>();
+
+    @Test
+    @DisplayName("records folder checks with their file count and size")
+    public void recordFolderCheck() {
+        File directory = createTemporaryDirectory();
+        assertDoesNotThrow(() -> Files.writeString(new File(directory, "Main.java").toPath(), "class Main {}"));
+        assertDoesNotThrow(() -> Files.writeString(new File(directory, "notes.txt").toPath(), "notes"));
+        File recordingFile = new File(createTemporaryDirectory(), "recordings/test.jfr");
+
+        Recording recording = Profiling.start(recordingFile);
+        assertNotNull(recording, "Precondition: recording is started");
+        new FolderCheck(directory, 100, 1000);
+        new FolderCheck(directory, 1, 1000);
+        recording.stop();
+        recording.close();
+
+        List<RecordedEvent> events = assertDoesNotThrow(() -> RecordingFile.readAllEvents(recordingFile.toPath()))
+                .stream()
+                .filter((event) -> event.getEventType().getName().equals(Profiling.EVENT_PREFIX + "FolderCheck"))
+                .collect(Collectors.toList());
+
+        assertAll(
+            () -> assertEquals(2, events.size(), "should record both checks"),
+            () -> assertEquals(directory.getPath(), events.get(0).getString("directory")),
+            () -> assertEquals(2, events.get(0).getInt("files")),
+            () -> assertEquals(18, events.get(0).getLong("bytes")),
+            () -> assertEquals(Profiling.SUCCESS, events.get(0).getString("outcome")),
+            () -> assertEquals("limit_exceeded", events.get(1).getString("outcome"))
+        );
+    }
+
+    @Test
+    @DisplayName("does not record without the system property")
+    public void notEnabled() {
+        assertTrue(System.getProperty(Profiling.PROPERTY) == null, "Precondition: profiling is not switched on");
+
+        assertNull(Profiling.startIfEnabled());
+    }
+
+    private File createTemporaryDirectory() {
+        return assertDoesNotThrow(() -> {
+
+            File tempfile = File.createTempFile("ProfilingTest", null);
+            tempfile.delete();
+
+            File tempdir = tempfile;
+            tempdir.mkdir();
+
+            assertTrue(tempdir.isDirectory(), "Precondition: temporary directory is created");
+
+            temporaryDirectories.add(tempdir);
+
+            return tempdir;
+        });
+    }
+
+    @AfterEach
+    public void cleanupTemporaryDirectories() {
+        for (File directory : temporaryDirectories) {
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package de.uni_hildesheim.sse.submitter.settings;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ConfigurationPersisterTest {
+
+    private Set<File> temporaryDirectories = new HashSet<>();
+
+    @Test
+    @DisplayName("writes only the latest of several quick changes")
+    public void coalesceChanges() {
+        File file = new File(createTemporaryDirectory(), "test.conf");
+        AtomicInteger writes = new AtomicInteger();
+        try (ConfigurationPersister persister = new ConfigurationPersister(file.toPath(), 200)) {
+            for (int i = 0; i < 10; i++) {
+                String content = "content " + i;
+                persister.schedule(() -> {
+                    writes.incrementAndGet();
+                    return content;
+                });
+            }
+            assertDoesNotThrow(() -> Thread.sleep(1000));
+        }
+
+        assertAll(
+            () -> assertEquals(1, writes.get(), "should write only once"),
+            () -> assertEquals("content 9", Files.readString(file.toPath()), "should write the latest content"),
+            () -> assertFalse(new File(file.getParentFile(), "test.conf.tmp").exists(),
+                    "should not leave the temporary file")
+        );
+    }
+
+    @Test
+    @DisplayName("flush writes pending changes immediately")
+    public void flush() {
+        File file = new File(createTemporaryDirectory(), "test.conf");
+        AtomicInteger writes = new AtomicInteger();
+        try (ConfigurationPersister persister = new ConfigurationPersister(file.toPath(), 60000)) {
+            persister.schedule(() -> {
+                writes.incrementAndGet();
+                return "flushed";
+            });
+            persister.flush();
+            persister.flush();
+        }
+
+        assertAll(
+            () -> assertEquals(1, writes.get(), "should write pending changes once"),
+            () -> assertEquals("flushed", Files.readString(file.toPath()), "should have written the file")
+        );
+    }
+
+    @Test
+    @DisplayName("close writes pending changes and stops the persister")
+    public void close() {
+        File file = new File(createTemporaryDirectory(), "test.conf");
+        ConfigurationPersister persister = new ConfigurationPersister(file.toPath(), 60000);
+
+        persister.schedule(() -> "closed");
+        persister.close();
+
+        assertAll(
+            () -> assertEquals("closed", Files.readString(file.toPath()), "should have written the file"),
+            () -> assertThrows(RejectedExecutionException.class, () -> persister.schedule(() -> "late"),
+                    "should not accept further changes")
+        );
+    }
+
+    private File createTemporaryDirectory() {
+        return assertDoesNotThrow(() -> {
+
+            File tempfile = File.createTempFile("ConfigurationPersisterTest", null);
+            tempfile.delete();
+
+            File tempdir = tempfile;
+            tempdir.mkdir();
+
+            assertTrue(tempdir.isDirectory(), "Precondition: temporary directory is created");
+
+            temporaryDirectories.add(tempdir);
+
+            return tempdir;
+        });
+    }
+
+    @AfterEach
+    public void cleanupTemporaryDirectories() {
+        for (File directory : temporaryDirectories) {
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,270 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNCommitClient;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+import org.tmatesoft.svn.core.wc.SVNWCClient;
+
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings.Phase;
+
+/**
+ * Integration tests for {@link DirectSubmitter}. Tests committing to temporary local SVN repositories.
+ * 
+ * @author Adam Krafczyk
+ */
+public class DirectSubmitterIT {
+    
+    private Set<File> temporaryDirectories = new HashSet<>();
+
+    @Test
+    @DisplayName("commit without problems")
+    public void commitNoProblems() throws SubmitException, IOException, SVNException {
+        File svnFolder = createTemporaryDirectory();
+        setupSvnRepoForSubmission(svnFolder, "Homework04", "JP001");
+        
+        File submissionFolder = createTemporaryDirectory();
+        FileUtils.write(new File(submissionFolder, "Main.java"), "public class Main {}\n");
+        FileUtils.write(new File(submissionFolder, "pkg/Util.java"), "package pkg; public class Util {}\n");
+        
+        DirectSubmitter submitter = new DirectSubmitter("file:///" + svnFolder.getAbsolutePath() + "/Homework04/JP001",
+                "HomeWork04", "someStudent", "123456".toCharArray());
+        SubmitResult result = submitter.submitFolder(submissionFolder);
+        
+        assertAll(
+            () -> assertEquals(2, result.getNumJavFiles(), "number of submitted Java files should be correct"),
+            () -> assertEquals(2, result.getCommitInfo().getNewRevision(), "revision should be correct"),
+            () -> assertNull(result.getCommitInfo().getErrorMessage(), "no error messages expected"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/Main.java", "public class Main {}\n"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/pkg/Util.java", "package pkg; public class Util {}\n"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/.classpath", null),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/.project", null),
+            () -> assertEquals(Arrays.asList(Phase.READ_LOCAL, Phase.READ_REMOTE, Phase.PREPARE, Phase.COMMIT),
+                    result.getTimings().getMeasurements().stream().map(SubmissionTimings.Measurement::getPhase)
+                    .collect(Collectors.toList()), "should measure all phases"),
+            () -> assertEquals(4, result.getTimings().getMeasurements().stream()
+                    .filter((measurement) -> measurement.getPhase() == Phase.COMMIT).findFirst().get().getFiles(),
+                    "should count the sent files")
+        );
+    }
+    
+    @Test
+    @DisplayName("second commit sends modified, added and deleted files")
+    public void commitChanges() throws SubmitException, IOException, SVNException {
+        File svnFolder = createTemporaryDirectory();
+        setupSvnRepoForSubmission(svnFolder, "Homework04", "JP001");
+        String url = "file:///" + svnFolder.getAbsolutePath() + "/Homework04/JP001";
+        
+        File submissionFolder = createTemporaryDirectory();
+        File mainFile = new File(submissionFolder, "Main.java");
+        File pkgFolder = new File(submissionFolder, "pkg");
+        FileUtils.write(mainFile, "public class Main {}\n");
+        FileUtils.write(new File(submissionFolder, "Unchanged.java"), "public class Unchanged {}\n");
+        FileUtils.write(new File(pkgFolder, "Util.java"), "package pkg; public class Util {}\n");
+        
+        new DirectSubmitter(url, "HomeWork04", "someStudent", "123456".toCharArray()).submitFolder(submissionFolder);
+        
+        FileUtils.write(mainFile, "public class Main { }\n");
+        FileUtils.deleteDirectory(pkgFolder);
+        FileUtils.write(pkgFolder, "now a file\n");
+        FileUtils.write(new File(submissionFolder, "other/New.java"), "package other; public class New {}\n");
+        
+        SubmitResult result = new DirectSubmitter(url, "HomeWork04", "someStudent", "123456".toCharArray())
+                .submitFolder(submissionFolder);
+        
+        assertAll(
+            () -> assertEquals(3, result.getCommitInfo().getNewRevision(), "revision should be correct"),
+            () -> assertNull(result.getCommitInfo().getErrorMessage(), "no error messages expected"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/Main.java", "public class Main { }\n"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/Unchanged.java", "public class Unchanged {}\n"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/pkg", "now a file\n"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/other/New.java", "package other; public class New {}\n")
+        );
+    }
+    
+    @Test
+    @DisplayName("commit without changes does not create a revision")
+    public void commitNoChanges() throws SubmitException, IOException, SVNException {
+        File svnFolder = createTemporaryDirectory();
+        setupSvnRepoForSubmission(svnFolder, "Homework04", "JP001");
+        String url = "file:///" + svnFolder.getAbsolutePath() + "/Homework04/JP001";
+        
+        File submissionFolder = createTemporaryDirectory();
+        FileUtils.write(new File(submissionFolder, "Main.java"), "public class Main {}\n");
+        
+        new DirectSubmitter(url, "HomeWork04", "someStudent", "123456".toCharArray()).submitFolder(submissionFolder);
+        SubmitResult result = new DirectSubmitter(url, "HomeWork04", "someStudent", "123456".toCharArray())
+                .submitFolder(submissionFolder);
+        
+        assertAll(
+            () -> assertEquals(-1, result.getCommitInfo().getNewRevision(), "no revision should be created"),
+            () -> assertNull(result.getCommitInfo().getErrorMessage(), "no error messages expected")
+        );
+    }
+    
+    @Test
+    @DisplayName("rejection by pre-commit hook is returned as commit info")
+    public void commitRejectedByHook() throws SubmitException, IOException, SVNException {
+        assumeFalse(System.getProperty("os.name").toLowerCase().contains("win"), "hook script requires a unix shell");
+        
+        File svnFolder = createTemporaryDirectory();
+        setupSvnRepoForSubmission(svnFolder, "Homework04", "JP001");
+        File hook = new File(svnFolder, "hooks/pre-commit");
+        FileUtils.write(hook, "#!/bin/sh\necho '<submitResults></submitResults>' >&2\nexit 1\n");
+        hook.setExecutable(true);
+        
+        File submissionFolder = createTemporaryDirectory();
+        FileUtils.write(new File(submissionFolder, "Main.java"), "public class Main {}\n");
+        
+        SubmitResult result = new DirectSubmitter("file:///" + svnFolder.getAbsolutePath() + "/Homework04/JP001",
+                "HomeWork04", "someStudent", "123456".toCharArray()).submitFolder(submissionFolder);
+        
+        assertAll(
+            () -> assertEquals(-1, result.getCommitInfo().getNewRevision(), "no revision should be created"),
+            () -> assertNotNull(result.getCommitInfo().getErrorMessage(), "hook error message expected"),
+            () -> assertTrue(result.getCommitInfo().getErrorMessage().getFullMessage().contains("<submitResults>"),
+                    "error message should contain hook output"),
+            () -> assertFileNotInRepository(svnFolder, "Homework04/JP001/Main.java")
+        );
+    }
+
+    @Test
+    @DisplayName("subsequent commits re-use the session of a shared pool")
+    public void commitWithSharedSessionPool() throws SubmitException, IOException, SVNException {
+        File svnFolder = createTemporaryDirectory();
+        setupSvnRepoForSubmission(svnFolder, "Homework04", "JP001");
+        String url = "file:///" + svnFolder.getAbsolutePath() + "/Homework04/JP001";
+        
+        File submissionFolder = createTemporaryDirectory();
+        FileUtils.write(new File(submissionFolder, "Main.java"), "public class Main {}\n");
+        
+        try (SvnSessionPool pool = new SvnSessionPool("someStudent", "123456".toCharArray())) {
+            SubmitResult first = new DirectSubmitter(url, "HomeWork04", "someStudent", pool)
+                    .submitFolder(submissionFolder);
+            SVNRepository session = pool.acquireSession(SVNURL.parseURIEncoded(url));
+            pool.releaseSession(session);
+            
+            FileUtils.write(new File(submissionFolder, "Main.java"), "public class Main { }\n");
+            SubmitResult second = new DirectSubmitter(url, "HomeWork04", "someStudent", pool)
+                    .submitFolder(submissionFolder);
+            SVNRepository sessionAfterSecond = pool.acquireSession(SVNURL.parseURIEncoded(url));
+            pool.releaseSession(sessionAfterSecond);
+            
+            assertAll(
+                () -> assertEquals(2, first.getCommitInfo().getNewRevision(), "first revision should be correct"),
+                () -> assertEquals(3, second.getCommitInfo().getNewRevision(), "second revision should be correct"),
+                () -> assertSame(session, sessionAfterSecond, "session should be re-used"),
+                () -> assertFileInRepository(svnFolder, "Homework04/JP001/Main.java", "public class Main { }\n")
+            );
+        }
+    }
+
+    private void setupSvnRepoForSubmission(File svnFolder, String exercise, String group) throws SVNException {
+        SVNURL svnUrl = SVNRepositoryFactory.createLocalRepository(svnFolder, true, false);
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        
+        File checkout = createTemporaryDirectory();
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        updateClient.doCheckout(svnUrl, checkout, SVNRevision.HEAD, SVNRevision.HEAD, SVNDepth.INFINITY, false);
+        
+        File submissionFolder = new File(checkout, exercise + "/" + group);
+        submissionFolder.mkdirs();
+        
+        SVNWCClient wcClient = clientManager.getWCClient();
+        wcClient.doAdd(submissionFolder, false, false, true, SVNDepth.INFINITY, false, true);
+        
+        SVNCommitClient commitClient = clientManager.getCommitClient();
+        
+        SVNCommitInfo result = commitClient.doCommit(new File[] {submissionFolder.getParentFile(), submissionFolder}, false,
+                "Initialize submission folder", null, null, false, false, SVNDepth.INFINITY);
+        assertNull(result.getErrorMessage(), "Precondition: commit should have succeeded");
+        assertEquals(1, result.getNewRevision(), "Precondition: repository should be at revision 1");
+    }
+    
+    private void assertFileInRepository(File svnFolder, String fileInRepo, String expectedContent) throws SVNException, IOException {
+        SVNURL svnUrl = SVNURL.fromFile(svnFolder);
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        
+        File checkout = createTemporaryDirectory();
+        
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        updateClient.doCheckout(svnUrl, checkout, SVNRevision.HEAD, SVNRevision.HEAD, SVNDepth.INFINITY, false);
+        
+        File targetFile = new File(checkout, fileInRepo);
+        
+        assertTrue(targetFile.isFile(), "file " + fileInRepo + " should exist in checkout");
+        if (expectedContent != null) {
+            assertEquals(expectedContent, FileUtils.readFileToString(targetFile), "file in repo should have correct content");
+        }
+    }
+    
+    private void assertFileNotInRepository(File svnFolder, String fileInRepo) throws SVNException, IOException {
+        SVNURL svnUrl = SVNURL.fromFile(svnFolder);
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        
+        File checkout = createTemporaryDirectory();
+        
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        updateClient.doCheckout(svnUrl, checkout, SVNRevision.HEAD, SVNRevision.HEAD, SVNDepth.INFINITY, false);
+        
+        File targetFile = new File(checkout, fileInRepo);
+        
+        assertFalse(targetFile.exists(), "file " + fileInRepo + " should not exist in checkout");
+    }
+    
+    private File createTemporaryDirectory() {
+        return assertDoesNotThrow(() -> {
+            
+            File tempfile = File.createTempFile("DirectSubmitterIT", null);
+            tempfile.delete();
+            
+            File tempdir = tempfile;
+            tempdir.mkdir();
+            
+            assertTrue(tempdir.isDirectory(), "Precondition: temporary directory is created");
+            
+            temporaryDirectories.add(tempdir);
+            
+            return tempdir;
+        });
+    }
+    
+    @AfterEach
+    public void cleanupTemporaryDirectories() {
+        for (File directory : temporaryDirectories) {
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+}
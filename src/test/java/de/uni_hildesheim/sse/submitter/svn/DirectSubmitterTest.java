@@ -0,0 +1,34 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DirectSubmitterTest {
+
+    @Test
+    @DisplayName("sorts the content of a folder before siblings that start with the folder name")
+    public void depthFirstOrder() {
+        List<String> paths = Arrays.asList("a-b", "a/c", "a.txt", "a", "a/c/d", "a/b-c", "b");
+        paths.sort(DirectSubmitter::comparePaths);
+
+        assertEquals(Arrays.asList("a", "a/b-c", "a/c", "a/c/d", "a-b", "a.txt", "b"), paths);
+    }
+
+    @Test
+    @DisplayName("treats equal paths as equal")
+    public void equalPaths() {
+        assertAll(
+            () -> assertEquals(0, DirectSubmitter.comparePaths("a/c", "a/c")),
+            () -> assertTrue(DirectSubmitter.comparePaths("a", "a/c") < 0),
+            () -> assertTrue(DirectSubmitter.comparePaths("a-b", "a/c") > 0)
+        );
+    }
+
+}
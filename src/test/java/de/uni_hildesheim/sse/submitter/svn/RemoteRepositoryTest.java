@@ -6,9 +6,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -19,6 +25,8 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
 
 public class RemoteRepositoryTest {
 
@@ -72,6 +80,100 @@ public class RemoteRepositoryTest {
             ), history);
     }
     
+    @Test
+    @DisplayName("getHistory() with limit returns pages, newest first")
+    public void getHistoryPaged() {
+        RemoteRepository repository = assertDoesNotThrow(() ->
+            new RemoteRepository("file:///" + TEST_SVN_REPO.getAbsolutePath(), SVN_USER, SVN_PW));
+        
+        List<Revision> firstPage = new ArrayList<>();
+        long next = assertDoesNotThrow(() ->
+            repository.getHistory("Homework01/Group02", RemoteRepository.HEAD, 2, firstPage::add));
+        
+        List<Revision> secondPage = new ArrayList<>();
+        long last = assertDoesNotThrow(() ->
+            repository.getHistory("Homework01/Group02", next, 2, secondPage::add));
+        
+        assertAll(
+            () -> assertEquals(Arrays.asList(
+                    new Revision(3, "2020-08-25 11:08 (3): Small fixes (by student1)"),
+                    new Revision(2, "2020-08-25 10:08 (2): Submit my homework (by student1)")
+                ), firstPage, "first page should contain the newest revisions"),
+            () -> assertEquals(1, next, "next page should start at the next older revision"),
+            () -> assertEquals(Arrays.asList(
+                    new Revision(1, "2020-08-25 10:08 (1): Init structure (by www-data)")
+                ), secondPage, "second page should contain the remaining revision"),
+            () -> assertEquals(RemoteRepository.NO_MORE_REVISIONS, last, "there should be no more pages")
+        );
+    }
+    
+    @Test
+    @DisplayName("getHistory() with cache returns the same pages and stores the log on disk")
+    public void getHistoryCached() {
+        File cacheDirectory = createTemporaryDirectory();
+        RemoteRepository repository = assertDoesNotThrow(() ->
+            new RemoteRepository("file:///" + TEST_SVN_REPO.getAbsolutePath(), SVN_USER, SVN_PW));
+        repository.setRevisionLogCache(new RevisionLogCache(cacheDirectory, 1024 * 1024));
+        
+        List<Revision> firstCall = new ArrayList<>();
+        long next = assertDoesNotThrow(() ->
+            repository.getHistory("Homework01/Group02", RemoteRepository.HEAD, 2, firstCall::add));
+        
+        List<Revision> secondCall = new ArrayList<>();
+        assertDoesNotThrow(() -> repository.getHistory("Homework01/Group02", RemoteRepository.HEAD, 5, secondCall::add));
+        
+        assertAll(
+            () -> assertEquals(Arrays.asList(
+                    new Revision(3, "2020-08-25 11:08 (3): Small fixes (by student1)"),
+                    new Revision(2, "2020-08-25 10:08 (2): Submit my homework (by student1)")
+                ), firstCall, "first page should contain the newest revisions"),
+            () -> assertEquals(1, next, "next page should start at the next older revision"),
+            () -> assertEquals(Arrays.asList(
+                    new Revision(3, "2020-08-25 11:08 (3): Small fixes (by student1)"),
+                    new Revision(2, "2020-08-25 10:08 (2): Submit my homework (by student1)"),
+                    new Revision(1, "2020-08-25 10:08 (1): Init structure (by www-data)")
+                ), secondCall, "cached log should contain all revisions"),
+            () -> assertEquals(1, cacheDirectory.listFiles().length, "log should be stored in cache directory")
+        );
+    }
+    
+    @Test
+    @DisplayName("getHistory() with cache fills the cache page by page")
+    public void getHistoryCachedPageByPage() {
+        File cacheDirectory = createTemporaryDirectory();
+        RevisionLogCache cache = new RevisionLogCache(cacheDirectory, 1024 * 1024);
+        RemoteRepository repository = assertDoesNotThrow(() ->
+            new RemoteRepository("file:///" + TEST_SVN_REPO.getAbsolutePath(), SVN_USER, SVN_PW));
+        repository.setRevisionLogCache(cache);
+        String uuid = assertDoesNotThrow(() ->
+            SVNRepositoryFactory.create(SVNURL.fromFile(TEST_SVN_REPO)).getRepositoryUUID(true));
+        
+        List<Revision> firstPage = new ArrayList<>();
+        long next = assertDoesNotThrow(() ->
+            repository.getHistory("Homework01/Group02", RemoteRepository.HEAD, 1, firstPage::add));
+        RevisionLogCache.CachedLog cachedAfterFirstPage = cache.load(uuid, "/Homework01/Group02");
+        
+        List<Revision> secondPage = new ArrayList<>();
+        long last = assertDoesNotThrow(() -> repository.getHistory("Homework01/Group02", next, 5, secondPage::add));
+        RevisionLogCache.CachedLog cachedAfterSecondPage = cache.load(uuid, "/Homework01/Group02");
+        
+        assertAll(
+            () -> assertEquals(Arrays.asList(
+                    new Revision(3, "2020-08-25 11:08 (3): Small fixes (by student1)")
+                ), firstPage, "first page should contain the newest revision"),
+            () -> assertEquals(2, next, "next page should start at the next older revision"),
+            () -> assertEquals(1, cachedAfterFirstPage.getEntries().size(), "only the first page should be cached"),
+            () -> assertEquals(3, cachedAfterFirstPage.getCompleteFrom(), "cache should be complete from revision 3"),
+            () -> assertEquals(Arrays.asList(
+                    new Revision(2, "2020-08-25 10:08 (2): Submit my homework (by student1)"),
+                    new Revision(1, "2020-08-25 10:08 (1): Init structure (by www-data)")
+                ), secondPage, "second page should contain the remaining revisions"),
+            () -> assertEquals(RemoteRepository.NO_MORE_REVISIONS, last, "there should be no more pages"),
+            () -> assertEquals(3, cachedAfterSecondPage.getEntries().size(), "all revisions should be cached"),
+            () -> assertEquals(0, cachedAfterSecondPage.getCompleteFrom(), "cache should be complete")
+        );
+    }
+    
     @Test
     @DisplayName("getHistory() throws for path that doesn't exist")
     public void getHistoryInexistantPath() {
@@ -129,6 +231,27 @@ public class RemoteRepositoryTest {
         );
     }
     
+    @Test
+    @DisplayName("replay keeps the permissions of the target directory")
+    public void replayKeepsPermissions() throws IOException {
+        RemoteRepository repository = assertDoesNotThrow(() ->
+            new RemoteRepository("file:///" + TEST_SVN_REPO.getAbsolutePath(), SVN_USER, SVN_PW));
+        
+        File replayLocation = createTemporaryDirectory();
+        assumeTrue(Files.getFileAttributeView(replayLocation.toPath(), PosixFileAttributeView.class) != null,
+                "Precondition: file system supports POSIX permissions");
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+        Files.setPosixFilePermissions(replayLocation.toPath(), permissions);
+        
+        assertDoesNotThrow(() -> repository.replay(replayLocation, "Homework01/Group02"));
+        
+        assertAll(
+            () -> assertTrue(new File(replayLocation, "submitted_file.txt").isFile(), "target should be replayed"),
+            () -> assertEquals(permissions, Files.getPosixFilePermissions(replayLocation.toPath()),
+                    "target should keep its permissions")
+        );
+    }
+    
     @Test
     @DisplayName("replay latest submission in non-empty target directory")
     public void replayTargetDirectoryNotEmpty() throws IOException {
@@ -157,6 +280,60 @@ public class RemoteRepositoryTest {
         );
     }
     
+    @Test
+    @DisplayName("replay into previously replayed directory only applies changes")
+    public void replayIncremental() throws IOException {
+        RemoteRepository repository = assertDoesNotThrow(() ->
+            new RemoteRepository("file:///" + TEST_SVN_REPO.getAbsolutePath(), SVN_USER, SVN_PW));
+        ReplayStateStore store = new ReplayStateStore(createTemporaryDirectory());
+        repository.setReplayStateStore(store);
+        
+        File replayLocation = createTemporaryDirectory();
+        assertDoesNotThrow(() -> repository.replay(2, replayLocation, "Homework01/Group02"));
+        File file1 = new File(replayLocation, "submitted_file.txt");
+        String contentOfRevision2 = FileUtils.readFileToString(file1);
+        int filesOfRevision2 = replayLocation.listFiles().length;
+        
+        assertDoesNotThrow(() -> repository.replay(3, replayLocation, "Homework01/Group02"));
+        SVNURL url = assertDoesNotThrow(() ->
+            SVNURL.parseURIEncoded("file:///" + TEST_SVN_REPO.getAbsolutePath() + "/Homework01/Group02"));
+        long recordedRevision = store.getUnchangedRevision(url, replayLocation);
+        String contentOfRevision3 = FileUtils.readFileToString(file1);
+        
+        FileUtils.write(file1, "edited by the student\n");
+        assertDoesNotThrow(() -> repository.replay(2, replayLocation, "Homework01/Group02"));
+        
+        assertAll(
+            () -> assertEquals(3, recordedRevision, "replayed revision should be recorded"),
+            () -> assertEquals("file changed.\n", contentOfRevision3, "update should apply the changes"),
+            () -> assertEquals(filesOfRevision2, replayLocation.listFiles().length,
+                    "files added later should be removed"),
+            () -> assertEquals(contentOfRevision2, FileUtils.readFileToString(file1),
+                    "edited directory should be replayed completely")
+        );
+    }
+    
+    @Test
+    @DisplayName("failed replay leaves target directory untouched")
+    public void replayFailureKeepsTargetDirectory() throws IOException {
+        RemoteRepository repository = assertDoesNotThrow(() ->
+            new RemoteRepository("file:///" + TEST_SVN_REPO.getAbsolutePath(), SVN_USER, SVN_PW));
+        
+        File replayLocation = createTemporaryDirectory();
+        File preExisting = new File(replayLocation, "before.txt");
+        preExisting.createNewFile();
+        
+        assertThrows(SVNException.class, () -> repository.replay(replayLocation, "Homework01/doesnt_exist"));
+        
+        assertAll(
+            () -> assertEquals(1, replayLocation.listFiles().length, "target should still have its file"),
+            () -> assertTrue(preExisting.isFile(), "pre-existing file should still exist"),
+            () -> assertEquals(0, replayLocation.getParentFile().listFiles(
+                (file) -> file.getName().startsWith("." + replayLocation.getName())).length,
+                "no staging directory should be left behind")
+        );
+    }
+    
     @Test
     @DisplayName("replay throws if target directory is a file")
     public void replayTargetDirectoryIsFile() throws IOException {
@@ -0,0 +1,110 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tmatesoft.svn.core.SVNURL;
+
+public class ReplayStateStoreTest {
+
+    /**
+     * Offset of the number of entries in a state file: magic, version and revision.
+     */
+    private static final int SIZE_OFFSET = 4 + 1 + 8;
+
+    private Set<File> temporaryDirectories = new HashSet<>();
+
+    @Test
+    @DisplayName("recorded revision is returned for an unchanged folder")
+    public void unchangedFolder() {
+        File directory = createTemporaryDirectory();
+        File folder = createReplayedFolder();
+        SVNURL url = createUrl();
+        ReplayStateStore store = new ReplayStateStore(directory);
+        store.record(url, folder, 5);
+
+        assertEquals(5, store.getUnchangedRevision(url, folder));
+    }
+
+    @Test
+    @DisplayName("corrupt number of entries discards the recorded state")
+    public void corruptSize() {
+        for (int size : Arrays.asList(-1, Integer.MAX_VALUE)) {
+            File directory = createTemporaryDirectory();
+            File folder = createReplayedFolder();
+            SVNURL url = createUrl();
+            ReplayStateStore store = new ReplayStateStore(directory);
+            store.record(url, folder, 5);
+            File[] files = directory.listFiles();
+            assertEquals(1, files.length, "Precondition: state is recorded");
+            assertDoesNotThrow(() -> {
+                try (RandomAccessFile out = new RandomAccessFile(files[0], "rw")) {
+                    out.seek(SIZE_OFFSET);
+                    out.writeInt(size);
+                }
+            });
+
+            long revision = assertDoesNotThrow(() -> store.getUnchangedRevision(url, folder));
+
+            assertAll(
+                () -> assertEquals(ReplayStateStore.NO_REVISION, revision, "should require a full replay for " + size),
+                () -> assertFalse(files[0].exists(), "should delete the corrupt file for " + size)
+            );
+        }
+    }
+
+    private File createReplayedFolder() {
+        File folder = createTemporaryDirectory();
+        assertDoesNotThrow(() -> FileUtils.write(new File(folder, "Main.java"), "class Main {}",
+                StandardCharsets.UTF_8));
+        return folder;
+    }
+
+    private static SVNURL createUrl() {
+        return assertDoesNotThrow(() -> SVNURL.parseURIEncoded("https://localhost/svn/Homework01/Group02"));
+    }
+
+    private File createTemporaryDirectory() {
+        return assertDoesNotThrow(() -> {
+
+            File tempfile = File.createTempFile("ReplayStateStoreTest", null);
+            tempfile.delete();
+
+            File tempdir = tempfile;
+            tempdir.mkdir();
+
+            assertTrue(tempdir.isDirectory(), "Precondition: temporary directory is created");
+
+            temporaryDirectories.add(tempdir);
+
+            return tempdir;
+        });
+    }
+
+    @AfterEach
+    public void cleanupTemporaryDirectories() {
+        for (File directory : temporaryDirectories) {
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+}
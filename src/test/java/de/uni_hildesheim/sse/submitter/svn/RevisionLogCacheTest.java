@@ -0,0 +1,130 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tmatesoft.svn.core.SVNLogEntry;
+
+public class RevisionLogCacheTest {
+
+    private static final String UUID = "1234";
+
+    private static final String PATH = "/Homework01/Group02";
+
+    /**
+     * Offset of the number of entries in a cache file: magic, version and the range of revisions.
+     */
+    private static final int SIZE_OFFSET = 4 + 1 + 8 + 8;
+
+    /**
+     * Offset of the length of the author of the first entry: number of entries and revision.
+     */
+    private static final int AUTHOR_OFFSET = SIZE_OFFSET + 4 + 8;
+
+    private Set<File> temporaryDirectories = new HashSet<>();
+
+    @Test
+    @DisplayName("stored log is loaded again")
+    public void storeAndLoad() {
+        File directory = createTemporaryDirectory();
+        RevisionLogCache cache = new RevisionLogCache(directory, 1024 * 1024);
+        cache.store(UUID, PATH, createLog());
+
+        RevisionLogCache.CachedLog loaded = cache.load(UUID, PATH);
+
+        assertAll(
+            () -> assertEquals(3, loaded.getCheckedRevision()),
+            () -> assertEquals(1, loaded.getEntries().size()),
+            () -> assertEquals("student1", loaded.getEntries().get(0).getAuthor()),
+            () -> assertEquals("Submit my homework", loaded.getEntries().get(0).getMessage())
+        );
+    }
+
+    @Test
+    @DisplayName("corrupt number of entries discards the cached log")
+    public void corruptSize() {
+        for (int size : Arrays.asList(-1, Integer.MAX_VALUE)) {
+            assertCorruptFileDiscarded(SIZE_OFFSET, size);
+        }
+    }
+
+    @Test
+    @DisplayName("corrupt string length discards the cached log")
+    public void corruptStringLength() {
+        for (int length : Arrays.asList(-2, Integer.MAX_VALUE)) {
+            assertCorruptFileDiscarded(AUTHOR_OFFSET, length);
+        }
+    }
+
+    private void assertCorruptFileDiscarded(int offset, int value) {
+        File directory = createTemporaryDirectory();
+        RevisionLogCache cache = new RevisionLogCache(directory, 1024 * 1024);
+        cache.store(UUID, PATH, createLog());
+        File file = new File(directory, RevisionLogCache.createKey(UUID, PATH) + ".log");
+        assertTrue(file.isFile(), "Precondition: log is stored");
+
+        assertDoesNotThrow(() -> {
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                out.seek(offset);
+                out.writeInt(value);
+            }
+        });
+
+        RevisionLogCache.CachedLog loaded = assertDoesNotThrow(() -> cache.load(UUID, PATH));
+
+        assertAll(
+            () -> assertEquals(-1, loaded.getCheckedRevision(), "should return an empty log for " + value),
+            () -> assertTrue(loaded.getEntries().isEmpty(), "should return an empty log for " + value),
+            () -> assertFalse(file.exists(), "should delete the corrupt file for " + value)
+        );
+    }
+
+    private static RevisionLogCache.CachedLog createLog() {
+        return new RevisionLogCache.CachedLog(Arrays.asList(
+                new SVNLogEntry(null, 2, "student1", new Date(), "Submit my homework")), 3);
+    }
+
+    private File createTemporaryDirectory() {
+        return assertDoesNotThrow(() -> {
+
+            File tempfile = File.createTempFile("RevisionLogCacheTest", null);
+            tempfile.delete();
+
+            File tempdir = tempfile;
+            tempdir.mkdir();
+
+            assertTrue(tempdir.isDirectory(), "Precondition: temporary directory is created");
+
+            temporaryDirectories.add(tempdir);
+
+            return tempdir;
+        });
+    }
+
+    @AfterEach
+    public void cleanupTemporaryDirectories() {
+        for (File directory : temporaryDirectories) {
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+}
@@ -1,7 +1,9 @@
 package de.uni_hildesheim.sse.submitter.svn;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.Arrays;
 import java.util.Date;
@@ -19,6 +21,7 @@ import org.tmatesoft.svn.core.SVNErrorMessage;
 import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
 import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
 import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.InvalidErrorMessagesException;
 import de.uni_hildesheim.sse.submitter.svn.hookErrors.Severity;
 import de.uni_hildesheim.sse.submitter.svn.hookErrors.Tool;
 import net.ssehub.exercisesubmitter.protocol.frontend.Assignment;
@@ -71,6 +74,25 @@ public class SubmissionResultHandlerTest implements ISubmissionOutputHandler {
             ), createdMessages, "a single message should have been created");
     }
     
+    @Test
+    @DisplayName("displays an internal error message if a commit failed without output of the hook")
+    public void errorWithoutHookOutput() {
+        SubmissionResultHandler handler = new SubmissionResultHandler(this);
+        
+        SVNErrorMessage error = SVNErrorMessage.create(SVNErrorCode.RA_DAV_REQUEST_FAILED, "Connection reset");
+        SVNCommitInfo commitInfo = new SVNCommitInfo(-1, null, null, error);
+        
+        handler.handleCommitResult(commitInfo);
+        
+        assertAll(
+            () -> assertThrows(InvalidErrorMessagesException.class,
+                () -> SubmissionResultHandler.parseHookErrors(error), "should not return an empty list"),
+            () -> assertEquals(Arrays.asList(
+                    new Message("error", I18nProvider.getText("gui.error.unexpected_error"))
+                ), createdMessages, "a single message should have been created")
+        );
+    }
+    
     @Test
     @DisplayName("displays an error message for a post-commit hook failure")
     public void postCommitError() {
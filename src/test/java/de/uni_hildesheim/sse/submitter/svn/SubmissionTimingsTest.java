@@ -0,0 +1,48 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings.Phase;
+
+public class SubmissionTimingsTest {
+
+    @Test
+    @DisplayName("records phases in the order they were started")
+    public void recordPhases() {
+        SubmissionTimings timings = new SubmissionTimings();
+        try (SubmissionTimings.Measurement measurement = timings.measure(Phase.CHECKOUT)) {
+            measurement.addFiles(0, 0);
+        }
+        try (SubmissionTimings.Measurement measurement = timings.measure(Phase.COMMIT)) {
+            measurement.addFiles(2, 100);
+            measurement.addFiles(1, 28);
+        }
+
+        assertAll(
+            () -> assertEquals(2, timings.getMeasurements().size(), "should record both phases"),
+            () -> assertEquals(Phase.CHECKOUT, timings.getMeasurements().get(0).getPhase()),
+            () -> assertEquals(3, timings.getMeasurements().get(1).getFiles(), "should sum up the files"),
+            () -> assertEquals(128, timings.getMeasurements().get(1).getBytes(), "should sum up the bytes")
+        );
+    }
+
+    @Test
+    @DisplayName("formats all figures as a single line of key=value pairs")
+    public void format() {
+        SubmissionTimings timings = new SubmissionTimings();
+        timings.measure(Phase.CHECKOUT).close();
+        try (SubmissionTimings.Measurement measurement = timings.measure(Phase.COMMIT)) {
+            measurement.addFiles(2, 100);
+        }
+
+        String line = timings.toString();
+        assertTrue(line.matches("total_ms=\\d+ checkout_ms=\\d+ commit_ms=\\d+ commit_files=2 commit_bytes=100"),
+                line);
+    }
+
+}
@@ -10,8 +10,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -28,6 +30,8 @@ import org.tmatesoft.svn.core.wc.SVNRevision;
 import org.tmatesoft.svn.core.wc.SVNUpdateClient;
 import org.tmatesoft.svn.core.wc.SVNWCClient;
 
+import de.uni_hildesheim.sse.submitter.svn.SubmissionTimings.Phase;
+
 /**
  * Integration tests for {@link Submitter}. Tests committing to temporary local SVN repositories.
  * 
@@ -73,10 +77,132 @@ public class SubmitterIT {
                 () -> assertNull(result.getCommitInfo().getErrorMessage(), "no error messages expected"),
                 () -> assertFileInRepository(svnFolder, "Homework04/JP001/Main.java", fileContent),
                 () -> assertFileInRepository(svnFolder, "Homework04/JP001/.classpath", null),
-                () -> assertFileInRepository(svnFolder, "Homework04/JP001/.project", null)
+                () -> assertFileInRepository(svnFolder, "Homework04/JP001/.project", null),
+                () -> assertEquals(Arrays.asList(Phase.CHECKOUT, Phase.PREPARE, Phase.UPDATE_STATUS, Phase.COMMIT, Phase.CLEANUP),
+                        result.getTimings().getMeasurements().stream().map(SubmissionTimings.Measurement::getPhase)
+                        .collect(Collectors.toList()), "should measure all phases"),
+                () -> assertEquals(3, result.getTimings().getMeasurements().stream()
+                        .filter((measurement) -> measurement.getPhase() == Phase.COMMIT).findFirst().get().getFiles(),
+                        "should count the sent files")
         );
     }
     
+    @Test
+    @DisplayName("second commit re-uses the cached working copy")
+    public void commitWithCachedWorkingCopy() throws SubmitException, IOException, SVNException {
+        File svnFolder = createTemporaryDirectory();
+        setupSvnRepoForSubmission(svnFolder, "Homework04", "JP001");
+
+        File cacheFolder = createTemporaryDirectory();
+        WorkingCopyCache cache = new WorkingCopyCache(cacheFolder, 5, Long.MAX_VALUE);
+
+        File submissionFolder = createTemporaryDirectory();
+        File mainFile = new File(submissionFolder, "Main.java");
+        File utilFile = new File(submissionFolder, "Util.java");
+        FileUtils.write(mainFile, "public class Main {}\n");
+        FileUtils.write(utilFile, "public class Util {}\n");
+        FileUtils.write(new File(submissionFolder, "pkg/Helper.java"), "package pkg; public class Helper {}\n");
+
+        String url = "file:///" + svnFolder.getAbsolutePath() + "/Homework04/JP001";
+
+        Submitter submitter = new Submitter(url, "HomeWork04", "someStudent", "123456".toCharArray());
+        submitter.setWorkingCopyCache(cache);
+        SubmitResult result1 = submitter.submitFolder(submissionFolder);
+
+        assertAll(
+            () -> assertEquals(2, result1.getCommitInfo().getNewRevision(), "revision should be correct"),
+            () -> assertEquals(1, cacheFolder.listFiles(File::isDirectory).length, "should cache the working copy")
+        );
+
+        FileUtils.write(mainFile, "public class Main { }\n");
+        utilFile.delete();
+        FileUtils.deleteDirectory(new File(submissionFolder, "pkg"));
+
+        submitter = new Submitter(url, "HomeWork04", "someStudent", "123456".toCharArray());
+        submitter.setWorkingCopyCache(cache);
+        SubmitResult result2 = submitter.submitFolder(submissionFolder);
+
+        assertAll(
+            () -> assertEquals(3, result2.getCommitInfo().getNewRevision(), "revision should be correct"),
+            () -> assertNull(result2.getCommitInfo().getErrorMessage(), "no error messages expected"),
+            () -> assertEquals(1, cacheFolder.listFiles(File::isDirectory).length, "should re-use the working copy"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/Main.java", "public class Main { }\n"),
+            () -> assertFileNotInRepository(svnFolder, "Homework04/JP001/Util.java"),
+            () -> assertFileNotInRepository(svnFolder, "Homework04/JP001/pkg")
+        );
+    }
+
+    @Test
+    @DisplayName("file replaced by a folder of the same name and vice versa")
+    public void commitTypeChange() throws SubmitException, IOException, SVNException {
+        File svnFolder = createTemporaryDirectory();
+        setupSvnRepoForSubmission(svnFolder, "Homework04", "JP001");
+
+        File cacheFolder = createTemporaryDirectory();
+        WorkingCopyCache cache = new WorkingCopyCache(cacheFolder, 5, Long.MAX_VALUE);
+
+        File submissionFolder = createTemporaryDirectory();
+        File pkg = new File(submissionFolder, "pkg");
+        File util = new File(submissionFolder, "Util");
+        FileUtils.write(pkg, "not a folder yet\n");
+        FileUtils.write(new File(util, "Util.java"), "public class Util {}\n");
+
+        String url = "file:///" + svnFolder.getAbsolutePath() + "/Homework04/JP001";
+
+        Submitter submitter = new Submitter(url, "HomeWork04", "someStudent", "123456".toCharArray());
+        submitter.setWorkingCopyCache(cache);
+        submitter.submitFolder(submissionFolder);
+
+        pkg.delete();
+        FileUtils.write(new File(pkg, "Helper.java"), "package pkg; public class Helper {}\n");
+        FileUtils.deleteDirectory(util);
+        FileUtils.write(util, "not a folder anymore\n");
+
+        Submitter secondSubmitter = new Submitter(url, "HomeWork04", "someStudent", "123456".toCharArray());
+        secondSubmitter.setWorkingCopyCache(cache);
+        SubmitResult result = assertDoesNotThrow(() -> secondSubmitter.submitFolder(submissionFolder));
+
+        assertAll(
+            () -> assertEquals(3, result.getCommitInfo().getNewRevision(), "revision should be correct"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/pkg/Helper.java",
+                    "package pkg; public class Helper {}\n"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/Util", "not a folder anymore\n")
+        );
+    }
+
+    @Test
+    @DisplayName("corrupt cached working copy is replaced by a fresh checkout")
+    public void commitWithCorruptCachedWorkingCopy() throws SubmitException, IOException, SVNException {
+        File svnFolder = createTemporaryDirectory();
+        setupSvnRepoForSubmission(svnFolder, "Homework04", "JP001");
+
+        File cacheFolder = createTemporaryDirectory();
+        WorkingCopyCache cache = new WorkingCopyCache(cacheFolder, 5, Long.MAX_VALUE);
+
+        File submissionFolder = createTemporaryDirectory();
+        File mainFile = new File(submissionFolder, "Main.java");
+        FileUtils.write(mainFile, "public class Main {}\n");
+
+        String url = "file:///" + svnFolder.getAbsolutePath() + "/Homework04/JP001";
+
+        Submitter submitter = new Submitter(url, "HomeWork04", "someStudent", "123456".toCharArray());
+        submitter.setWorkingCopyCache(cache);
+        submitter.submitFolder(submissionFolder);
+
+        File cachedCopy = cacheFolder.listFiles(File::isDirectory)[0];
+        FileUtils.deleteDirectory(new File(cachedCopy, ".svn"));
+        FileUtils.write(mainFile, "public class Main { }\n");
+
+        submitter = new Submitter(url, "HomeWork04", "someStudent", "123456".toCharArray());
+        submitter.setWorkingCopyCache(cache);
+        SubmitResult result = submitter.submitFolder(submissionFolder);
+
+        assertAll(
+            () -> assertEquals(3, result.getCommitInfo().getNewRevision(), "revision should be correct"),
+            () -> assertFileInRepository(svnFolder, "Homework04/JP001/Main.java", "public class Main { }\n")
+        );
+    }
+
     private void setupSvnRepoForSubmission(File svnFolder, String exercise, String group) throws SVNException {
         SVNURL svnUrl = SVNRepositoryFactory.createLocalRepository(svnFolder, true, false);
         SVNClientManager clientManager = SVNClientManager.newInstance();
@@ -0,0 +1,70 @@
+package de.uni_hildesheim.sse.submitter.svn;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tmatesoft.svn.util.ISVNDebugLog;
+import org.tmatesoft.svn.util.SVNDebugLog;
+import org.tmatesoft.svn.util.SVNLogType;
+
+public class SvnRequestProfilerTest {
+
+    @Test
+    @DisplayName("counts requests per method and the transferred bytes")
+    public void countRequests() {
+        SvnRequestProfiler.install();
+        ISVNDebugLog log = SVNDebugLog.getDefaultLog();
+        OutputStream out = log.createLogStream(SVNLogType.NETWORK, new ByteArrayOutputStream());
+
+        String propfind = "PROPFIND /svn/course/ HTTP/1.1\r\nHost: localhost\r\nContent-Length: 5\r\n\r\n<xml>";
+        String report = "REPORT /svn/course/!svn/me HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        String response = "HTTP/1.1 207 Multi-Status\r\nContent-Length: 0\r\n\r\n";
+
+        SvnRequestProfiler.Operation operation = SvnRequestProfiler.start("test");
+        assertDoesNotThrow(() -> {
+            for (String request : new String[] {propfind, propfind, report}) {
+                out.write(request.getBytes(StandardCharsets.US_ASCII));
+                log.flushStream(out);
+                InputStream in = log.createLogStream(SVNLogType.NETWORK,
+                        new ByteArrayInputStream(response.getBytes(StandardCharsets.US_ASCII)));
+                in.readAllBytes();
+            }
+        });
+        operation.close();
+
+        assertAll(
+            () -> assertEquals(3, operation.getRequests()),
+            () -> assertEquals(2, operation.getRequests("PROPFIND")),
+            () -> assertEquals(1, operation.getRequests("REPORT")),
+            () -> assertEquals(2 * propfind.length() + report.length(), operation.getSentBytes()),
+            () -> assertEquals(3 * response.length(), operation.getReceivedBytes()),
+            () -> assertTrue(operation.toString().startsWith("test: 3 requests (2 PROPFIND, 1 REPORT), "),
+                    operation.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("does not count requests outside of an operation")
+    public void outsideOperation() {
+        SvnRequestProfiler.install();
+        ISVNDebugLog log = SVNDebugLog.getDefaultLog();
+        OutputStream out = log.createLogStream(SVNLogType.NETWORK, new ByteArrayOutputStream());
+
+        assertDoesNotThrow(() -> out.write("OPTIONS / HTTP/1.1\r\n\r\n".getBytes(StandardCharsets.US_ASCII)));
+        SvnRequestProfiler.Operation operation = SvnRequestProfiler.start("test");
+        operation.close();
+
+        assertEquals(0, operation.getRequests());
+    }
+
+}
@@ -0,0 +1,90 @@
+package de.uni_hildesheim.sse.submitter.svn.hookErrors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.StringReader;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
+
+public class ErrorAggregatorTest {
+
+    @Test
+    @DisplayName("groups messages that only differ in their line")
+    public void groupByLine() {
+        ErrorGroup[] groups = ErrorAggregator.aggregate(new ErrorDescription[] {
+            create(Tool.CHECKSTYLE, "Main.java", 3, "Missing space"),
+            create(Tool.JAVAC, "Main.java", 4, "Doesn't compile"),
+            create(Tool.CHECKSTYLE, "Main.java", 7, "Missing space"),
+            create(Tool.CHECKSTYLE, "Main.java", -1, "Missing space"),
+        });
+        
+        assertAll(
+            () -> assertEquals(2, groups.length, "should create one group per message"),
+            () -> assertEquals(Tool.CHECKSTYLE, groups[0].getTool(), "should keep the order of the first messages"),
+            () -> assertEquals(3, groups[0].getCount(), "should count all messages of a group"),
+            () -> assertEquals(7, groups[0].getDescriptions().get(1).getLine(), "should keep the reported order"),
+            () -> assertEquals(1, groups[1].getCount(), "should not merge different messages")
+        );
+    }
+    
+    @Test
+    @DisplayName("keeps messages in different files apart")
+    public void separateFiles() {
+        ErrorGroup[] groups = ErrorAggregator.aggregate(new ErrorDescription[] {
+            create(Tool.CHECKSTYLE, "Main.java", 3, "Missing space"),
+            create(Tool.CHECKSTYLE, "Util.java", 3, "Missing space"),
+            create(Tool.CHECKSTYLE, null, -1, "Missing space"),
+            create(Tool.CHECKSTYLE, null, -1, "Missing space"),
+        });
+        
+        assertAll(
+            () -> assertEquals(3, groups.length, "should create one group per file"),
+            () -> assertEquals(2, groups[2].getCount(), "should group messages without file")
+        );
+    }
+    
+    @Test
+    @DisplayName("groups parsed messages that share identical message texts")
+    public void groupParsed() {
+        StringBuilder xml = new StringBuilder("<submitResults>\n");
+        for (int i = 1; i <= 100; i++) {
+            xml.append("<message tool=\"checkstyle\" type=\"warning\" file=\"Main.java\" line=\"").append(i)
+                    .append("\" message=\"Missing space\"/>\n");
+        }
+        xml.append("</submitResults>\n");
+        
+        ErrorAggregator aggregator = new ErrorAggregator();
+        assertDoesNotThrow(() -> ErrorParser.parse(new StringReader(xml.toString()), aggregator));
+        
+        ErrorGroup[] groups = aggregator.getGroups();
+        assertAll(
+            () -> assertEquals(1, groups.length, "should group all messages"),
+            () -> assertEquals(100, groups[0].getCount(), "should keep all messages"),
+            () -> assertSame(groups[0].getDescriptions().get(0).getMessage(),
+                    groups[0].getDescriptions().get(99).getMessage(), "should translate the message only once")
+        );
+    }
+    
+    private static ErrorDescription create(Tool tool, String file, int line, String message) {
+        ErrorDescription result = new ErrorDescription();
+        result.setTool(tool);
+        result.setSeverity(Severity.WARNING);
+        result.setFile(file);
+        result.setLine(line);
+        result.setMessage(message);
+        return result;
+    }
+    
+    @BeforeAll
+    public static void initToolSettings() {
+        assertDoesNotThrow(() -> ToolSettings.INSTANCE.init());
+    }
+    
+}
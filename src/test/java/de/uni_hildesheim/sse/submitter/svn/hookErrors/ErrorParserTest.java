@@ -1,10 +1,15 @@
 package de.uni_hildesheim.sse.submitter.svn.hookErrors;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -209,6 +214,39 @@ public class ErrorParserTest {
                 "should return correct error descriptions");
     }
     
+    @Test
+    @DisplayName("streams each message of a large input to the consumer")
+    public void streamLargeInput() {
+        StringBuilder xml = new StringBuilder("<submitResults>\n");
+        for (int i = 1; i <= 5000; i++) {
+            xml.append("    <message tool=\"checkstyle\" type=\"warning\" file=\"File.java\" line=\"")
+                .append(i).append("\" message=\"Missing space\">\n")
+                .append("        <example position=\"3\">int a=1;</example>\n")
+                .append("    </message>\n");
+        }
+        xml.append("</submitResults>\n");
+        
+        List<ErrorDescription> errors = new ArrayList<>();
+        assertDoesNotThrow(() -> ErrorParser.parse(new StringReader(xml.toString()), errors::add));
+        
+        assertAll(
+            () -> assertEquals(5000, errors.size(), "should pass every message to the consumer"),
+            () -> assertEquals(1, errors.get(0).getLine(), "should keep document order"),
+            () -> assertEquals(5000, errors.get(4999).getLine(), "should keep document order")
+        );
+    }
+    
+    @Test
+    @DisplayName("streaming parser throws if the XML is cut off")
+    public void streamTruncatedInput() {
+        String xml = "<submitResults>\n"
+                + "    <message tool=\"javac\" type=\"error\" message=\"Doesn't compile\"/>\n";
+        
+        assertThrows(InvalidErrorMessagesException.class,
+            () -> ErrorParser.parse(new StringReader(xml), (error) -> { })
+        );
+    }
+    
     @BeforeAll
     public static void initToolSettings() {
         assertDoesNotThrow(() -> ToolSettings.INSTANCE.init());
@@ -0,0 +1,54 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.util.Map;
+
+import javax.swing.JButton;
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EdtWatchdogTest {
+
+    @Test
+    @DisplayName("counts dispatches longer than the threshold")
+    public void countStalls() {
+        EdtWatchdog watchdog = EdtWatchdog.install(100);
+        try {
+            assertDoesNotThrow(() -> SwingUtilities.invokeAndWait(() -> { }));
+            assertDoesNotThrow(() -> SwingUtilities.invokeAndWait(() -> {
+                assertDoesNotThrow(() -> Thread.sleep(300));
+            }));
+            assertDoesNotThrow(() -> SwingUtilities.invokeAndWait(() -> {
+                assertDoesNotThrow(() -> Thread.sleep(300));
+            }));
+            // the waiting thread is woken up before the dispatch ends
+            assertDoesNotThrow(() -> SwingUtilities.invokeAndWait(() -> { }));
+        } finally {
+            watchdog.uninstall();
+        }
+
+        assertEquals(Map.of("InvocationEvent", 2L), watchdog.getStallCounts());
+    }
+
+    @Test
+    @DisplayName("names stalls of buttons by their action command")
+    public void describeButtons() {
+        JButton button = new JButton("Abgeben");
+        button.setActionCommand(ButtonListener.ACTION_SUBMIT);
+
+        assertAll(
+            () -> assertEquals(ButtonListener.ACTION_SUBMIT, EdtWatchdog.describe(
+                    new KeyEvent(button, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_SPACE, ' '))),
+            () -> assertEquals("ActionEvent", EdtWatchdog.describe(
+                    new ActionEvent(new Object(), ActionEvent.ACTION_PERFORMED, "Submit")))
+        );
+    }
+
+}
@@ -0,0 +1,72 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LogBufferTest {
+
+    @Test
+    @DisplayName("evicts the oldest lines if the line limit is exceeded")
+    public void evictLines() {
+        LogBuffer buffer = new LogBuffer(3, Long.MAX_VALUE);
+        int evicted = 0;
+        for (int i = 0; i < 5; i++) {
+            evicted += buffer.add("line " + i + "\n");
+        }
+        int totalEvicted = evicted;
+
+        assertAll(
+            () -> assertEquals(3, buffer.getLineCount(), "should keep the newest lines"),
+            () -> assertEquals(3 * 7, buffer.getCharCount(), "should count the kept characters"),
+            () -> assertEquals(2 * 7, totalEvicted, "should report the characters of the evicted lines")
+        );
+    }
+
+    @Test
+    @DisplayName("evicts whole lines if the size limit is exceeded")
+    public void evictWholeLines() {
+        LogBuffer buffer = new LogBuffer(Integer.MAX_VALUE, 20);
+        buffer.add("Error: ");
+        buffer.add("message\n");
+        int evicted = buffer.add("next line\n");
+
+        assertAll(
+            () -> assertEquals(15, evicted, "should evict all fragments of the first line"),
+            () -> assertEquals(10, buffer.getCharCount(), "should keep only the last line"),
+            () -> assertEquals(1, buffer.getLineCount(), "should keep only the last line")
+        );
+    }
+
+    @Test
+    @DisplayName("keeps the newest fragment even if it exceeds the limits")
+    public void keepNewest() {
+        LogBuffer buffer = new LogBuffer(1, 4);
+        buffer.add("a\n");
+        int evicted = buffer.add("a very long line\nwith two breaks\n");
+
+        assertAll(
+            () -> assertEquals(2, evicted, "should evict the older fragment"),
+            () -> assertEquals(33, buffer.getCharCount(), "should keep the newest fragment"),
+            () -> assertTrue(buffer.getMemoryUsage() >= 2 * 33, "should estimate two bytes per character")
+        );
+    }
+
+    @Test
+    @DisplayName("clear removes everything")
+    public void clear() {
+        LogBuffer buffer = new LogBuffer(10, 100);
+        buffer.add("text\n");
+        buffer.clear();
+
+        assertAll(
+            () -> assertEquals(0, buffer.getLineCount()),
+            () -> assertEquals(0, buffer.getCharCount()),
+            () -> assertEquals(0, buffer.getMemoryUsage())
+        );
+    }
+
+}
@@ -0,0 +1,172 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.settings.SubmissionConfiguration;
+import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
+import de.uni_hildesheim.sse.submitter.svn.ErrorType;
+import de.uni_hildesheim.sse.submitter.svn.ISubmissionOutputHandler;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+import net.ssehub.exercisesubmitter.protocol.backend.NetworkException;
+import net.ssehub.exercisesubmitter.protocol.backend.ServerNotFoundException;
+import net.ssehub.exercisesubmitter.protocol.frontend.Assignment;
+import net.ssehub.exercisesubmitter.protocol.frontend.Assignment.State;
+import net.ssehub.exercisesubmitter.protocol.frontend.SubmissionTarget;
+import net.ssehub.exercisesubmitter.protocol.frontend.SubmitterProtocol;
+
+public class StandaloneSubmitterTest implements ISubmissionOutputHandler {
+
+    private List<String> messages = new ArrayList<>();
+
+    private Set<File> temporaryDirectories = new HashSet<>();
+
+    private StandaloneSubmitter model;
+
+    @Test
+    @DisplayName("fails the asynchronous query of open assignments instead of returning null")
+    public void openAssignmentsAsync() {
+        createModel();
+
+        CompletionException exception = assertThrows(CompletionException.class,
+            () -> model.openAssignmentsAsync().join());
+
+        assertAll(
+            () -> assertTrue(exception.getCause() instanceof NetworkException),
+            () -> assertEquals(0, messages.size(), "should not notify the output handler"),
+            () -> assertNull(model.getOpenAssignmentsAsync().join()),
+            () -> assertEquals(1, messages.size(), "query for the user interface should show the error")
+        );
+    }
+
+    @Test
+    @DisplayName("reports an unreachable management system as login error")
+    public void loginAsyncManagementUnreachable() {
+        createModel();
+
+        String errorMessage = model.loginAsync().join();
+
+        assertAll(
+            () -> assertEquals(I18nProvider.getText("gui.error.system_unreachable"), errorMessage),
+            () -> assertFalse(model.isLoggedIn())
+        );
+    }
+
+    @Test
+    @DisplayName("reports a failed submission in its result")
+    public void submitAsync() {
+        createModel();
+        Assignment exercise = new Assignment("Homework01", "id", State.SUBMISSION, false, 10);
+
+        SubmissionReport report = model.submitAsync(exercise, createTemporaryDirectory()).join();
+
+        assertAll(
+            () -> assertEquals(ErrorType.COULD_NOT_QUERY_MANAGEMENT_SYSTEM, report.getErrorType()),
+            () -> assertFalse(report.isAccepted()),
+            () -> assertEquals(-1, report.getRevision()),
+            () -> assertEquals(exercise, report.getExercise()),
+            () -> assertEquals(0, messages.size(), "should not notify the output handler")
+        );
+    }
+
+    private void createModel() {
+        model = new StandaloneSubmitter(new SubmissionConfiguration("student1", "pw".toCharArray(), null),
+                new UnreachableProtocol());
+        model.setOutputHandler(this);
+    }
+
+    private File createTemporaryDirectory() {
+        return assertDoesNotThrow(() -> {
+
+            File tempfile = File.createTempFile("StandaloneSubmitterTest", null);
+            tempfile.delete();
+
+            File tempdir = tempfile;
+            tempdir.mkdir();
+
+            assertTrue(tempdir.isDirectory(), "Precondition: temporary directory is created");
+
+            temporaryDirectories.add(tempdir);
+
+            return tempdir;
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (model != null) {
+            model.shutdown();
+        }
+        for (File directory : temporaryDirectories) {
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @BeforeAll
+    public static void initToolSettings() {
+        assertDoesNotThrow(() -> ToolSettings.INSTANCE.init());
+    }
+
+    @Override
+    public void showInfoMessage(String message) {
+        messages.add(message);
+    }
+
+    @Override
+    public void showErrorMessage(String message) {
+        messages.add(message);
+    }
+
+    @Override
+    public void showInfoMessage(String message, ErrorDescription[] descriptions) {
+        messages.add(message);
+    }
+
+    private static class UnreachableProtocol extends SubmitterProtocol {
+
+        public UnreachableProtocol() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public boolean login(String username, String password) throws ServerNotFoundException {
+            throw new ServerNotFoundException("", "");
+        }
+
+        @Override
+        public List<Assignment> getOpenAssignments() throws NetworkException {
+            throw new ServerNotFoundException("", "");
+        }
+
+        @Override
+        public SubmissionTarget getPathToSubmission(Assignment assignment) throws NetworkException {
+            throw new ServerNotFoundException("", "");
+        }
+
+    }
+
+}
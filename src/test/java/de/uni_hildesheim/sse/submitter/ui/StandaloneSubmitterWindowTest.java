@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import java.io.File;
 import java.io.IOException;
 
+import org.assertj.swing.data.TableCell;
 import org.assertj.swing.edt.GuiActionRunner;
 import org.assertj.swing.fixture.FrameFixture;
 import org.junit.jupiter.api.AfterEach;
@@ -17,6 +18,9 @@ import org.junit.jupiter.api.condition.DisabledIf;
 import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
 import de.uni_hildesheim.sse.submitter.settings.SubmissionConfiguration;
 import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Severity;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.Tool;
 import net.ssehub.exercisesubmitter.protocol.backend.ServerNotFoundException;
 import net.ssehub.exercisesubmitter.protocol.backend.UnknownCredentialsException;
 import net.ssehub.exercisesubmitter.protocol.frontend.SubmitterProtocol;
@@ -85,6 +89,29 @@ public class StandaloneSubmitterWindowTest {
         assertEquals(I18nProvider.getText("gui.elements.review"), reviewBtn.text());
     }
     
+    @Test
+    @DisplayName("shows reported errors in the result table")
+    public void testResultTable() {
+        ErrorDescription error = new ErrorDescription();
+        error.setTool(Tool.JAVAC);
+        error.setSeverity(Severity.ERROR);
+        error.setFile("Main.java");
+        error.setLine(3);
+        error.setMessage("Doesn't compile");
+        ErrorDescription warning = new ErrorDescription();
+        warning.setTool(Tool.CHECKSTYLE);
+        warning.setSeverity(Severity.WARNING);
+        warning.setMessage("Missing space");
+        
+        ((StandaloneSubmitterWindow) fixture.target()).showInfoMessage("Errors found",
+                new ErrorDescription[] {error, warning});
+        fixture.robot().waitForIdle();
+        
+        var table = fixture.table("resultTable");
+        table.requireRowCount(2);
+        assertEquals(I18nProvider.getText("gui.tool.javac"), table.valueAt(TableCell.row(0).column(0)));
+    }
+    
     @BeforeEach
     public void createDialogFixture() {
         this.model = new StandaloneSubmitter(new TestConfiguration(), new TestProtocol());
@@ -0,0 +1,91 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TaskExecutorTest {
+
+    private TaskExecutor executor = new TaskExecutor("Test", 1, 1);
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("passes results and exceptions of tasks")
+    public void results() {
+        CompletableFuture<String> result = executor.supply("result", () -> Thread.currentThread().getName());
+        CompletableFuture<String> failure = executor.supply("failure", () -> {
+            throw new IOException("unreadable");
+        });
+
+        assertAll(
+            () -> assertEquals("Test-1 (result)", result.join()),
+            () -> assertTrue(assertThrows(CompletionException.class, failure::join).getCause() instanceof IOException)
+        );
+    }
+
+    @Test
+    @DisplayName("interrupts cancelled tasks")
+    public void cancel() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<Void> task = executor.run("sleep", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS), "Precondition: task should start");
+
+        task.cancel(true);
+
+        assertAll(
+            () -> assertTrue(interrupted.await(5, TimeUnit.SECONDS), "task should be interrupted"),
+            () -> assertThrows(CancellationException.class, task::join),
+            () -> assertEquals("next", executor.supply("next", () -> "next").join())
+        );
+    }
+
+    @Test
+    @DisplayName("rejects tasks when the queue is full")
+    public void bounded() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = executor.run("running", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<String> waiting = executor.supply("waiting", () -> "waiting");
+        CompletableFuture<String> rejected = executor.supply("rejected", () -> "rejected");
+
+        release.countDown();
+
+        assertAll(
+            () -> assertEquals(null, running.join()),
+            () -> assertEquals("waiting", waiting.join()),
+            () -> assertTrue(assertThrows(CompletionException.class, rejected::join).getCause()
+                    instanceof RejectedExecutionException)
+        );
+    }
+
+}
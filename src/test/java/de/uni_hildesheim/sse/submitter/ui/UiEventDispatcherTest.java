@@ -0,0 +1,129 @@
+package de.uni_hildesheim.sse.submitter.ui;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.uni_hildesheim.sse.submitter.i18n.I18nProvider;
+import de.uni_hildesheim.sse.submitter.settings.ToolSettings;
+import de.uni_hildesheim.sse.submitter.svn.hookErrors.ErrorDescription;
+
+public class UiEventDispatcherTest implements UiEventDispatcher.Target {
+
+    private List<String> calls = new ArrayList<>();
+
+    @Test
+    @DisplayName("merges consecutive log messages into a single append")
+    public void mergeLogMessages() {
+        UiEventDispatcher dispatcher = new UiEventDispatcher(this);
+        Thread worker = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                dispatcher.showInfoMessage("line " + i);
+            }
+        });
+
+        assertDoesNotThrow(() -> SwingUtilities.invokeAndWait(() -> {
+            // the event dispatch thread is blocked until all messages are queued
+            worker.start();
+            assertDoesNotThrow(() -> worker.join());
+        }));
+        waitForDrain();
+
+        assertAll(
+            () -> assertEquals(1, calls.size(), "should append all messages at once"),
+            () -> assertEquals(100, calls.get(0).split("\n").length, "should contain all messages")
+        );
+    }
+
+    @Test
+    @DisplayName("keeps the order of differently styled messages and results")
+    public void keepOrder() {
+        UiEventDispatcher dispatcher = new UiEventDispatcher(this);
+        assertDoesNotThrow(() -> SwingUtilities.invokeAndWait(() -> {
+            dispatcher.showInfoMessage("first");
+            dispatcher.showInfoMessage("second");
+            dispatcher.showErrorMessage("failed");
+            dispatcher.showInfoMessage("Errors found", new ErrorDescription[] {new ErrorDescription()});
+            dispatcher.showInfoMessage("No errors", new ErrorDescription[0]);
+        }));
+        waitForDrain();
+
+        String errorColor = ToolSettings.getConfig().getColorSettings().getErrorColor();
+        assertEquals(Arrays.asList(
+                "log [] first\nsecond\n",
+                "log [" + errorColor + "] " + I18nProvider.getText("errors.messages.error") + ": failed",
+                "log [] Errors found\n",
+                "results 1",
+                "log [] No errors\n"
+            ), calls, "should merge only consecutive messages with the same style");
+    }
+
+    @Test
+    @DisplayName("only shows the latest submission directory")
+    public void latestDirectory() {
+        UiEventDispatcher dispatcher = new UiEventDispatcher(this);
+        assertDoesNotThrow(() -> SwingUtilities.invokeAndWait(() -> {
+            dispatcher.onSubmissionDirectoryChanged(new File("a"));
+            dispatcher.onSubmissionDirectoryChanged(new File("ab"));
+            dispatcher.onSubmissionDirectoryChanged(new File("abc"));
+        }));
+        waitForDrain();
+
+        assertEquals(Arrays.asList("directory abc"), calls);
+    }
+
+    @Test
+    @DisplayName("clears only the messages queued before")
+    public void clearQueued() {
+        UiEventDispatcher dispatcher = new UiEventDispatcher(this);
+        assertDoesNotThrow(() -> SwingUtilities.invokeAndWait(() -> {
+            dispatcher.showInfoMessage("old");
+            dispatcher.clearLog();
+            dispatcher.showInfoMessage("new");
+        }));
+        waitForDrain();
+
+        assertEquals(Arrays.asList("clear", "log [] new\n"), calls);
+    }
+
+    @Override
+    public void appendLog(String text, String color, boolean bold) {
+        calls.add("log [" + color + "] " + text);
+    }
+
+    @Override
+    public void showResults(ErrorDescription[] descriptions) {
+        calls.add("results " + descriptions.length);
+    }
+
+    @Override
+    public void showSubmissionDirectory(File newFolder) {
+        calls.add("directory " + newFolder.getName());
+    }
+
+    @Override
+    public void clearLog() {
+        calls.add("clear");
+    }
+
+    private static void waitForDrain() {
+        assertDoesNotThrow(() -> SwingUtilities.invokeAndWait(() -> { }));
+    }
+
+    @BeforeAll
+    public static void initToolSettings() {
+        assertDoesNotThrow(() -> ToolSettings.INSTANCE.init());
+    }
+
+}